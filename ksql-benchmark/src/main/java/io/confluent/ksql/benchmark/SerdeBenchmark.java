@@ -26,6 +26,7 @@ import io.confluent.ksql.datagen.RowGenerator;
 import io.confluent.ksql.datagen.SessionManager;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.serde.avro.KsqlAvroTopicSerDe;
+import io.confluent.ksql.serde.delimited.KsqlDelimitedTopicSerDe;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.Pair;
@@ -33,8 +34,10 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.apache.avro.Schema;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -118,34 +121,46 @@ public class SerdeBenchmark {
     GenericRow row;
     byte[] bytes;
 
-    @Param({"JSON", "Avro"})
+    @Param({"JSON", "JSON_STREAMING", "Avro", "DELIMITED"})
     public String serializationFormat;
 
     @Setup(Level.Iteration)
     public void setUp(final SchemaAndGenericRowState rowState) {
       final Serde<GenericRow> serde;
+      row = rowState.row;
       switch (serializationFormat) {
         case "JSON":
-          serde = getJsonSerde(rowState.schema);
+          serde = getJsonSerde(rowState.schema, false);
+          break;
+        case "JSON_STREAMING":
+          serde = getJsonSerde(rowState.schema, true);
           break;
         case "Avro":
           serde = getAvroSerde(rowState.schema);
           break;
+        case "DELIMITED":
+          // DELIMITED only supports primitive columns, so nested columns are dropped:
+          final List<Integer> primitiveColumns = getPrimitiveColumns(rowState.schema);
+          serde = getDelimitedSerde(selectColumns(rowState.schema, primitiveColumns));
+          row = new GenericRow(primitiveColumns.stream()
+              .map(rowState.row.getColumns()::get)
+              .collect(Collectors.toList()));
+          break;
         default:
           throw new RuntimeException("Invalid format: " + serializationFormat);
       }
       serializer = serde.serializer();
       deserializer = serde.deserializer();
-      row = rowState.row;
       bytes = serializer.serialize(TOPIC_NAME, row);
     }
 
     private static Serde<GenericRow> getJsonSerde(
-        final org.apache.kafka.connect.data.Schema schema) {
-      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema).serializer();
+        final org.apache.kafka.connect.data.Schema schema,
+        final boolean streaming) {
+      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema, streaming).serializer();
       // KsqlJsonDeserializer requires schema field names to be uppercase
       final Deserializer<GenericRow> deserializer =
-          getJsonSerdeHelper(convertFieldNamesToUppercase(schema)).deserializer();
+          getJsonSerdeHelper(convertFieldNamesToUppercase(schema), streaming).deserializer();
       return Serdes.serdeFrom(serializer, deserializer);
     }
 
@@ -159,8 +174,40 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerdeHelper(
-        final org.apache.kafka.connect.data.Schema schema) {
+        final org.apache.kafka.connect.data.Schema schema,
+        final boolean streaming) {
       return new KsqlJsonTopicSerDe().getGenericRowSerde(
+          schema,
+          new KsqlConfig(Collections.singletonMap(
+              KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLED, streaming)),
+          false,
+          () -> null,
+          "benchmark",
+          ProcessingLogContext.create());
+    }
+
+    private static List<Integer> getPrimitiveColumns(
+        final org.apache.kafka.connect.data.Schema schema) {
+      return schema.fields().stream()
+          .filter(field -> field.schema().type().isPrimitive())
+          .map(Field::index)
+          .collect(Collectors.toList());
+    }
+
+    private static org.apache.kafka.connect.data.Schema selectColumns(
+        final org.apache.kafka.connect.data.Schema schema,
+        final List<Integer> columns) {
+      SchemaBuilder builder = SchemaBuilder.struct();
+      for (final int column : columns) {
+        final Field field = schema.fields().get(column);
+        builder = builder.field(field.name(), field.schema());
+      }
+      return builder.build();
+    }
+
+    private static Serde<GenericRow> getDelimitedSerde(
+        final org.apache.kafka.connect.data.Schema schema) {
+      return new KsqlDelimitedTopicSerDe().getGenericRowSerde(
           schema,
           new KsqlConfig(Collections.emptyMap()),
           false,
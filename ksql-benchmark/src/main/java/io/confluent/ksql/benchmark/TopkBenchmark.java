@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Runs JMH microbenchmarks against the TOPK and TOPKDISTINCT aggregate functions.
+ *  See `ksql-benchmark/README.md` for more info, including how to run the benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(3)
+public class TopkBenchmark {
+
+  private static final int NUM_VALUES = 1 << 16;
+
+  @State(Scope.Thread)
+  public static class TopkState {
+    KsqlAggregateFunction<Long, List<Long>> function;
+    List<Long> aggregate;
+    long[] values;
+    int next;
+
+    @Param({"10", "100", "1000"})
+    public int topK;
+
+    @Param({"TOPK", "TOPKDISTINCT"})
+    public String functionName;
+
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Iteration)
+    public void setUp() {
+      function = (KsqlAggregateFunction<Long, List<Long>>) new InternalFunctionRegistry()
+          .getAggregate(functionName, Schema.OPTIONAL_INT64_SCHEMA)
+          .getInstance(new AggregateFunctionArguments(
+              0, Arrays.asList("COL0", String.valueOf(topK))));
+
+      // Values are drawn from the same range as the aggregate, so most are accepted into it,
+      // at a random position:
+      final Random random = new Random();
+      aggregate = random.longs(topK, 0, Long.MAX_VALUE)
+          .boxed()
+          .sorted(Comparator.reverseOrder())
+          .collect(Collectors.toList());
+      values = random.longs(NUM_VALUES, 0, Long.MAX_VALUE).toArray();
+    }
+
+    Long nextValue() {
+      return values[next++ & (NUM_VALUES - 1)];
+    }
+  }
+
+  /**
+   * Aggregates a single value into a copy of a full aggregate, as happens for each record, where
+   * the aggregate is read from the state store.
+   */
+  @Benchmark
+  public List<Long> aggregate(final TopkState state) {
+    return state.function.aggregate(state.nextValue(), new ArrayList<>(state.aggregate));
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(TopkBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -597,6 +597,14 @@ public class Console implements Closeable {
 
     writer().printf(baseFormat, "Type", describeFunction.getType().name());
     writer().printf(baseFormat, "Jar", describeFunction.getPath());
+    describeFunction.getLatency().ifPresent(latency -> {
+      final StringBuilder stats = new StringBuilder()
+          .append(String.format("avg %.0f, max %.0f", latency.getAverageNs(), latency.getMaxNs()));
+      latency.getPercentilesNs().forEach(
+          (percentile, value) -> stats.append(String.format(", %s %.0f", percentile, value)));
+      writer().printf(baseFormat, "Invocations", latency.getInvocations());
+      writer().printf(baseFormat, "Latency (ns)", stats);
+    });
     writer().printf(baseFormat, "Variations", "");
     final Collection<FunctionInfo> functions = describeFunction.getFunctions();
     functions.forEach(functionInfo -> {
@@ -26,6 +26,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.FakeException;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.TestTerminal;
@@ -39,6 +40,7 @@ import io.confluent.ksql.rest.entity.ExecutionPlan;
 import io.confluent.ksql.rest.entity.FieldInfo;
 import io.confluent.ksql.rest.entity.FunctionDescriptionList;
 import io.confluent.ksql.rest.entity.FunctionInfo;
+import io.confluent.ksql.rest.entity.FunctionLatencyInfo;
 import io.confluent.ksql.rest.entity.FunctionType;
 import io.confluent.ksql.rest.entity.KafkaTopicInfo;
 import io.confluent.ksql.rest.entity.KafkaTopicsList;
@@ -256,6 +258,40 @@ public class ConsoleTest {
     }
   }
 
+  @Test
+  public void shouldPrintFunctionLatency() throws IOException {
+    // Given:
+    final KsqlEntityList entityList = new KsqlEntityList(ImmutableList.of(
+        new FunctionDescriptionList(
+            "DESCRIBE FUNCTION foo;",
+            "FOO",
+            "Description",
+            "Andy",
+            "v1.1.0",
+            "some.jar",
+            ImmutableList.of(new FunctionInfo(ImmutableList.of(), "LONG", "")),
+            FunctionType.scalar,
+            new FunctionLatencyInfo(1000, 812.4, 40213, ImmutableMap.of(
+                "p50", 640.0,
+                "p95", 1920.0,
+                "p99", 8192.0)))));
+
+    // When:
+    console.printKsqlEntityList(entityList);
+
+    // Then:
+    final String output = terminal.getOutputString();
+    if (console.getOutputFormat() == OutputFormat.JSON) {
+      assertThat(output, containsString("\"invocations\" : 1000"));
+    } else {
+      assertThat(output, containsString(""
+          + "Jar         : some.jar\n"
+          + "Invocations : 1000\n"
+          + "Latency (ns): avg 812, max 40213, p50 640, p95 1920, p99 8192\n"
+          + "Variations  : \n"));
+    }
+  }
+
   @Test
   public void shouldExecuteCliCommands() {
     // Given:
@@ -20,6 +20,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * A row of column values.
+ *
+ * <p>Rows built from an array, or with {@link #withArity(int)}, have a fixed number of columns:
+ * their columns can be set but not added or removed. Operators that know the number of columns
+ * of their output should build such rows, rather than growing a list column by column.
+ */
 public class GenericRow {
 
   private final List<Object> columns;
@@ -33,10 +40,22 @@ public class GenericRow {
     this.columns = columns;
   }
 
+  /**
+   * Creates a fixed-arity row backed by the supplied array.
+   *
+   * <p>The array is not copied: the caller must not change it once the row is built.
+   */
   public GenericRow(final Object ...columns) {
     this(Arrays.asList(columns));
   }
 
+  /**
+   * @return a fixed-arity row with {@code arity} columns, all {@code null}.
+   */
+  public static GenericRow withArity(final int arity) {
+    return new GenericRow(new Object[arity]);
+  }
+
   @Override
   public String toString() {
     final StringBuilder stringBuilder = new StringBuilder("[ ");
@@ -94,4 +113,50 @@ public class GenericRow {
   public <T> T getColumnValue(final int columnIndex) {
     return (T) columns.get(columnIndex);
   }
+
+  public int size() {
+    return columns.size();
+  }
+
+  public Object get(final int columnIndex) {
+    return columns.get(columnIndex);
+  }
+
+  public void set(final int columnIndex, final Object value) {
+    columns.set(columnIndex, value);
+  }
+
+  public String getString(final int columnIndex) {
+    return (String) columns.get(columnIndex);
+  }
+
+  public Integer getInteger(final int columnIndex) {
+    return (Integer) columns.get(columnIndex);
+  }
+
+  public Long getLong(final int columnIndex) {
+    return (Long) columns.get(columnIndex);
+  }
+
+  public Double getDouble(final int columnIndex) {
+    return (Double) columns.get(columnIndex);
+  }
+
+  public Boolean getBoolean(final int columnIndex) {
+    return (Boolean) columns.get(columnIndex);
+  }
+
+  /**
+   * @return a fixed-arity row holding {@code first} and {@code second}, followed by the columns
+   *     of this row.
+   */
+  public GenericRow prepend(final Object first, final Object second) {
+    final Object[] values = new Object[columns.size() + 2];
+    values[0] = first;
+    values[1] = second;
+    for (int i = 0; i < columns.size(); i++) {
+      values[i + 2] = columns.get(i);
+    }
+    return new GenericRow(values);
+  }
 }
@@ -33,6 +33,22 @@ public interface KsqlAggregateFunction<V, A> {
 
   Schema getReturnType();
 
+  /**
+   * @return the type of the intermediate aggregate held in the state store, which for most
+   *     functions is also the return type.
+   */
+  default Schema getAggregateType() {
+    return getReturnType();
+  }
+
+  /**
+   * Converts the intermediate aggregate into the value of the function. Only called for
+   * functions whose aggregate type differs from their return type.
+   */
+  default Object getResult(final A aggregateValue) {
+    return aggregateValue;
+  }
+
   boolean hasSameArgTypes(List<Schema> argTypeList);
 
   /**
@@ -19,8 +19,10 @@ import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
@@ -38,6 +40,7 @@ public final class KsqlFunction {
   private final Function<KsqlConfig, Kudf> udfFactory;
   private final String description;
   private final String pathLoadedFrom;
+  private final Method udfMethod;
 
   /**
    * Create built in / legacy function.
@@ -74,9 +77,31 @@ public final class KsqlFunction {
       final Function<KsqlConfig, Kudf> udfFactory,
       final String description,
       final String pathLoadedFrom
+  ) {
+    return create(
+        returnType, arguments, functionName, kudfClass, udfFactory, description, pathLoadedFrom,
+        null);
+  }
+
+  /**
+   * Create udf.
+   *
+   * @param udfMethod the annotated method the function's {@link Kudf} invokes, if generated code
+   *     may call it directly, or {@code null}.
+   */
+  static KsqlFunction create(
+      final Schema returnType,
+      final List<Schema> arguments,
+      final String functionName,
+      final Class<? extends Kudf> kudfClass,
+      final Function<KsqlConfig, Kudf> udfFactory,
+      final String description,
+      final String pathLoadedFrom,
+      final Method udfMethod
   ) {
     return new KsqlFunction(
-        returnType, arguments, functionName, kudfClass, udfFactory, description, pathLoadedFrom);
+        returnType, arguments, functionName, kudfClass, udfFactory, description, pathLoadedFrom,
+        udfMethod);
   }
 
   private KsqlFunction(
@@ -86,7 +111,8 @@ public final class KsqlFunction {
       final Class<? extends Kudf> kudfClass,
       final Function<KsqlConfig, Kudf> udfFactory,
       final String description,
-      final String pathLoadedFrom
+      final String pathLoadedFrom,
+      final Method udfMethod
   ) {
     this.returnType = Objects.requireNonNull(returnType, "returnType");
     this.arguments = ImmutableList.copyOf(Objects.requireNonNull(arguments, "arguments"));
@@ -95,6 +121,7 @@ public final class KsqlFunction {
     this.udfFactory = Objects.requireNonNull(udfFactory, "udfFactory");
     this.description = Objects.requireNonNull(description, "description");
     this.pathLoadedFrom  = Objects.requireNonNull(pathLoadedFrom, "pathLoadedFrom");
+    this.udfMethod = udfMethod;
 
     if (arguments.stream().anyMatch(Objects::isNull)) {
       throw new IllegalArgumentException("KSQL Function can't have null argument types");
@@ -125,6 +152,14 @@ public final class KsqlFunction {
     return pathLoadedFrom;
   }
 
+  /**
+   * @return the annotated method the function's {@link Kudf} invokes, if generated code may call
+   *     it directly rather than through {@link Kudf#evaluate}.
+   */
+  public Optional<Method> getUdfMethod() {
+    return Optional.ofNullable(udfMethod);
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -0,0 +1,308 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import io.confluent.common.logging.StructuredLogger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs processing log messages on a background thread.
+ *
+ * <p>Messages are queued without blocking: if the queue is full the message is dropped and
+ * counted instead. Once an error has been logged, repeats of it within the aggregation window
+ * are only counted, and logged as a single summary message when the window ends. Repeats dropped
+ * by a logger's rate limit are counted in the summary too.
+ */
+final class AsyncProcessingLogWriter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncProcessingLogWriter.class);
+
+  private static final long POLL_TIMEOUT_MS = 100;
+
+  // The name of the error message field of every message type:
+  private static final String ERROR_MESSAGE =
+      ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE;
+
+  private final BlockingQueue<Entry> queue;
+  private final long aggregationWindowMs;
+  private final Time time;
+  private final AtomicLong dropped = new AtomicLong();
+  private final Map<List<Object>, Aggregate> aggregates = new HashMap<>();
+  private final ConcurrentMap<List<Object>, Long> limited = new ConcurrentHashMap<>();
+  private final ProcessingLogConfig rowlessConfig;
+  private volatile boolean closed;
+  private Thread thread;
+
+  AsyncProcessingLogWriter(final ProcessingLogConfig config, final Time time) {
+    this.time = Objects.requireNonNull(time, "time can't be null");
+    this.queue = new ArrayBlockingQueue<>(config.getInt(ProcessingLogConfig.ASYNC_QUEUE_CAPACITY));
+    this.aggregationWindowMs = config.getLong(ProcessingLogConfig.ASYNC_AGGREGATION_WINDOW_MS);
+
+    final Map<String, Object> rowlessProps = new HashMap<>(config.originals());
+    rowlessProps.put(ProcessingLogConfig.INCLUDE_ROWS, false);
+    this.rowlessConfig = new ProcessingLogConfig(rowlessProps);
+  }
+
+  synchronized void start() {
+    thread = new Thread(this::run, "ksql-processing-log-writer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stops the writer thread, then writes all queued messages and the summaries of all
+   * aggregation windows, ended or not. Messages submitted after the writer is closed are dropped.
+   */
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (thread != null) {
+      try {
+        thread.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        LOG.warn("Interrupted while waiting for the processing log writer to stop");
+        return;
+      }
+    }
+    drain();
+    aggregates.values().forEach(aggregate -> aggregate.logSummary(aggregationWindowMs));
+    aggregates.clear();
+  }
+
+  /**
+   * Queue a message to be logged, or drop it if the queue is full or the writer is closed. Never
+   * blocks. The message must already be built, as the rows it was built from may change once the
+   * caller returns.
+   */
+  void submit(
+      final String loggerName,
+      final StructuredLogger logger,
+      final SchemaAndValue msg
+  ) {
+    if (closed || !queue.offer(new Entry(loggerName, logger, msg))) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Count a message dropped by a logger's rate limit. If the same error has been logged within
+   * the aggregation window, the message is also counted as a repeat in its summary. Never
+   * blocks.
+   */
+  void recordLimited(
+      final String loggerName,
+      final Function<ProcessingLogConfig, SchemaAndValue> msgFactory
+  ) {
+    dropped.incrementAndGet();
+    if (aggregationWindowMs == 0 || closed) {
+      return;
+    }
+
+    // Only the error is needed, so leave out the row, which is the costly part of the message:
+    final SchemaAndValue msg =
+        new ProcessingLoggerImpl.ProcessingLogMessage(rowlessConfig, msgFactory).get();
+    final List<Object> key = aggregationKey(loggerName, msg);
+    if (key != null) {
+      limited.merge(key, 1L, Long::sum);
+    }
+  }
+
+  /**
+   * @return the number of messages dropped, because of rate limits or a full queue.
+   */
+  long getDropped() {
+    return dropped.get();
+  }
+
+  private void run() {
+    while (!closed) {
+      try {
+        final Entry entry = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (entry != null) {
+          write(entry);
+        }
+        drain();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (final Exception e) {
+        LOG.error("Failed to write processing log message", e);
+      }
+    }
+  }
+
+  /**
+   * Writes all queued messages, then the summaries of all ended aggregation windows. Only called
+   * by the writer thread, by {@link #close()} once that thread has stopped, or by tests if the
+   * writer is not started.
+   */
+  void drain() {
+    Entry entry;
+    while ((entry = queue.poll()) != null) {
+      write(entry);
+    }
+    countLimited();
+    flushEndedWindows();
+  }
+
+  private void write(final Entry entry) {
+    final SchemaAndValue msg = entry.msg;
+    final List<Object> key = aggregationKey(entry.loggerName, msg);
+    if (key == null) {
+      entry.logger.error(() -> msg);
+      return;
+    }
+
+    final long now = time.milliseconds();
+    final Aggregate aggregate = aggregates.get(key);
+    if (aggregate != null && now - aggregate.windowStart < aggregationWindowMs) {
+      aggregate.repeats++;
+      return;
+    }
+
+    if (aggregate != null) {
+      aggregate.logSummary(aggregationWindowMs);
+    }
+    entry.logger.error(() -> msg);
+    aggregates.put(key, new Aggregate(entry.logger, msg, now));
+  }
+
+  private void countLimited() {
+    for (final List<Object> key : limited.keySet()) {
+      final Long count = limited.remove(key);
+      final Aggregate aggregate = aggregates.get(key);
+      // Without an aggregate the error was never logged, so the drops are only counted in total:
+      if (count != null && aggregate != null) {
+        aggregate.repeats += count;
+      }
+    }
+  }
+
+  private void flushEndedWindows() {
+    final long now = time.milliseconds();
+    final Iterator<Aggregate> it = aggregates.values().iterator();
+    while (it.hasNext()) {
+      final Aggregate aggregate = it.next();
+      if (now - aggregate.windowStart >= aggregationWindowMs) {
+        aggregate.logSummary(aggregationWindowMs);
+        it.remove();
+      }
+    }
+  }
+
+  private List<Object> aggregationKey(final String loggerName, final SchemaAndValue msg) {
+    if (aggregationWindowMs == 0 || !(msg.value() instanceof Struct)) {
+      return null;
+    }
+    final Struct struct = (Struct) msg.value();
+    for (final Field field : struct.schema().fields()) {
+      final Object error = struct.get(field);
+      if (error instanceof Struct) {
+        return Arrays.asList(loggerName, field.name(), ((Struct) error).get(ERROR_MESSAGE));
+      }
+    }
+    return null;
+  }
+
+  private static final class Entry {
+
+    private final String loggerName;
+    private final StructuredLogger logger;
+    private final SchemaAndValue msg;
+
+    private Entry(
+        final String loggerName,
+        final StructuredLogger logger,
+        final SchemaAndValue msg
+    ) {
+      this.loggerName = loggerName;
+      this.logger = logger;
+      this.msg = msg;
+    }
+  }
+
+  private static final class Aggregate {
+
+    private final StructuredLogger logger;
+    private final SchemaAndValue first;
+    private final long windowStart;
+    private long repeats;
+
+    private Aggregate(
+        final StructuredLogger logger,
+        final SchemaAndValue first,
+        final long windowStart
+    ) {
+      this.logger = logger;
+      this.first = first;
+      this.windowStart = windowStart;
+    }
+
+    void logSummary(final long windowMs) {
+      if (repeats == 0) {
+        return;
+      }
+      final SchemaAndValue summary = summarize(first, repeats, windowMs);
+      logger.error(() -> summary);
+    }
+  }
+
+  /**
+   * @return a message of the same type as {@code first}, without the record, whose error
+   *     message includes the number of repeats.
+   */
+  static SchemaAndValue summarize(
+      final SchemaAndValue first,
+      final long repeats,
+      final long windowMs
+  ) {
+    final Struct original = (Struct) first.value();
+    final Struct summary = new Struct(original.schema());
+    for (final Field field : original.schema().fields()) {
+      final Object value = original.get(field);
+      if (value instanceof Struct) {
+        final Struct error = (Struct) value;
+        summary.put(field, new Struct(error.schema()).put(ERROR_MESSAGE, String.format(
+            "%s (repeated %d more times within %d ms)",
+            error.get(ERROR_MESSAGE), repeats, windowMs)));
+      } else {
+        summary.put(field, value);
+      }
+    }
+    return new SchemaAndValue(first.schema(), summary);
+  }
+}
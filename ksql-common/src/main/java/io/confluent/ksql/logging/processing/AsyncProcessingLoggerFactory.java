@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import io.confluent.common.logging.StructuredLogger;
+import io.confluent.common.logging.StructuredLoggerFactory;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.SchemaAndValue;
+
+/**
+ * Creates processing loggers that never block the calling thread: messages are logged
+ * asynchronously by an {@link AsyncProcessingLogWriter}, and each logger is rate limited.
+ * Messages are still built on the calling thread, as they may include rows that it goes on to
+ * change.
+ */
+public final class AsyncProcessingLoggerFactory implements ProcessingLoggerFactory {
+
+  public static final String METRIC_GROUP = "ksql-processing-log";
+  public static final String DROPPED_MESSAGES_METRIC = "processing-log-dropped-messages";
+
+  private final ProcessingLogConfig config;
+  private final StructuredLoggerFactory innerFactory;
+  private final AsyncProcessingLogWriter writer;
+  private final Time time;
+  private final ConcurrentMap<String, ProcessingLogger> loggers = new ConcurrentHashMap<>();
+
+  AsyncProcessingLoggerFactory(
+      final ProcessingLogConfig config,
+      final StructuredLoggerFactory innerFactory,
+      final Metrics metrics
+  ) {
+    this(config, innerFactory, new AsyncProcessingLogWriter(config, Time.SYSTEM), Time.SYSTEM);
+    writer.start();
+
+    final MetricName dropped = metrics.metricName(
+        DROPPED_MESSAGES_METRIC,
+        METRIC_GROUP,
+        "The total number of processing log messages dropped because a logger exceeded its "
+            + "rate limit or the queue of messages waiting to be logged was full");
+    metrics.removeMetric(dropped);
+    metrics.addMetric(dropped, (Measurable) (metricConfig, now) -> writer.getDropped());
+  }
+
+  AsyncProcessingLoggerFactory(
+      final ProcessingLogConfig config,
+      final StructuredLoggerFactory innerFactory,
+      final AsyncProcessingLogWriter writer,
+      final Time time
+  ) {
+    this.config = Objects.requireNonNull(config, "config can't be null");
+    this.innerFactory = Objects.requireNonNull(innerFactory, "innerFactory can't be null");
+    this.writer = Objects.requireNonNull(writer, "writer can't be null");
+    this.time = Objects.requireNonNull(time, "time can't be null");
+  }
+
+  @Override
+  public ProcessingLogger getLogger(final String name) {
+    return loggers.computeIfAbsent(name, n -> new AsyncProcessingLogger(
+        n,
+        innerFactory.getLogger(n),
+        new TokenBucket(config.getInt(ProcessingLogConfig.ASYNC_RATE_LIMIT), time)));
+  }
+
+  @Override
+  public Collection<String> getLoggers() {
+    return innerFactory.getLoggers();
+  }
+
+  /**
+   * Logs all messages still queued, and the summaries of all repeated errors.
+   */
+  @Override
+  public void close() {
+    writer.close();
+  }
+
+  private final class AsyncProcessingLogger implements ProcessingLogger {
+
+    private final String name;
+    private final StructuredLogger inner;
+    private final TokenBucket rateLimit;
+
+    private AsyncProcessingLogger(
+        final String name,
+        final StructuredLogger inner,
+        final TokenBucket rateLimit
+    ) {
+      this.name = name;
+      this.inner = inner;
+      this.rateLimit = rateLimit;
+    }
+
+    @Override
+    public void error(final Function<ProcessingLogConfig, SchemaAndValue> msgFactory) {
+      if (rateLimit.tryAcquire()) {
+        writer.submit(
+            name,
+            inner,
+            new ProcessingLoggerImpl.ProcessingLogMessage(config, msgFactory).get());
+      } else {
+        writer.recordLimited(name, msgFactory);
+      }
+    }
+  }
+}
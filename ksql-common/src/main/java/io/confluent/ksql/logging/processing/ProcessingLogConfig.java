@@ -80,6 +80,37 @@ public class ProcessingLogConfig extends AbstractConfig {
   private static final String INCLUDE_ROWS_DOC =
       "Toggles whether or not the processing log should include rows in log messages";
 
+  public static final String ASYNC_ENABLED = propertyName("async.enabled");
+  private static final String ASYNC_ENABLED_DOC =
+      "Toggles asynchronous processing logging. If set to true, the thread processing a record "
+          + "only queues each log message, which is then built and logged by a background "
+          + "thread. Messages are dropped, rather than blocking processing, if a logger exceeds "
+          + "its rate limit or the queue is full. The number of dropped messages is reported "
+          + "by the processing-log-dropped-messages metric.";
+
+  public static final String ASYNC_QUEUE_CAPACITY = propertyName("async.queue.capacity");
+  private static final int ASYNC_QUEUE_CAPACITY_DEFAULT = 1000;
+  private static final String ASYNC_QUEUE_CAPACITY_DOC =
+      "If asynchronous processing logging is enabled, the maximum number of messages waiting "
+          + "to be logged. Further messages are dropped until the queue has space.";
+
+  public static final String ASYNC_RATE_LIMIT = propertyName("async.rate.limit");
+  private static final int ASYNC_RATE_LIMIT_DEFAULT = 100;
+  private static final String ASYNC_RATE_LIMIT_DOC =
+      "If asynchronous processing logging is enabled, the maximum number of messages per "
+          + "second each logger may log, allowing bursts of up to one second's worth of "
+          + "messages. Further messages are dropped.";
+
+  public static final String ASYNC_AGGREGATION_WINDOW_MS =
+      propertyName("async.aggregation.window.ms");
+  private static final long ASYNC_AGGREGATION_WINDOW_MS_DEFAULT = 10000L;
+  private static final String ASYNC_AGGREGATION_WINDOW_MS_DOC =
+      "If asynchronous processing logging is enabled, the time, in milliseconds, for which "
+          + "repeats of an error are not logged after the error was logged. Once the time has "
+          + "passed, a single summary message with the number of repeats is logged instead. "
+          + "Errors are the same if they are of the same type, have the same error message and "
+          + "are logged by the same logger. Set to 0 to log every error.";
+
   private static final ConfigDef CONFIG_DEF = new ConfigDef()
       .define(
           STREAM_AUTO_CREATE,
@@ -122,7 +153,34 @@ public class ProcessingLogConfig extends AbstractConfig {
           Type.BOOLEAN,
           false,
           Importance.HIGH,
-          INCLUDE_ROWS_DOC
+          INCLUDE_ROWS_DOC)
+      .define(
+          ASYNC_ENABLED,
+          Type.BOOLEAN,
+          false,
+          Importance.LOW,
+          ASYNC_ENABLED_DOC)
+      .define(
+          ASYNC_QUEUE_CAPACITY,
+          Type.INT,
+          ASYNC_QUEUE_CAPACITY_DEFAULT,
+          ConfigDef.Range.atLeast(1),
+          Importance.LOW,
+          ASYNC_QUEUE_CAPACITY_DOC)
+      .define(
+          ASYNC_RATE_LIMIT,
+          Type.INT,
+          ASYNC_RATE_LIMIT_DEFAULT,
+          ConfigDef.Range.between(1, TokenBucket.MAX_TOKENS_PER_SECOND),
+          Importance.LOW,
+          ASYNC_RATE_LIMIT_DOC)
+      .define(
+          ASYNC_AGGREGATION_WINDOW_MS,
+          Type.LONG,
+          ASYNC_AGGREGATION_WINDOW_MS_DEFAULT,
+          ConfigDef.Range.atLeast(0),
+          Importance.LOW,
+          ASYNC_AGGREGATION_WINDOW_MS_DOC
       );
 
   public ProcessingLogConfig(final Map<?, ?> properties) {
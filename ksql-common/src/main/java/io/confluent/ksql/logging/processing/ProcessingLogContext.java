@@ -28,6 +28,12 @@ public interface ProcessingLogContext {
    */
   ProcessingLoggerFactory getLoggerFactory();
 
+  /**
+   * Logs any messages not yet logged. Called when the server shuts down, once its queries have
+   * stopped.
+   */
+  void close();
+
   /**
    * Creates a processing log context that uses the supplied config.
    * @param config the processing log config
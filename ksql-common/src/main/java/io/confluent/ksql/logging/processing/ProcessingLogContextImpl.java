@@ -16,6 +16,7 @@
 package io.confluent.ksql.logging.processing;
 
 import io.confluent.common.logging.StructuredLoggerFactory;
+import io.confluent.ksql.metrics.MetricCollectors;
 
 public final class ProcessingLogContextImpl implements ProcessingLogContext {
   private final ProcessingLogConfig config;
@@ -23,10 +24,11 @@ public final class ProcessingLogContextImpl implements ProcessingLogContext {
 
   ProcessingLogContextImpl(final ProcessingLogConfig config) {
     this.config = config;
-    this.loggerFactory = new ProcessingLoggerFactoryImpl(
-        config,
-        new StructuredLoggerFactory(ProcessingLogConstants.PREFIX)
-    );
+    final StructuredLoggerFactory innerFactory =
+        new StructuredLoggerFactory(ProcessingLogConstants.PREFIX);
+    this.loggerFactory = config.getBoolean(ProcessingLogConfig.ASYNC_ENABLED)
+        ? new AsyncProcessingLoggerFactory(config, innerFactory, MetricCollectors.getMetrics())
+        : new ProcessingLoggerFactoryImpl(config, innerFactory);
   }
 
   public ProcessingLogConfig getConfig() {
@@ -37,4 +39,9 @@ public final class ProcessingLogContextImpl implements ProcessingLogContext {
   public ProcessingLoggerFactory getLoggerFactory() {
     return loggerFactory;
   }
+
+  @Override
+  public void close() {
+    loggerFactory.close();
+  }
 }
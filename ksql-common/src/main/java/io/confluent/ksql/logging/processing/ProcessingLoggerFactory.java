@@ -29,4 +29,11 @@ public interface ProcessingLoggerFactory {
    * @return A collection of all loggers that have been created by the factory
    */
   Collection<String> getLoggers();
+
+  /**
+   * Logs any messages the factory's loggers have not yet logged. Loggers must not be used once
+   * the factory is closed.
+   */
+  default void close() {
+  }
 }
@@ -24,7 +24,7 @@ public class ProcessingLoggerImpl implements ProcessingLogger {
   private final StructuredLogger inner;
   private final ProcessingLogConfig config;
 
-  private static class ProcessingLogMessage implements Supplier<SchemaAndValue> {
+  static class ProcessingLogMessage implements Supplier<SchemaAndValue> {
     final ProcessingLogConfig config;
     final Function<ProcessingLogConfig, SchemaAndValue> msgFactory;
 
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * Lock-free token bucket, refilled at a fixed rate and holding up to one second's worth of
+ * tokens.
+ *
+ * <p>Rather than counting tokens, the bucket tracks the time at which it will next be full, so
+ * taking a token is a single compare-and-set.
+ */
+final class TokenBucket {
+
+  private final Time time;
+  private final long nanosPerToken;
+  private final long capacityNanos;
+  private final AtomicLong fullAt;
+
+  static final int MAX_TOKENS_PER_SECOND = (int) TimeUnit.SECONDS.toNanos(1);
+
+  TokenBucket(final int tokensPerSecond, final Time time) {
+    // As the bucket works in whole nanoseconds per token, a higher rate would not be limited:
+    if (tokensPerSecond < 1 || tokensPerSecond > MAX_TOKENS_PER_SECOND) {
+      throw new IllegalArgumentException("tokensPerSecond must be between 1 and "
+          + MAX_TOKENS_PER_SECOND + ": " + tokensPerSecond);
+    }
+    this.time = Objects.requireNonNull(time, "time can't be null");
+    this.nanosPerToken = TimeUnit.SECONDS.toNanos(1) / tokensPerSecond;
+    this.capacityNanos = nanosPerToken * tokensPerSecond;
+    this.fullAt = new AtomicLong(time.nanoseconds());
+  }
+
+  /**
+   * @return {@code true} if a token was taken, {@code false} if the bucket is empty.
+   */
+  boolean tryAcquire() {
+    while (true) {
+      final long now = time.nanoseconds();
+      final long current = fullAt.get();
+      final long next = Math.max(current, now) + nanosPerToken;
+      if (next - now > capacityNanos) {
+        return false;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return true;
+      }
+    }
+  }
+}
@@ -81,13 +81,11 @@ public final class MetricCollectors {
 
   static String addCollector(final String id, final MetricCollector collector) {
     final StringBuilder builtId = new StringBuilder(id);
-    while (collectorMap.containsKey(builtId.toString())) {
+    while (collectorMap.putIfAbsent(builtId.toString(), collector) != null) {
       builtId.append("-").append(collectorMap.size());
     }
 
-    final String finalId = builtId.toString();
-    collectorMap.put(finalId, collector);
-    return finalId;
+    return builtId.toString();
   }
 
   static void remove(final String id) {
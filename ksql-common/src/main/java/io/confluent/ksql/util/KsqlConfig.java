@@ -141,10 +141,101 @@ public class KsqlConfig extends AbstractConfig implements Cloneable {
   public static final String KSQL_STREAMS_PREFIX = "ksql.streams.";
 
   public static final String KSQL_COLLECT_UDF_METRICS = "ksql.udf.collect.metrics";
+  public static final String KSQL_UDF_METRICS_SAMPLE_INTERVAL_CONFIG =
+      "ksql.udf.metrics.sample.interval";
+  public static final int KSQL_UDF_METRICS_SAMPLE_INTERVAL_DEFAULT = 1;
+  private static final String KSQL_UDF_METRICS_SAMPLE_INTERVAL_DOC =
+      "When UDF metrics are collected, time one in this many invocations of each UDF. With the "
+      + "default of 1 every invocation is timed and recorded in windowed metrics. With a larger "
+      + "interval the sampled invocations are recorded in per-thread latency histograms, which "
+      + "add little overhead and also report the 50th, 95th and 99th percentile latency.";
   public static final String KSQL_UDF_SECURITY_MANAGER_ENABLED = "ksql.udf.enable.security.manager";
 
   public static final String DEFAULT_EXT_DIR = "ext";
 
+  public static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLED =
+      "ksql.json.streaming.deserializer.enabled";
+  private static final String KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DOC =
+      "Whether JSON values should be deserialized with a streaming parser that reads fields "
+      + "directly into the columns of the row, rather than first converting each record into "
+      + "an intermediate map. Default is false.";
+
+  public static final String KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.transient.queue.capacity";
+  public static final int KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DEFAULT = 100;
+  private static final String KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DOC =
+      "The maximum number of result rows of a transient query that are buffered while waiting "
+      + "to be written to the client. Once the buffer is full, processing of the query blocks "
+      + "until the client has caught up.";
+
+  public static final String KSQL_TRANSIENT_QUERY_BATCH_MAX_ROWS_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.transient.batch.max.rows";
+  public static final int KSQL_TRANSIENT_QUERY_BATCH_MAX_ROWS_DEFAULT = 100;
+  private static final String KSQL_TRANSIENT_QUERY_BATCH_MAX_ROWS_DOC =
+      "The maximum number of result rows of a transient query that are written to the client "
+      + "before the response is flushed.";
+
+  public static final String KSQL_TRANSIENT_QUERY_FLUSH_INTERVAL_MS_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.transient.flush.interval.ms";
+  public static final long KSQL_TRANSIENT_QUERY_FLUSH_INTERVAL_MS_DEFAULT = 0L;
+  private static final String KSQL_TRANSIENT_QUERY_FLUSH_INTERVAL_MS_DOC =
+      "The maximum time, in milliseconds, that result rows of a transient query are held back "
+      + "waiting for more rows, before the response is flushed. With the default of zero, rows "
+      + "are flushed as soon as no more rows are buffered, so rows are only written in batches "
+      + "while the client is behind the query.";
+
+  public static final String KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.transient.shared.runtime.enabled";
+  private static final String KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_DOC =
+      "Whether transient queries that filter and / or project a stream should read their source "
+      + "topic through a single consumer shared with other such queries over the same topic, "
+      + "rather than each running their own Kafka Streams application. Queries are only shared "
+      + "when they read from the latest offset and have the same streams properties. As rows "
+      + "are handed to the queries on a shared thread, a client that does not keep up with its "
+      + "query slows down the other queries reading the same topic. Default is false.";
+
+  public static final String KSQL_SOURCE_COLUMN_PRUNING_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.source.column.pruning.enabled";
+  private static final String KSQL_SOURCE_COLUMN_PRUNING_DOC =
+      "Whether the value deserializer of a query's source should only decode the columns the "
+      + "query references. Columns that are not referenced are left null, rather than being "
+      + "parsed and converted for every record, so malformed values in them no longer cause "
+      + "deserialization errors or processing log entries. Sources of joins are always fully "
+      + "decoded. Default is false.";
+
+  public static final String KSQL_SOURCE_FILTER_PUSHDOWN_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.source.filter.pushdown.enabled";
+  private static final String KSQL_SOURCE_FILTER_PUSHDOWN_DOC =
+      "Whether the value deserializer of a stream query's source should drop records that "
+      + "cannot match the query's WHERE clause before decoding the rest of the record. Only "
+      + "comparisons of top-level columns with literals, IS NULL and BETWEEN conditions that "
+      + "are combined with AND are checked early, and only for JSON and DELIMITED sources. "
+      + "Deserialization errors in dropped records are not logged. Default is false.";
+
+  public static final String KSQL_FUSED_FILTER_PROJECT_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.fused.filter.project";
+  private static final String KSQL_FUSED_FILTER_PROJECT_DOC =
+      "Whether a WHERE clause directly followed by the SELECT of a stream query should be "
+      + "evaluated, together with the projection, in a single processor. This changes the "
+      + "topology of the query, so queries started by versions of KSQL that did not support this "
+      + "continue to run with separate filter and projection processors.";
+
+  public static final String KSQL_GROUP_BY_BINARY_KEY_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.group.by.binary.key";
+  private static final String KSQL_GROUP_BY_BINARY_KEY_DOC =
+      "Whether records re-keyed by a GROUP BY clause should be keyed by a compact binary form "
+      + "of the grouping columns, rather than by their values joined into a string. This only "
+      + "affects repartition topics and state stores: the sink topic of the aggregate is still "
+      + "keyed by the joined string. Queries started by versions of KSQL that did not support "
+      + "this continue to use string keys.";
+
+  public static final String KSQL_AGGREGATE_BINARY_STATE_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "query.aggregate.binary.state";
+  private static final String KSQL_AGGREGATE_BINARY_STATE_DOC =
+      "Whether the state stores of aggregations should hold their rows in a compact binary "
+      + "form, rather than in the format of the source topic. Queries started by versions of "
+      + "KSQL that did not support this continue to use the format of the source topic.";
+
   private static final Collection<CompatibilityBreakingConfigDef> COMPATIBLY_BREAKING_CONFIG_DEFS
       = ImmutableList.of(
           new CompatibilityBreakingConfigDef(
@@ -192,7 +283,28 @@ public class KsqlConfig extends AbstractConfig implements Cloneable {
               KSQL_USE_NAMED_INTERNAL_TOPICS_ON,
               ConfigDef.Importance.LOW,
               KSQL_USE_NAMED_INTERNAL_TOPICS_DOC,
-              KSQL_USE_NAMED_INTERNAL_TOPICS_VALIDATOR)
+              KSQL_USE_NAMED_INTERNAL_TOPICS_VALIDATOR),
+          new CompatibilityBreakingConfigDef(
+              KSQL_FUSED_FILTER_PROJECT_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              KSQL_FUSED_FILTER_PROJECT_DOC),
+          new CompatibilityBreakingConfigDef(
+              KSQL_GROUP_BY_BINARY_KEY_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              KSQL_GROUP_BY_BINARY_KEY_DOC),
+          new CompatibilityBreakingConfigDef(
+              KSQL_AGGREGATE_BINARY_STATE_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              KSQL_AGGREGATE_BINARY_STATE_DOC)
   );
 
   private enum ConfigGeneration {
@@ -355,6 +467,13 @@ public class KsqlConfig extends AbstractConfig implements Cloneable {
             "Whether or not metrics should be collected for custom udfs. Default is false. Note: "
                 + "this will add some overhead to udf invocation. It is recommended that this "
                 + " be set to false in production."
+        ).define(
+            KSQL_UDF_METRICS_SAMPLE_INTERVAL_CONFIG,
+            ConfigDef.Type.INT,
+            KSQL_UDF_METRICS_SAMPLE_INTERVAL_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_UDF_METRICS_SAMPLE_INTERVAL_DOC
         ).define(
             KSQL_EXT_DIR,
             ConfigDef.Type.STRING,
@@ -368,6 +487,51 @@ public class KsqlConfig extends AbstractConfig implements Cloneable {
             ConfigDef.Importance.LOW,
             "Enable the security manager for UDFs. Default is true and will stop UDFs from"
                + " calling System.exit or executing processes"
+        ).define(
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLED,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_JSON_STREAMING_DESERIALIZER_ENABLED_DOC
+        ).define(
+            KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG,
+            ConfigDef.Type.INT,
+            KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_DOC
+        ).define(
+            KSQL_TRANSIENT_QUERY_BATCH_MAX_ROWS_CONFIG,
+            ConfigDef.Type.INT,
+            KSQL_TRANSIENT_QUERY_BATCH_MAX_ROWS_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_TRANSIENT_QUERY_BATCH_MAX_ROWS_DOC
+        ).define(
+            KSQL_TRANSIENT_QUERY_FLUSH_INTERVAL_MS_CONFIG,
+            ConfigDef.Type.LONG,
+            KSQL_TRANSIENT_QUERY_FLUSH_INTERVAL_MS_DEFAULT,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_TRANSIENT_QUERY_FLUSH_INTERVAL_MS_DOC
+        ).define(
+            KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_DOC
+        ).define(
+            KSQL_SOURCE_COLUMN_PRUNING_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_SOURCE_COLUMN_PRUNING_DOC
+        ).define(
+            KSQL_SOURCE_FILTER_PUSHDOWN_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_SOURCE_FILTER_PUSHDOWN_DOC
         )
         .withClientSslSupport();
     for (final CompatibilityBreakingConfigDef compatibilityBreakingConfigDef
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util.timestamp;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Parses timestamps in the common fixed width ISO-8601 patterns, e.g.
+ * {@code yyyy-MM-dd'T'HH:mm:ss.SSS}, by reading the digits at their known positions.
+ *
+ * <p>This avoids the general {@link java.time.format.DateTimeFormatter} machinery for the
+ * patterns most sources use. Text the parser is not sure about, e.g. because it is not the
+ * expected length or is not a valid date, is left to the formatter, so that parse results and
+ * errors are the same as without the fast path.
+ */
+final class IsoTimestampParser {
+
+  private static final Map<String, IsoTimestampParser> PARSERS =
+      ImmutableMap.<String, IsoTimestampParser>builder()
+          .put("yyyy-MM-dd", new IsoTimestampParser((char) 0, false))
+          .put("yyyy-MM-dd'T'HH:mm:ss", new IsoTimestampParser('T', false))
+          .put("yyyy-MM-dd'T'HH:mm:ss.SSS", new IsoTimestampParser('T', true))
+          .put("yyyy-MM-dd HH:mm:ss", new IsoTimestampParser(' ', false))
+          .put("yyyy-MM-dd HH:mm:ss.SSS", new IsoTimestampParser(' ', true))
+          .build();
+
+  private static final int DATE_LENGTH = 10;
+  private static final int DATE_TIME_LENGTH = 19;
+  private static final int DATE_TIME_MILLIS_LENGTH = 23;
+
+  private final char timeSeparator;
+  private final boolean hasMillis;
+  private final int length;
+
+  private IsoTimestampParser(final char timeSeparator, final boolean hasMillis) {
+    this.timeSeparator = timeSeparator;
+    this.hasMillis = hasMillis;
+    if (timeSeparator == 0) {
+      this.length = DATE_LENGTH;
+    } else {
+      this.length = hasMillis ? DATE_TIME_MILLIS_LENGTH : DATE_TIME_LENGTH;
+    }
+  }
+
+  /**
+   * @param pattern a {@link java.time.format.DateTimeFormatter} pattern.
+   * @return the parser for the pattern, if it is one of the supported ISO-8601 patterns.
+   */
+  static Optional<IsoTimestampParser> forPattern(final String pattern) {
+    return Optional.ofNullable(PARSERS.get(pattern));
+  }
+
+  /**
+   * @param text the text to parse.
+   * @return the date and time of the text, or {@code null} if the text must be parsed by the
+   *     formatter of the pattern instead.
+   */
+  LocalDateTime parse(final String text) {
+    if (text.length() != length
+        || text.charAt(4) != '-'
+        || text.charAt(7) != '-') {
+      return null;
+    }
+
+    final int year = digits(text, 0, 4);
+    final int month = digits(text, 5, 2);
+    final int day = digits(text, 8, 2);
+    if (year < 1 || month < 0 || day < 0) {
+      return null;
+    }
+
+    int hour = 0;
+    int minute = 0;
+    int second = 0;
+    int millis = 0;
+    if (timeSeparator != 0) {
+      if (text.charAt(10) != timeSeparator
+          || text.charAt(13) != ':'
+          || text.charAt(16) != ':') {
+        return null;
+      }
+      hour = digits(text, 11, 2);
+      minute = digits(text, 14, 2);
+      second = digits(text, 17, 2);
+      if (hour < 0 || minute < 0 || second < 0) {
+        return null;
+      }
+      if (hasMillis) {
+        millis = text.charAt(19) == '.' ? digits(text, 20, 3) : -1;
+        if (millis < 0) {
+          return null;
+        }
+      }
+    }
+
+    try {
+      return LocalDateTime.of(year, month, day, hour, minute, second, millis * 1_000_000);
+    } catch (final DateTimeException e) {
+      // E.g. the 30th of February, which the formatter resolves or rejects:
+      return null;
+    }
+  }
+
+  private static int digits(final String text, final int start, final int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      final char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
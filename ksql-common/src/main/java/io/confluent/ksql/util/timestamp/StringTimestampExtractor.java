@@ -22,10 +22,18 @@ import java.util.Objects;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.streams.processor.TimestampExtractor;
 
+/**
+ * Extracts a record's timestamp from a string column.
+ *
+ * <p>Consecutive records often have the same timestamp text, e.g. for formats without
+ * milliseconds, so the last parsed text and its timestamp are kept and reused.
+ */
 public class StringTimestampExtractor implements TimestampExtractor {
   private final StringToTimestampParser timestampParser;
   private final int timestampColumn;
   private final String format;
+  // Extractors are shared by the stream threads, so the last parse is replaced as a whole:
+  private volatile ParsedTimestamp lastParsed = new ParsedTimestamp(null, 0);
 
 
   StringTimestampExtractor(final String format, final int timestampColumn) {
@@ -39,10 +47,20 @@ public class StringTimestampExtractor implements TimestampExtractor {
   @Override
   public long extract(final ConsumerRecord<Object, Object> consumerRecord,
                       final long previousTimestamp) {
+    if (!(consumerRecord.value() instanceof GenericRow)) {
+      // Records that failed to deserialize, or were rejected by the deserializer, have no value:
+      return 0;
+    }
     final GenericRow row = (GenericRow) consumerRecord.value();
     final String value = row.getColumnValue(timestampColumn);
+    final ParsedTimestamp last = lastParsed;
+    if (value != null && value.equals(last.text)) {
+      return last.timestamp;
+    }
     try {
-      return timestampParser.parse(value);
+      final long timestamp = timestampParser.parse(value);
+      lastParsed = new ParsedTimestamp(value, timestamp);
+      return timestamp;
     } catch (final KsqlException e) {
       throw new KsqlException("Unable to parse string timestamp from record."
           + " record=" + consumerRecord
@@ -52,4 +70,14 @@ public class StringTimestampExtractor implements TimestampExtractor {
     }
   }
 
+  private static final class ParsedTimestamp {
+
+    private final String text;
+    private final long timestamp;
+
+    private ParsedTimestamp(final String text, final long timestamp) {
+      this.text = text;
+      this.timestamp = timestamp;
+    }
+  }
 }
@@ -15,8 +15,6 @@
 
 package io.confluent.ksql.util.timestamp;
 
-import io.confluent.ksql.util.KsqlException;
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -24,9 +22,19 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Optional;
 
+/**
+ * Parses timestamps in a {@link DateTimeFormatter} pattern into milliseconds since the epoch.
+ *
+ * <p>Text in common ISO-8601 patterns is read directly by an {@link IsoTimestampParser}, and the
+ * formatter is only queried once per parse, rather than being asked for a zoned date time first
+ * and failing for patterns without a time zone.
+ */
 public class StringToTimestampParser {
   private final DateTimeFormatter formatter;
+  private final Optional<IsoTimestampParser> isoParser;
 
   public StringToTimestampParser(final String pattern) {
     formatter = new DateTimeFormatterBuilder()
@@ -36,6 +44,7 @@ public class StringToTimestampParser {
         .parseDefaulting(ChronoField.DAY_OF_MONTH, 1)
         .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
         .toFormatter();
+    isoParser = IsoTimestampParser.forPattern(pattern);
   }
 
   public long parse(final String text) {
@@ -43,25 +52,22 @@ public class StringToTimestampParser {
   }
 
   public long parse(final String text, final ZoneId zoneId) {
-    TemporalAccessor parsed = formatter.parseBest(
-        text,
-        ZonedDateTime::from,
-        LocalDateTime::from);
-
-    if (parsed == null) {
-      throw new KsqlException("text value: "
-          + text
-          +  "cannot be parsed into a timestamp");
+    if (isoParser.isPresent()) {
+      final LocalDateTime dateTime = isoParser.get().parse(text);
+      if (dateTime != null) {
+        return toEpochMilli(dateTime.atZone(zoneId));
+      }
     }
 
-    if (parsed instanceof LocalDateTime) {
-      parsed = ((LocalDateTime) parsed).atZone(zoneId);
+    final TemporalAccessor parsed = formatter.parse(text);
+    if (parsed.query(TemporalQueries.zone()) != null) {
+      return toEpochMilli(ZonedDateTime.from(parsed));
     }
 
-    final LocalDateTime dateTime = ((ZonedDateTime) parsed)
-        .withZoneSameInstant(ZoneId.systemDefault())
-        .toLocalDateTime();
-    return Timestamp.valueOf(dateTime).getTime();
+    return toEpochMilli(LocalDateTime.from(parsed).atZone(zoneId));
   }
 
+  private static long toEpochMilli(final ZonedDateTime dateTime) {
+    return dateTime.toInstant().toEpochMilli();
+  }
 }
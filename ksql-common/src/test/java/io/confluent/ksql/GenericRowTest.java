@@ -16,6 +16,8 @@
 package io.confluent.ksql;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.google.common.collect.ImmutableList;
@@ -122,4 +124,58 @@ public class GenericRowTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldBuildRowOfArity() {
+    // When:
+    final GenericRow row = GenericRow.withArity(3);
+
+    // Then:
+    assertThat(row.size(), is(3));
+    assertThat(row.get(2), is(nullValue()));
+  }
+
+  @Test
+  public void shouldBeBackedByArray() {
+    // Given:
+    final Object[] columns = {1L, "a"};
+    final GenericRow row = new GenericRow(columns);
+
+    // When:
+    row.set(1, "b");
+
+    // Then:
+    assertThat(columns[1], is("b"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldNotAddColumnsToFixedArityRow() {
+    GenericRow.withArity(1).getColumns().add("x");
+  }
+
+  @Test
+  public void shouldGetTypedColumns() {
+    // Given:
+    final GenericRow row = new GenericRow("s", 1, 2L, 3.0, true, null);
+
+    // Then:
+    assertThat(row.getString(0), is("s"));
+    assertThat(row.getInteger(1), is(1));
+    assertThat(row.getLong(2), is(2L));
+    assertThat(row.getDouble(3), is(3.0));
+    assertThat(row.getBoolean(4), is(true));
+    assertThat(row.getLong(5), is(nullValue()));
+  }
+
+  @Test
+  public void shouldPrependColumns() {
+    // Given:
+    final GenericRow row = new GenericRow(ImmutableList.of("a", "b"));
+
+    // When:
+    final GenericRow result = row.prepend(10L, "key");
+
+    // Then:
+    assertThat(result, is(new GenericRow(10L, "key", "a", "b")));
+    assertThat(row.size(), is(2));
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.common.logging.StructuredLogger;
+import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncProcessingLogWriterTest {
+
+  private static final String LOGGER_NAME = "foo.bar";
+
+  @Mock
+  private StructuredLogger logger;
+  @Mock
+  private Time time;
+  @SuppressWarnings("unchecked")
+  private final ArgumentCaptor<Supplier<SchemaAndValue>> msgCaptor
+      = ArgumentCaptor.forClass(Supplier.class);
+
+  private AsyncProcessingLogWriter writer;
+
+  @Before
+  public void setUp() {
+    writer = givenWriter(2, 1000);
+  }
+
+  @Test
+  public void shouldNotLogUntilDrained() {
+    // When:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row"));
+
+    // Then:
+    verify(logger, never()).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldLogSubmittedMessage() {
+    // When:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row"));
+    writer.drain();
+
+    // Then:
+    assertThat(errorMessages(1), is(ImmutableList.of("boom/row")));
+  }
+
+  @Test
+  public void shouldDropMessagesIfQueueFull() {
+    // When:
+    writer.submit(LOGGER_NAME, logger, error("a", "row"));
+    writer.submit(LOGGER_NAME, logger, error("b", "row"));
+    writer.submit(LOGGER_NAME, logger, error("c", "row"));
+
+    // Then:
+    assertThat(writer.getDropped(), is(1L));
+  }
+
+  @Test
+  public void shouldOnlyCountRepeatsWithinWindow() {
+    // Given:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row1"));
+    writer.drain();
+
+    // When:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row2"));
+    writer.submit(LOGGER_NAME, logger, error("boom", "row3"));
+    writer.drain();
+
+    // Then:
+    verify(logger, times(1)).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldLogSummaryOfRepeatsOnceWindowEnds() {
+    // Given:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row1"));
+    writer.drain();
+    writer.submit(LOGGER_NAME, logger, error("boom", "row2"));
+    writer.submit(LOGGER_NAME, logger, error("boom", "row3"));
+    writer.drain();
+
+    // When:
+    when(time.milliseconds()).thenReturn(1000L);
+    writer.drain();
+
+    // Then:
+    final List<String> messages = errorMessages(2);
+    assertThat(messages.get(1), is("boom (repeated 2 more times within 1000 ms)/null"));
+  }
+
+  @Test
+  public void shouldCountRateLimitedRepeatsInSummary() {
+    // Given:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row1"));
+    writer.drain();
+
+    // When:
+    writer.recordLimited(LOGGER_NAME, config -> error("boom", "row2"));
+    writer.recordLimited(LOGGER_NAME, config -> error("boom", "row3"));
+    writer.drain();
+    when(time.milliseconds()).thenReturn(1000L);
+    writer.drain();
+
+    // Then:
+    final List<String> messages = errorMessages(2);
+    assertThat(messages.get(1), is("boom (repeated 2 more times within 1000 ms)/null"));
+    assertThat(writer.getDropped(), is(2L));
+  }
+
+  @Test
+  public void shouldOnlyCountRateLimitedMessagesAsDroppedIfErrorNotLogged() {
+    // When:
+    writer.recordLimited(LOGGER_NAME, config -> error("boom", "row"));
+    writer.close();
+
+    // Then:
+    assertThat(writer.getDropped(), is(1L));
+    verify(logger, never()).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldBuildRateLimitedMessagesWithoutRows() {
+    // Given:
+    writer = new AsyncProcessingLogWriter(
+        new ProcessingLogConfig(ImmutableMap.of(ProcessingLogConfig.INCLUDE_ROWS, true)),
+        time);
+    final List<ProcessingLogConfig> configs = new ArrayList<>();
+
+    // When:
+    writer.recordLimited(LOGGER_NAME, config -> {
+      configs.add(config);
+      return error("boom", null);
+    });
+
+    // Then:
+    assertThat(configs.get(0).getBoolean(ProcessingLogConfig.INCLUDE_ROWS), is(false));
+  }
+
+  @Test
+  public void shouldNotAggregateDifferentErrors() {
+    // When:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row"));
+    writer.submit(LOGGER_NAME, logger, error("bang", "row"));
+    writer.drain();
+
+    // Then:
+    verify(logger, times(2)).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldLogEveryErrorIfWindowIsZero() {
+    // Given:
+    writer = givenWriter(2, 0);
+
+    // When:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row"));
+    writer.submit(LOGGER_NAME, logger, error("boom", "row"));
+    writer.drain();
+
+    // Then:
+    verify(logger, times(2)).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldLogQueuedMessagesAndPendingSummariesOnClose() {
+    // Given:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row1"));
+    writer.drain();
+    writer.submit(LOGGER_NAME, logger, error("boom", "row2"));
+    writer.submit(LOGGER_NAME, logger, error("bang", "row"));
+
+    // When:
+    writer.close();
+
+    // Then:
+    assertThat(errorMessages(3), is(ImmutableList.of(
+        "boom/row1",
+        "bang/row",
+        "boom (repeated 1 more times within 1000 ms)/null")));
+  }
+
+  @Test
+  public void shouldDropMessagesSubmittedAfterClose() {
+    // Given:
+    writer.close();
+
+    // When:
+    writer.submit(LOGGER_NAME, logger, error("boom", "row"));
+    writer.drain();
+
+    // Then:
+    assertThat(writer.getDropped(), is(1L));
+    verify(logger, never()).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldSummarizeWithoutRecord() {
+    // Given:
+    final SchemaAndValue first = error("boom", "row");
+
+    // When:
+    final SchemaAndValue summary = AsyncProcessingLogWriter.summarize(first, 5, 10);
+
+    // Then:
+    final Struct struct = (Struct) summary.value();
+    assertThat(struct.get(ProcessingLogMessageSchema.TYPE),
+        is(MessageType.RECORD_PROCESSING_ERROR.getTypeId()));
+    final Struct error = struct.getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR);
+    assertThat(error.get(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE),
+        is("boom (repeated 5 more times within 10 ms)"));
+    assertThat(error.get(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_RECORD),
+        is(nullValue()));
+  }
+
+  private AsyncProcessingLogWriter givenWriter(final int capacity, final long windowMs) {
+    return new AsyncProcessingLogWriter(
+        new ProcessingLogConfig(ImmutableMap.of(
+            ProcessingLogConfig.ASYNC_QUEUE_CAPACITY, capacity,
+            ProcessingLogConfig.ASYNC_AGGREGATION_WINDOW_MS, windowMs)),
+        time);
+  }
+
+  private List<String> errorMessages(final int expectedCount) {
+    verify(logger, times(expectedCount)).error(msgCaptor.capture());
+    return msgCaptor.getAllValues().stream()
+        .map(Supplier::get)
+        .map(msg -> ((Struct) msg.value())
+            .getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR))
+        .map(error -> error.get(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE)
+            + "/" + error.get(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_RECORD))
+        .collect(Collectors.toList());
+  }
+
+  private static SchemaAndValue error(final String message, final String record) {
+    final Struct struct = new Struct(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA);
+    struct.put(ProcessingLogMessageSchema.TYPE, MessageType.RECORD_PROCESSING_ERROR.getTypeId());
+    struct.put(
+        ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR,
+        new Struct(MessageType.RECORD_PROCESSING_ERROR.getSchema())
+            .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE, message)
+            .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_RECORD, record));
+    return new SchemaAndValue(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA, struct);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.common.logging.StructuredLogger;
+import io.confluent.common.logging.StructuredLoggerFactory;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncProcessingLoggerFactoryTest {
+
+  @Mock
+  private StructuredLoggerFactory innerFactory;
+  @Mock
+  private StructuredLogger innerLogger;
+  @Mock
+  private Time time;
+  @Mock
+  private Function<ProcessingLogConfig, SchemaAndValue> msgFactory;
+  @Mock
+  private SchemaAndValue msg;
+
+  private AsyncProcessingLogWriter writer;
+  private AsyncProcessingLoggerFactory factory;
+
+  private final ProcessingLogConfig config = new ProcessingLogConfig(ImmutableMap.of(
+      ProcessingLogConfig.ASYNC_RATE_LIMIT, 2,
+      ProcessingLogConfig.ASYNC_AGGREGATION_WINDOW_MS, 0L));
+
+  @Before
+  public void setup() {
+    when(innerFactory.getLogger("foo.bar")).thenReturn(innerLogger);
+    writer = new AsyncProcessingLogWriter(config, time);
+    factory = new AsyncProcessingLoggerFactory(config, innerFactory, writer, time);
+  }
+
+  @Test
+  public void shouldReturnSameLoggerForSameName() {
+    // When:
+    final ProcessingLogger logger = factory.getLogger("foo.bar");
+
+    // Then:
+    assertThat(factory.getLogger("foo.bar"), is(sameInstance(logger)));
+    verify(innerFactory, times(1)).getLogger("foo.bar");
+  }
+
+  @Test
+  public void shouldBuildMessageOnCallingThreadButNotLogIt() {
+    // Given:
+    givenMessage();
+
+    // When:
+    factory.getLogger("foo.bar").error(msgFactory);
+
+    // Then:
+    verify(msgFactory).apply(config);
+    verify(innerLogger, never()).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldLogQueuedMessagesOnClose() {
+    // Given:
+    givenMessage();
+    factory.getLogger("foo.bar").error(msgFactory);
+
+    // When:
+    factory.close();
+
+    // Then:
+    verify(innerLogger).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldLogOnceDrained() {
+    // Given:
+    givenMessage();
+    factory.getLogger("foo.bar").error(msgFactory);
+
+    // When:
+    writer.drain();
+
+    // Then:
+    verify(innerLogger).error(any(Supplier.class));
+  }
+
+  @Test
+  public void shouldDropMessagesOverRateLimit() {
+    // Given:
+    givenMessage();
+    final ProcessingLogger logger = factory.getLogger("foo.bar");
+
+    // When:
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+    logger.error(msgFactory);
+
+    // Then:
+    assertThat(writer.getDropped(), is(1L));
+  }
+
+  private void givenMessage() {
+    when(msgFactory.apply(any())).thenReturn(msg);
+    when(msg.schema()).thenReturn(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.utils.Time;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TokenBucketTest {
+
+  @Mock
+  private Time time;
+
+  private TokenBucket bucket;
+
+  @Before
+  public void setUp() {
+    bucket = new TokenBucket(2, time);
+  }
+
+  @Test
+  public void shouldAllowBurstOfOneSecondsWorth() {
+    // Then:
+    assertThat(bucket.tryAcquire(), is(true));
+    assertThat(bucket.tryAcquire(), is(true));
+    assertThat(bucket.tryAcquire(), is(false));
+  }
+
+  @Test
+  public void shouldRefillAtRate() {
+    // Given:
+    bucket.tryAcquire();
+    bucket.tryAcquire();
+
+    // When:
+    when(time.nanoseconds()).thenReturn(TimeUnit.MILLISECONDS.toNanos(500));
+
+    // Then:
+    assertThat(bucket.tryAcquire(), is(true));
+    assertThat(bucket.tryAcquire(), is(false));
+  }
+
+  @Test
+  public void shouldNotRefillBeyondCapacity() {
+    // Given:
+    when(time.nanoseconds()).thenReturn(TimeUnit.SECONDS.toNanos(10));
+
+    // Then:
+    assertThat(bucket.tryAcquire(), is(true));
+    assertThat(bucket.tryAcquire(), is(true));
+    assertThat(bucket.tryAcquire(), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIfRateTooHighToLimit() {
+    new TokenBucket(TokenBucket.MAX_TOKENS_PER_SECOND + 1, time);
+  }
+}
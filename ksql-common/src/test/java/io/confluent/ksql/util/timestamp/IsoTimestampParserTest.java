@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util.timestamp;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import org.junit.Test;
+
+public class IsoTimestampParserTest {
+
+  private static final ZoneId ZONE = ZoneId.of("America/Los_Angeles");
+
+  @Test
+  public void shouldOnlySupportIsoPatterns() {
+    assertThat(IsoTimestampParser.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSS").isPresent(), is(true));
+    assertThat(IsoTimestampParser.forPattern("yyyy-MM-dd HH:mm:ss").isPresent(), is(true));
+    assertThat(IsoTimestampParser.forPattern("yyyy-MM-dd").isPresent(), is(true));
+    assertThat(IsoTimestampParser.forPattern("dd/MM/yyyy").isPresent(), is(false));
+    assertThat(IsoTimestampParser.forPattern("yyyy-MM-dd'T'HH:mm:ssX").isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldParseDateTimeWithMillis() {
+    // Given:
+    final IsoTimestampParser parser = parser("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    // When:
+    final LocalDateTime dateTime = parser.parse("2019-03-17T10:23:45.678");
+
+    // Then:
+    assertThat(dateTime, is(LocalDateTime.of(2019, 3, 17, 10, 23, 45, 678_000_000)));
+  }
+
+  @Test
+  public void shouldParseDate() {
+    // Given:
+    final IsoTimestampParser parser = parser("yyyy-MM-dd");
+
+    // When:
+    final LocalDateTime dateTime = parser.parse("2019-03-17");
+
+    // Then:
+    assertThat(dateTime, is(LocalDateTime.of(2019, 3, 17, 0, 0)));
+  }
+
+  @Test
+  public void shouldLeaveUnexpectedTextToFormatter() {
+    // Given:
+    final IsoTimestampParser parser = parser("yyyy-MM-dd HH:mm:ss");
+
+    // Then:
+    assertThat(parser.parse("2019-03-17T10:23:45"), is(nullValue()));
+    assertThat(parser.parse("2019-03-17 10:23:4x"), is(nullValue()));
+    assertThat(parser.parse("2019-03-17 10:23:45.1"), is(nullValue()));
+    assertThat(parser.parse("2019-02-30 10:23:45"), is(nullValue()));
+    assertThat(parser.parse("2019-03-17 24:00:00"), is(nullValue()));
+    assertThat(parser.parse("0000-03-17 10:23:45"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldGiveSameTimestampsAsFormatter() {
+    final String[][] cases = {
+        {"yyyy-MM-dd'T'HH:mm:ss.SSS", "2019-03-10T02:30:00.001"},
+        {"yyyy-MM-dd'T'HH:mm:ss", "2018-11-04T01:30:00"},
+        {"yyyy-MM-dd HH:mm:ss.SSS", "1999-12-31 23:59:59.999"},
+        {"yyyy-MM-dd HH:mm:ss", "2020-02-29 12:00:00"},
+        {"yyyy-MM-dd", "1970-01-01"}
+    };
+
+    for (final String[] testCase : cases) {
+      // Given:
+      final String pattern = testCase[0];
+      final String text = testCase[1];
+      // An optional trailing space makes the pattern one without a fast path:
+      final StringToTimestampParser formatterParser = new StringToTimestampParser(pattern + "[ ]");
+
+      // When:
+      final long actual = new StringToTimestampParser(pattern).parse(text, ZONE);
+
+      // Then:
+      assertThat(pattern, actual, is(formatterParser.parse(text, ZONE)));
+    }
+  }
+
+  private static IsoTimestampParser parser(final String pattern) {
+    final Optional<IsoTimestampParser> parser = IsoTimestampParser.forPattern(pattern);
+    assertThat(parser.isPresent(), is(true));
+    return parser.get();
+  }
+}
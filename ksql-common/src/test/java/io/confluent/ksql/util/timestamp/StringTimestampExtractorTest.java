@@ -45,6 +45,38 @@ public class StringTimestampExtractorTest {
     assertThat(actualTime, equalTo(expectedTime));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldExtractSameTimestampForRepeatedText() throws ParseException {
+    // Given:
+    final StringTimestampExtractor timestampExtractor = new StringTimestampExtractor(format, 0);
+    final long firstTime = new SimpleDateFormat(format).parse("2010-Jan-11").getTime();
+    final long secondTime = new SimpleDateFormat(format).parse("2010-Jan-12").getTime();
+
+    // When:
+    final long first = timestampExtractor.extract(record("2010-Jan-11"), 1);
+    final long repeated = timestampExtractor.extract(record("2010-Jan-11"), 1);
+    final long second = timestampExtractor.extract(record("2010-Jan-12"), 1);
+
+    // Then:
+    assertThat(first, equalTo(firstTime));
+    assertThat(repeated, equalTo(firstTime));
+    assertThat(second, equalTo(secondTime));
+  }
+
+  @Test
+  public void shouldReturnZeroForNullValue() {
+    // Given:
+    final StringTimestampExtractor timestampExtractor = new StringTimestampExtractor(format, 0);
+
+    // When:
+    final long actualTime = timestampExtractor.extract(
+        new ConsumerRecord("topic", 1, 1, null, null), 1);
+
+    // Then:
+    assertThat(actualTime, equalTo(0L));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowIfColumnIndexIsNegative() {
     new StringTimestampExtractor(format, -1);
@@ -56,4 +88,9 @@ public class StringTimestampExtractorTest {
   public void shouldThrowOnNullFormat() {
     new StringTimestampExtractor(null, -1);
   }
-}
\ No newline at end of file
+
+  private static ConsumerRecord<Object, Object> record(final String timestamp) {
+    return new ConsumerRecord<>(
+        "topic", 1, 1, null, new GenericRow(Collections.singletonList(timestamp)));
+  }
+}
@@ -46,7 +46,10 @@ import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.QueryContainer;
 import io.confluent.ksql.parser.tree.QuerySpecification;
 import io.confluent.ksql.parser.tree.Table;
+import io.confluent.ksql.physical.SharedSourceRuntimes;
 import io.confluent.ksql.planner.LogicalPlanNode;
+import io.confluent.ksql.planner.PlanSourceExtractorVisitor;
+import io.confluent.ksql.planner.plan.OutputNode;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.registry.SchemaRegistryUtil;
 import io.confluent.ksql.serde.DataSource;
@@ -75,6 +78,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.kafka.streams.StreamsConfig;
 import org.slf4j.Logger;
@@ -125,7 +129,8 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
         processingLogContext,
         metaStore,
         new QueryIdGenerator(),
-        this::unregisterQuery);
+        this::unregisterQuery,
+        Optional.of(new SharedSourceRuntimes()));
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.serviceId = Objects.requireNonNull(serviceId, "serviceId");
     this.engineMetrics = engineMetricsFactory.apply(this);
@@ -175,6 +180,10 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     return primaryContext.ddlCommandExec;
   }
 
+  public QueryIdGenerator getQueryIdGenerator() {
+    return primaryContext.queryIdGenerator;
+  }
+
   public String getServiceId() {
     return serviceId;
   }
@@ -221,9 +230,34 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     return result;
   }
 
+  /**
+   * Prepares a CREATE AS SELECT or INSERT INTO statement for execution: builds its logical plan
+   * and draws its query id, but defers building its physical plan to
+   * {@link PersistentQueryPlan#execute()}.
+   *
+   * <p>Building the physical plan, which compiles the expressions of the query, is the bulk of
+   * the work of executing such a statement. Plans may be executed concurrently with each other,
+   * and with other statements that do not reference their sources or sinks, but statements must
+   * be planned in order.
+   *
+   * @param statement the statement to plan.
+   * @param ksqlConfig the config.
+   * @param overriddenProperties the property overrides.
+   * @return the plan.
+   */
+  public PersistentQueryPlan planPersistentQuery(
+      final PreparedStatement<?> statement,
+      final KsqlConfig ksqlConfig,
+      final Map<String, Object> overriddenProperties
+  ) {
+    return EngineExecutor.create(primaryContext, ksqlConfig, overriddenProperties)
+        .plan(statement, this::registerQuery);
+  }
+
   @Override
   public void close() {
     allLiveQueries.forEach(QueryMetadata::close);
+    primaryContext.sharedSourceRuntimes.ifPresent(SharedSourceRuntimes::close);
     engineMetrics.close();
     aggregateMetricsCollector.shutdown();
   }
@@ -294,13 +328,17 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     private final KsqlParser parser = new DefaultKsqlParser();
     private final Consumer<QueryMetadata> outerOnQueryCloseCallback;
     private final Map<QueryId, PersistentQueryMetadata> persistentQueries;
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private final Optional<SharedSourceRuntimes> sharedSourceRuntimes;
 
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     private EngineContext(
         final ServiceContext serviceContext,
         final ProcessingLogContext processingLogContext,
         final MutableMetaStore metaStore,
         final QueryIdGenerator queryIdGenerator,
-        final Consumer<QueryMetadata> onQueryCloseCallback
+        final Consumer<QueryMetadata> onQueryCloseCallback,
+        final Optional<SharedSourceRuntimes> sharedSourceRuntimes
     ) {
       this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
       this.metaStore = Objects.requireNonNull(metaStore, "metaStore");
@@ -312,21 +350,26 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
       this.persistentQueries = new ConcurrentHashMap<>();
       this.processingLogContext = Objects
           .requireNonNull(processingLogContext, "processingLogContext");
+      this.sharedSourceRuntimes =
+          Objects.requireNonNull(sharedSourceRuntimes, "sharedSourceRuntimes");
     }
 
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
     static EngineContext create(
         final ServiceContext serviceContext,
         final ProcessingLogContext processingLogContext,
         final MutableMetaStore metaStore,
         final QueryIdGenerator queryIdGenerator,
-        final Consumer<QueryMetadata> onQueryCloseCallback
+        final Consumer<QueryMetadata> onQueryCloseCallback,
+        final Optional<SharedSourceRuntimes> sharedSourceRuntimes
     ) {
       return new EngineContext(
           serviceContext,
           processingLogContext,
           metaStore,
           queryIdGenerator,
-          onQueryCloseCallback);
+          onQueryCloseCallback,
+          sharedSourceRuntimes);
     }
 
     QueryEngine createQueryEngine() {
@@ -334,7 +377,8 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
           serviceContext,
           processingLogContext,
           queryIdGenerator,
-          this::unregisterQuery);
+          this::unregisterQuery,
+          sharedSourceRuntimes);
     }
 
     String executeDdlStatement(
@@ -437,18 +481,10 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
     }
 
     ExecuteResult execute(final PreparedStatement<?> statement) {
-      try {
-        final PreparedStatement<?> postProcessed = preProcessStatement(statement);
-
-        throwOnNonExecutableStatement(postProcessed);
-
+      return withStatementText(statement, () -> {
         final QueryEngine queryEngine = engineContext.createQueryEngine();
 
-        final LogicalPlanNode logicalPlan = queryEngine.buildLogicalPlan(
-            engineContext.metaStore,
-            postProcessed,
-            ksqlConfig.cloneWithPropertyOverwrite(overriddenProperties)
-        );
+        final LogicalPlanNode logicalPlan = buildLogicalPlan(queryEngine, statement);
 
         if (logicalPlan.getNode() == null) {
           final String msg = engineContext.executeDdlStatement(
@@ -460,19 +496,91 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
           return ExecuteResult.of(msg);
         }
 
-        final QueryMetadata query = queryEngine.buildPhysicalPlan(
-            logicalPlan,
-            ksqlConfig,
-            overriddenProperties,
-            engineContext.serviceContext.getKafkaClientSupplier(),
-            engineContext.metaStore
+        return ExecuteResult.of(
+            buildQuery(queryEngine, logicalPlan, statement, Optional.empty()));
+      });
+    }
+
+    PersistentQueryPlan plan(
+        final PreparedStatement<?> statement,
+        final Consumer<QueryMetadata> onRegistered
+    ) {
+      return withStatementText(statement, () -> {
+        if (!(statement.getStatement() instanceof CreateAsSelect)
+            && !(statement.getStatement() instanceof InsertInto)) {
+          throw new KsqlStatementException(
+              "Statement is not a persistent query", statement.getStatementText());
+        }
+
+        final QueryEngine queryEngine = engineContext.createQueryEngine();
+
+        final LogicalPlanNode logicalPlan = buildLogicalPlan(queryEngine, statement);
+        final OutputNode outputNode = (OutputNode) logicalPlan.getNode();
+        final QueryId queryId = outputNode.getQueryId(engineContext.queryIdGenerator);
+
+        final PlanSourceExtractorVisitor<?, ?> sourceExtractor =
+            new PlanSourceExtractorVisitor<>();
+        sourceExtractor.process(outputNode, null);
+
+        return new PersistentQueryPlan(
+            statement.getStatementText(),
+            queryId,
+            outputNode.getId().toString(),
+            sourceExtractor.getSourceNames(),
+            () -> withStatementText(statement, () -> {
+              final QueryMetadata query =
+                  buildQuery(queryEngine, logicalPlan, statement, Optional.of(queryId));
+              onRegistered.accept(query);
+              return (PersistentQueryMetadata) query;
+            })
         );
+      });
+    }
 
-        validateQuery(query, statement);
+    private LogicalPlanNode buildLogicalPlan(
+        final QueryEngine queryEngine,
+        final PreparedStatement<?> statement
+    ) {
+      final PreparedStatement<?> postProcessed = preProcessStatement(statement);
 
-        engineContext.registerQuery(query);
+      throwOnNonExecutableStatement(postProcessed);
 
-        return ExecuteResult.of(query);
+      return queryEngine.buildLogicalPlan(
+          engineContext.metaStore,
+          postProcessed,
+          ksqlConfig.cloneWithPropertyOverwrite(overriddenProperties)
+      );
+    }
+
+    @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+    private QueryMetadata buildQuery(
+        final QueryEngine queryEngine,
+        final LogicalPlanNode logicalPlan,
+        final PreparedStatement<?> statement,
+        final Optional<QueryId> queryId
+    ) {
+      final QueryMetadata query = queryEngine.buildPhysicalPlan(
+          logicalPlan,
+          ksqlConfig,
+          overriddenProperties,
+          engineContext.serviceContext.getKafkaClientSupplier(),
+          engineContext.metaStore,
+          queryId
+      );
+
+      validateQuery(query, statement);
+
+      engineContext.registerQuery(query);
+
+      return query;
+    }
+
+    private static <T> T withStatementText(
+        final PreparedStatement<?> statement,
+        final Supplier<T> action
+    ) {
+      try {
+        return action.get();
       } catch (final KsqlStatementException e) {
         throw e;
       } catch (final Exception e) {
@@ -624,7 +732,9 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
           sourceContext.queryIdGenerator.copy(),
           query -> {
             // No-op
-          }
+          },
+          // Sandboxed transient queries are never started, so never need a shared runtime:
+          Optional.empty()
       );
 
       sourceContext.persistentQueries.forEach((queryId, query) ->
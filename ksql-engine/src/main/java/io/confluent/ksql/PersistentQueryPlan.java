@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql;
+
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A CREATE AS SELECT or INSERT INTO statement whose logical plan has been built and whose query
+ * id has been drawn, but whose physical plan has not yet been built.
+ *
+ * <p>{@link #execute()} builds the physical plan, which compiles the expressions of the query
+ * and creates its {@code KafkaStreams} instance, and registers the query with the engine. It
+ * may be called from any thread. Executing the plan also adds the sink of the query to the
+ * metastore, so statements that reference the sink must not be prepared before it completes.
+ */
+public final class PersistentQueryPlan {
+
+  private final String statementText;
+  private final QueryId queryId;
+  private final String sinkName;
+  private final Set<String> sourceNames;
+  private final Supplier<PersistentQueryMetadata> executor;
+  private final AtomicBoolean executed = new AtomicBoolean();
+
+  public PersistentQueryPlan(
+      final String statementText,
+      final QueryId queryId,
+      final String sinkName,
+      final Set<String> sourceNames,
+      final Supplier<PersistentQueryMetadata> executor
+  ) {
+    this.statementText = Objects.requireNonNull(statementText, "statementText");
+    this.queryId = Objects.requireNonNull(queryId, "queryId");
+    this.sinkName = Objects.requireNonNull(sinkName, "sinkName");
+    this.sourceNames = ImmutableSet.copyOf(Objects.requireNonNull(sourceNames, "sourceNames"));
+    this.executor = Objects.requireNonNull(executor, "executor");
+  }
+
+  public String getStatementText() {
+    return statementText;
+  }
+
+  public QueryId getQueryId() {
+    return queryId;
+  }
+
+  public String getSinkName() {
+    return sinkName;
+  }
+
+  public Set<String> getSourceNames() {
+    return sourceNames;
+  }
+
+  /**
+   * Builds the physical plan of the query and registers it with the engine. The query is not
+   * started.
+   *
+   * @return the registered query.
+   * @throws IllegalStateException if the plan has already been executed.
+   */
+  public PersistentQueryMetadata execute() {
+    if (!executed.compareAndSet(false, true)) {
+      throw new IllegalStateException("Plan already executed: " + queryId);
+    }
+    return executor.get();
+  }
+}
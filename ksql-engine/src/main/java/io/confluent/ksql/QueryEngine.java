@@ -31,15 +31,18 @@ import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.parser.tree.SingleColumn;
 import io.confluent.ksql.physical.KafkaStreamsBuilderImpl;
 import io.confluent.ksql.physical.PhysicalPlanBuilder;
+import io.confluent.ksql.physical.SharedSourceRuntimes;
 import io.confluent.ksql.planner.LogicalPlanNode;
 import io.confluent.ksql.planner.LogicalPlanner;
 import io.confluent.ksql.planner.plan.PlanNode;
+import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QueryIdGenerator;
 import io.confluent.ksql.util.QueryMetadata;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Schema;
@@ -59,12 +62,16 @@ class QueryEngine {
   private final ProcessingLogContext processingLogContext;
   private final Consumer<QueryMetadata> queryCloseCallback;
   private final QueryIdGenerator queryIdGenerator;
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private final Optional<SharedSourceRuntimes> sharedSourceRuntimes;
 
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   QueryEngine(
       final ServiceContext serviceContext,
       final ProcessingLogContext processingLogContext,
       final QueryIdGenerator queryIdGenerator,
-      final Consumer<QueryMetadata> queryCloseCallback
+      final Consumer<QueryMetadata> queryCloseCallback,
+      final Optional<SharedSourceRuntimes> sharedSourceRuntimes
   ) {
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.processingLogContext = Objects.requireNonNull(
@@ -72,6 +79,8 @@ class QueryEngine {
         "processingLogContext");
     this.queryCloseCallback = Objects.requireNonNull(queryCloseCallback, "queryCloseCallback");
     this.queryIdGenerator = Objects.requireNonNull(queryIdGenerator, "queryIdGenerator");
+    this.sharedSourceRuntimes =
+        Objects.requireNonNull(sharedSourceRuntimes, "sharedSourceRuntimes");
   }
 
   @SuppressWarnings("MethodMayBeStatic") // To allow action to be mocked.
@@ -103,6 +112,27 @@ class QueryEngine {
       final KafkaClientSupplier clientSupplier,
       final MutableMetaStore metaStore
   ) {
+    return buildPhysicalPlan(
+        logicalPlanNode,
+        ksqlConfig,
+        overriddenProperties,
+        clientSupplier,
+        metaStore,
+        Optional.empty());
+  }
+
+  /**
+   * @param queryId the id of the query, if it has already been drawn from the generator.
+   */
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  QueryMetadata buildPhysicalPlan(
+      final LogicalPlanNode logicalPlanNode,
+      final KsqlConfig ksqlConfig,
+      final Map<String, Object> overriddenProperties,
+      final KafkaClientSupplier clientSupplier,
+      final MutableMetaStore metaStore,
+      final Optional<QueryId> queryId
+  ) {
 
     final StreamsBuilder builder = new StreamsBuilder();
 
@@ -117,10 +147,13 @@ class QueryEngine {
         metaStore,
         queryIdGenerator,
         new KafkaStreamsBuilderImpl(clientSupplier),
-        queryCloseCallback
+        queryCloseCallback,
+        sharedSourceRuntimes
     );
 
-    return physicalPlanBuilder.buildPhysicalPlan(logicalPlanNode);
+    return queryId
+        .map(id -> physicalPlanBuilder.buildPhysicalPlan(logicalPlanNode, id))
+        .orElseGet(() -> physicalPlanBuilder.buildPhysicalPlan(logicalPlanNode));
   }
 
   @SuppressWarnings("MethodMayBeStatic") // To allow action to be mocked.
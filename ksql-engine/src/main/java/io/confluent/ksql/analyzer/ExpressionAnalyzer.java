@@ -59,6 +59,7 @@ public class ExpressionAnalyzer {
 
     protected Object visitLikePredicate(final LikePredicate node, final Object context) {
       process(node.getValue(), null);
+      process(node.getPattern(), null);
       return null;
     }
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.commons.compiler.CompilerFactoryFactory;
+import org.codehaus.commons.compiler.IClassBodyEvaluator;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+
+/**
+ * A bounded cache of the code compiled for expressions, shared by all queries.
+ *
+ * <p>Many queries contain identical expressions over identical schemas, e.g. the same filter in
+ * many INSERT INTO statements. Entries are keyed by the generated source and everything else
+ * handed to the compiler, so a cached entry is interchangeable with a freshly compiled one. The
+ * compiled code holds no per-query state: the UDF instances and type enforcer of a query are
+ * passed in when it is evaluated or instantiated.
+ *
+ * <p>Evicted classes are unloaded once no query uses them any more, as each entry is compiled
+ * by its own class loader.
+ */
+public final class CodeGenCache {
+
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final CodeGenCache INSTANCE = new CodeGenCache(MAX_ENTRIES);
+
+  private final Cache<List<Object>, Object> cache;
+
+  CodeGenCache(final int maxEntries) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .recordStats()
+        .build();
+  }
+
+  public static CodeGenCache instance() {
+    return INSTANCE;
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Get the evaluator for an expression, compiling it on a miss. The returned evaluator is
+   * cooked, and so must not be configured further.
+   */
+  IExpressionEvaluator getExpressionEvaluator(
+      final String javaCode,
+      final String[] parameterNames,
+      final Class<?>[] parameterTypes,
+      final Class<?> expressionType
+  ) throws CompileException {
+    final List<Object> key = ImmutableList.of(
+        IExpressionEvaluator.class,
+        javaCode,
+        Arrays.asList(parameterNames),
+        Arrays.asList(parameterTypes),
+        expressionType);
+
+    return (IExpressionEvaluator) get(key, () -> {
+      final IExpressionEvaluator ee =
+          CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
+      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
+      ee.setParameters(parameterNames, parameterTypes);
+      ee.setExpressionType(expressionType);
+      ee.cook(javaCode);
+      return ee;
+    });
+  }
+
+  /**
+   * Get the class compiled from a class body, compiling it on a miss.
+   */
+  Class<?> getClass(
+      final String className,
+      final String javaCode,
+      final Class<?>[] implementedInterfaces
+  ) throws CompileException {
+    final List<Object> key = ImmutableList.of(
+        IClassBodyEvaluator.class,
+        className,
+        javaCode,
+        Arrays.asList(implementedInterfaces));
+
+    return (Class<?>) get(key, () -> {
+      final IClassBodyEvaluator cbe =
+          CompilerFactoryFactory.getDefaultCompilerFactory().newClassBodyEvaluator();
+      cbe.setClassName(className);
+      cbe.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
+      cbe.setImplementedInterfaces(implementedInterfaces);
+      cbe.cook(javaCode);
+      return cbe.getClazz();
+    });
+  }
+
+  private Object get(
+      final List<Object> key,
+      final Callable<Object> compiler
+  ) throws CompileException {
+    try {
+      return cache.get(key, compiler);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof CompileException) {
+        throw (CompileException) e.getCause();
+      }
+      throw new IllegalStateException("Failed to compile: " + e.getCause(), e.getCause());
+    } catch (final UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
@@ -40,10 +40,13 @@ import io.confluent.ksql.util.ExpressionTypeManager;
 import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.ProjectionMetadata;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -52,11 +55,12 @@ import java.util.stream.Stream;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.codehaus.commons.compiler.CompileException;
-import org.codehaus.commons.compiler.CompilerFactoryFactory;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 public class CodeGenRunner {
 
+  private static final String PROJECTION_CLASS_NAME = "GeneratedProjection";
+
   private final Schema schema;
   private final FunctionRegistry functionRegistry;
   private final ExpressionTypeManager expressionTypeManager;
@@ -76,6 +80,18 @@ public class CodeGenRunner {
         .collect(Collectors.toList());
   }
 
+  public static ProjectionMetadata compileProjection(
+      final Optional<Expression> filterExpression,
+      final List<Expression> expressions,
+      final String type,
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry
+  ) {
+    return new CodeGenRunner(schema, ksqlConfig, functionRegistry)
+        .buildProjection(filterExpression, expressions, type);
+  }
+
   public CodeGenRunner(
       final Schema schema,
       final KsqlConfig ksqlConfig,
@@ -117,16 +133,13 @@ public class CodeGenRunner {
 
       final String javaCode = new SqlToJavaVisitor(schema, functionRegistry).process(expression);
 
-      final IExpressionEvaluator ee =
-          CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
-      ee.setParameters(parameterNames, parameterTypes);
-
       final Schema expressionType = expressionTypeManager.getExpressionSchema(expression);
 
-      ee.setExpressionType(SchemaUtil.getJavaType(expressionType));
-
-      ee.cook(javaCode);
+      final IExpressionEvaluator ee = CodeGenCache.instance().getExpressionEvaluator(
+          javaCode,
+          parameterNames,
+          parameterTypes,
+          SchemaUtil.getJavaType(expressionType));
 
       return new ExpressionMetadata(
           ee,
@@ -145,6 +158,242 @@ public class CodeGenRunner {
     }
   }
 
+  public ProjectionMetadata buildProjection(
+      final List<Expression> expressions,
+      final String type
+  ) {
+    return buildProjection(Optional.empty(), expressions, type);
+  }
+
+  /**
+   * Generates a single class that computes all of the supplied expressions for a row, optionally
+   * only for rows that match the supplied filter expression.
+   *
+   * <p>The columns used by the filter and the expressions are read and type-enforced at most
+   * once per row. Expressions that are plain column references are type-enforced and copied from
+   * the input row without evaluation. The filter and each other expression are compiled into
+   * their own methods, which take the columns they use as arguments and are called directly
+   * rather than through an expression evaluator.
+   *
+   * <p>A column that can not be read only fails the filter, if the filter uses it, or else the
+   * expressions that use it.
+   */
+  public ProjectionMetadata buildProjection(
+      final Optional<Expression> filterExpression,
+      final List<Expression> expressions,
+      final String type
+  ) {
+    final Map<String, ParameterType> boundColumns = new LinkedHashMap<>();
+    final List<Kudf> kudfObjects = new ArrayList<>();
+    final SqlToJavaVisitor.Constants constants = new SqlToJavaVisitor.Constants();
+    final List<Schema> expressionTypes = new ArrayList<>(expressions.size());
+    final StringBuilder methods = new StringBuilder();
+    final StringBuilder body = new StringBuilder();
+
+    // The filter's columns are read before the filter runs, so are read for every row:
+    final Set<String> filterColumns = new HashSet<>();
+    if (filterExpression.isPresent()) {
+      final Map<String, ParameterType> columns = new LinkedHashMap<>();
+      final String args = appendMethod(
+          methods, "filter", "boolean", filterExpression.get(), columns, kudfObjects,
+          constants, type);
+      boundColumns.putAll(columns);
+      filterColumns.addAll(columns.keySet());
+      body.append("  try {\n");
+      for (final ParameterType param : columns.values()) {
+        body.append("    ").append(bindColumn(param));
+      }
+      body.append("    if (!filter(").append(args).append(")) {\n")
+          .append("      return false;\n")
+          .append("    }\n")
+          .append("  } catch (final Exception $e) {\n")
+          .append("    $errorHandler.onFilterError($row, $e);\n")
+          .append("    return false;\n")
+          .append("  }\n");
+    }
+
+    for (int column = 0; column < expressions.size(); column++) {
+      final Expression expression = expressions.get(column);
+      expressionTypes.add(getExpressionType(expression, type));
+
+      final int columnIndex = columnReferenceIndex(expression);
+      if (columnIndex >= 0) {
+        body.append("  try {\n")
+            .append("    $output[").append(column).append("] = $typeEnforcer.enforceFieldType(")
+            .append(columnIndex).append(", $columns.get(").append(columnIndex).append("));\n")
+            .append("  } catch (final Exception $e) {\n")
+            .append("    $errorHandler.onColumnError($row, ").append(column).append(", $e);\n")
+            .append("  }\n");
+        continue;
+      }
+
+      final String javaType =
+          SchemaUtil.getJavaType(expressionTypes.get(column)).getCanonicalName();
+      final Map<String, ParameterType> columns = new LinkedHashMap<>();
+      final String args = appendMethod(
+          methods, "evaluate" + column, javaType, expression, columns, kudfObjects,
+          constants, type);
+      boundColumns.putAll(columns);
+      // Other columns are read by the first expression that uses them. A column that can not be
+      // read, or fails to evaluate, is left null:
+      body.append("  try {\n");
+      for (final ParameterType param : columns.values()) {
+        if (!filterColumns.contains(param.name)) {
+          body.append("    if (!").append(param.name).append("$bound) {\n")
+              .append("      ").append(bindColumn(param))
+              .append("      ").append(param.name).append("$bound = true;\n")
+              .append("    }\n");
+        }
+      }
+      body.append("    $output[").append(column).append("] = evaluate").append(column)
+          .append('(').append(args).append(");\n")
+          .append("  } catch (final Exception $e) {\n")
+          .append("    $errorHandler.onColumnError($row, ").append(column).append(", $e);\n")
+          .append("  }\n");
+    }
+    body.append("  return true;\n");
+
+    final StringBuilder project = new StringBuilder()
+        .append("public boolean project(final io.confluent.ksql.GenericRow $row,"
+            + " final Object[] $output,"
+            + " final io.confluent.ksql.util.ProjectionMetadata.ErrorHandler $errorHandler)"
+            + " {\n")
+        .append("  final java.util.List $columns = $row.getColumns();\n");
+    for (final ParameterType param : boundColumns.values()) {
+      project.append("  ").append(param.type.getCanonicalName()).append(' ').append(param.name)
+          .append(" = null;\n");
+      if (!filterColumns.contains(param.name)) {
+        project.append("  boolean ").append(param.name).append("$bound = false;\n");
+      }
+    }
+    project.append(body).append("}\n");
+
+    final String javaCode = constants.getDeclarations()
+        + "private final io.confluent.ksql.function.udf.Kudf[] $udfs;\n"
+        + "private final io.confluent.ksql.util.GenericRowValueTypeEnforcer $typeEnforcer;\n\n"
+        + "public " + PROJECTION_CLASS_NAME + "("
+        + "final io.confluent.ksql.function.udf.Kudf[] udfs,"
+        + " final io.confluent.ksql.util.GenericRowValueTypeEnforcer typeEnforcer) {\n"
+        + "  this.$udfs = udfs;\n"
+        + "  this.$typeEnforcer = typeEnforcer;\n"
+        + "}\n\n"
+        + project + "\n"
+        + methods;
+
+    try {
+      final Class<?> projectionClass = CodeGenCache.instance().getClass(
+          PROJECTION_CLASS_NAME,
+          javaCode,
+          new Class<?>[]{ProjectionMetadata.Evaluator.class});
+
+      final ProjectionMetadata.Evaluator evaluator = (ProjectionMetadata.Evaluator) projectionClass
+          .getConstructor(Kudf[].class, GenericRowValueTypeEnforcer.class)
+          .newInstance(
+              kudfObjects.toArray(new Kudf[0]),
+              new GenericRowValueTypeEnforcer(schema));
+
+      return new ProjectionMetadata(filterExpression, expressions, expressionTypes, evaluator);
+    } catch (final CompileException e) {
+      throw new KsqlException("Code generation failed for " + type
+          + ": " + e.getMessage()
+          + ". filter:" + filterExpression.orElse(null)
+          + ", expressions:" + expressions + ", schema:" + schema, e);
+    } catch (final Exception e) {
+      throw new RuntimeException("Unexpected error generating code for " + type
+          + ". filter:" + filterExpression.orElse(null)
+          + ", expressions:" + expressions, e);
+    }
+  }
+
+  private Schema getExpressionType(final Expression expression, final String type) {
+    try {
+      return expressionTypeManager.getExpressionSchema(expression);
+    } catch (final KsqlException e) {
+      throw codeGenFailed(expression, type, e);
+    }
+  }
+
+  /**
+   * Appends a method that evaluates the supplied expression to {@code methods}, and adds the
+   * columns it takes as arguments to {@code columns}.
+   *
+   * @return the arguments to call the method with.
+   */
+  private String appendMethod(
+      final StringBuilder methods,
+      final String methodName,
+      final String javaType,
+      final Expression expression,
+      final Map<String, ParameterType> columns,
+      final List<Kudf> kudfObjects,
+      final SqlToJavaVisitor.Constants constants,
+      final String type
+  ) {
+    try {
+      final String javaCode =
+          new SqlToJavaVisitor(schema, functionRegistry, constants).process(expression);
+
+      final List<String> params = new ArrayList<>();
+      final List<String> args = new ArrayList<>();
+      final StringBuilder udfs = new StringBuilder();
+      for (final ParameterType param : getParameterInfo(expression)) {
+        final Kudf kudf = param.getKudf();
+        if (kudf != null) {
+          udfs.append("  final io.confluent.ksql.function.udf.Kudf ").append(param.name)
+              .append(" = $udfs[").append(kudfObjects.size()).append("];\n");
+          kudfObjects.add(kudf);
+        } else {
+          columns.putIfAbsent(param.name, param);
+          params.add("final " + param.type.getCanonicalName() + " " + param.name);
+          args.add(param.name);
+        }
+      }
+
+      methods.append("private ").append(javaType).append(' ').append(methodName).append('(')
+          .append(String.join(", ", params)).append(") throws Exception {\n")
+          .append(udfs)
+          .append("  return (").append(javaCode).append(");\n")
+          .append("}\n\n");
+      return String.join(", ", args);
+    } catch (final KsqlException e) {
+      throw codeGenFailed(expression, type, e);
+    }
+  }
+
+  /**
+   * @return a statement that reads and type-enforces the column of the supplied parameter.
+   */
+  private String bindColumn(final ParameterType param) {
+    final String javaType = param.type.getCanonicalName();
+    final int paramIndex = SchemaUtil.getFieldIndexByName(schema, param.name);
+    return param.name + " = (" + javaType + ") $typeEnforcer.enforceFieldType(" + paramIndex
+        + ", $columns.get(" + paramIndex + "));\n";
+  }
+
+  private KsqlException codeGenFailed(
+      final Expression expression,
+      final String type,
+      final KsqlException e
+  ) {
+    return new KsqlException("Code generation failed for " + type
+        + ": " + e.getMessage()
+        + ". expression:" + expression + ", schema:" + schema, e);
+  }
+
+  private int columnReferenceIndex(final Expression expression) {
+    final String fieldName;
+    if (expression instanceof DereferenceExpression) {
+      fieldName = expression.toString();
+    } else if (expression instanceof QualifiedNameReference) {
+      fieldName = ((QualifiedNameReference) expression).getName().getSuffix();
+    } else {
+      return -1;
+    }
+    return SchemaUtil.getFieldByName(schema, fieldName)
+        .map(Field::index)
+        .orElse(-1);
+  }
+
   private static final class Visitor extends AstVisitor<Object, Object> {
 
     private final Schema schema;
@@ -175,6 +424,7 @@ public class CodeGenRunner {
 
     protected Object visitLikePredicate(final LikePredicate node, final Object context) {
       process(node.getValue(), null);
+      process(node.getPattern(), null);
       return null;
     }
 
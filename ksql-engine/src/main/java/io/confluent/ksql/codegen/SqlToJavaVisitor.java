@@ -20,10 +20,17 @@ import static java.lang.String.format;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Primitives;
 import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.KsqlFunction;
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.UdfFactory;
+import io.confluent.ksql.function.UdfTemplate;
+import io.confluent.ksql.function.udf.PluggableUdf;
 import io.confluent.ksql.function.udf.caseexpression.SearchedCaseFunction;
+import io.confluent.ksql.function.udf.string.LikePattern;
+import io.confluent.ksql.function.udf.string.RegexpExtract;
+import io.confluent.ksql.function.udf.string.RegexpMatch;
 import io.confluent.ksql.function.udf.structfieldextractor.FetchFieldFromStruct;
 import io.confluent.ksql.parser.tree.AllColumns;
 import io.confluent.ksql.parser.tree.ArithmeticBinaryExpression;
@@ -60,10 +67,16 @@ import io.confluent.ksql.util.ExpressionTypeManager;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.StrSubstitutor;
@@ -81,16 +94,36 @@ public class SqlToJavaVisitor {
       "java.util.List",
       "java.util.ArrayList",
       "com.google.common.collect.ImmutableList",
-      "java.util.function.Supplier");
+      "java.util.function.Supplier",
+      "java.util.regex.Pattern",
+      "io.confluent.ksql.function.udf.string.LikePattern",
+      "io.confluent.ksql.function.udf.string.PatternCache",
+      "io.confluent.ksql.function.udf.string.RegexpExtract",
+      "io.confluent.ksql.function.udf.string.RegexpMatch");
 
   private final Schema schema;
   private final FunctionRegistry functionRegistry;
+  private final Constants constants;
 
   private final ExpressionTypeManager expressionTypeManager;
 
   public SqlToJavaVisitor(final Schema schema, final FunctionRegistry functionRegistry) {
+    this(schema, functionRegistry, null);
+  }
+
+  /**
+   * @param constants if not null, values that only need computing once, such as compiled literal
+   *     patterns, are added to it rather than being looked up when the expression is evaluated.
+   *     The caller must then declare them in the generated class.
+   */
+  public SqlToJavaVisitor(
+      final Schema schema,
+      final FunctionRegistry functionRegistry,
+      final Constants constants
+  ) {
     this.schema = schema;
     this.functionRegistry = functionRegistry;
+    this.constants = constants;
     this.expressionTypeManager =
         new ExpressionTypeManager(schema, functionRegistry);
   }
@@ -262,7 +295,17 @@ public class SqlToJavaVisitor {
 
       final String instanceName = functionName + "_" + functionCounter++;
       final Schema functionReturnSchema = getFunctionReturnSchema(node, functionName);
+      final Optional<String> regexpCall = visitRegexpFunctionCall(node, unmangleNames);
+      if (regexpCall.isPresent()) {
+        return new Pair<>(regexpCall.get(), functionReturnSchema);
+      }
       final String javaReturnType = SchemaUtil.getJavaType(functionReturnSchema).getSimpleName();
+      final Optional<String> directCall =
+          visitDirectFunctionCall(node, instanceName, unmangleNames);
+      if (directCall.isPresent()) {
+        return new Pair<>(
+            "((" + javaReturnType + ") " + directCall.get() + ")", functionReturnSchema);
+      }
       final String arguments = node.getArguments().stream()
           .map(arg -> process(arg, unmangleNames).getLeft())
           .collect(Collectors.joining(", "));
@@ -271,6 +314,136 @@ public class SqlToJavaVisitor {
       return new Pair<>(codeString, functionReturnSchema);
     }
 
+    /**
+     * Calls the method of an annotated UDF directly, with arguments of its declared parameter
+     * types, rather than through {@link io.confluent.ksql.function.udf.Kudf#evaluate}, which
+     * boxes the arguments into an array and coerces each of them on every call.
+     *
+     * <p>Only functions whose {@link KsqlFunction#getUdfMethod() method} is known, whose
+     * arguments already have the method's parameter types, that declare no checked exceptions and
+     * that are not wrapped, e.g. to record metrics, are called directly.
+     *
+     * <p>Exceptions thrown by the method reach the caller unchanged, as they do from
+     * {@link PluggableUdf#evaluate}, so processing log messages are the same on both paths. Only
+     * UDFs packaged with KSQL have a known method, so the direct call does not need to run under
+     * the extension security manager as {@code PluggableUdf} does.
+     */
+    private Optional<String> visitDirectFunctionCall(
+        final FunctionCall node,
+        final String instanceName,
+        final Boolean unmangleNames
+    ) {
+      final String functionName = node.getName().getSuffix();
+      if (functionName.equalsIgnoreCase(FetchFieldFromStruct.FUNCTION_NAME)) {
+        return Optional.empty();
+      }
+      final List<Schema> argumentSchemas = node.getArguments().stream()
+          .map(expressionTypeManager::getExpressionSchema)
+          .collect(Collectors.toList());
+      if (argumentSchemas.contains(null)) {
+        return Optional.empty();
+      }
+
+      final KsqlFunction function =
+          functionRegistry.getUdfFactory(functionName).getFunction(argumentSchemas);
+      final Optional<Method> method = function.getUdfMethod();
+      if (!method.isPresent()
+          || function.getKudfClass() != PluggableUdf.class
+          || !canCallDirectly(method.get(), argumentSchemas)) {
+        return Optional.empty();
+      }
+
+      final Class<?>[] parameterTypes = method.get().getParameterTypes();
+      final List<String> javaArguments = new ArrayList<>(parameterTypes.length);
+      for (int i = 0; i < parameterTypes.length; i++) {
+        final String argument = process(node.getArguments().get(i), unmangleNames).getLeft();
+        javaArguments.add(parameterTypes[i].isPrimitive()
+            ? UdfTemplate.class.getName() + "." + parameterTypes[i].getName() + "Arg("
+                + argument + ", " + i + ")"
+            : argument);
+      }
+
+      final String call = "((" + method.get().getDeclaringClass().getCanonicalName() + ") (("
+          + PluggableUdf.class.getName() + ") " + instanceName + ").getUdf())."
+          + method.get().getName() + "(" + String.join(", ", javaArguments) + ")";
+      final Class<?> returnType = method.get().getReturnType();
+      return Optional.of(returnType.isPrimitive()
+          ? Primitives.wrap(returnType).getName() + ".valueOf(" + call + ")"
+          : call);
+    }
+
+    private boolean canCallDirectly(final Method method, final List<Schema> argumentSchemas) {
+      if (method.isVarArgs()
+          || method.getParameterCount() != argumentSchemas.size()
+          || !Modifier.isPublic(method.getModifiers())
+          || !Modifier.isPublic(method.getDeclaringClass().getModifiers())
+          || method.getDeclaringClass().getCanonicalName() == null) {
+        return false;
+      }
+      // Expression evaluators declare no checked exceptions, so calls that throw them would not
+      // compile:
+      for (final Class<?> exceptionType : method.getExceptionTypes()) {
+        if (!RuntimeException.class.isAssignableFrom(exceptionType)
+            && !Error.class.isAssignableFrom(exceptionType)) {
+          return false;
+        }
+      }
+      final Class<?>[] parameterTypes = method.getParameterTypes();
+      for (int i = 0; i < parameterTypes.length; i++) {
+        final Class<?> argumentType = SchemaUtil.getJavaType(argumentSchemas.get(i));
+        if (!Primitives.wrap(parameterTypes[i]).isAssignableFrom(argumentType)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Calls the regular expression functions directly when their pattern is a literal, so that
+     * the pattern is compiled only once, when the generated class is loaded.
+     */
+    private Optional<String> visitRegexpFunctionCall(
+        final FunctionCall node,
+        final Boolean unmangleNames
+    ) {
+      final String functionName = node.getName().getSuffix();
+      final String functionClass;
+      final String methodName;
+      if (functionName.equalsIgnoreCase(RegexpMatch.NAME)) {
+        functionClass = "RegexpMatch";
+        methodName = "regexpMatch";
+      } else if (functionName.equalsIgnoreCase(RegexpExtract.NAME)) {
+        functionClass = "RegexpExtract";
+        methodName = "regexpExtract";
+      } else {
+        return Optional.empty();
+      }
+
+      final List<Expression> arguments = node.getArguments();
+      if (constants == null
+          || arguments.size() < 2
+          || !(arguments.get(1) instanceof StringLiteral)) {
+        return Optional.empty();
+      }
+
+      final String regex = ((StringLiteral) arguments.get(1)).getValue();
+      try {
+        Pattern.compile(regex);
+      } catch (final PatternSyntaxException e) {
+        throw new KsqlException("Invalid regular expression for " + functionName
+            + ": " + e.getMessage(), e);
+      }
+
+      final List<String> javaArguments = new ArrayList<>(arguments.size());
+      javaArguments.add(process(arguments.get(0), unmangleNames).getLeft());
+      javaArguments.add(constants.add("Pattern", "Pattern.compile(" + javaString(regex) + ")"));
+      for (final Expression argument : arguments.subList(2, arguments.size())) {
+        javaArguments.add(process(argument, unmangleNames).getLeft());
+      }
+      return Optional.of(functionClass + "." + methodName
+          + "(" + String.join(", ", javaArguments) + ")");
+    }
+
     private Schema getFunctionReturnSchema(
         final FunctionCall node,
         final String functionName) {
@@ -554,49 +727,92 @@ public class SqlToJavaVisitor {
         final LikePredicate node,
         final Boolean unmangleNames
     ) {
-
-      // For now we just support simple prefix/suffix cases only.
-      final String patternString = trimQuotes(process(node.getPattern(), true).getLeft());
       final String valueString = process(node.getValue(), true).getLeft();
-      if (patternString.startsWith("%")) {
-        if (patternString.endsWith("%")) {
-          return new Pair<>(
-              "(" + valueString + ").contains(\""
-                  + patternString.substring(1, patternString.length() - 1)
-                  + "\")",
-              Schema.OPTIONAL_STRING_SCHEMA
-          );
-        } else {
-          return new Pair<>(
-              "(" + valueString + ").endsWith(\"" + patternString.substring(1) + "\")",
-              Schema.OPTIONAL_STRING_SCHEMA
-          );
-        }
-      }
+      final String escape = getLikeEscape(node);
 
-      if (patternString.endsWith("%")) {
+      if (!(node.getPattern() instanceof StringLiteral)) {
+        final String patternString = process(node.getPattern(), true).getLeft();
         return new Pair<>(
-            "(" + valueString + ")"
-                + ".startsWith(\""
-                + patternString.substring(0, patternString.length() - 1) + "\")",
-            Schema.OPTIONAL_STRING_SCHEMA
+            "LikePattern.matches(" + valueString + ", " + patternString + ", "
+                + (escape == null ? "null" : javaString(escape)) + ")",
+            Schema.OPTIONAL_BOOLEAN_SCHEMA
         );
       }
 
-      if (!patternString.contains("%")) {
+      final String patternString = ((StringLiteral) node.getPattern()).getValue();
+      if (escape == null) {
+        final Optional<String> simpleMatch = visitSimpleLikePattern(valueString, patternString);
+        if (simpleMatch.isPresent()) {
+          return new Pair<>(simpleMatch.get(), Schema.OPTIONAL_BOOLEAN_SCHEMA);
+        }
+      }
+
+      // Validates the pattern:
+      LikePattern.compile(patternString, escape);
+
+      final String escapeString = escape == null ? "null" : javaString(escape);
+      if (constants == null) {
         return new Pair<>(
-            "(" + valueString + ")"
-                + ".equals(\""
-                + patternString + "\")",
-            Schema.OPTIONAL_STRING_SCHEMA
+            "LikePattern.matches(" + valueString + ", " + javaString(patternString) + ", "
+                + escapeString + ")",
+            Schema.OPTIONAL_BOOLEAN_SCHEMA
         );
       }
 
-      throw new UnsupportedOperationException(
-          "KSQL only supports leading and trailing wildcards in LIKE expressions."
+      final String likePattern = constants.add(
+          "LikePattern",
+          "LikePattern.compile(" + javaString(patternString) + ", " + escapeString + ")");
+      return new Pair<>(
+          likePattern + ".matches(" + valueString + ")",
+          Schema.OPTIONAL_BOOLEAN_SCHEMA
       );
     }
 
+    private String getLikeEscape(final LikePredicate node) {
+      if (node.getEscape() == null) {
+        return null;
+      }
+      if (!(node.getEscape() instanceof StringLiteral)) {
+        throw new KsqlException("LIKE escape must be a string literal: " + node.getEscape());
+      }
+      return ((StringLiteral) node.getEscape()).getValue();
+    }
+
+    /**
+     * Patterns without single character wildcards and with multi-character wildcards only at
+     * their start or end are matched with plain string methods.
+     */
+    private Optional<String> visitSimpleLikePattern(
+        final String valueString,
+        final String patternString
+    ) {
+      if (patternString.indexOf('_') >= 0) {
+        return Optional.empty();
+      }
+
+      final boolean leadingWildcard = patternString.startsWith("%");
+      final boolean trailingWildcard = patternString.length() > (leadingWildcard ? 1 : 0)
+          && patternString.endsWith("%");
+      final String literal = patternString.substring(
+          leadingWildcard ? 1 : 0,
+          patternString.length() - (trailingWildcard ? 1 : 0));
+      if (literal.contains("%")) {
+        return Optional.empty();
+      }
+
+      final String method;
+      if (leadingWildcard && trailingWildcard) {
+        method = "contains";
+      } else if (leadingWildcard) {
+        method = "endsWith";
+      } else if (trailingWildcard) {
+        method = "startsWith";
+      } else {
+        method = "equals";
+      }
+      return Optional.of("(" + valueString + ")." + method + "(" + javaString(literal) + ")");
+    }
+
     @Override
     protected Pair<String, Schema> visitAllColumns(
         final AllColumns node, final Boolean unmangleNames) {
@@ -695,10 +911,6 @@ public class SqlToJavaVisitor {
       return s;
     }
 
-    private String trimQuotes(final String s) {
-      return s.substring(1, s.length() - 1);
-    }
-
     private String getCastToBooleanString(final Schema schema, final String exprStr) {
       if (schema.type() == Schema.Type.BOOLEAN) {
         return exprStr;
@@ -746,6 +958,71 @@ public class SqlToJavaVisitor {
     }
   }
 
+  private static String javaString(final String value) {
+    final StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      // Janino replaces unicode escapes before reading literals, so a unicode escape of a line
+      // break would end the literal. Control characters therefore use the other escapes:
+      switch (c) {
+        case '"':
+        case '\\':
+          builder.append('\\').append(c);
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        case '\b':
+          builder.append("\\b");
+          break;
+        case '\f':
+          builder.append("\\f");
+          break;
+        default:
+          if (c < ' ') {
+            builder.append(String.format("\\%03o", (int) c));
+          } else if (c > '~') {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+      }
+    }
+    return builder.append('"').toString();
+  }
+
+  /**
+   * Values that the generated code computes once, declared as static fields of the generated
+   * class.
+   */
+  public static final class Constants {
+
+    private final Map<String, String> names = new LinkedHashMap<>();
+    private final StringBuilder declarations = new StringBuilder();
+
+    /**
+     * @return the name of the field holding the value computed by {@code initializer}.
+     */
+    String add(final String javaType, final String initializer) {
+      return names.computeIfAbsent(initializer, init -> {
+        final String name = "$constant" + names.size();
+        declarations.append("private static final ").append(javaType).append(' ').append(name)
+            .append(" = ").append(init).append(";\n");
+        return name;
+      });
+    }
+
+    public String getDeclarations() {
+      return declarations.toString();
+    }
+  }
+
   private static final class CaseWhenProcessed {
 
     private final Pair<String, Schema> whenProcessResult;
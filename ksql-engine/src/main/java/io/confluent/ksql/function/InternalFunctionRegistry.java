@@ -17,8 +17,10 @@ package io.confluent.ksql.function;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.udaf.count.CountAggFunctionFactory;
+import io.confluent.ksql.function.udaf.countdistinct.CountDistinctAggFunctionFactory;
 import io.confluent.ksql.function.udaf.max.MaxAggFunctionFactory;
 import io.confluent.ksql.function.udaf.min.MinAggFunctionFactory;
+import io.confluent.ksql.function.udaf.percentile.ApproxPercentileAggFunctionFactory;
 import io.confluent.ksql.function.udaf.sum.SumAggFunctionFactory;
 import io.confluent.ksql.function.udaf.topk.TopKAggregateFunctionFactory;
 import io.confluent.ksql.function.udaf.topkdistinct.TopkDistinctAggFunctionFactory;
@@ -343,6 +345,9 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
 
       functionRegistry.addAggregateFunctionFactory(new TopKAggregateFunctionFactory());
       functionRegistry.addAggregateFunctionFactory(new TopkDistinctAggFunctionFactory());
+
+      functionRegistry.addAggregateFunctionFactory(new CountDistinctAggFunctionFactory());
+      functionRegistry.addAggregateFunctionFactory(new ApproxPercentileAggFunctionFactory());
     }
 
     private void addBuiltInFunction(final KsqlFunction ksqlFunction) {
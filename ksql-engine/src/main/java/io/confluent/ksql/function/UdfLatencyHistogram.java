@@ -0,0 +1,251 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram of a UDF, recording a sample of one in every {@code sampleInterval}
+ * invocations.
+ *
+ * <p>Each thread records into its own {@link Recorder}, without locks or contended writes. The
+ * recorders are only combined when the histogram is read, so reads see a slightly stale, but
+ * never torn, view of each thread's recordings. The recorders of threads that have ended are
+ * folded into a single retired recorder, so the number of recorders is bounded by the number of
+ * live threads that use the UDF.
+ *
+ * <p>Latencies are counted in log-linear buckets: values below {@code 16} have a bucket each,
+ * larger values share a bucket with values within about 6% of them.
+ */
+final class UdfLatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final int sampleInterval;
+  private final List<Recorder> recorders = new ArrayList<>();
+  private final Recorder retired;
+  private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(this::newRecorder);
+
+  UdfLatencyHistogram(final int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sampleInterval must be at least 1: " + sampleInterval);
+    }
+    this.sampleInterval = sampleInterval;
+    this.retired = new Recorder(sampleInterval, null);
+  }
+
+  /**
+   * @return the recorder of the calling thread.
+   */
+  Recorder recorder() {
+    return recorder.get();
+  }
+
+  synchronized Snapshot snapshot() {
+    retireEndedThreads();
+
+    final long[] counts = new long[BUCKETS];
+    long samples = 0;
+    long sum = 0;
+    long max = 0;
+    final List<Recorder> all = new ArrayList<>(recorders);
+    all.add(retired);
+    for (final Recorder r : all) {
+      // Read the total first: a concurrent record may then only make the buckets hold more.
+      samples += r.samples.get();
+      sum += r.sum.get();
+      max = Math.max(max, r.max.get());
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] += r.counts.get(i);
+      }
+    }
+    return new Snapshot(counts, samples, sum, max, sampleInterval);
+  }
+
+  @VisibleForTesting
+  synchronized int liveRecorders() {
+    return recorders.size();
+  }
+
+  private synchronized Recorder newRecorder() {
+    retireEndedThreads();
+
+    final Recorder r = new Recorder(sampleInterval, Thread.currentThread());
+    recorders.add(r);
+    return r;
+  }
+
+  private void retireEndedThreads() {
+    final Iterator<Recorder> it = recorders.iterator();
+    while (it.hasNext()) {
+      final Recorder r = it.next();
+      // Once its thread is seen to have ended, all of a recorder's writes are visible:
+      if (!r.owner.isAlive()) {
+        retired.add(r);
+        it.remove();
+      }
+    }
+  }
+
+  static int bucket(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) Math.max(value, 0);
+    }
+    final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final int shift = magnitude - SUB_BUCKET_BITS;
+    final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketUpperBound(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  /**
+   * The recordings of a single thread.
+   *
+   * <p>Only the owning thread writes, so updates are plain reads followed by ordered writes. The
+   * retired recorder has no owning thread, and is only written while holding the histogram's lock.
+   */
+  static final class Recorder {
+
+    private final int sampleInterval;
+    private final Thread owner;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private int untilNextSample;
+
+    private Recorder(final int sampleInterval, final Thread owner) {
+      this.sampleInterval = sampleInterval;
+      this.owner = owner;
+    }
+
+    /**
+     * @return {@code true} if the current invocation should be timed and recorded.
+     */
+    boolean shouldSample() {
+      if (untilNextSample > 0) {
+        untilNextSample--;
+        return false;
+      }
+      untilNextSample = sampleInterval - 1;
+      return true;
+    }
+
+    void record(final long latencyNs) {
+      final long value = Math.max(latencyNs, 0);
+      final int bucket = bucket(value);
+      counts.lazySet(bucket, counts.get(bucket) + 1);
+      sum.lazySet(sum.get() + value);
+      if (value > max.get()) {
+        max.lazySet(value);
+      }
+      samples.lazySet(samples.get() + 1);
+    }
+
+    private void add(final Recorder other) {
+      for (int i = 0; i < BUCKETS; i++) {
+        counts.lazySet(i, counts.get(i) + other.counts.get(i));
+      }
+      sum.lazySet(sum.get() + other.sum.get());
+      max.lazySet(Math.max(max.get(), other.max.get()));
+      samples.lazySet(samples.get() + other.samples.get());
+    }
+  }
+
+  /**
+   * The combined recordings of all threads at a point in time.
+   */
+  static final class Snapshot {
+
+    private final long[] counts;
+    private final long samples;
+    private final long sum;
+    private final long max;
+    private final int sampleInterval;
+
+    private Snapshot(
+        final long[] counts,
+        final long samples,
+        final long sum,
+        final long max,
+        final int sampleInterval
+    ) {
+      this.counts = counts;
+      this.samples = samples;
+      this.sum = sum;
+      this.max = max;
+      this.sampleInterval = sampleInterval;
+    }
+
+    long samples() {
+      return samples;
+    }
+
+    /**
+     * @return the estimated number of invocations, i.e. the samples scaled by the interval.
+     */
+    long invocations() {
+      return samples * sampleInterval;
+    }
+
+    double average() {
+      return samples == 0 ? Double.NaN : (double) sum / samples;
+    }
+
+    long max() {
+      return max;
+    }
+
+    /**
+     * @param percentile the percentile, from {@code 0} to {@code 100}.
+     * @return the upper bound of the bucket holding the percentile, capped at the maximum.
+     */
+    double percentile(final double percentile) {
+      long total = 0;
+      for (final long count : counts) {
+        total += count;
+      }
+      if (total == 0) {
+        return Double.NaN;
+      }
+
+      final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(bucketUpperBound(i), max);
+        }
+      }
+      return max;
+    }
+  }
+}
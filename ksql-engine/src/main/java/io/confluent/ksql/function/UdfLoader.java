@@ -47,8 +47,14 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.MeasurableStat;
+import org.apache.kafka.common.metrics.MetricConfig;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.metrics.stats.Avg;
@@ -65,7 +71,7 @@ public class UdfLoader {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
   private static final Logger LOGGER = LoggerFactory.getLogger(UdfLoader.class);
-  private static final String UDF_METRIC_GROUP = "ksql-udf";
+  public static final String UDF_METRIC_GROUP = "ksql-udf";
 
   private final MutableFunctionRegistry functionRegistry;
   private final File pluginDir;
@@ -74,6 +80,7 @@ public class UdfLoader {
   private final UdfCompiler compiler;
   @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   private final Optional<Metrics> metrics;
+  private final int metricsSampleInterval;
   private final boolean loadCustomerUdfs;
 
 
@@ -84,6 +91,7 @@ public class UdfLoader {
                    final Predicate<String> blacklist,
                    final UdfCompiler compiler,
                    final Optional<Metrics> metrics,
+                   final int metricsSampleInterval,
                    final boolean loadCustomerUdfs) {
     this.functionRegistry = Objects
         .requireNonNull(functionRegistry, "functionRegistry can't be null");
@@ -93,6 +101,11 @@ public class UdfLoader {
     this.blacklist = Objects.requireNonNull(blacklist, "blacklist can't be null");
     this.compiler = Objects.requireNonNull(compiler, "compiler can't be null");
     this.metrics = Objects.requireNonNull(metrics, "metrics can't be null");
+    if (metricsSampleInterval < 1) {
+      throw new IllegalArgumentException(
+          "metricsSampleInterval must be at least 1: " + metricsSampleInterval);
+    }
+    this.metricsSampleInterval = metricsSampleInterval;
     this.loadCustomerUdfs = loadCustomerUdfs;
   }
 
@@ -234,13 +247,19 @@ public class UdfLoader {
     instantiateUdfClass(method, classLevelAnnotation);
     final Udf udfAnnotation = method.getAnnotation(Udf.class);
     final String functionName = classLevelAnnotation.name();
-    final String sensorName = "ksql-udf-" + functionName;
+    final String sensorName = sensorName(functionName);
+    final boolean sampled = metricsSampleInterval > 1;
 
     @SuppressWarnings("unchecked")
     final Class<? extends Kudf> udfClass = metrics
-        .map(m -> (Class)UdfMetricProducer.class)
+        .map(m -> sampled ? (Class)SampledUdfMetricProducer.class : (Class)UdfMetricProducer.class)
         .orElse(PluggableUdf.class);
-    addSensor(sensorName, functionName);
+    final Optional<UdfLatencyHistogram> histogram = sampled
+        ? addHistogram(sensorName, functionName)
+        : Optional.empty();
+    if (!sampled) {
+      addSensor(sensorName, functionName);
+    }
 
     LOGGER.info("Adding function " + functionName + " for method " + method);
     functionRegistry.ensureFunctionFactory(new UdfFactory(udfClass,
@@ -279,11 +298,16 @@ public class UdfLoader {
                 .configure(ksqlConfig.getKsqlFunctionsConfigProps(functionName));
           }
           final PluggableUdf theUdf = new PluggableUdf(udf, actualUdf);
+          if (histogram.isPresent()) {
+            return new SampledUdfMetricProducer(histogram.get(), theUdf, Time.SYSTEM);
+          }
           return metrics.<Kudf>map(m -> new UdfMetricProducer(m.getSensor(sensorName),
               theUdf,
               Time.SYSTEM)).orElse(theUdf);
         }, udfAnnotation.description(),
-        path));
+        path,
+        // Only UDFs packaged with KSQL are trusted to be called outside the security manager:
+        KsqlFunction.INTERNAL_PATH.equals(path) ? method : null));
   }
 
   private static Object instantiateUdfClass(final Method method,
@@ -315,10 +339,65 @@ public class UdfLoader {
             "The average number of occurrence of " + udfName + " operation per second "
                 + udfName + " udf"),
             new Rate(TimeUnit.SECONDS, new Count()));
+        sensor.add(metrics.metricName(sensorName + "-total", UDF_METRIC_GROUP,
+            "Total number of invocations of " + udfName + " udf since it was loaded"),
+            new CumulativeCount());
       }
     });
   }
 
+  private Optional<UdfLatencyHistogram> addHistogram(
+      final String sensorName,
+      final String udfName
+  ) {
+    return metrics.map(metrics -> {
+      final KafkaMetric existing =
+          metrics.metric(metrics.metricName(sensorName + "-count", UDF_METRIC_GROUP));
+      if (existing != null && existing.measurable() instanceof HistogramStat) {
+        return ((HistogramStat) existing.measurable()).histogram;
+      }
+
+      final UdfLatencyHistogram histogram = new UdfLatencyHistogram(metricsSampleInterval);
+      addHistogramStat(metrics, histogram, sensorName + "-avg",
+          "Average time for a sampled invocation of " + udfName + " udf",
+          UdfLatencyHistogram.Snapshot::average);
+      addHistogramStat(metrics, histogram, sensorName + "-max",
+          "Max time for a sampled invocation of " + udfName + " udf",
+          UdfLatencyHistogram.Snapshot::max);
+      addHistogramStat(metrics, histogram, sensorName + "-count",
+          "Estimated total number of invocations of " + udfName + " udf",
+          UdfLatencyHistogram.Snapshot::invocations);
+      addHistogramStat(metrics, histogram, sensorName + "-total",
+          "Estimated total number of invocations of " + udfName + " udf since it was loaded",
+          UdfLatencyHistogram.Snapshot::invocations);
+      for (final int percentile : new int[]{50, 95, 99}) {
+        addHistogramStat(metrics, histogram, sensorName + "-p" + percentile,
+            percentile + "th percentile time for a sampled invocation of " + udfName + " udf",
+            snapshot -> snapshot.percentile(percentile));
+      }
+      return histogram;
+    });
+  }
+
+  private static void addHistogramStat(
+      final Metrics metrics,
+      final UdfLatencyHistogram histogram,
+      final String name,
+      final String description,
+      final ToDoubleFunction<UdfLatencyHistogram.Snapshot> stat
+  ) {
+    final MetricName metricName = metrics.metricName(name, UDF_METRIC_GROUP, description);
+    metrics.removeMetric(metricName);
+    metrics.addMetric(metricName, new HistogramStat(histogram, stat));
+  }
+
+  /**
+   * @return the prefix of the names of the metrics of a UDF.
+   */
+  public static String sensorName(final String functionName) {
+    return "ksql-udf-" + functionName;
+  }
+
   public static UdfLoader newInstance(final KsqlConfig config,
                                       final MutableFunctionRegistry metaStore,
                                       final String ksqlInstallDir
@@ -343,7 +422,45 @@ public class UdfLoader {
         new Blacklist(new File(pluginDir, "resource-blacklist.txt")),
         new UdfCompiler(metrics),
         metrics,
+        config.getInt(KsqlConfig.KSQL_UDF_METRICS_SAMPLE_INTERVAL_CONFIG),
         loadCustomerUdfs
     );
   }
+
+  private static final class HistogramStat implements Measurable {
+
+    private final UdfLatencyHistogram histogram;
+    private final ToDoubleFunction<UdfLatencyHistogram.Snapshot> stat;
+
+    private HistogramStat(
+        final UdfLatencyHistogram histogram,
+        final ToDoubleFunction<UdfLatencyHistogram.Snapshot> stat
+    ) {
+      this.histogram = histogram;
+      this.stat = stat;
+    }
+
+    @Override
+    public double measure(final MetricConfig config, final long now) {
+      return stat.applyAsDouble(histogram.snapshot());
+    }
+  }
+
+  /**
+   * Counts all recordings, unlike {@link Count}, which only counts those in its sample window.
+   */
+  private static final class CumulativeCount implements MeasurableStat {
+
+    private double count;
+
+    @Override
+    public void record(final MetricConfig config, final double value, final long timeMs) {
+      count++;
+    }
+
+    @Override
+    public double measure(final MetricConfig config, final long now) {
+      return count;
+    }
+  }
 }
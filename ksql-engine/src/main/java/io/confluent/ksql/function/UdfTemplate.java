@@ -57,6 +57,34 @@ public final class UdfTemplate {
     return codeString;
   }
 
+  // The following unbox arguments for primitive parameters of UDF methods that generated code
+  // calls directly, failing as coerce would for null arguments:
+
+  public static int intArg(final Integer arg, final int index) {
+    return checkNotNull(arg, index);
+  }
+
+  public static long longArg(final Long arg, final int index) {
+    return checkNotNull(arg, index);
+  }
+
+  public static double doubleArg(final Double arg, final int index) {
+    return checkNotNull(arg, index);
+  }
+
+  public static boolean booleanArg(final Boolean arg, final int index) {
+    return checkNotNull(arg, index);
+  }
+
+  private static <T> T checkNotNull(final T arg, final int index) {
+    if (arg == null) {
+      throw new KsqlFunctionException(
+          String.format(
+              "Can't coerce argument at index %d from null to a primitive type", index));
+    }
+    return arg;
+  }
+
   public static <T> T coerce(
       final Object[] args,
       final Class<? extends T> clazz,
@@ -18,70 +18,100 @@ package io.confluent.ksql.function.udaf;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.UdafAggregator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.apache.kafka.streams.kstream.Merger;
 
 public class KudafAggregator implements UdafAggregator {
 
-  private Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap;
-  private Map<Integer, Integer> aggValToValColumnMap;
+  // The column maps are flattened into parallel arrays once, rather than iterated on each record:
+  private final int[] nonAggIndexes;
+  private final int[] nonAggValueIndexes;
+  private final int[] aggIndexes;
+  private final int[] aggArgIndexes;
+  private final KsqlAggregateFunction<Object, Object>[] aggFunctions;
 
+  @SuppressWarnings("unchecked")
   public KudafAggregator(
       final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap) {
-    this.aggValToAggFunctionMap = aggValToAggFunctionMap;
-    this.aggValToValColumnMap = aggValToValColumnMap;
+    final List<Integer> nonAggKeys = new ArrayList<>(aggValToValColumnMap.keySet());
+    Collections.sort(nonAggKeys);
+    this.nonAggIndexes = new int[nonAggKeys.size()];
+    this.nonAggValueIndexes = new int[nonAggKeys.size()];
+    for (int i = 0; i < nonAggIndexes.length; i++) {
+      nonAggIndexes[i] = nonAggKeys.get(i);
+      nonAggValueIndexes[i] = aggValToValColumnMap.get(nonAggKeys.get(i));
+    }
+
+    final List<Integer> aggKeys = new ArrayList<>(aggValToAggFunctionMap.keySet());
+    Collections.sort(aggKeys);
+    this.aggIndexes = new int[aggKeys.size()];
+    this.aggArgIndexes = new int[aggKeys.size()];
+    this.aggFunctions =
+        (KsqlAggregateFunction<Object, Object>[]) new KsqlAggregateFunction<?, ?>[aggKeys.size()];
+    for (int i = 0; i < aggIndexes.length; i++) {
+      aggIndexes[i] = aggKeys.get(i);
+      aggFunctions[i] =
+          (KsqlAggregateFunction<Object, Object>) aggValToAggFunctionMap.get(aggKeys.get(i));
+      aggArgIndexes[i] = aggFunctions[i].getArgIndexInValue();
+    }
   }
 
   @SuppressWarnings("unchecked")
   @Override
-  public GenericRow apply(final String s, final GenericRow rowValue, final GenericRow aggRowValue) {
+  public GenericRow apply(final Object s, final GenericRow rowValue, final GenericRow aggRowValue) {
+    final List<Object> values = rowValue.getColumns();
+    final List<Object> aggValues = aggRowValue.getColumns();
+
     // copy over group-by and aggregate parameter columns into the output row
-    aggValToValColumnMap.forEach(
-        (key, value) ->
-            aggRowValue.getColumns().set(key, rowValue.getColumns().get(value)));
+    for (int i = 0; i < nonAggIndexes.length; i++) {
+      aggValues.set(nonAggIndexes[i], values.get(nonAggValueIndexes[i]));
+    }
 
     // compute the aggregation and write it into the output row. Its assumed that
     // the columns written by this statement do not overlap with those written by
     // the above statement.
-    aggValToAggFunctionMap.forEach((key, value) ->
-        aggRowValue.getColumns().set(
-            key,
-            value.aggregate(
-                rowValue.getColumns().get(value.getArgIndexInValue()),
-                aggRowValue.getColumns().get(key))));
+    for (int i = 0; i < aggIndexes.length; i++) {
+      final int aggIndex = aggIndexes[i];
+      aggValues.set(
+          aggIndex,
+          aggFunctions[i].aggregate(values.get(aggArgIndexes[i]), aggValues.get(aggIndex)));
+    }
 
     return aggRowValue;
   }
 
   @SuppressWarnings("unchecked")
   @Override
-  public Merger<String, GenericRow> getMerger() {
+  public Merger<Object, GenericRow> getMerger() {
     return (key, aggRowOne, aggRowTwo) -> {
-      final List<Object> columns = Stream.generate(String::new).limit(aggRowOne.getColumns().size())
-          .collect(Collectors.toList());
-      final GenericRow mergedRow = new GenericRow(columns);
+      final Object[] columns = new Object[aggRowOne.size()];
+      Arrays.fill(columns, "");
 
-      aggValToValColumnMap.forEach((columnIndex, value) -> {
-        if (aggRowOne.getColumns().get(value) == null) {
-          mergedRow.getColumns().set(columnIndex, aggRowTwo.getColumns()
-              .get(value));
+      for (int i = 0; i < nonAggIndexes.length; i++) {
+        final int value = nonAggValueIndexes[i];
+        if (aggRowOne.get(value) == null) {
+          columns[nonAggIndexes[i]] = aggRowTwo.get(value);
         } else {
-          mergedRow.getColumns().set(columnIndex, aggRowOne.getColumns()
-              .get(value));
+          columns[nonAggIndexes[i]] = aggRowOne.get(value);
         }
-      });
+      }
 
-      aggValToAggFunctionMap.forEach((functionIndex, ksqlAggregateFunction) ->
-          mergedRow.getColumns().set(functionIndex, ksqlAggregateFunction.getMerger()
-          .apply(key,
-              aggRowOne.getColumns().get(functionIndex),
-              aggRowTwo.getColumns().get(functionIndex))));
+      // function mergers see the key in its string form, whatever the key serde:
+      final String keyString = key == null ? null : key.toString();
+      for (int i = 0; i < aggIndexes.length; i++) {
+        final int functionIndex = aggIndexes[i];
+        columns[functionIndex] = aggFunctions[i].getMerger()
+            .apply(keyString,
+                aggRowOne.get(functionIndex),
+                aggRowTwo.get(functionIndex));
+      }
 
-      return mergedRow;
+      return new GenericRow(columns);
     };
   }
 
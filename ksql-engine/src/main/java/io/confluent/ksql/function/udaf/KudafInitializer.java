@@ -19,8 +19,6 @@ import io.confluent.ksql.GenericRow;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.streams.kstream.Initializer;
 
 public class KudafInitializer implements Initializer<GenericRow> {
@@ -34,11 +32,11 @@ public class KudafInitializer implements Initializer<GenericRow> {
 
   @Override
   public GenericRow apply() {
-    final List<Object> values = IntStream.range(0, nonAggValSize)
-        .mapToObj(value -> null)
-        .collect(Collectors.toList());
-
-    aggValueSuppliers.forEach(supplier -> values.add(supplier.get()));
+    // The non-aggregate columns are left null:
+    final Object[] values = new Object[nonAggValSize + aggValueSuppliers.size()];
+    for (int i = 0; i < aggValueSuppliers.size(); i++) {
+      values[nonAggValSize + i] = aggValueSuppliers.get(i).get();
+    }
     return new GenericRow(values);
   }
 
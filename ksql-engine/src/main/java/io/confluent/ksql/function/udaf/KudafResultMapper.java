@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.streams.kstream.ValueMapper;
+
+/**
+ * Converts the intermediate aggregates of functions whose aggregate type differs from their
+ * return type, e.g. the sketch behind an approximate count, into their final values.
+ */
+public final class KudafResultMapper implements ValueMapper<GenericRow, GenericRow> {
+
+  private final int[] resultIndexes;
+  private final KsqlAggregateFunction<?, ?>[] resultFunctions;
+
+  @SuppressWarnings("rawtypes")
+  public KudafResultMapper(final Map<Integer, KsqlAggregateFunction> aggFunctionsByIndex) {
+    final List<Integer> indexes = new ArrayList<>();
+    aggFunctionsByIndex.forEach((index, function) -> {
+      if (!Objects.equals(function.getAggregateType(), function.getReturnType())) {
+        indexes.add(index);
+      }
+    });
+    Collections.sort(indexes);
+
+    this.resultIndexes = new int[indexes.size()];
+    this.resultFunctions = new KsqlAggregateFunction<?, ?>[indexes.size()];
+    for (int i = 0; i < resultIndexes.length; i++) {
+      resultIndexes[i] = indexes.get(i);
+      resultFunctions[i] = aggFunctionsByIndex.get(indexes.get(i));
+    }
+  }
+
+  public boolean hasResults() {
+    return resultIndexes.length != 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public GenericRow apply(final GenericRow row) {
+    // The row may be the one held by the table's cache, so it must not be changed:
+    final List<Object> columns = row.getColumns();
+    final GenericRow result = GenericRow.withArity(columns.size());
+    final List<Object> resultColumns = result.getColumns();
+    for (int i = 0; i < columns.size(); i++) {
+      resultColumns.set(i, columns.get(i));
+    }
+    for (int i = 0; i < resultIndexes.length; i++) {
+      final int index = resultIndexes[i];
+      final KsqlAggregateFunction<?, Object> function =
+          (KsqlAggregateFunction<?, Object>) resultFunctions[i];
+      resultColumns.set(index, function.getResult(columns.get(index)));
+    }
+    return result;
+  }
+}
@@ -17,40 +17,64 @@ package io.confluent.ksql.function.udaf;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.TableAggregationFunction;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import org.apache.kafka.streams.kstream.Aggregator;
 
-public class KudafUndoAggregator implements Aggregator<String, GenericRow, GenericRow> {
-  private Map<Integer, TableAggregationFunction> aggValToAggFunctionMap;
-  private Map<Integer, Integer> aggValToValColumnMap;
+public class KudafUndoAggregator implements Aggregator<Object, GenericRow, GenericRow> {
+  private final int[] nonAggIndexes;
+  private final int[] nonAggValueIndexes;
+  private final int[] aggIndexes;
+  private final TableAggregationFunction<Object, Object>[] aggFunctions;
 
+  @SuppressWarnings("unchecked")
   public KudafUndoAggregator(
       final Map<Integer, TableAggregationFunction> aggValToAggFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap) {
     Objects.requireNonNull(aggValToAggFunctionMap);
     Objects.requireNonNull(aggValToValColumnMap);
-    this.aggValToAggFunctionMap = Collections.unmodifiableMap(
-        new HashMap<>(aggValToAggFunctionMap));
-    this.aggValToValColumnMap = Collections.unmodifiableMap(new HashMap<>(aggValToValColumnMap));
+
+    final List<Integer> nonAggKeys = new ArrayList<>(aggValToValColumnMap.keySet());
+    Collections.sort(nonAggKeys);
+    this.nonAggIndexes = new int[nonAggKeys.size()];
+    this.nonAggValueIndexes = new int[nonAggKeys.size()];
+    for (int i = 0; i < nonAggIndexes.length; i++) {
+      nonAggIndexes[i] = nonAggKeys.get(i);
+      nonAggValueIndexes[i] = aggValToValColumnMap.get(nonAggKeys.get(i));
+    }
+
+    final List<Integer> aggKeys = new ArrayList<>(aggValToAggFunctionMap.keySet());
+    Collections.sort(aggKeys);
+    this.aggIndexes = new int[aggKeys.size()];
+    this.aggFunctions = (TableAggregationFunction<Object, Object>[])
+        new TableAggregationFunction<?, ?>[aggKeys.size()];
+    for (int i = 0; i < aggIndexes.length; i++) {
+      aggIndexes[i] = aggKeys.get(i);
+      aggFunctions[i] =
+          (TableAggregationFunction<Object, Object>) aggValToAggFunctionMap.get(aggKeys.get(i));
+    }
   }
 
   @SuppressWarnings("unchecked")
   @Override
-  public GenericRow apply(final String s, final GenericRow rowValue, final GenericRow aggRowValue) {
-    aggValToValColumnMap.forEach(
-        (aggRowIndex, rowIndex) ->
-            aggRowValue.getColumns().set(aggRowIndex, rowValue.getColumns().get(rowIndex)));
-
-    aggValToAggFunctionMap.forEach(
-        (aggRowIndex, function) ->
-            aggRowValue.getColumns().set(
-                aggRowIndex,
-                function.undo(
-                    rowValue.getColumns().get(function.getArgIndexInValue()),
-                    aggRowValue.getColumns().get(aggRowIndex))));
+  public GenericRow apply(final Object s, final GenericRow rowValue, final GenericRow aggRowValue) {
+    final List<Object> values = rowValue.getColumns();
+    final List<Object> aggValues = aggRowValue.getColumns();
+
+    for (int i = 0; i < nonAggIndexes.length; i++) {
+      aggValues.set(nonAggIndexes[i], values.get(nonAggValueIndexes[i]));
+    }
+
+    for (int i = 0; i < aggIndexes.length; i++) {
+      final int aggIndex = aggIndexes[i];
+      final TableAggregationFunction<Object, Object> function = aggFunctions[i];
+      aggValues.set(
+          aggIndex,
+          function.undo(values.get(function.getArgIndexInValue()), aggValues.get(aggIndex)));
+    }
     return aggRowValue;
   }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionFactory;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Collections;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+
+public class CountDistinctAggFunctionFactory extends AggregateFunctionFactory {
+  private static final String FUNCTION_NAME = "COUNT_DISTINCT";
+
+  private static final List<Schema> SUPPORTED_TYPES = ImmutableList.of(
+      Schema.OPTIONAL_BOOLEAN_SCHEMA,
+      Schema.OPTIONAL_INT32_SCHEMA,
+      Schema.OPTIONAL_INT64_SCHEMA,
+      Schema.OPTIONAL_FLOAT64_SCHEMA,
+      Schema.OPTIONAL_STRING_SCHEMA);
+
+  public CountDistinctAggFunctionFactory() {
+    super(FUNCTION_NAME, createFunctions());
+  }
+
+  private static List<KsqlAggregateFunction<?, ?>> createFunctions() {
+    final ImmutableList.Builder<KsqlAggregateFunction<?, ?>> functions = ImmutableList.builder();
+    SUPPORTED_TYPES.forEach(type -> functions.add(
+        new CountDistinctKudaf(FUNCTION_NAME, -1, Collections.singletonList(type))));
+    return functions.build();
+  }
+
+  @Override
+  public KsqlAggregateFunction<?, ?> getProperAggregateFunction(final List<Schema> argTypeList) {
+    for (final KsqlAggregateFunction<?, ?> ksqlAggregateFunction : getAggregateFunctionList()) {
+      if (ksqlAggregateFunction.hasSameArgTypes(argTypeList)) {
+        return ksqlAggregateFunction;
+      }
+    }
+    throw new KsqlException("No COUNT_DISTINCT aggregate function with " + argTypeList.get(0)
+        + " argument type exists!");
+  }
+}
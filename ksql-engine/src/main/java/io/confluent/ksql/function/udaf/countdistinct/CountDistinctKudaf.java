@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.BaseAggregateFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.streams.kstream.Merger;
+
+public class CountDistinctKudaf extends BaseAggregateFunction<Object, String> {
+
+  static final Schema AGGREGATE_TYPE = Schema.OPTIONAL_STRING_SCHEMA;
+
+  private final List<Schema> argumentTypes;
+
+  CountDistinctKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final List<Schema> argumentTypes
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        HyperLogLog::create,
+        Schema.OPTIONAL_INT64_SCHEMA,
+        argumentTypes,
+        "Estimates the number of distinct values of a column, per key, using a HyperLogLog "
+            + "sketch of bounded size."
+    );
+    this.argumentTypes = argumentTypes;
+  }
+
+  @Override
+  public Schema getAggregateType() {
+    return AGGREGATE_TYPE;
+  }
+
+  @Override
+  public String aggregate(final Object currentValue, final String aggregateValue) {
+    return currentValue == null ? aggregateValue : HyperLogLog.add(aggregateValue, currentValue);
+  }
+
+  @Override
+  public Merger<String, String> getMerger() {
+    return (aggKey, aggOne, aggTwo) -> HyperLogLog.merge(aggOne, aggTwo);
+  }
+
+  @Override
+  public Object getResult(final String aggregateValue) {
+    return aggregateValue == null ? null : HyperLogLog.estimate(aggregateValue);
+  }
+
+  @Override
+  public KsqlAggregateFunction<Object, String> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    aggregateFunctionArguments.ensureArgCount(1, "COUNT_DISTINCT");
+    return new CountDistinctKudaf(
+        functionName, aggregateFunctionArguments.udafIndex(), argumentTypes);
+  }
+}
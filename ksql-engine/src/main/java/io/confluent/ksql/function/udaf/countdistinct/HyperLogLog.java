@@ -0,0 +1,235 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog sketch, with 2^12 six bit registers, held in a {@code String} so that it can be
+ * stored compactly as a {@code STRING} in any value format.
+ *
+ * <p>Each six bit value is written as one base64 digit. While few registers are set the sketch is
+ * sparse: three digits per set register, two for its index and one for its value, ordered by
+ * index. Once the sparse form would be as long as the dense form the sketch switches to the
+ * dense form: one digit per register. The two forms are told apart by length alone, so a sketch
+ * never takes more than {@value #DENSE_LENGTH} characters, however many values are added. The
+ * standard error of the estimate is about 1.6%.
+ */
+final class HyperLogLog {
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private static final int PRECISION = 12;
+  private static final int REGISTERS = 1 << PRECISION;
+  private static final int DIGIT_BITS = 6;
+  private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+  private static final int SPARSE_ENTRY_LENGTH = 3;
+  static final int DENSE_LENGTH = REGISTERS;
+  private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+  private static final char[] DIGITS =
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+  private static final int[] DIGIT_VALUES = new int[128];
+
+  static {
+    Arrays.fill(DIGIT_VALUES, -1);
+    for (int i = 0; i < DIGITS.length; i++) {
+      DIGIT_VALUES[DIGITS[i]] = i;
+    }
+  }
+
+  private HyperLogLog() {
+  }
+
+  static String create() {
+    return "";
+  }
+
+  static String add(final String sketch, final Object value) {
+    final long hash = hash(value);
+    final int index = (int) (hash >>> (Long.SIZE - PRECISION));
+    final int rank = Math.min(
+        Long.numberOfLeadingZeros(hash << PRECISION) + 1,
+        Long.SIZE - PRECISION + 1);
+    return update(sketch, index, rank);
+  }
+
+  static String merge(final String sketch, final String other) {
+    final int[] registers = registers(sketch);
+    final int[] otherRegisters = registers(other);
+    for (int index = 0; index < REGISTERS; index++) {
+      registers[index] = Math.max(registers[index], otherRegisters[index]);
+    }
+    return encode(registers);
+  }
+
+  static long estimate(final String sketch) {
+    double sum = 0;
+    int zeros = 0;
+    if (isDense(sketch)) {
+      for (int index = 0; index < REGISTERS; index++) {
+        final int rank = digit(sketch, index);
+        sum += Math.scalb(1.0, -rank);
+        if (rank == 0) {
+          zeros++;
+        }
+      }
+    } else {
+      zeros = REGISTERS - sketch.length() / SPARSE_ENTRY_LENGTH;
+      sum = zeros;
+      for (int pos = 0; pos < sketch.length(); pos += SPARSE_ENTRY_LENGTH) {
+        sum += Math.scalb(1.0, -sparseRank(sketch, pos));
+      }
+    }
+
+    final double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+    if (estimate <= 2.5 * REGISTERS && zeros != 0) {
+      return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+    }
+    return Math.round(estimate);
+  }
+
+  private static String update(final String sketch, final int index, final int rank) {
+    if (isDense(sketch)) {
+      if (digit(sketch, index) >= rank) {
+        return sketch;
+      }
+      final char[] digits = sketch.toCharArray();
+      digits[index] = DIGITS[rank];
+      return new String(digits);
+    }
+
+    final int entry = findSparse(sketch, index);
+    if (entry >= 0) {
+      final int pos = entry * SPARSE_ENTRY_LENGTH;
+      if (sparseRank(sketch, pos) >= rank) {
+        return sketch;
+      }
+      final StringBuilder updated = new StringBuilder(sketch);
+      updated.setCharAt(pos + 2, DIGITS[rank]);
+      return updated.toString();
+    }
+
+    if (sketch.length() + SPARSE_ENTRY_LENGTH >= DENSE_LENGTH) {
+      final int[] registers = registers(sketch);
+      registers[index] = rank;
+      return encode(registers);
+    }
+
+    final int pos = (-entry - 1) * SPARSE_ENTRY_LENGTH;
+    return new StringBuilder(sketch.length() + SPARSE_ENTRY_LENGTH)
+        .append(sketch, 0, pos)
+        .append(DIGITS[index >>> DIGIT_BITS])
+        .append(DIGITS[index & DIGIT_MASK])
+        .append(DIGITS[rank])
+        .append(sketch, pos, sketch.length())
+        .toString();
+  }
+
+  private static int[] registers(final String sketch) {
+    final int[] registers = new int[REGISTERS];
+    if (isDense(sketch)) {
+      for (int index = 0; index < REGISTERS; index++) {
+        registers[index] = digit(sketch, index);
+      }
+    } else {
+      for (int pos = 0; pos < sketch.length(); pos += SPARSE_ENTRY_LENGTH) {
+        registers[sparseIndex(sketch, pos)] = sparseRank(sketch, pos);
+      }
+    }
+    return registers;
+  }
+
+  private static String encode(final int[] registers) {
+    int set = 0;
+    for (final int rank : registers) {
+      if (rank != 0) {
+        set++;
+      }
+    }
+
+    if (set * SPARSE_ENTRY_LENGTH >= DENSE_LENGTH) {
+      final char[] digits = new char[DENSE_LENGTH];
+      for (int index = 0; index < REGISTERS; index++) {
+        digits[index] = DIGITS[registers[index]];
+      }
+      return new String(digits);
+    }
+
+    final StringBuilder sparse = new StringBuilder(set * SPARSE_ENTRY_LENGTH);
+    for (int index = 0; index < REGISTERS; index++) {
+      if (registers[index] != 0) {
+        sparse
+            .append(DIGITS[index >>> DIGIT_BITS])
+            .append(DIGITS[index & DIGIT_MASK])
+            .append(DIGITS[registers[index]]);
+      }
+    }
+    return sparse.toString();
+  }
+
+  private static boolean isDense(final String sketch) {
+    return sketch.length() == DENSE_LENGTH;
+  }
+
+  private static int digit(final String sketch, final int pos) {
+    return DIGIT_VALUES[sketch.charAt(pos)];
+  }
+
+  private static int findSparse(final String sketch, final int index) {
+    int low = 0;
+    int high = sketch.length() / SPARSE_ENTRY_LENGTH - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int midIndex = sparseIndex(sketch, mid * SPARSE_ENTRY_LENGTH);
+      if (midIndex < index) {
+        low = mid + 1;
+      } else if (midIndex > index) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static int sparseIndex(final String sketch, final int pos) {
+    return (digit(sketch, pos) << DIGIT_BITS) | digit(sketch, pos + 1);
+  }
+
+  private static int sparseRank(final String sketch, final int pos) {
+    return digit(sketch, pos + 2);
+  }
+
+  private static long hash(final Object value) {
+    if (value instanceof String) {
+      return HASH.hashString((String) value, StandardCharsets.UTF_8).asLong();
+    }
+    if (value instanceof Double) {
+      return HASH.hashLong(Double.doubleToLongBits((Double) value)).asLong();
+    }
+    if (value instanceof Number) {
+      return HASH.hashLong(((Number) value).longValue()).asLong();
+    }
+    if (value instanceof Boolean) {
+      return HASH.hashInt((Boolean) value ? 1 : 0).asLong();
+    }
+    return HASH.hashString(value.toString(), StandardCharsets.UTF_8).asLong();
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.function.AggregateFunctionFactory;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+
+public class ApproxPercentileAggFunctionFactory extends AggregateFunctionFactory {
+  private static final String FUNCTION_NAME = "APPROX_PERCENTILE";
+
+  public ApproxPercentileAggFunctionFactory() {
+    super(
+        FUNCTION_NAME,
+        Arrays.asList(
+            new ApproxPercentileKudaf(FUNCTION_NAME, -1,
+                Collections.singletonList(Schema.OPTIONAL_INT32_SCHEMA), 0.5),
+            new ApproxPercentileKudaf(FUNCTION_NAME, -1,
+                Collections.singletonList(Schema.OPTIONAL_INT64_SCHEMA), 0.5),
+            new ApproxPercentileKudaf(FUNCTION_NAME, -1,
+                Collections.singletonList(Schema.OPTIONAL_FLOAT64_SCHEMA), 0.5)));
+  }
+
+  @Override
+  public KsqlAggregateFunction<?, ?> getProperAggregateFunction(final List<Schema> argTypeList) {
+    for (final KsqlAggregateFunction<?, ?> ksqlAggregateFunction : getAggregateFunctionList()) {
+      if (ksqlAggregateFunction.hasSameArgTypes(argTypeList)) {
+        return ksqlAggregateFunction;
+      }
+    }
+    throw new KsqlException("No APPROX_PERCENTILE aggregate function with " + argTypeList.get(0)
+        + " argument type exists!");
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.BaseAggregateFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.kstream.Merger;
+
+public class ApproxPercentileKudaf extends BaseAggregateFunction<Number, List<Long>> {
+
+  static final Schema AGGREGATE_TYPE =
+      SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build();
+
+  private final List<Schema> argumentTypes;
+  private final double percentile;
+
+  ApproxPercentileKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final List<Schema> argumentTypes,
+      final double percentile
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        QuantileSketch::create,
+        Schema.OPTIONAL_FLOAT64_SCHEMA,
+        argumentTypes,
+        "Estimates the value at a percentile, between 0 and 1, of a column, per key, to within "
+            + "1% of the exact value, using a sketch of bounded size."
+    );
+    this.argumentTypes = argumentTypes;
+    this.percentile = percentile;
+  }
+
+  @Override
+  public Schema getAggregateType() {
+    return AGGREGATE_TYPE;
+  }
+
+  @Override
+  public List<Long> aggregate(final Number currentValue, final List<Long> aggregateValue) {
+    if (currentValue != null) {
+      QuantileSketch.add(aggregateValue, currentValue.doubleValue());
+    }
+    return aggregateValue;
+  }
+
+  @Override
+  public Merger<String, List<Long>> getMerger() {
+    return (aggKey, aggOne, aggTwo) -> {
+      QuantileSketch.merge(aggOne, aggTwo);
+      return aggOne;
+    };
+  }
+
+  @Override
+  public Object getResult(final List<Long> aggregateValue) {
+    return aggregateValue == null ? null : QuantileSketch.quantile(aggregateValue, percentile);
+  }
+
+  @Override
+  public KsqlAggregateFunction<Number, List<Long>> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    aggregateFunctionArguments.ensureArgCount(2, "APPROX_PERCENTILE");
+    final double percentile;
+    try {
+      percentile = Double.parseDouble(aggregateFunctionArguments.arg(1));
+    } catch (final NumberFormatException e) {
+      throw new KsqlException("APPROX_PERCENTILE percentile must be a number between 0 and 1, "
+          + "got: " + aggregateFunctionArguments.arg(1));
+    }
+    if (!(percentile >= 0 && percentile <= 1)) {
+      throw new KsqlException("APPROX_PERCENTILE percentile must be between 0 and 1, got: "
+          + percentile);
+    }
+    return new ApproxPercentileKudaf(
+        functionName, aggregateFunctionArguments.udafIndex(), argumentTypes, percentile);
+  }
+}
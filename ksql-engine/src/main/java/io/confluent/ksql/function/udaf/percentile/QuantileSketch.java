@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A mergeable quantile sketch with a relative accuracy of 1%, held in a {@code List<Long>} so
+ * that it can be stored as an {@code ARRAY<BIGINT>} and updated in place.
+ *
+ * <p>Values are counted in logarithmically sized buckets: a value {@code x} falls in the bucket
+ * {@code ceil(log(|x|) / log(gamma))}, where {@code gamma = 1.01 / 0.99}, and any value in a
+ * bucket is within 1% of the value returned for it. Values closer to zero than
+ * {@value #MIN_MAGNITUDE} share a single bucket, and NaN and infinite values are ignored.
+ *
+ * <p>The list holds the bucket key and count of each non-empty bucket, in pairs ordered by
+ * key. Merging two sketches adds the counts of their buckets, so it loses no accuracy. The
+ * number of buckets is bounded by {@value #MAX_BUCKETS}: beyond that, the two lowest buckets are
+ * collapsed into one, which only affects the accuracy of the lowest quantiles.
+ */
+final class QuantileSketch {
+
+  static final int MAX_BUCKETS = 1024;
+  private static final double MIN_MAGNITUDE = 1e-9;
+
+  private static final double RELATIVE_ACCURACY = 0.01;
+  private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+  private static final double LOG_GAMMA = Math.log(GAMMA);
+
+  // Keeps the keys of positive values above zero, and those of negative values below it:
+  private static final long KEY_OFFSET = 1L << 20;
+
+  private QuantileSketch() {
+  }
+
+  static List<Long> create() {
+    return new ArrayList<>();
+  }
+
+  static void add(final List<Long> sketch, final double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return;
+    }
+    add(sketch, key(value), 1);
+  }
+
+  static void merge(final List<Long> sketch, final List<Long> other) {
+    for (int i = 0; i < other.size(); i += 2) {
+      add(sketch, other.get(i), other.get(i + 1));
+    }
+  }
+
+  /**
+   * @param quantile the quantile, between 0 and 1.
+   * @return the approximate value at the quantile, or {@code null} if the sketch is empty.
+   */
+  static Double quantile(final List<Long> sketch, final double quantile) {
+    long total = 0;
+    for (int i = 1; i < sketch.size(); i += 2) {
+      total += sketch.get(i);
+    }
+    if (total == 0) {
+      return null;
+    }
+
+    final double rank = quantile * (total - 1);
+    long count = 0;
+    for (int i = 0; i < sketch.size(); i += 2) {
+      count += sketch.get(i + 1);
+      if (count > rank) {
+        return value(sketch.get(i));
+      }
+    }
+    return value(sketch.get(sketch.size() - 2));
+  }
+
+  private static void add(final List<Long> sketch, final long key, final long count) {
+    final int pos = find(sketch, key);
+    if (pos >= 0) {
+      sketch.set(pos + 1, sketch.get(pos + 1) + count);
+      return;
+    }
+
+    final int insertAt = -pos - 1;
+    sketch.add(insertAt, count);
+    sketch.add(insertAt, key);
+    if (sketch.size() > MAX_BUCKETS * 2) {
+      sketch.set(3, sketch.get(1) + sketch.get(3));
+      sketch.subList(0, 2).clear();
+    }
+  }
+
+  private static int find(final List<Long> sketch, final long key) {
+    int low = 0;
+    int high = sketch.size() / 2 - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final long midKey = sketch.get(mid * 2);
+      if (midKey < key) {
+        low = mid + 1;
+      } else if (midKey > key) {
+        high = mid - 1;
+      } else {
+        return mid * 2;
+      }
+    }
+    return -(low * 2 + 1);
+  }
+
+  private static long key(final double value) {
+    final double magnitude = Math.abs(value);
+    if (magnitude < MIN_MAGNITUDE) {
+      return 0;
+    }
+    final long key = (long) Math.ceil(Math.log(magnitude) / LOG_GAMMA) + KEY_OFFSET;
+    return value > 0 ? key : -key;
+  }
+
+  private static double value(final long key) {
+    if (key == 0) {
+      return 0.0;
+    }
+    final double magnitude =
+        2 * Math.exp((Math.abs(key) - KEY_OFFSET) * LOG_GAMMA) / (1 + GAMMA);
+    return key > 0 ? magnitude : -magnitude;
+  }
+}
@@ -19,7 +19,6 @@ import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
@@ -55,7 +54,10 @@ public class TopkKudaf<T extends Comparable<? super T>>
     this.clazz = clazz;
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * The aggregate is kept sorted in descending order, so a new value is placed by a binary
+   * search, rather than by re-sorting the list.
+   */
   @Override
   public List<T> aggregate(final T currentValue, final List<T> aggregateValue) {
     if (currentValue == null) {
@@ -63,24 +65,50 @@ public class TopkKudaf<T extends Comparable<? super T>>
     }
 
     final int currentSize = aggregateValue.size();
-    if (!aggregateValue.isEmpty()) {
-      final T last = aggregateValue.get(currentSize - 1);
-      if (currentValue.compareTo(last) <= 0
-          && currentSize == topKSize) {
-        return aggregateValue;
-      }
+    if (currentSize == topKSize
+        && currentValue.compareTo(aggregateValue.get(currentSize - 1)) <= 0) {
+      return aggregateValue;
     }
 
+    final int index = insertionIndex(aggregateValue, currentValue);
     if (currentSize == topKSize) {
-      aggregateValue.set(currentSize - 1, currentValue);
+      shiftDown(aggregateValue, index);
+      aggregateValue.set(index, currentValue);
     } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.add(index, currentValue);
     }
-
-    aggregateValue.sort(Comparator.reverseOrder());
     return aggregateValue;
   }
 
+  /**
+   * Moves the values from {@code index} onwards down one place, dropping the last.
+   */
+  private static <T> void shiftDown(final List<T> values, final int index) {
+    for (int i = values.size() - 1; i > index; i--) {
+      values.set(i, values.get(i - 1));
+    }
+  }
+
+  /**
+   * @return the index after the last value that is greater than or equal to {@code value}.
+   */
+  private static <T extends Comparable<? super T>> int insertionIndex(
+      final List<T> descending,
+      final T value
+  ) {
+    int low = 0;
+    int high = descending.size();
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (descending.get(mid).compareTo(value) >= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public Merger<String, List<T>> getMerger() {
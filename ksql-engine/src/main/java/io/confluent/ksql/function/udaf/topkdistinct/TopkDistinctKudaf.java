@@ -54,6 +54,10 @@ public class TopkDistinctKudaf<T extends Comparable<? super T>>
     this.outputSchema = outputSchema;
   }
 
+  /**
+   * The aggregate is kept sorted in descending order, so both the check for an existing value
+   * and the placement of a new one are binary searches, rather than a scan and a re-sort.
+   */
   @Override
   public List<T> aggregate(final T currentValue, final List<T> aggregateValue) {
 
@@ -66,17 +70,21 @@ public class TopkDistinctKudaf<T extends Comparable<? super T>>
       return aggregateValue;
     }
 
-    if (aggregateValue.contains(currentValue)) {
+    final int index = Collections.binarySearch(
+        aggregateValue, currentValue, Comparator.reverseOrder());
+    if (index >= 0) {
       return aggregateValue;
     }
 
+    final int insertAt = -index - 1;
     if (currentSize == tkVal) {
-      aggregateValue.set(currentSize - 1, currentValue);
+      for (int i = currentSize - 1; i > insertAt; i--) {
+        aggregateValue.set(i, aggregateValue.get(i - 1));
+      }
+      aggregateValue.set(insertAt, currentValue);
     } else {
-      aggregateValue.add(currentValue);
+      aggregateValue.add(insertAt, currentValue);
     }
-
-    aggregateValue.sort(Comparator.reverseOrder());
     return aggregateValue;
   }
 
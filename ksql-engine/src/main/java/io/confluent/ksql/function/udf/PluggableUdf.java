@@ -36,6 +36,13 @@ public class PluggableUdf implements Kudf {
     this.actualUdf = Objects.requireNonNull(actualUdf, "actualUdf can't be null");
   }
 
+  /**
+   * @return the instance of the UDF class, for generated code that calls the UDF method directly.
+   */
+  public Object getUdf() {
+    return actualUdf;
+  }
+
   @Override
   public Object evaluate(final Object... args) {
     try {
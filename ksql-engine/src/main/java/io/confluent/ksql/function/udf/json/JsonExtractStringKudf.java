@@ -26,12 +26,21 @@ import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.json.JsonPathTokenizer;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 public class JsonExtractStringKudf implements Kudf {
   private static final ObjectReader OBJECT_READER = new ObjectMapper().reader();
   public static final String NAME = "EXTRACTJSONFIELD";
 
+  // Queries often extract several fields from each of a few columns of a row. The generated
+  // code passes each call on a column the same String instance, so the documents parsed for the
+  // row being processed are kept on the thread, keyed by that instance, and reused rather than
+  // parsing each document once per field. They are released once the row has been processed:
+  private static final int MAX_PARSED_DOCS = 4;
+  private static final ThreadLocal<ParsedDocs> PARSED_DOCS =
+      ThreadLocal.withInitial(ParsedDocs::new);
+
   private List<String> tokens = null;
 
   @Override
@@ -83,12 +92,64 @@ public class JsonExtractStringKudf implements Kudf {
     tokens = ImmutableList.copyOf(tokenizer);
   }
 
-  private static JsonNode parseJsonDoc(final Object arg) {
+  /**
+   * Releases the documents parsed on the current thread. Called once each row has been
+   * processed, so that they are neither reused for, nor kept alive by, later rows.
+   */
+  public static void releaseParsedDocs() {
+    PARSED_DOCS.get().clear();
+  }
+
+  static JsonNode parseJsonDoc(final Object arg) {
+    final ParsedDocs parsed = PARSED_DOCS.get();
+    final JsonNode cached = parsed.get(arg);
+    if (cached != null) {
+      return cached;
+    }
+
     final String jsonString = arg.toString();
+    final JsonNode node;
     try {
-      return OBJECT_READER.readTree(jsonString);
+      node = OBJECT_READER.readTree(jsonString);
     } catch (final IOException e) {
       throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
     }
+
+    parsed.put(arg, node);
+    return node;
+  }
+
+  private static final class ParsedDocs {
+    private final Object[] json = new Object[MAX_PARSED_DOCS];
+    private final JsonNode[] nodes = new JsonNode[MAX_PARSED_DOCS];
+    private int size = 0;
+    private int next = 0;
+
+    JsonNode get(final Object arg) {
+      for (int i = 0; i < size; i++) {
+        if (json[i] == arg) {
+          return nodes[i];
+        }
+      }
+      return null;
+    }
+
+    void put(final Object arg, final JsonNode node) {
+      // Once full, the oldest document is replaced:
+      json[next] = arg;
+      nodes[next] = node;
+      next = (next + 1) % MAX_PARSED_DOCS;
+      size = Math.max(size, next == 0 ? MAX_PARSED_DOCS : next);
+    }
+
+    void clear() {
+      if (size == 0) {
+        return;
+      }
+      Arrays.fill(json, null);
+      Arrays.fill(nodes, null);
+      size = 0;
+      next = 0;
+    }
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import io.confluent.ksql.util.KsqlException;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled SQL {@code LIKE} pattern.
+ *
+ * <p>{@code %} matches any sequence of characters, {@code _} matches any single character and
+ * the optional escape character makes the character that follows it match literally.
+ *
+ * <p>Generated code holds literal patterns in static fields and looks up other patterns through
+ * {@link PatternCache}, so a pattern is never compiled per record.
+ */
+public final class LikePattern {
+
+  private final String pattern;
+  private final String escape;
+  private final Pattern regex;
+
+  private LikePattern(final String pattern, final String escape, final Pattern regex) {
+    this.pattern = pattern;
+    this.escape = escape;
+    this.regex = regex;
+  }
+
+  /**
+   * Compile a LIKE pattern.
+   *
+   * @param pattern the pattern.
+   * @param escape the escape character, as a single character string, or {@code null} for none.
+   * @return the compiled pattern.
+   * @throws KsqlException on an invalid escape character or sequence.
+   */
+  public static LikePattern compile(final String pattern, final String escape) {
+    if (escape != null && escape.length() != 1) {
+      throw new KsqlException("LIKE escape must be a single character, but was: '"
+          + escape + "'");
+    }
+
+    final char escapeChar = escape == null ? 0 : escape.charAt(0);
+    final StringBuilder regex = new StringBuilder(pattern.length() + 8);
+    final StringBuilder literal = new StringBuilder();
+    for (int i = 0; i < pattern.length(); i++) {
+      final char c = pattern.charAt(i);
+      if (escape != null && c == escapeChar) {
+        i++;
+        if (i == pattern.length()) {
+          throw new KsqlException("LIKE pattern ends with the escape character: '"
+              + pattern + "'");
+        }
+        final char escaped = pattern.charAt(i);
+        if (escaped != '%' && escaped != '_' && escaped != escapeChar) {
+          throw new KsqlException("Invalid escape sequence in LIKE pattern: '"
+              + pattern + "'");
+        }
+        literal.append(escaped);
+      } else if (c == '%' || c == '_') {
+        appendLiteral(regex, literal);
+        regex.append(c == '%' ? ".*" : ".");
+      } else {
+        literal.append(c);
+      }
+    }
+    appendLiteral(regex, literal);
+
+    return new LikePattern(pattern, escape, Pattern.compile(regex.toString(), Pattern.DOTALL));
+  }
+
+  /**
+   * Match a value against a pattern that is not known until the record is processed.
+   */
+  public static boolean matches(final String value, final String pattern, final String escape) {
+    return PatternCache.like(pattern, escape).matches(value);
+  }
+
+  public boolean matches(final String value) {
+    return regex.matcher(value).matches();
+  }
+
+  public String getPattern() {
+    return pattern;
+  }
+
+  public String getEscape() {
+    return escape;
+  }
+
+  private static void appendLiteral(final StringBuilder regex, final StringBuilder literal) {
+    if (literal.length() > 0) {
+      regex.append(Pattern.quote(literal.toString()));
+      literal.setLength(0);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded, per-thread caches of compiled patterns, for patterns that are only known once a
+ * record is processed.
+ *
+ * <p>Each stream thread has its own caches, so lookups need no synchronization. The least
+ * recently used pattern is dropped once a cache is full.
+ */
+public final class PatternCache {
+
+  static final int MAX_ENTRIES = 256;
+
+  private static final ThreadLocal<Lru<String, Pattern>> REGEX =
+      ThreadLocal.withInitial(Lru::new);
+
+  private static final ThreadLocal<Lru<List<String>, LikePattern>> LIKE =
+      ThreadLocal.withInitial(Lru::new);
+
+  private PatternCache() {
+  }
+
+  public static Pattern regex(final String regex) {
+    return REGEX.get().computeIfAbsent(regex, Pattern::compile);
+  }
+
+  public static LikePattern like(final String pattern, final String escape) {
+    return LIKE.get().computeIfAbsent(
+        Arrays.asList(pattern, escape),
+        key -> LikePattern.compile(pattern, escape));
+  }
+
+  private static final class Lru<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    Lru() {
+      super(16, 0.75f, true);
+    }
+
+    @Override
+    public V computeIfAbsent(final K key, final Function<? super K, ? extends V> compiler) {
+      final V existing = get(key);
+      if (existing != null) {
+        return existing;
+      }
+      final V compiled = compiler.apply(key);
+      put(key, compiled);
+      return compiled;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@SuppressWarnings("unused") // Invoked via reflection.
+@UdfDescription(name = RegexpExtract.NAME,
+    author = "Confluent",
+    description = "Returns the first part of the passed in value that matches a Java regular"
+        + " expression, or null if there is no match.")
+public class RegexpExtract {
+
+  public static final String NAME = "regexp_extract";
+
+  @Udf(description = "Returns the first part of str that matches regex")
+  public String regexpExtract(
+      @UdfParameter(
+          description = "The string to search. If null, then function returns null.")
+      final String str,
+      @UdfParameter(
+          description = "The Java regular expression to find. If null, then function returns"
+              + " null.")
+      final String regex) {
+    return regexpExtract(str, regex, 0);
+  }
+
+  @Udf(description = "Returns the given capturing group of the first part of str that matches"
+      + " regex")
+  public String regexpExtract(
+      @UdfParameter(
+          description = "The string to search. If null, then function returns null.")
+      final String str,
+      @UdfParameter(
+          description = "The Java regular expression to find. If null, then function returns"
+              + " null.")
+      final String regex,
+      @UdfParameter(
+          description = "The capturing group to return, where 0 is the whole match."
+              + " If null, then function returns null.")
+      final Integer group) {
+    if (regex == null) {
+      return null;
+    }
+    return regexpExtract(str, PatternCache.regex(regex), group);
+  }
+
+  /**
+   * Called directly by generated code when the regular expression is a literal.
+   */
+  public static String regexpExtract(final String str, final Pattern pattern) {
+    return regexpExtract(str, pattern, 0);
+  }
+
+  /**
+   * Called directly by generated code when the regular expression is a literal.
+   */
+  public static String regexpExtract(
+      final String str,
+      final Pattern pattern,
+      final Integer group
+  ) {
+    if (str == null || group == null) {
+      return null;
+    }
+    final Matcher matcher = pattern.matcher(str);
+    if (group < 0 || !matcher.find() || group > matcher.groupCount()) {
+      return null;
+    }
+    return matcher.group(group);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import java.util.regex.Pattern;
+
+@SuppressWarnings("unused") // Invoked via reflection.
+@UdfDescription(name = RegexpMatch.NAME,
+    author = "Confluent",
+    description = "Returns true if any part of the passed in value matches a Java regular"
+        + " expression.")
+public class RegexpMatch {
+
+  public static final String NAME = "regexp_match";
+
+  @Udf(description = "Returns true if any part of str matches regex")
+  public Boolean regexpMatch(
+      @UdfParameter(
+          description = "The string to match. If null, then function returns null.")
+      final String str,
+      @UdfParameter(
+          description = "The Java regular expression to find. If null, then function returns"
+              + " null.")
+      final String regex) {
+    if (regex == null) {
+      return null;
+    }
+    return regexpMatch(str, PatternCache.regex(regex));
+  }
+
+  /**
+   * Called directly by generated code when the regular expression is a literal.
+   */
+  public static Boolean regexpMatch(final String str, final Pattern pattern) {
+    if (str == null) {
+      return null;
+    }
+    return pattern.matcher(str).find();
+  }
+}
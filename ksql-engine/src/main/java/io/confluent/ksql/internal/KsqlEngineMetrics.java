@@ -15,7 +15,9 @@
 
 package io.confluent.ksql.internal;
 
+import com.google.common.cache.CacheStats;
 import io.confluent.ksql.KsqlEngine;
+import io.confluent.ksql.codegen.CodeGenCache;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.QueryMetadata;
@@ -25,6 +27,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.ToDoubleFunction;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Gauge;
 import org.apache.kafka.common.metrics.MeasurableStat;
@@ -81,6 +84,7 @@ public class KsqlEngineMetrics implements Closeable {
     this.numIdleQueries = configureIdleQueriesSensor(metrics);
     this.messageConsumptionByQuery = configureMessageConsumptionByQuerySensor(metrics);
     this.errorRate = configureErrorRate(metrics);
+    configureCodeGenCache(metrics);
     Arrays.stream(State.values())
         .forEach(state -> configureNumActiveQueriesForGivenState(metrics, state));
   }
@@ -227,6 +231,47 @@ public class KsqlEngineMetrics implements Closeable {
     );
   }
 
+  private void configureCodeGenCache(final Metrics metrics) {
+    final Sensor sensor = createSensor(metrics, metricGroupName + "-code-gen-cache");
+    addCodeGenCacheStat(metrics, sensor, "code-gen-cache-size",
+        "The current number of compiled expressions held in the code generation cache",
+        stats -> CodeGenCache.instance().size());
+    addCodeGenCacheStat(metrics, sensor, "code-gen-cache-hit-total",
+        "The total number of expressions whose compiled code was found in the cache",
+        CacheStats::hitCount);
+    addCodeGenCacheStat(metrics, sensor, "code-gen-cache-miss-total",
+        "The total number of expressions that had to be compiled",
+        CacheStats::missCount);
+    addCodeGenCacheStat(metrics, sensor, "code-gen-cache-eviction-total",
+        "The total number of compiled expressions evicted from the cache",
+        CacheStats::evictionCount);
+    addCodeGenCacheStat(metrics, sensor, "code-gen-cache-compile-time-avg-ms",
+        "The average time taken to compile an expression, in milliseconds",
+        stats -> stats.averageLoadPenalty() / 1_000_000);
+  }
+
+  private void addCodeGenCacheStat(
+      final Metrics metrics,
+      final Sensor sensor,
+      final String name,
+      final String description,
+      final ToDoubleFunction<CacheStats> stat
+  ) {
+    sensor.add(
+        metrics.metricName(ksqlServiceId + name, this.metricGroupName, description),
+        new MeasurableStat() {
+          @Override
+          public double measure(final MetricConfig metricConfig, final long l) {
+            return stat.applyAsDouble(CodeGenCache.instance().stats());
+          }
+
+          @Override
+          public void record(final MetricConfig metricConfig, final double v, final long l) {
+            // No action for record since we can read the desired results directly.
+          }
+        });
+  }
+
   private Sensor configureIdleQueriesSensor(final Metrics metrics) {
     final Sensor sensor = createSensor(metrics, "num-idle-queries");
     sensor.add(metrics.metricName(
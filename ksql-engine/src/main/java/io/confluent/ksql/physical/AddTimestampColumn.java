@@ -16,10 +16,15 @@
 package io.confluent.ksql.physical;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.util.SchemaUtil;
 import org.apache.kafka.streams.kstream.ValueTransformer;
 import org.apache.kafka.streams.kstream.ValueTransformerSupplier;
 import org.apache.kafka.streams.processor.ProcessorContext;
 
+/**
+ * Sets the ROWTIME column of source rows, which the source's key mapper leaves empty, to the
+ * timestamp of the record.
+ */
 public class AddTimestampColumn implements ValueTransformerSupplier<GenericRow, GenericRow> {
   @Override
   public ValueTransformer<GenericRow, GenericRow> get() {
@@ -33,7 +38,7 @@ public class AddTimestampColumn implements ValueTransformerSupplier<GenericRow,
       @Override
       public GenericRow transform(final GenericRow row) {
         if (row != null) {
-          row.getColumns().add(0, processorContext.timestamp());
+          row.set(SchemaUtil.ROWTIME_NAME_INDEX, processorContext.timestamp());
         }
         return row;
       }
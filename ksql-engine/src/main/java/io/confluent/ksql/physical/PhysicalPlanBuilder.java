@@ -26,30 +26,37 @@ import io.confluent.ksql.metastore.StructuredDataSource;
 import io.confluent.ksql.metrics.ConsumerCollector;
 import io.confluent.ksql.metrics.ProducerCollector;
 import io.confluent.ksql.planner.LogicalPlanNode;
+import io.confluent.ksql.planner.plan.FilterNode;
 import io.confluent.ksql.planner.plan.KsqlBareOutputNode;
 import io.confluent.ksql.planner.plan.KsqlStructuredDataOutputNode;
 import io.confluent.ksql.planner.plan.OutputNode;
 import io.confluent.ksql.planner.plan.PlanNode;
+import io.confluent.ksql.planner.plan.ProjectNode;
+import io.confluent.ksql.planner.plan.StructuredDataSourceNode;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.structured.QueuedSchemaKStream;
 import io.confluent.ksql.structured.SchemaKStream;
 import io.confluent.ksql.structured.SchemaKTable;
+import io.confluent.ksql.structured.TransientQueryPipeline;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.PersistentQueryMetadata;
 import io.confluent.ksql.util.QueryIdGenerator;
+import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.QueryMetadata;
 import io.confluent.ksql.util.QueuedQueryMetadata;
 import io.confluent.ksql.util.SchemaUtil;
+import io.confluent.ksql.util.SharedQueuedQueryMetadata;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -72,7 +79,10 @@ public class PhysicalPlanBuilder {
   private final QueryIdGenerator queryIdGenerator;
   private final KafkaStreamsBuilder kafkaStreamsBuilder;
   private final Consumer<QueryMetadata> queryCloseCallback;
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private final Optional<SharedSourceRuntimes> sharedSourceRuntimes;
 
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   public PhysicalPlanBuilder(
       final StreamsBuilder builder,
       final KsqlConfig ksqlConfig,
@@ -83,7 +93,8 @@ public class PhysicalPlanBuilder {
       final MutableMetaStore metaStore,
       final QueryIdGenerator queryIdGenerator,
       final KafkaStreamsBuilder kafkaStreamsBuilder,
-      final Consumer<QueryMetadata> queryCloseCallback
+      final Consumer<QueryMetadata> queryCloseCallback,
+      final Optional<SharedSourceRuntimes> sharedSourceRuntimes
   ) {
     this.builder = Objects.requireNonNull(builder, "builder");
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
@@ -98,6 +109,8 @@ public class PhysicalPlanBuilder {
     this.queryIdGenerator = Objects.requireNonNull(queryIdGenerator, "queryIdGenerator");
     this.kafkaStreamsBuilder = Objects.requireNonNull(kafkaStreamsBuilder, "kafkaStreamsBuilder");
     this.queryCloseCallback = Objects.requireNonNull(queryCloseCallback, "queryCloseCallback");
+    this.sharedSourceRuntimes =
+        Objects.requireNonNull(sharedSourceRuntimes, "sharedSourceRuntimes");
   }
 
   private QueryId computeQueryId(final PlanNode planNode) {
@@ -108,7 +121,16 @@ public class PhysicalPlanBuilder {
   }
 
   public QueryMetadata buildPhysicalPlan(final LogicalPlanNode logicalPlanNode) {
-    final QueryId queryId = computeQueryId(logicalPlanNode.getNode());
+    return buildPhysicalPlan(logicalPlanNode, computeQueryId(logicalPlanNode.getNode()));
+  }
+
+  /**
+   * Builds the physical plan of a query whose id has already been drawn from the generator.
+   */
+  public QueryMetadata buildPhysicalPlan(
+      final LogicalPlanNode logicalPlanNode,
+      final QueryId queryId
+  ) {
     final SchemaKStream resultStream = logicalPlanNode
         .getNode()
         .buildStream(
@@ -139,7 +161,17 @@ public class PhysicalPlanBuilder {
     final String transientQueryPrefix =
         ksqlConfig.getString(KsqlConfig.KSQL_TRANSIENT_QUERY_NAME_PREFIX_CONFIG);
 
-    if (isBareQuery) {
+    if (isBareQuery && canUseSharedSourceRuntime(outputNode)) {
+      return buildPlanForSharedBareQuery(
+          (QueuedSchemaKStream) resultStream,
+          (KsqlBareOutputNode) outputNode,
+          serviceId,
+          transientQueryPrefix,
+          queryId,
+          logicalPlanNode.getStatementText()
+      );
+
+    } else if (isBareQuery) {
       return buildPlanForBareQuery(
           (QueuedSchemaKStream) resultStream,
           (KsqlBareOutputNode) outputNode,
@@ -216,6 +248,121 @@ public class PhysicalPlanBuilder {
   }
 
 
+  /**
+   * Transient queries over a stream that only filter and / or project it, and read from the
+   * latest offset, can share a {@link SharedSourceRuntime} with other such queries.
+   */
+  private boolean canUseSharedSourceRuntime(final OutputNode outputNode) {
+    if (!sharedSourceRuntimes.isPresent()
+        || !ksqlConfig.getBoolean(KsqlConfig.KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_CONFIG)
+        || !(outputNode.getSource() instanceof ProjectNode)) {
+      return false;
+    }
+
+    final PlanNode projectSource = ((ProjectNode) outputNode.getSource()).getSource();
+    final PlanNode source = projectSource instanceof FilterNode
+        ? ((FilterNode) projectSource).getSource()
+        : projectSource;
+    if (!(source instanceof StructuredDataSourceNode)) {
+      return false;
+    }
+
+    final StructuredDataSource dataSource =
+        ((StructuredDataSourceNode) source).getStructuredDataSource();
+    if (dataSource.getDataSourceType() != StructuredDataSource.DataSourceType.KSTREAM
+        || ((KsqlStream<?>) dataSource).hasWindowedKey()) {
+      return false;
+    }
+
+    final Object autoOffsetReset =
+        ksqlConfig.getKsqlStreamConfigProps().get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG);
+    return "latest".equalsIgnoreCase(String.valueOf(autoOffsetReset));
+  }
+
+  @SuppressWarnings("unchecked")
+  private QueryMetadata buildPlanForSharedBareQuery(
+      final QueuedSchemaKStream<?> schemaKStream,
+      final KsqlBareOutputNode bareOutputNode,
+      final String serviceId,
+      final String transientQueryPrefix,
+      final QueryId queryId,
+      final String statement
+  ) {
+    final SharedSourceRuntimes runtimes = sharedSourceRuntimes.get();
+    final ProjectNode projectNode = (ProjectNode) bareOutputNode.getSource();
+    final Optional<FilterNode> filterNode = projectNode.getSource() instanceof FilterNode
+        ? Optional.of((FilterNode) projectNode.getSource())
+        : Optional.empty();
+    final StructuredDataSourceNode sourceNode = bareOutputNode.getTheSourceNode();
+    final KsqlStream<String> stream = (KsqlStream<String>) sourceNode.getStructuredDataSource();
+    final String topic = stream.getKsqlTopic().getKafkaTopicName();
+
+    final ProcessingLogger projectLogger = processingLogContext.getLoggerFactory().getLogger(
+        QueryLoggerUtil.queryLoggerName(projectNode.buildNodeContext(queryId)
+            .push(SchemaKStream.Type.PROJECT.name()).getQueryContext()));
+    final ProcessingLogger filterLogger = filterNode
+        .map(filter -> processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(filter.buildNodeContext(queryId)
+                .push(SchemaKStream.Type.FILTER.name()).getQueryContext())))
+        .orElse(projectLogger);
+
+    final TransientQueryPipeline pipeline = new TransientQueryPipeline(
+        stream.getKeySerde().deserializer(),
+        sourceNode.buildValueSerde(ksqlConfig, serviceContext, processingLogContext, queryId)
+            .deserializer(),
+        sourceNode.buildTimestampExtractor(),
+        sourceNode.getSchema(),
+        filterNode.map(FilterNode::getPredicate),
+        projectNode.getProjectSelectExpressions(),
+        filterLogger,
+        projectLogger,
+        ksqlConfig,
+        functionRegistry,
+        schemaKStream.getQueue(),
+        bareOutputNode.getCallback()
+    );
+
+    final String applicationId = addTimeSuffix(getQueryApplicationId(
+        serviceId,
+        transientQueryPrefix,
+        queryId
+    ));
+
+    final Map<String, Object> streamsProperties = buildStreamsProperties(
+        applicationId,
+        ksqlConfig,
+        queryId,
+        processingLogContext
+    );
+
+    final QueryId runtimeId = new QueryId("shared_" + topic);
+    final SharedSourceRuntime runtime = runtimes.acquire(
+        topic,
+        ksqlConfig.getKsqlStreamConfigProps(),
+        () -> buildStreamsProperties(
+            addTimeSuffix(getQueryApplicationId(serviceId, transientQueryPrefix, runtimeId)),
+            ksqlConfig,
+            runtimeId,
+            processingLogContext),
+        kafkaStreamsBuilder
+    );
+
+    return new SharedQueuedQueryMetadata(
+        statement,
+        runtime,
+        pipeline,
+        bareOutputNode,
+        schemaKStream.getExecutionPlan(""),
+        schemaKStream.getQueue(),
+        DataSource.DataSourceType.KSTREAM,
+        applicationId,
+        streamsProperties,
+        overriddenProperties,
+        queryCloseCallback,
+        runtimes::release
+    );
+  }
+
   private QueryMetadata buildPlanForStructuredOutputNode(
       final String sqlExpression, final SchemaKStream<?> schemaKStream,
       final KsqlStructuredDataOutputNode outputNode,
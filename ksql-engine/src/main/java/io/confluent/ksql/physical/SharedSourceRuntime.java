@@ -0,0 +1,242 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import io.confluent.ksql.metrics.StreamsErrorCollector;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.record.TimestampType;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.apache.kafka.streams.errors.DeserializationExceptionHandler;
+import org.apache.kafka.streams.errors.DeserializationExceptionHandler.DeserializationHandlerResponse;
+import org.apache.kafka.streams.errors.StreamsException;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.processor.AbstractProcessor;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single {@link KafkaStreams} instance that consumes a source topic on behalf of any number of
+ * transient queries.
+ *
+ * <p>Records are read as raw bytes, starting from the latest offset, and handed to every
+ * {@link Subscriber} on the stream thread that consumed them. Subscribers deserialize, filter and
+ * project the records themselves, so that queries over the same topic, but with different
+ * schemas or formats, can share the runtime.
+ *
+ * <p>Instances are reference counted by {@link SharedSourceRuntimes}.
+ */
+public final class SharedSourceRuntime {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SharedSourceRuntime.class);
+
+  // Kafka Streams drops records with negative timestamps, so invalid ones are passed as this:
+  private static final long INVALID_TIMESTAMP = Long.MAX_VALUE;
+
+  private final String topic;
+  private final String applicationId;
+  private final KafkaStreams kafkaStreams;
+  private final Topology topology;
+  private final DeserializationExceptionHandler deserializationExceptionHandler;
+  private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+  private volatile boolean failed = false;
+  private boolean started = false;
+  private int references = 0;
+
+  SharedSourceRuntime(
+      final String topic,
+      final Map<String, Object> streamsProperties,
+      final KafkaStreamsBuilder kafkaStreamsBuilder
+  ) {
+    this.topic = Objects.requireNonNull(topic, "topic");
+    this.applicationId = (String) streamsProperties.get(StreamsConfig.APPLICATION_ID_CONFIG);
+    this.deserializationExceptionHandler = new StreamsConfig(streamsProperties)
+        .defaultDeserializationExceptionHandler();
+
+    final StreamsBuilder builder = new StreamsBuilder();
+    builder
+        .stream(topic, Consumed.with(Serdes.ByteArray(), Serdes.ByteArray())
+            .withOffsetResetPolicy(Topology.AutoOffsetReset.LATEST)
+            .withTimestampExtractor(new PassThroughTimestampExtractor()))
+        .process(Dispatcher::new);
+
+    this.topology = builder.build();
+    this.kafkaStreams = kafkaStreamsBuilder.buildKafkaStreams(builder, streamsProperties);
+    this.kafkaStreams.setUncaughtExceptionHandler((thread, e) -> {
+      failed = true;
+      subscribers.forEach(subscriber -> subscriber.onError(thread, e));
+    });
+  }
+
+  public String getTopic() {
+    return topic;
+  }
+
+  public String getApplicationId() {
+    return applicationId;
+  }
+
+  public KafkaStreams getKafkaStreams() {
+    return kafkaStreams;
+  }
+
+  public Topology getTopology() {
+    return topology;
+  }
+
+  /**
+   * @return {@code true} if a stream thread of the runtime has died, in which case new queries
+   *     should not subscribe to it.
+   */
+  public boolean isFailed() {
+    return failed;
+  }
+
+  /**
+   * Starts delivering records to the supplied subscriber, starting the runtime if this is the
+   * first subscription.
+   */
+  public synchronized void subscribe(final Subscriber subscriber) {
+    subscribers.add(Objects.requireNonNull(subscriber, "subscriber"));
+    if (!started) {
+      LOG.info("Starting shared transient query runtime for topic {} with application id: {}",
+          topic, applicationId);
+      started = true;
+      kafkaStreams.start();
+    }
+  }
+
+  /**
+   * Stops delivering records to the supplied subscriber. The subscriber will not be called once
+   * this method has returned, other than by a call that is already in progress.
+   */
+  public void unsubscribe(final Subscriber subscriber) {
+    subscribers.remove(subscriber);
+  }
+
+  synchronized void retain() {
+    references++;
+  }
+
+  synchronized boolean release() {
+    return --references == 0;
+  }
+
+  void close() {
+    LOG.info("Closing shared transient query runtime for topic {}", topic);
+    kafkaStreams.close();
+    kafkaStreams.cleanUp();
+    StreamsErrorCollector.notifyApplicationClose(applicationId);
+  }
+
+  /**
+   * A transient query reading from the runtime.
+   */
+  public interface Subscriber {
+
+    /**
+     * Called with each record read from the topic.
+     *
+     * @throws SerializationException if the record can not be deserialized.
+     */
+    void onRecord(ConsumerRecord<byte[], byte[]> record);
+
+    /**
+     * Called if the subscriber can not continue, e.g. because a stream thread died.
+     */
+    void onError(Thread thread, Throwable e);
+  }
+
+  private final class Dispatcher extends AbstractProcessor<byte[], byte[]> {
+
+    @SuppressWarnings("deprecation") // The checksum is unknown, and null is allowed.
+    @Override
+    public void process(final byte[] key, final byte[] value) {
+      if (subscribers.isEmpty()) {
+        return;
+      }
+
+      final long timestamp = context().timestamp() == INVALID_TIMESTAMP
+          ? ConsumerRecord.NO_TIMESTAMP
+          : context().timestamp();
+      final ConsumerRecord<byte[], byte[]> record = new ConsumerRecord<>(
+          context().topic(),
+          context().partition(),
+          context().offset(),
+          timestamp,
+          TimestampType.NO_TIMESTAMP_TYPE,
+          null,
+          key == null ? ConsumerRecord.NULL_SIZE : key.length,
+          value == null ? ConsumerRecord.NULL_SIZE : value.length,
+          key,
+          value,
+          context().headers());
+
+      for (final Subscriber subscriber : subscribers) {
+        try {
+          subscriber.onRecord(record);
+        } catch (final SerializationException e) {
+          onDeserializationError(subscriber, record, e);
+        } catch (final RuntimeException e) {
+          fail(subscriber, e);
+        }
+      }
+    }
+
+    private void onDeserializationError(
+        final Subscriber subscriber,
+        final ConsumerRecord<byte[], byte[]> record,
+        final SerializationException e
+    ) {
+      final DeserializationHandlerResponse response =
+          deserializationExceptionHandler.handle(context(), record, e);
+
+      if (response == DeserializationHandlerResponse.FAIL) {
+        fail(subscriber, new StreamsException("Deserialization exception handler is set to fail "
+            + "upon a deserialization error. If you would rather have the streaming pipeline "
+            + "continue after a deserialization error, please set the "
+            + StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG
+            + " appropriately.", e));
+      }
+    }
+
+    private void fail(final Subscriber subscriber, final Exception e) {
+      subscribers.remove(subscriber);
+      subscriber.onError(Thread.currentThread(), e);
+    }
+  }
+
+  /**
+   * Passes each record's own timestamp on, so that every query can apply its own timestamp
+   * extractor, e.g. one that reads a column of the value, just as its own topology would.
+   */
+  private static final class PassThroughTimestampExtractor implements TimestampExtractor {
+
+    @Override
+    public long extract(final ConsumerRecord<Object, Object> record, final long previousTimestamp) {
+      return record.timestamp() < 0 ? INVALID_TIMESTAMP : record.timestamp();
+    }
+  }
+}
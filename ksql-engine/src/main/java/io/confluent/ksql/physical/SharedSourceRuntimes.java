@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The {@link SharedSourceRuntime}s of an engine, keyed by source topic and streams properties.
+ *
+ * <p>A runtime is created by the first query that acquires it, and closed once every query
+ * that acquired it has released it.
+ */
+public final class SharedSourceRuntimes implements Closeable {
+
+  private final Map<RuntimeKey, SharedSourceRuntime> runtimes = new HashMap<>();
+  private final Map<SharedSourceRuntime, RuntimeKey> keys = new HashMap<>();
+
+  /**
+   * Gets the runtime for the supplied topic, creating it if necessary.
+   *
+   * @param topic the source topic.
+   * @param streamsConfig the streams properties of the query, used to decide if the query can
+   *     share an existing runtime.
+   * @param streamsProperties supplies the properties of a new runtime.
+   * @param kafkaStreamsBuilder builds the streams instance of a new runtime.
+   * @return the runtime, which must be passed to {@link #release} once no longer needed.
+   */
+  public synchronized SharedSourceRuntime acquire(
+      final String topic,
+      final Map<String, Object> streamsConfig,
+      final Supplier<Map<String, Object>> streamsProperties,
+      final KafkaStreamsBuilder kafkaStreamsBuilder
+  ) {
+    final RuntimeKey key = new RuntimeKey(topic, streamsConfig);
+    SharedSourceRuntime runtime = runtimes.get(key);
+    if (runtime == null || runtime.isFailed()) {
+      // A failed runtime stays in keys, and is closed once the queries using it are closed:
+      runtime = new SharedSourceRuntime(topic, streamsProperties.get(), kafkaStreamsBuilder);
+      runtimes.put(key, runtime);
+      keys.put(runtime, key);
+    }
+    runtime.retain();
+    return runtime;
+  }
+
+  /**
+   * Releases a runtime returned by {@link #acquire}, closing it if it is no longer in use.
+   */
+  public void release(final SharedSourceRuntime runtime) {
+    synchronized (this) {
+      if (!runtime.release()) {
+        return;
+      }
+      final RuntimeKey key = keys.remove(runtime);
+      if (key != null) {
+        runtimes.remove(key, runtime);
+      }
+    }
+
+    runtime.close();
+  }
+
+  public synchronized int size() {
+    return runtimes.size();
+  }
+
+  @Override
+  public void close() {
+    final List<SharedSourceRuntime> toClose;
+    synchronized (this) {
+      // Includes failed runtimes that have been replaced but are still in use:
+      toClose = new ArrayList<>(keys.keySet());
+      runtimes.clear();
+      keys.clear();
+    }
+
+    toClose.forEach(SharedSourceRuntime::close);
+  }
+
+  private static final class RuntimeKey {
+
+    private final String topic;
+    private final Map<String, Object> streamsConfig;
+
+    RuntimeKey(final String topic, final Map<String, Object> streamsConfig) {
+      this.topic = Objects.requireNonNull(topic, "topic");
+      this.streamsConfig = new HashMap<>(Objects.requireNonNull(streamsConfig, "streamsConfig"));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final RuntimeKey that = (RuntimeKey) o;
+      return topic.equals(that.topic) && streamsConfig.equals(that.streamsConfig);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(topic, streamsConfig);
+    }
+  }
+}
@@ -23,7 +23,10 @@ import io.confluent.ksql.metastore.KsqlStdOut;
 import io.confluent.ksql.metastore.KsqlStream;
 import io.confluent.ksql.metastore.KsqlTable;
 import io.confluent.ksql.metastore.StructuredDataSource;
+import io.confluent.ksql.parser.DefaultTraversalVisitor;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.planner.plan.AggregateNode;
 import io.confluent.ksql.planner.plan.FilterNode;
 import io.confluent.ksql.planner.plan.KsqlBareOutputNode;
@@ -33,13 +36,17 @@ import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.planner.plan.PlanNodeId;
 import io.confluent.ksql.planner.plan.ProjectNode;
 import io.confluent.ksql.planner.plan.StructuredDataSourceNode;
+import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.util.ExpressionTypeManager;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicyFactory;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 
@@ -197,9 +204,54 @@ public class LogicalPlanner {
     );
 
     if (dataSource.left instanceof KsqlStream || dataSource.left instanceof KsqlTable) {
-      return new StructuredDataSourceNode(new PlanNodeId("KsqlTopic"), dataSource.left, fromSchema);
+      return new StructuredDataSourceNode(
+          new PlanNodeId("KsqlTopic"),
+          dataSource.left,
+          fromSchema,
+          MaterializedFactory::create,
+          Optional.of(getReferencedColumns()),
+          Optional.ofNullable(analysis.getWhereExpression()));
     }
     throw new RuntimeException("Data source is not supported yet.");
   }
 
+  /**
+   * @return the names, without source alias, of the columns referenced by the query.
+   */
+  private Set<String> getReferencedColumns() {
+    final Set<String> columns = new HashSet<>();
+    final ReferencedColumnCollector collector = new ReferencedColumnCollector();
+    analysis.getSelectExpressions().forEach(expression -> collector.process(expression, columns));
+    analysis.getGroupByExpressions().forEach(expression -> collector.process(expression, columns));
+    if (analysis.getWhereExpression() != null) {
+      collector.process(analysis.getWhereExpression(), columns);
+    }
+    if (analysis.getHavingExpression() != null) {
+      collector.process(analysis.getHavingExpression(), columns);
+    }
+    return columns;
+  }
+
+  private static final class ReferencedColumnCollector
+      extends DefaultTraversalVisitor<Object, Set<String>> {
+
+    @Override
+    protected Object visitDereferenceExpression(
+        final DereferenceExpression node,
+        final Set<String> columns
+    ) {
+      columns.add(node.getFieldName());
+      return super.visitDereferenceExpression(node, columns);
+    }
+
+    @Override
+    protected Object visitQualifiedNameReference(
+        final QualifiedNameReference node,
+        final Set<String> columns
+    ) {
+      columns.add(node.getName().getSuffix());
+      return null;
+    }
+  }
+
 }
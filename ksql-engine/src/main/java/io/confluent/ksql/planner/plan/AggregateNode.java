@@ -36,6 +36,7 @@ import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.binary.KsqlBinaryRowSerde;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.structured.QueryContext;
@@ -58,6 +59,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Field;
@@ -239,19 +241,30 @@ public class AggregateNode extends PlanNode {
     final Schema aggStageSchema = buildAggregateSchema(
         aggregateArgExpanded.getSchema(),
         functionRegistry,
-        internalSchema
+        internalSchema,
+        KsqlAggregateFunction::getAggregateType
+    );
+
+    final Schema aggResultSchema = buildAggregateSchema(
+        aggregateArgExpanded.getSchema(),
+        functionRegistry,
+        internalSchema,
+        KsqlAggregateFunction::getReturnType
     );
 
     final QueryContext.Stacker aggregationContext = contextStacker.push(AGGREGATION_OP_NAME);
 
-    final Serde<GenericRow> aggValueGenericRowSerde = ksqlTopicSerDe.getGenericRowSerde(
-        aggStageSchema,
-        ksqlConfig,
-        true,
-        serviceContext.getSchemaRegistryClientFactory(),
-        QueryLoggerUtil.queryLoggerName(aggregationContext.getQueryContext()),
-        processingLogContext
-    );
+    final Serde<GenericRow> aggValueGenericRowSerde =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_AGGREGATE_BINARY_STATE_CONFIG)
+            ? new KsqlBinaryRowSerde(aggStageSchema)
+            : ksqlTopicSerDe.getGenericRowSerde(
+                aggStageSchema,
+                ksqlConfig,
+                true,
+                serviceContext.getSchemaRegistryClientFactory(),
+                QueryLoggerUtil.queryLoggerName(aggregationContext.getQueryContext()),
+                processingLogContext
+            );
 
     final KudafInitializer initializer = new KudafInitializer(aggValToValColumnMap.size());
 
@@ -268,7 +281,7 @@ public class AggregateNode extends PlanNode {
         aggregationContext);
 
     SchemaKTable<?> result = new SchemaKTable<>(
-        aggStageSchema,
+        aggResultSchema,
         schemaKTable.getKtable(),
         schemaKTable.getKeyField(),
         schemaKTable.getSourceSchemaKStreams(),
@@ -375,7 +388,8 @@ public class AggregateNode extends PlanNode {
   private Schema buildAggregateSchema(
       final Schema schema,
       final FunctionRegistry functionRegistry,
-      final InternalSchema internalSchema
+      final InternalSchema internalSchema,
+      final Function<KsqlAggregateFunction<?, ?>, Schema> aggregateColumnType
   ) {
     final SchemaBuilder schemaBuilder = SchemaBuilder.struct();
     final List<Field> fields = schema.fields();
@@ -392,7 +406,7 @@ public class AggregateNode extends PlanNode {
       schemaBuilder.field(
           AggregateExpressionRewriter.AGGREGATE_FUNCTION_VARIABLE_PREFIX
               + aggFunctionVarSuffix,
-          aggregateFunction.getReturnType()
+          aggregateColumnType.apply(aggregateFunction)
       );
     }
 
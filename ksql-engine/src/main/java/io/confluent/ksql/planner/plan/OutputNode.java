@@ -46,6 +46,10 @@ public abstract class OutputNode
     void limitReached();
   }
 
+  public interface RowQueuedHandler {
+    void rowQueued();
+  }
+
   public interface Callback {
 
     /**
@@ -107,6 +111,13 @@ public abstract class OutputNode
     callback.setLimitHandler(limitHandler);
   }
 
+  /**
+   * Sets the handler to be called each time an output row has been queued.
+   */
+  public void setRowQueuedHandler(final RowQueuedHandler rowQueuedHandler) {
+    callback.setRowQueuedHandler(rowQueuedHandler);
+  }
+
   @JsonProperty
   public PlanNode getSource() {
     return source;
@@ -126,12 +137,24 @@ public abstract class OutputNode
     return timestampExtractionPolicy;
   }
 
-  private interface InternalCallback extends Callback {
+  private abstract static class InternalCallback implements Callback {
+
+    private volatile RowQueuedHandler rowQueuedHandler = () -> {
+    };
+
+    abstract void setLimitHandler(LimitHandler limitHandler);
 
-    void setLimitHandler(LimitHandler limitHandler);
+    void setRowQueuedHandler(final RowQueuedHandler rowQueuedHandler) {
+      this.rowQueuedHandler = Objects.requireNonNull(rowQueuedHandler, "rowQueuedHandler");
+    }
+
+    @Override
+    public void onQueued() {
+      rowQueuedHandler.rowQueued();
+    }
   }
 
-  private static final class LimitCallback implements InternalCallback {
+  private static final class LimitCallback extends InternalCallback {
 
     private final AtomicInteger remaining;
     private final AtomicInteger queued;
@@ -147,7 +170,7 @@ public abstract class OutputNode
     }
 
     @Override
-    public void setLimitHandler(final LimitHandler limitHandler) {
+    void setLimitHandler(final LimitHandler limitHandler) {
       this.limitHandler = Objects.requireNonNull(limitHandler, "limitHandler");
     }
 
@@ -158,6 +181,7 @@ public abstract class OutputNode
 
     @Override
     public void onQueued() {
+      super.onQueued();
       if (queued.decrementAndGet() == 0) {
         limitHandler.limitReached();
       }
@@ -166,19 +190,15 @@ public abstract class OutputNode
 
   public abstract QueryId getQueryId(QueryIdGenerator queryIdGenerator);
 
-  private static class NoCallback implements InternalCallback {
+  private static class NoCallback extends InternalCallback {
 
     @Override
-    public void setLimitHandler(final LimitHandler limitHandler) {
+    void setLimitHandler(final LimitHandler limitHandler) {
     }
 
     @Override
     public boolean shouldQueue() {
       return true;
     }
-
-    @Override
-    public void onQueued() {
-    }
   }
 }
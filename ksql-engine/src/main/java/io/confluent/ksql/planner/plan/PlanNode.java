@@ -73,7 +73,7 @@ public abstract class PlanNode {
     return null;
   }
 
-  QueryContext.Stacker buildNodeContext(final QueryId queryId) {
+  public QueryContext.Stacker buildNodeContext(final QueryId queryId) {
     return new QueryContext.Stacker(queryId).push(id.toString());
   }
 
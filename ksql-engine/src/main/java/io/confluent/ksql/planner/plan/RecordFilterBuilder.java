@@ -0,0 +1,313 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner.plan;
+
+import io.confluent.ksql.parser.tree.ArithmeticUnaryExpression;
+import io.confluent.ksql.parser.tree.BetweenPredicate;
+import io.confluent.ksql.parser.tree.BooleanLiteral;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.DoubleLiteral;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.IntegerLiteral;
+import io.confluent.ksql.parser.tree.IsNotNullPredicate;
+import io.confluent.ksql.parser.tree.IsNullPredicate;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.LongLiteral;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.serde.RecordFilter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Builds the {@link RecordFilter} a source's deserializer can check from a query's filter.
+ *
+ * <p>Only conditions that must hold for the whole filter to be true are pushed down, i.e. the
+ * operands of top-level {@code AND}s that compare a primitive column to a literal, check a column
+ * for {@code NULL} or check a column is {@code BETWEEN} two literals. Each condition has the
+ * same result as the code generated for it, including being false for {@code NULL} operands, so
+ * the pushed down conditions only reject records the full filter would also reject.
+ */
+final class RecordFilterBuilder {
+
+  private RecordFilterBuilder() {
+  }
+
+  /**
+   * @param filter the filter of the query.
+   * @param valueSchema the schema of the source's values, without source alias.
+   * @return the filter for the source's deserializer.
+   */
+  static RecordFilter build(final Expression filter, final Schema valueSchema) {
+    final Map<String, Predicate<Object>> conditions = new HashMap<>();
+    addConditions(filter, valueSchema, conditions);
+    return RecordFilter.of(conditions);
+  }
+
+  private static void addConditions(
+      final Expression expression,
+      final Schema valueSchema,
+      final Map<String, Predicate<Object>> conditions
+  ) {
+    if (expression instanceof LogicalBinaryExpression
+        && ((LogicalBinaryExpression) expression).getType() == LogicalBinaryExpression.Type.AND) {
+      final LogicalBinaryExpression and = (LogicalBinaryExpression) expression;
+      addConditions(and.getLeft(), valueSchema, conditions);
+      addConditions(and.getRight(), valueSchema, conditions);
+      return;
+    }
+
+    if (expression instanceof IsNullPredicate) {
+      column(((IsNullPredicate) expression).getValue(), valueSchema).ifPresent(
+          field -> addCondition(field, value -> value == null, conditions));
+    } else if (expression instanceof IsNotNullPredicate) {
+      column(((IsNotNullPredicate) expression).getValue(), valueSchema).ifPresent(
+          field -> addCondition(field, value -> value != null, conditions));
+    } else if (expression instanceof ComparisonExpression) {
+      addComparison((ComparisonExpression) expression, valueSchema, conditions);
+    } else if (expression instanceof BetweenPredicate) {
+      addBetween((BetweenPredicate) expression, valueSchema, conditions);
+    }
+  }
+
+  private static void addComparison(
+      final ComparisonExpression comparison,
+      final Schema valueSchema,
+      final Map<String, Predicate<Object>> conditions
+  ) {
+    Optional<Field> field = column(comparison.getLeft(), valueSchema);
+    Optional<Object> literal = literal(comparison.getRight());
+    ComparisonExpression.Type type = comparison.getType();
+    if (!field.isPresent()) {
+      field = column(comparison.getRight(), valueSchema);
+      literal = literal(comparison.getLeft());
+      type = type.flip();
+    }
+    if (!field.isPresent() || !literal.isPresent()) {
+      return;
+    }
+
+    final Optional<Predicate<Object>> condition =
+        comparison(field.get().schema(), type, literal.get());
+    if (condition.isPresent()) {
+      addCondition(field.get(), condition.get(), conditions);
+    }
+  }
+
+  private static void addBetween(
+      final BetweenPredicate between,
+      final Schema valueSchema,
+      final Map<String, Predicate<Object>> conditions
+  ) {
+    final Optional<Field> field = column(between.getValue(), valueSchema);
+    final Optional<Object> min = literal(between.getMin());
+    final Optional<Object> max = literal(between.getMax());
+    if (!field.isPresent() || !min.isPresent() || !max.isPresent()) {
+      return;
+    }
+
+    final Schema schema = field.get().schema();
+    final Optional<Predicate<Object>> aboveMin =
+        comparison(schema, ComparisonExpression.Type.GREATER_THAN_OR_EQUAL, min.get());
+    final Optional<Predicate<Object>> belowMax =
+        comparison(schema, ComparisonExpression.Type.LESS_THAN_OR_EQUAL, max.get());
+    if (aboveMin.isPresent() && belowMax.isPresent()) {
+      addCondition(field.get(), aboveMin.get().and(belowMax.get()), conditions);
+    }
+  }
+
+  private static void addCondition(
+      final Field field,
+      final Predicate<Object> condition,
+      final Map<String, Predicate<Object>> conditions
+  ) {
+    conditions.merge(field.name(), condition, Predicate::and);
+  }
+
+  private static Optional<Field> column(final Expression expression, final Schema valueSchema) {
+    if (!(expression instanceof DereferenceExpression)) {
+      return Optional.empty();
+    }
+    final DereferenceExpression dereference = (DereferenceExpression) expression;
+    if (!(dereference.getBase() instanceof QualifiedNameReference)) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(valueSchema.field(dereference.getFieldName()));
+  }
+
+  private static Optional<Object> literal(final Expression expression) {
+    if (expression instanceof ArithmeticUnaryExpression) {
+      final ArithmeticUnaryExpression unary = (ArithmeticUnaryExpression) expression;
+      return literal(unary.getValue())
+          .filter(value -> value instanceof Number)
+          .map(value -> unary.getSign() == ArithmeticUnaryExpression.Sign.MINUS
+              ? negate((Number) value) : value);
+    }
+    if (expression instanceof IntegerLiteral) {
+      return Optional.of(((IntegerLiteral) expression).getValue());
+    }
+    if (expression instanceof LongLiteral) {
+      return Optional.of(((LongLiteral) expression).getValue());
+    }
+    if (expression instanceof DoubleLiteral) {
+      return Optional.of(((DoubleLiteral) expression).getValue());
+    }
+    if (expression instanceof StringLiteral) {
+      return Optional.of(((StringLiteral) expression).getValue());
+    }
+    if (expression instanceof BooleanLiteral) {
+      return Optional.of(((BooleanLiteral) expression).getValue());
+    }
+    return Optional.empty();
+  }
+
+  private static Number negate(final Number value) {
+    if (value instanceof Double) {
+      return -value.doubleValue();
+    }
+    return -value.longValue();
+  }
+
+  private static Optional<Predicate<Object>> comparison(
+      final Schema columnSchema,
+      final ComparisonExpression.Type type,
+      final Object literal
+  ) {
+    if (type == ComparisonExpression.Type.IS_DISTINCT_FROM) {
+      return Optional.empty();
+    }
+
+    switch (columnSchema.type()) {
+      case INT32:
+      case INT64:
+      case FLOAT64:
+        return literal instanceof Number
+            ? Optional.of(numberComparison(type, (Number) literal))
+            : Optional.empty();
+      case STRING:
+        return literal instanceof String
+            ? Optional.of(stringComparison(type, (String) literal))
+            : Optional.empty();
+      case BOOLEAN:
+        return literal instanceof Boolean && isEquality(type)
+            ? Optional.of(booleanComparison(type, (Boolean) literal))
+            : Optional.empty();
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private static boolean isEquality(final ComparisonExpression.Type type) {
+    return type == ComparisonExpression.Type.EQUAL
+        || type == ComparisonExpression.Type.NOT_EQUAL;
+  }
+
+  private static Predicate<Object> numberComparison(
+      final ComparisonExpression.Type type,
+      final Number literal
+  ) {
+    final boolean isDoubleLiteral = literal instanceof Double;
+    return value -> {
+      if (value == null) {
+        return false;
+      }
+      final Number number = (Number) value;
+      // Compare in the type Java would promote the operands to in the generated code:
+      if (isDoubleLiteral || number instanceof Double) {
+        return compare(type, number.doubleValue(), literal.doubleValue());
+      }
+      return compare(type, number.longValue(), literal.longValue());
+    };
+  }
+
+  private static boolean compare(
+      final ComparisonExpression.Type type,
+      final double left,
+      final double right
+  ) {
+    switch (type) {
+      case EQUAL:
+        return left <= right && left >= right;
+      case NOT_EQUAL:
+        return left < right || left > right;
+      case LESS_THAN:
+        return left < right;
+      case LESS_THAN_OR_EQUAL:
+        return left <= right;
+      case GREATER_THAN:
+        return left > right;
+      case GREATER_THAN_OR_EQUAL:
+        return left >= right;
+      default:
+        throw new IllegalArgumentException("Unsupported comparison: " + type);
+    }
+  }
+
+  private static boolean compare(
+      final ComparisonExpression.Type type,
+      final long left,
+      final long right
+  ) {
+    switch (type) {
+      case EQUAL:
+        return left == right;
+      case NOT_EQUAL:
+        return left != right;
+      case LESS_THAN:
+        return left < right;
+      case LESS_THAN_OR_EQUAL:
+        return left <= right;
+      case GREATER_THAN:
+        return left > right;
+      case GREATER_THAN_OR_EQUAL:
+        return left >= right;
+      default:
+        throw new IllegalArgumentException("Unsupported comparison: " + type);
+    }
+  }
+
+  private static Predicate<Object> stringComparison(
+      final ComparisonExpression.Type type,
+      final String literal
+  ) {
+    return value -> {
+      if (value == null) {
+        return false;
+      }
+      switch (type) {
+        case EQUAL:
+          return value.equals(literal);
+        case NOT_EQUAL:
+          return !value.equals(literal);
+        default:
+          return compare(type, ((String) value).compareTo(literal), 0);
+      }
+    };
+  }
+
+  private static Predicate<Object> booleanComparison(
+      final ComparisonExpression.Type type,
+      final Boolean literal
+  ) {
+    return value -> value != null
+        && (type == ComparisonExpression.Type.EQUAL) == value.equals(literal);
+  }
+}
@@ -24,9 +24,12 @@ import io.confluent.ksql.metastore.KsqlStream;
 import io.confluent.ksql.metastore.KsqlTable;
 import io.confluent.ksql.metastore.KsqlTopic;
 import io.confluent.ksql.metastore.StructuredDataSource;
+import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.physical.AddTimestampColumn;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.RecordFilter;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.streams.MaterializedFactory;
@@ -39,10 +42,12 @@ import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import javax.annotation.concurrent.Immutable;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -67,24 +72,21 @@ import org.apache.kafka.streams.state.KeyValueStore;
 public class StructuredDataSourceNode
     extends PlanNode {
 
+  // The key mappers leave the ROWTIME column null, for AddTimestampColumn to set, so that the
+  // source columns are only copied once:
   private static final ValueMapperWithKey<String, GenericRow, GenericRow>
-      nonWindowedValueMapper = (key, row) -> {
-        if (row != null) {
-          row.getColumns().add(0, key);
-        }
-        return row;
-      };
+      nonWindowedValueMapper = (key, row) -> row == null ? null : row.prepend(null, key);
 
   private static final ValueMapperWithKey<Windowed<String>, GenericRow, GenericRow>
       windowedMapper = (key, row) -> {
-        if (row != null) {
-          final Window window = key.window();
-          final String end = window instanceof SessionWindow ? String.valueOf(window.end()) : "-";
-          final String rowKey = String.format("%s : Window{start=%d end=%s}",
-              key.key(), window.start(), end);
-          row.getColumns().add(0, rowKey);
+        if (row == null) {
+          return null;
         }
-        return row;
+        final Window window = key.window();
+        final String end = window instanceof SessionWindow ? String.valueOf(window.end()) : "-";
+        final String rowKey = String.format("%s : Window{start=%d end=%s}",
+            key.key(), window.start(), end);
+        return row.prepend(null, rowKey);
       };
 
   private static final String SOURCE_OP_NAME = "source";
@@ -93,6 +95,8 @@ public class StructuredDataSourceNode
   private final StructuredDataSource structuredDataSource;
   private final Schema schema;
   private final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier;
+  private final Optional<Set<String>> requiredColumns;
+  private final Optional<Expression> filter;
 
   // TODO: pass in the "assignments" and the "outputs" separately
   // TODO: (i.e., get rid if the symbol := symbol idiom)
@@ -110,6 +114,29 @@ public class StructuredDataSourceNode
       final StructuredDataSource structuredDataSource,
       final Schema schema,
       final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier) {
+    this(
+        id,
+        structuredDataSource,
+        schema,
+        materializedFactorySupplier,
+        Optional.empty(),
+        Optional.empty());
+  }
+
+  /**
+   * @param requiredColumns the source columns referenced by the query, if known. Only these
+   *     columns, along with the key and timestamp columns, are decoded from each record.
+   * @param filter the filter the query applies to the source's records, if any. Stream records
+   *     that cannot match it may be dropped by the deserializer.
+   */
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier,
+      final Optional<Set<String>> requiredColumns,
+      final Optional<Expression> filter) {
     super(id, structuredDataSource.getDataSourceType());
     this.schema =
         Objects.requireNonNull(schema, "schema");
@@ -117,6 +144,10 @@ public class StructuredDataSourceNode
         Objects.requireNonNull(structuredDataSource, "structuredDataSource");
     this.materializedFactorySupplier =
         Objects.requireNonNull(materializedFactorySupplier, "materializedFactorySupplier");
+    this.requiredColumns =
+        Objects.requireNonNull(requiredColumns, "requiredColumns");
+    this.filter =
+        Objects.requireNonNull(filter, "filter");
   }
 
   public String getTopicName() {
@@ -137,6 +168,14 @@ public class StructuredDataSourceNode
     return structuredDataSource;
   }
 
+  public Optional<Set<String>> getRequiredColumns() {
+    return requiredColumns;
+  }
+
+  public Optional<Expression> getFilter() {
+    return filter;
+  }
+
   @Override
   public int getPartitions(final KafkaTopicClient kafkaTopicClient) {
     final String topicName = getStructuredDataSource().getKsqlTopic().getKafkaTopicName();
@@ -167,21 +206,12 @@ public class StructuredDataSourceNode
       final QueryId queryId
   ) {
     final QueryContext.Stacker contextStacker = buildNodeContext(queryId);
-    final int timeStampColumnIndex = getTimeStampColumnIndex();
-    final TimestampExtractor timestampExtractor = getTimestampExtractionPolicy()
-        .create(timeStampColumnIndex);
-
-    final KsqlTopicSerDe ksqlTopicSerDe = getStructuredDataSource()
-        .getKsqlTopic().getKsqlTopicSerDe();
-    final Serde<GenericRow> genericRowSerde =
-        ksqlTopicSerDe.getGenericRowSerde(
-            SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema()),
-            ksqlConfig,
-            false,
-            serviceContext.getSchemaRegistryClientFactory(), 
-            QueryLoggerUtil.queryLoggerName(contextStacker.push(SOURCE_OP_NAME).getQueryContext()),
-            processingLogContext
-        );
+    final TimestampExtractor timestampExtractor = buildTimestampExtractor();
+    final Serde<GenericRow> genericRowSerde = buildValueSerde(
+        ksqlConfig,
+        serviceContext,
+        processingLogContext,
+        queryId);
 
     if (getDataSourceType() == StructuredDataSource.DataSourceType.KTABLE) {
       final KsqlTable table = (KsqlTable) getStructuredDataSource();
@@ -231,6 +261,86 @@ public class StructuredDataSourceNode
     );
   }
 
+  /**
+   * @return the extractor of the timestamp of records read from the source.
+   */
+  public TimestampExtractor buildTimestampExtractor() {
+    return getTimestampExtractionPolicy().create(getTimeStampColumnIndex());
+  }
+
+  /**
+   * @return the serde of the values of the source topic, which excludes the implicit
+   *     {@code ROWTIME} and {@code ROWKEY} columns. If the columns the query references are
+   *     known, the other columns are not decoded and are left null. Stream records that cannot
+   *     match the query's filter may be deserialized as null.
+   */
+  public Serde<GenericRow> buildValueSerde(
+      final KsqlConfig ksqlConfig,
+      final ServiceContext serviceContext,
+      final ProcessingLogContext processingLogContext,
+      final QueryId queryId
+  ) {
+    final KsqlTopicSerDe ksqlTopicSerDe = getStructuredDataSource()
+        .getKsqlTopic().getKsqlTopicSerDe();
+    final Schema valueSchema = SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema());
+    final String loggerNamePrefix = QueryLoggerUtil.queryLoggerName(
+        buildNodeContext(queryId).push(SOURCE_OP_NAME).getQueryContext());
+
+    final boolean pruneColumns = requiredColumns.isPresent()
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_SOURCE_COLUMN_PRUNING_CONFIG);
+    final RecordFilter recordFilter = buildRecordFilter(ksqlConfig, valueSchema);
+
+    if (!pruneColumns && recordFilter.isEmpty()) {
+      return ksqlTopicSerDe.getGenericRowSerde(
+          valueSchema,
+          ksqlConfig,
+          false,
+          serviceContext.getSchemaRegistryClientFactory(),
+          loggerNamePrefix,
+          processingLogContext
+      );
+    }
+
+    return ksqlTopicSerDe.getGenericRowSerde(
+        valueSchema,
+        ksqlConfig,
+        false,
+        serviceContext.getSchemaRegistryClientFactory(),
+        loggerNamePrefix,
+        processingLogContext,
+        pruneColumns
+            ? getRequiredValueColumns(requiredColumns.get())
+            : SerdeUtils.columnNames(valueSchema),
+        recordFilter
+    );
+  }
+
+  private RecordFilter buildRecordFilter(final KsqlConfig ksqlConfig, final Schema valueSchema) {
+    // A null table value deletes the row with the record's key, so table records can't be dropped:
+    if (!filter.isPresent()
+        || getDataSourceType() != StructuredDataSource.DataSourceType.KSTREAM
+        || !ksqlConfig.getBoolean(KsqlConfig.KSQL_SOURCE_FILTER_PUSHDOWN_CONFIG)) {
+      return RecordFilter.acceptAll();
+    }
+    return RecordFilterBuilder.build(filter.get(), valueSchema);
+  }
+
+  private Set<String> getRequiredValueColumns(final Set<String> referencedColumns) {
+    final Set<String> columns = new HashSet<>(referencedColumns);
+    if (getKeyField() != null) {
+      columns.add(withoutAlias(getKeyField().name()));
+    }
+    final String timestampFieldName = getTimestampExtractionPolicy().timestampField();
+    if (timestampFieldName != null) {
+      columns.add(withoutAlias(timestampFieldName));
+    }
+    return columns;
+  }
+
+  private static String withoutAlias(final String fieldName) {
+    return fieldName.substring(fieldName.indexOf('.') + 1);
+  }
+
   private static Topology.AutoOffsetReset getAutoOffsetReset(final Map<String, Object> props) {
     if (props.containsKey(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG)) {
       final String offestReset = props.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG).toString();
@@ -332,8 +442,8 @@ public class StructuredDataSourceNode
       final QueryContext reduceContextBuilder) {
     // to build a table we apply the following transformations:
     // 1. Create a KStream on the changelog topic.
-    // 2. mapValues to add the ROWKEY column
-    // 3. transformValues to add the ROWTIME column. transformValues is required to access the
+    // 2. mapValues to add the ROWKEY column, and an empty ROWTIME column
+    // 3. transformValues to set the ROWTIME column. transformValues is required to access the
     //    streams ProcessorContext which has the timestamp for the record. Also, transformValues
     //    is only available for KStream (not KTable). This is why we have to create a KStream
     //    first instead of a KTable.
@@ -18,21 +18,19 @@ package io.confluent.ksql.structured;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.serde.groupby.GroupByKey;
 import io.confluent.ksql.util.ExpressionMetadata;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, String> {
+class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, GroupByKey> {
 
   private static final Logger LOG = LoggerFactory.getLogger(GroupByMapper.class);
 
-  private static final String GROUP_BY_COLUMN_SEPARATOR = "|+|";
-
   private final List<ExpressionMetadata> expressions;
 
   GroupByMapper(final List<ExpressionMetadata> expressions) {
@@ -43,28 +41,30 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, String> {
   }
 
   @Override
-  public String apply(final K key, final GenericRow row) {
-    return IntStream.range(0, expressions.size())
-        .mapToObj(idx -> processColumn(idx, expressions.get(idx), row))
-        .collect(Collectors.joining(GROUP_BY_COLUMN_SEPARATOR));
+  public GroupByKey apply(final K key, final GenericRow row) {
+    final Object[] values = new Object[expressions.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = processColumn(i, expressions.get(i), row);
+    }
+    return new GroupByKey(values);
   }
 
   static String keyNameFor(final List<Expression> groupByExpressions) {
     return groupByExpressions.stream()
         .map(Expression::toString)
-        .collect(Collectors.joining(GROUP_BY_COLUMN_SEPARATOR));
+        .collect(Collectors.joining(GroupByKey.COLUMN_SEPARATOR));
   }
 
-  private String processColumn(
+  private Object processColumn(
       final int index,
       final ExpressionMetadata exp,
       final GenericRow row
   ) {
     try {
-      return String.valueOf(exp.evaluate(row));
+      return exp.evaluate(row);
     } catch (final Exception e) {
       LOG.error("Error calculating group-by field with index {}", index, e);
-      return "null";
+      return null;
     }
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The columns of a joined row: a view of the columns of the left row followed by those of the
+ * right row, which are not copied unless the joined row is changed.
+ *
+ * <p>The left and right rows are never changed through the view, as they may still be in use,
+ * e.g. by the other side of a stream-stream join. The first change to the joined row copies
+ * the columns into an array, which the view then reads and writes.
+ */
+final class JoinedColumns extends AbstractList<Object> implements RandomAccess {
+
+  private final List<Object> left;
+  private final List<Object> right;
+  private final int leftSize;
+  private final int size;
+  private Object[] copy;
+
+  /**
+   * @param left the columns of the left row, or {@code null} if there is no left row.
+   * @param leftSize the number of left columns.
+   * @param right the columns of the right row, or {@code null} if there is no right row.
+   * @param rightSize the number of right columns.
+   */
+  JoinedColumns(
+      final List<Object> left,
+      final int leftSize,
+      final List<Object> right,
+      final int rightSize
+  ) {
+    this.left = left;
+    this.right = right;
+    this.leftSize = leftSize;
+    this.size = leftSize + rightSize;
+  }
+
+  @Override
+  public Object get(final int index) {
+    checkIndex(index);
+    if (copy != null) {
+      return copy[index];
+    }
+    if (index < leftSize) {
+      return left == null ? null : left.get(index);
+    }
+    return right == null ? null : right.get(index - leftSize);
+  }
+
+  @Override
+  public Object set(final int index, final Object value) {
+    checkIndex(index);
+    if (copy == null) {
+      copy = toArray();
+    }
+    final Object previous = copy[index];
+    copy[index] = value;
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Object[] toArray() {
+    if (copy != null) {
+      return copy.clone();
+    }
+    final Object[] columns = new Object[size];
+    for (int i = 0; i < size; i++) {
+      columns[i] = get(i);
+    }
+    return columns;
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+}
@@ -19,6 +19,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SelectExpression;
 import java.util.List;
@@ -36,8 +37,7 @@ import org.apache.kafka.streams.kstream.Windowed;
 
 public class QueuedSchemaKStream<K> extends SchemaKStream<K> {
 
-  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
-      new LinkedBlockingQueue<>(100);
+  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue;
 
   @SuppressWarnings("unchecked") // needs investigating
   QueuedSchemaKStream(final SchemaKStream<K> schemaKStream, final QueryContext queryContext) {
@@ -53,6 +53,9 @@ public class QueuedSchemaKStream<K> extends SchemaKStream<K> {
         queryContext
     );
 
+    this.rowQueue = new LinkedBlockingQueue<>(
+        ksqlConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUERY_QUEUE_CAPACITY_CONFIG));
+
     final OutputNode output = schemaKStream.outputNode();
     setOutputNode(output);
     kstream.foreach(new QueuedSchemaKStream.QueuePopulator(rowQueue, output.getCallback()));
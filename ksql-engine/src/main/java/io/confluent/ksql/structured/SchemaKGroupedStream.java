@@ -20,9 +20,13 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafResultMapper;
 import io.confluent.ksql.function.udaf.window.WindowSelectMapper;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
 import io.confluent.ksql.parser.tree.WindowExpression;
+import io.confluent.ksql.serde.groupby.GroupByKey;
+import io.confluent.ksql.serde.groupby.GroupByKeySerde;
+import io.confluent.ksql.serde.groupby.StringKeySerde;
 import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
@@ -48,6 +52,7 @@ public class SchemaKGroupedStream {
   final Schema schema;
   final KGroupedStream kgroupedStream;
   final Field keyField;
+  final Serde<?> keySerde;
   final List<SchemaKStream> sourceSchemaKStreams;
   final KsqlConfig ksqlConfig;
   final FunctionRegistry functionRegistry;
@@ -57,6 +62,7 @@ public class SchemaKGroupedStream {
       final Schema schema,
       final KGroupedStream kgroupedStream,
       final Field keyField,
+      final Serde<?> keySerde,
       final List<SchemaKStream> sourceSchemaKStreams,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry
@@ -65,6 +71,7 @@ public class SchemaKGroupedStream {
         schema,
         kgroupedStream,
         keyField,
+        keySerde,
         sourceSchemaKStreams,
         ksqlConfig,
         functionRegistry,
@@ -76,6 +83,7 @@ public class SchemaKGroupedStream {
       final Schema schema,
       final KGroupedStream kgroupedStream,
       final Field keyField,
+      final Serde<?> keySerde,
       final List<SchemaKStream> sourceSchemaKStreams,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
@@ -84,6 +92,7 @@ public class SchemaKGroupedStream {
     this.schema = schema;
     this.kgroupedStream = kgroupedStream;
     this.keyField = keyField;
+    this.keySerde = Objects.requireNonNull(keySerde, "keySerde");
     this.sourceSchemaKStreams = sourceSchemaKStreams;
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.functionRegistry = functionRegistry;
@@ -104,9 +113,9 @@ public class SchemaKGroupedStream {
       final QueryContext.Stacker contextStacker) {
 
     final KTable table;
-    final Serde<?> keySerde;
+    final Serde<?> sinkKeySerde;
     if (windowExpression != null) {
-      keySerde = getKeySerde(windowExpression);
+      sinkKeySerde = getWindowedSinkKeySerde(windowExpression);
       table = aggregateWindowed(
           initializer,
           aggValToFunctionMap,
@@ -115,7 +124,7 @@ public class SchemaKGroupedStream {
           topicValueSerDe,
           contextStacker);
     } else {
-      keySerde = Serdes.String();
+      sinkKeySerde = getSinkKeySerde();
 
       table = aggregateNonWindowed(
           initializer,
@@ -125,12 +134,14 @@ public class SchemaKGroupedStream {
           contextStacker);
     }
 
+    final KudafResultMapper resultMapper = new KudafResultMapper(aggValToFunctionMap);
+
     return new SchemaKTable(
         schema,
-        table,
+        resultMapper.hasResults() ? table.mapValues(resultMapper) : table,
         keyField,
         sourceSchemaKStreams,
-        keySerde,
+        sinkKeySerde,
         SchemaKStream.Type.AGGREGATE,
         ksqlConfig,
         functionRegistry,
@@ -148,9 +159,9 @@ public class SchemaKGroupedStream {
     final UdafAggregator aggregator = new KudafAggregator(
         indexToFunctionMap, indexToValueMap);
 
-    final Materialized<String, GenericRow, KeyValueStore<Bytes, byte[]>> materialized
+    final Materialized<?, GenericRow, KeyValueStore<Bytes, byte[]>> materialized
           = materializedFactory.create(
-              Serdes.String(),
+              keySerde,
               topicValueSerDe,
               StreamsUtil.buildOpName(contextStacker.getQueryContext()));
     return kgroupedStream.aggregate(initializer, aggregator, materialized);
@@ -170,9 +181,9 @@ public class SchemaKGroupedStream {
 
     final KsqlWindowExpression ksqlWindowExpression = windowExpression.getKsqlWindowExpression();
 
-    final Materialized<String, GenericRow, WindowStore<Bytes, byte[]>> materialized
+    final Materialized<?, GenericRow, WindowStore<Bytes, byte[]>> materialized
           = materializedFactory.create(
-              Serdes.String(),
+              keySerde,
               topicValueSerDe,
               StreamsUtil.buildOpName(contextStacker.getQueryContext()));
     final KTable aggKtable = ksqlWindowExpression.applyAggregate(
@@ -187,11 +198,28 @@ public class SchemaKGroupedStream {
         windowSelectMapper.apply((Windowed<?>) readOnlyKey, (GenericRow) value));
   }
 
-  private Serde<Windowed<String>> getKeySerde(final WindowExpression windowExpression) {
+  /**
+   * Aggregates keyed by a {@link GroupByKey} are written to their sink topic with the key in its
+   * string form, so that the sink topic is keyed by a {@code STRING} either way.
+   */
+  Serde<?> getSinkKeySerde() {
+    return keySerde instanceof GroupByKeySerde ? new StringKeySerde() : Serdes.String();
+  }
+
+  private Serde<?> getWindowedSinkKeySerde(final WindowExpression windowExpression) {
+    if (!(keySerde instanceof GroupByKeySerde)) {
+      if (ksqlConfig.getBoolean(KsqlConfig.KSQL_WINDOWED_SESSION_KEY_LEGACY_CONFIG)) {
+        return WindowedSerdes.timeWindowedSerdeFrom(String.class);
+      }
+
+      return windowExpression.getKsqlWindowExpression().getKeySerde(String.class);
+    }
+
+    final StringKeySerde innerSerde = new StringKeySerde();
     if (ksqlConfig.getBoolean(KsqlConfig.KSQL_WINDOWED_SESSION_KEY_LEGACY_CONFIG)) {
-      return WindowedSerdes.timeWindowedSerdeFrom(String.class);
+      return new WindowedSerdes.TimeWindowedSerde<>(innerSerde);
     }
 
-    return windowExpression.getKsqlWindowExpression().getKeySerde(String.class);
+    return windowExpression.getKsqlWindowExpression().getKeySerde(innerSerde);
   }
 }
@@ -31,7 +31,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serde;
-import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Initializer;
@@ -46,6 +45,7 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
       final Schema schema,
       final KGroupedTable kgroupedTable,
       final Field keyField,
+      final Serde<?> keySerde,
       final List<SchemaKStream> sourceSchemaKStreams,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry
@@ -54,6 +54,7 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
         schema,
         kgroupedTable,
         keyField,
+        keySerde,
         sourceSchemaKStreams,
         ksqlConfig,
         functionRegistry,
@@ -64,12 +65,13 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
       final Schema schema,
       final KGroupedTable kgroupedTable,
       final Field keyField,
+      final Serde<?> keySerde,
       final List<SchemaKStream> sourceSchemaKStreams,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final MaterializedFactory materializedFactory
   ) {
-    super(schema, null, keyField, sourceSchemaKStreams,
+    super(schema, null, keyField, keySerde, sourceSchemaKStreams,
         ksqlConfig, functionRegistry, materializedFactory);
 
     this.kgroupedTable = Objects.requireNonNull(kgroupedTable, "kgroupedTable");
@@ -77,7 +79,7 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
 
   @SuppressWarnings("unchecked")
   @Override
-  public SchemaKTable<String> aggregate(
+  public SchemaKTable<?> aggregate(
       final Initializer initializer,
       final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap,
@@ -111,12 +113,12 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
                     k -> ((TableAggregationFunction) aggValToFunctionMap.get(k))));
     final KudafUndoAggregator subtractor = new KudafUndoAggregator(
         aggValToUndoFunctionMap, aggValToValColumnMap);
-    final Materialized<String, GenericRow, ?> materialized =
+    final Materialized<?, GenericRow, ?> materialized =
         materializedFactory.create(
-            Serdes.String(),
+            keySerde,
             topicValueSerDe,
             StreamsUtil.buildOpName(contextStacker.getQueryContext()));
-    final KTable<String, GenericRow> aggKtable = kgroupedTable.aggregate(
+    final KTable<Object, GenericRow> aggKtable = kgroupedTable.aggregate(
         initializer,
         aggregator,
         subtractor,
@@ -126,7 +128,7 @@ public class SchemaKGroupedTable extends SchemaKGroupedStream {
         aggKtable,
         keyField,
         sourceSchemaKStreams,
-        Serdes.String(),
+        (Serde<Object>) getSinkKeySerde(),
         SchemaKStream.Type.AGGREGATE,
         ksqlConfig,
         functionRegistry,
@@ -25,21 +25,24 @@ import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.serde.groupby.GroupByKey;
+import io.confluent.ksql.serde.groupby.GroupByKeySerde;
+import io.confluent.ksql.serde.groupby.StringKeySerde;
 import io.confluent.ksql.streams.StreamsFactories;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.ExpressionMetadata;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.ProjectionMetadata;
 import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.SelectExpression;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
@@ -138,21 +141,34 @@ public class SchemaKStream<K> {
       final Set<Integer> rowkeyIndexes
   ) {
     kstream
-        .mapValues(row -> {
-          if (row == null) {
-            return null;
-          }
-          final List<Object> columns = new ArrayList<>();
-          for (int i = 0; i < row.getColumns().size(); i++) {
-            if (!rowkeyIndexes.contains(i)) {
-              columns.add(row.getColumns().get(i));
-            }
-          }
-          return new GenericRow(columns);
-        }).to(kafkaTopicName, Produced.with(keySerde, topicValueSerDe));
+        .mapValues(row -> row == null ? null : dropColumns(row, rowkeyIndexes))
+        .to(kafkaTopicName, Produced.with(keySerde, topicValueSerDe));
     return this;
   }
 
+  /**
+   * @return a fixed-arity row holding the columns of {@code row} whose index is not in
+   *     {@code indexes}.
+   */
+  static GenericRow dropColumns(final GenericRow row, final Set<Integer> indexes) {
+    final int size = row.size();
+    int dropped = 0;
+    for (final int index : indexes) {
+      if (index >= 0 && index < size) {
+        dropped++;
+      }
+    }
+
+    final Object[] columns = new Object[size - dropped];
+    int next = 0;
+    for (int i = 0; i < size; i++) {
+      if (!indexes.contains(i)) {
+        columns[next++] = row.get(i);
+      }
+    }
+    return new GenericRow(columns);
+  }
+
   @SuppressWarnings("unchecked")
   public SchemaKStream<K> filter(
       final Expression filterExpression,
@@ -207,6 +223,61 @@ public class SchemaKStream<K> {
     );
   }
 
+  /**
+   * Applies a filter and the projection that directly follows it in a single processor, which
+   * evaluates the filter and the projection against the same type-enforced input columns.
+   *
+   * <p>The execution plan of the returned stream still has separate filter and projection steps.
+   */
+  public SchemaKStream<K> filterAndSelect(
+      final Expression filterExpression,
+      final QueryContext.Stacker filterContextStacker,
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext) {
+    final Selection selection = new Selection(
+        Optional.of(filterExpression),
+        selectExpressions,
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                filterContextStacker.push(Type.FILTER.name()).getQueryContext())),
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                contextStacker.push(Type.PROJECT.name()).getQueryContext()))
+    );
+    final SelectValueMapper selectValueMapper = selection.getSelectValueMapper();
+    final KStream<K, GenericRow> projectedKStream = kstream.flatMapValues(row -> {
+      final GenericRow projected = selectValueMapper.apply(row);
+      return projected == null
+          ? Collections.<GenericRow>emptyList()
+          : Collections.singletonList(projected);
+    });
+
+    // Only part of the execution plan: the filter is applied by the projection's processor.
+    final SchemaKStream<K> filtered = new SchemaKStream<>(
+        schema,
+        kstream,
+        keyField,
+        Collections.singletonList(this),
+        keySerde,
+        Type.FILTER,
+        ksqlConfig,
+        functionRegistry,
+        filterContextStacker.getQueryContext()
+    );
+    return new SchemaKStream<>(
+        selection.getProjectedSchema(),
+        projectedKStream,
+        selection.getKey(),
+        Collections.singletonList(filtered),
+        keySerde,
+        Type.PROJECT,
+        ksqlConfig,
+        functionRegistry,
+        contextStacker.getQueryContext()
+    );
+  }
+
   class Selection {
     private final Schema schema;
     private final Field key;
@@ -215,15 +286,24 @@ public class SchemaKStream<K> {
     Selection(
         final List<SelectExpression> selectExpressions,
         final ProcessingLogger processingLogger) {
+      this(Optional.empty(), selectExpressions, processingLogger, processingLogger);
+    }
+
+    Selection(
+        final Optional<Expression> filterExpression,
+        final List<SelectExpression> selectExpressions,
+        final ProcessingLogger filterProcessingLogger,
+        final ProcessingLogger processingLogger) {
       key = findKeyField(selectExpressions);
-      final List<ExpressionMetadata> expressionEvaluators = buildExpressions(selectExpressions);
-      schema = buildSchema(selectExpressions, expressionEvaluators);
+      final ProjectionMetadata projection = buildProjection(filterExpression, selectExpressions);
+      schema = buildSchema(selectExpressions, projection);
       final List<String> selectFieldNames = selectExpressions.stream()
           .map(SelectExpression::getName)
           .collect(Collectors.toList());
       selectValueMapper = new SelectValueMapper(
           selectFieldNames,
-          expressionEvaluators,
+          projection,
+          filterProcessingLogger,
           processingLogger);
     }
 
@@ -267,22 +347,29 @@ public class SchemaKStream<K> {
 
     private Schema buildSchema(
         final List<SelectExpression> selectExpressions,
-        final List<ExpressionMetadata> expressionEvaluators) {
+        final ProjectionMetadata projection) {
       final SchemaBuilder schemaBuilder = SchemaBuilder.struct();
       IntStream.range(0, selectExpressions.size()).forEach(
           i -> schemaBuilder.field(
               selectExpressions.get(i).getName(),
-              expressionEvaluators.get(i).getExpressionType()));
+              projection.getExpressionTypes().get(i)));
       return schemaBuilder.build();
     }
 
-    List<ExpressionMetadata> buildExpressions(final List<SelectExpression> selectExpressions
-    ) {
-      final Stream<Expression> expressions = selectExpressions.stream()
-          .map(SelectExpression::getExpression);
+    ProjectionMetadata buildProjection(
+        final Optional<Expression> filterExpression,
+        final List<SelectExpression> selectExpressions) {
+      final List<Expression> expressions = selectExpressions.stream()
+          .map(SelectExpression::getExpression)
+          .collect(Collectors.toList());
 
-      return CodeGenRunner.compileExpressions(
-          expressions, "Select", SchemaKStream.this.getSchema(), ksqlConfig, functionRegistry);
+      return CodeGenRunner.compileProjection(
+          filterExpression,
+          expressions,
+          "Select",
+          SchemaKStream.this.getSchema(),
+          ksqlConfig,
+          functionRegistry);
     }
 
     public Schema getProjectedSchema() {
@@ -554,6 +641,7 @@ public class SchemaKStream<K> {
           schema,
           kgroupedStream,
           keyField,
+          Serdes.String(),
           Collections.singletonList(this),
           ksqlConfig,
           functionRegistry
@@ -568,7 +656,7 @@ public class SchemaKStream<K> {
             groupBy.mapper,
             streamsFactories.getGroupedFactory().create(
                 StreamsUtil.buildOpName(contextStacker.getQueryContext()),
-                Serdes.String(),
+                groupBy.repartitionKeySerde,
                 valSerde)
         );
 
@@ -581,6 +669,7 @@ public class SchemaKStream<K> {
         schema,
         kgroupedStream,
         newKeyField,
+        groupBy.groupedKeySerde,
         Collections.singletonList(this),
         ksqlConfig,
         functionRegistry
@@ -640,13 +729,25 @@ public class SchemaKStream<K> {
 
     final String aggregateKeyName;
     final GroupByMapper<Object> mapper;
+    final Serde<GroupByKey> repartitionKeySerde;
+    final Serde<?> groupedKeySerde;
 
+    @SuppressWarnings("unchecked")
     GroupBy(final List<Expression> expressions) {
       final List<ExpressionMetadata> groupBy = CodeGenRunner.compileExpressions(
           expressions.stream(), "Group By", schema, ksqlConfig, functionRegistry);
 
       this.mapper = new GroupByMapper<>(groupBy);
       this.aggregateKeyName = GroupByMapper.keyNameFor(expressions);
+
+      if (ksqlConfig.getBoolean(KsqlConfig.KSQL_GROUP_BY_BINARY_KEY_CONFIG)) {
+        this.repartitionKeySerde = new GroupByKeySerde();
+        this.groupedKeySerde = repartitionKeySerde;
+      } else {
+        // Keys are written as their string form, and so are read back as strings:
+        this.repartitionKeySerde = (Serde<GroupByKey>) (Serde<?>) new StringKeySerde();
+        this.groupedKeySerde = Serdes.String();
+      }
     }
   }
 
@@ -660,28 +761,21 @@ public class SchemaKStream<K> {
       this.rightSchema = rightSchema;
     }
 
+    /**
+     * @return a view of the columns of both rows, rather than a copy, as the next operator
+     *     usually reads only a few of the columns.
+     */
     @Override
     public GenericRow apply(final GenericRow left, final GenericRow right) {
-      final List<Object> columns = new ArrayList<>();
-      if (left != null) {
-        columns.addAll(left.getColumns());
-      } else {
-        fillWithNulls(columns, leftSchema.fields().size());
-      }
-
-      if (right != null) {
-        columns.addAll(right.getColumns());
-      } else {
-        fillWithNulls(columns, rightSchema.fields().size());
-      }
-
-      return new GenericRow(columns);
-    }
-
-    private static void fillWithNulls(final List<Object> columns, final int numToFill) {
-      for (int i = 0; i < numToFill; ++i) {
-        columns.add(null);
-      }
+      final int leftSize = left != null ? left.size() : leftSchema.fields().size();
+      final int rightSize = right != null ? right.size() : rightSchema.fields().size();
+
+      // Columns of a missing side are null:
+      return new GenericRow(new JoinedColumns(
+          left == null ? null : left.getColumns(),
+          leftSize,
+          right == null ? null : right.getColumns(),
+          rightSize));
     }
   }
 }
@@ -25,12 +25,10 @@ import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SelectExpression;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import org.apache.kafka.common.serialization.Serde;
-import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.KeyValue;
@@ -105,19 +103,8 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
   ) {
 
     ktable.toStream()
-        .mapValues(row -> {
-              if (row == null) {
-                return null;
-              }
-              final List<Object> columns = new ArrayList<>();
-              for (int i = 0; i < row.getColumns().size(); i++) {
-                if (!rowkeyIndexes.contains(i)) {
-                  columns.add(row.getColumns().get(i));
-                }
-              }
-              return new GenericRow(columns);
-            }
-        ).to(kafkaTopicName, Produced.with(keySerde, topicValueSerDe));
+        .mapValues(row -> row == null ? null : dropColumns(row, rowkeyIndexes))
+        .to(kafkaTopicName, Produced.with(keySerde, topicValueSerDe));
 
     return this;
   }
@@ -181,6 +168,18 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
     );
   }
 
+  @Override
+  public SchemaKTable<K> filterAndSelect(
+      final Expression filterExpression,
+      final QueryContext.Stacker filterContextStacker,
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext) {
+    // A filter must turn non-matching table rows into deletes, so the two are not fused.
+    return filter(filterExpression, filterContextStacker, processingLogContext)
+        .select(selectExpressions, contextStacker, processingLogContext);
+  }
+
   @SuppressWarnings("unchecked") // needs investigating
   @Override
   public KStream getKstream() {
@@ -205,7 +204,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
             (key, value) -> new KeyValue<>(groupBy.mapper.apply(key, value), value),
             streamsFactories.getGroupedFactory().create(
                 StreamsUtil.buildOpName(
-                    contextStacker.getQueryContext()), Serdes.String(), valSerde)
+                    contextStacker.getQueryContext()), groupBy.repartitionKeySerde, valSerde)
         );
 
     final Field newKeyField = new Field(
@@ -214,6 +213,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         schema,
         kgroupedTable,
         newKeyField,
+        groupBy.groupedKeySerde,
         Collections.singletonList(this),
         ksqlConfig,
         functionRegistry);
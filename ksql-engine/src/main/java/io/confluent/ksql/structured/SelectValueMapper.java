@@ -18,63 +18,92 @@ package io.confluent.ksql.structured;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.util.EngineProcessingLogMessageFactory;
-import io.confluent.ksql.util.ExpressionMetadata;
-import java.util.ArrayList;
+import io.confluent.ksql.util.ProjectionMetadata;
 import java.util.List;
 import java.util.Objects;
 import org.apache.kafka.streams.kstream.ValueMapper;
 
 class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
   private final List<String> selectFieldNames;
-  private final List<ExpressionMetadata> expressionEvaluators;
+  private final ProjectionMetadata projection;
+  private final ProcessingLogger filterProcessingLogger;
   private final ProcessingLogger processingLogger;
+  private final ProjectionMetadata.ErrorHandler errorHandler =
+      new ProjectionMetadata.ErrorHandler() {
+        @Override
+        public void onFilterError(final GenericRow row, final Exception e) {
+          logFilterError(row, e);
+        }
+
+        @Override
+        public void onColumnError(final GenericRow row, final int column, final Exception e) {
+          logColumnError(row, column, e);
+        }
+      };
+
+  SelectValueMapper(
+      final List<String> selectFieldNames,
+      final ProjectionMetadata projection,
+      final ProcessingLogger processingLogger
+  ) {
+    this(selectFieldNames, projection, processingLogger, processingLogger);
+  }
 
   SelectValueMapper(
       final List<String> selectFieldNames,
-      final List<ExpressionMetadata> expressionEvaluators,
+      final ProjectionMetadata projection,
+      final ProcessingLogger filterProcessingLogger,
       final ProcessingLogger processingLogger
   ) {
     this.selectFieldNames = Objects.requireNonNull(selectFieldNames);
-    this.expressionEvaluators = Objects.requireNonNull(expressionEvaluators);
+    this.projection = Objects.requireNonNull(projection);
+    this.filterProcessingLogger = Objects.requireNonNull(filterProcessingLogger);
     this.processingLogger = Objects.requireNonNull(processingLogger);
 
-    if (selectFieldNames.size() != expressionEvaluators.size()) {
+    if (selectFieldNames.size() != projection.getExpressions().size()) {
       throw new IllegalArgumentException("must have field names for all expressions");
     }
   }
 
+  /**
+   * @return the projected row, or {@code null} if the projection has a filter and the row does
+   *     not match it.
+   */
   @Override
   public GenericRow apply(final GenericRow row) {
     if (row == null) {
       return null;
     }
 
-    final List<Object> newColumns = new ArrayList<>();
-    for (int i = 0; i < selectFieldNames.size(); i++) {
-      newColumns.add(processColumn(i, row));
-    }
-    return new GenericRow(newColumns);
+    final List<Object> columns = projection.project(row, errorHandler);
+    return columns == null ? null : new GenericRow(columns);
   }
 
-  private Object processColumn(final int column, final GenericRow row) {
-    try {
-      return expressionEvaluators
-          .get(column)
-          .evaluate(row);
-    } catch (final Exception e) {
-      final String errorMsg = String.format(
-          "Error computing expression %s for column %s with index %d: %s",
-          expressionEvaluators.get(column).getExpression(),
-          selectFieldNames.get(column),
-          column,
-          e.getMessage());
-      processingLogger.error(
-          EngineProcessingLogMessageFactory.recordProcessingError(
-              errorMsg,
-              row
-          )
-      );
-      return null;
-    }
+  private void logFilterError(final GenericRow row, final Exception e) {
+    filterProcessingLogger.error(
+        EngineProcessingLogMessageFactory.recordProcessingError(
+            String.format(
+                "Error evaluating predicate %s: %s",
+                projection.getFilterExpression().orElse(null),
+                e.getMessage()
+            ),
+            row
+        )
+    );
+  }
+
+  private void logColumnError(final GenericRow row, final int column, final Exception e) {
+    final String errorMsg = String.format(
+        "Error computing expression %s for column %s with index %d: %s",
+        projection.getExpressions().get(column),
+        selectFieldNames.get(column),
+        column,
+        e.getMessage());
+    processingLogger.error(
+        EngineProcessingLogMessageFactory.recordProcessingError(
+            errorMsg,
+            row
+        )
+    );
   }
 }
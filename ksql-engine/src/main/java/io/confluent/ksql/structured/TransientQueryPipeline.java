@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.physical.SharedSourceRuntime;
+import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.SelectExpression;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+
+/**
+ * The per-query part of a transient query that reads from a {@link SharedSourceRuntime}.
+ *
+ * <p>Performs the same steps as the topology built for a transient query over a stream with a
+ * {@code WHERE} clause and / or projection: deserialization, timestamp extraction, the addition
+ * of the {@code ROWTIME} and {@code ROWKEY} columns, the filter and projection, and finally the
+ * queueing of the row for the client.
+ */
+public final class TransientQueryPipeline implements SharedSourceRuntime.Subscriber {
+
+  private static final long OFFER_TIMEOUT_MS = 100;
+
+  private final Deserializer<String> keyDeserializer;
+  private final Deserializer<GenericRow> valueDeserializer;
+  private final TimestampExtractor timestampExtractor;
+  private final SelectValueMapper selectValueMapper;
+  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue;
+  private final OutputNode.Callback callback;
+  private volatile UncaughtExceptionHandler exceptionHandler;
+  private volatile boolean closed = false;
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  public TransientQueryPipeline(
+      final Deserializer<String> keyDeserializer,
+      final Deserializer<GenericRow> valueDeserializer,
+      final TimestampExtractor timestampExtractor,
+      final Schema sourceSchema,
+      final Optional<Expression> filterExpression,
+      final List<SelectExpression> selectExpressions,
+      final ProcessingLogger filterProcessingLogger,
+      final ProcessingLogger projectProcessingLogger,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final BlockingQueue<KeyValue<String, GenericRow>> rowQueue,
+      final OutputNode.Callback callback
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    this.keyDeserializer = Objects.requireNonNull(keyDeserializer, "keyDeserializer");
+    this.valueDeserializer = Objects.requireNonNull(valueDeserializer, "valueDeserializer");
+    this.timestampExtractor = Objects.requireNonNull(timestampExtractor, "timestampExtractor");
+    this.rowQueue = Objects.requireNonNull(rowQueue, "rowQueue");
+    this.callback = Objects.requireNonNull(callback, "callback");
+    this.selectValueMapper = new SelectValueMapper(
+        selectExpressions.stream()
+            .map(SelectExpression::getName)
+            .collect(Collectors.toList()),
+        CodeGenRunner.compileProjection(
+            filterExpression,
+            selectExpressions.stream()
+                .map(SelectExpression::getExpression)
+                .collect(Collectors.toList()),
+            "Select",
+            sourceSchema,
+            ksqlConfig,
+            functionRegistry),
+        filterProcessingLogger,
+        projectProcessingLogger);
+  }
+
+  public void setUncaughtExceptionHandler(final UncaughtExceptionHandler exceptionHandler) {
+    this.exceptionHandler = exceptionHandler;
+  }
+
+  /**
+   * Stops the pipeline queueing rows, including unblocking any call waiting for space in the
+   * row queue.
+   */
+  public void close() {
+    closed = true;
+  }
+
+  @Override
+  public void onRecord(final ConsumerRecord<byte[], byte[]> record) {
+    if (closed) {
+      return;
+    }
+
+    final String key = keyDeserializer.deserialize(record.topic(), record.key());
+    final GenericRow row = valueDeserializer.deserialize(record.topic(), record.value());
+    if (row == null) {
+      return;
+    }
+
+    final long timestamp = timestampExtractor.extract(
+        withKeyAndValue(record, key, row),
+        record.timestamp());
+    if (timestamp < 0) {
+      // As Kafka Streams would, skip records with invalid timestamps:
+      return;
+    }
+
+    final GenericRow projected = selectValueMapper.apply(row.prepend(timestamp, key));
+    if (projected == null) {
+      return;
+    }
+
+    enqueue(key, projected);
+  }
+
+  @Override
+  public void onError(final Thread thread, final Throwable e) {
+    final UncaughtExceptionHandler handler = exceptionHandler;
+    if (handler != null) {
+      handler.uncaughtException(thread, e);
+    }
+  }
+
+  private void enqueue(final String key, final GenericRow row) {
+    if (!callback.shouldQueue()) {
+      return;
+    }
+
+    final KeyValue<String, GenericRow> keyValue = new KeyValue<>(Objects.toString(key), row);
+    try {
+      // Rows are queued on a thread shared with other queries, so must not block forever if the
+      // client of this query goes away:
+      while (!rowQueue.offer(keyValue, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+        if (closed) {
+          return;
+        }
+      }
+    } catch (final InterruptedException exception) {
+      throw new KsqlException("InterruptedException while enqueueing:" + key);
+    }
+
+    callback.onQueued();
+  }
+
+  @SuppressWarnings("deprecation") // The checksum is unknown, and null is allowed.
+  private static ConsumerRecord<Object, Object> withKeyAndValue(
+      final ConsumerRecord<byte[], byte[]> record,
+      final Object key,
+      final Object value
+  ) {
+    return new ConsumerRecord<>(
+        record.topic(),
+        record.partition(),
+        record.offset(),
+        record.timestamp(),
+        record.timestampType(),
+        null,
+        record.serializedKeySize(),
+        record.serializedValueSize(),
+        key,
+        value,
+        record.headers());
+  }
+}
@@ -17,6 +17,7 @@ package io.confluent.ksql.util;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.udf.Kudf;
+import io.confluent.ksql.function.udf.json.JsonExtractStringKudf;
 import io.confluent.ksql.parser.tree.Expression;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
@@ -72,6 +73,8 @@ public class ExpressionMetadata {
       return expressionEvaluator.evaluate(getParameters(row));
     } catch (InvocationTargetException e) {
       throw new KsqlException(e.getCause().getMessage(), e.getCause());
+    } finally {
+      JsonExtractStringKudf.releaseParsedDocs();
     }
   }
 
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.udf.json.JsonExtractStringKudf;
+import io.confluent.ksql.parser.tree.Expression;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * A list of expressions, e.g. a SELECT list, compiled into a single generated class that
+ * computes all output columns of a row in one call, optionally only for rows that match a
+ * filter expression.
+ */
+public class ProjectionMetadata {
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private final Optional<Expression> filterExpression;
+  private final List<Expression> expressions;
+  private final List<Schema> expressionTypes;
+  private final Evaluator evaluator;
+
+  public ProjectionMetadata(
+      final Optional<Expression> filterExpression,
+      final List<Expression> expressions,
+      final List<Schema> expressionTypes,
+      final Evaluator evaluator) {
+    this.filterExpression = Objects.requireNonNull(filterExpression, "filterExpression");
+    this.expressions = ImmutableList.copyOf(Objects.requireNonNull(expressions, "expressions"));
+    this.expressionTypes =
+        ImmutableList.copyOf(Objects.requireNonNull(expressionTypes, "expressionTypes"));
+    this.evaluator = Objects.requireNonNull(evaluator, "evaluator");
+
+    if (expressions.size() != expressionTypes.size()) {
+      throw new IllegalArgumentException("must have types for all expressions");
+    }
+  }
+
+  public Optional<Expression> getFilterExpression() {
+    return filterExpression;
+  }
+
+  public List<Expression> getExpressions() {
+    return expressions;
+  }
+
+  public List<Schema> getExpressionTypes() {
+    return expressionTypes;
+  }
+
+  /**
+   * Computes the projected columns of the supplied row.
+   *
+   * <p>A column whose expression fails to evaluate is set to {@code null}, and the failure is
+   * passed to the {@code errorHandler}. The remaining columns are still computed.
+   *
+   * @return the projected columns, or {@code null} if the row does not match the filter, or the
+   *     filter failed to evaluate.
+   */
+  public List<Object> project(final GenericRow row, final ErrorHandler errorHandler) {
+    final Object[] output = new Object[expressions.size()];
+    try {
+      if (!evaluator.project(row, output, errorHandler)) {
+        return null;
+      }
+    } finally {
+      // Documents parsed by EXTRACTJSONFIELD are only shared by the expressions of one row:
+      JsonExtractStringKudf.releaseParsedDocs();
+    }
+    return Arrays.asList(output);
+  }
+
+  /**
+   * Implemented by the generated class.
+   */
+  public interface Evaluator {
+
+    /**
+     * @param output the array to write the projected columns to, one per expression.
+     */
+    boolean project(GenericRow row, Object[] output, ErrorHandler errorHandler);
+  }
+
+  public interface ErrorHandler {
+
+    void onFilterError(GenericRow row, Exception e);
+
+    void onColumnError(GenericRow row, int column, Exception e);
+  }
+}
@@ -33,6 +33,23 @@ public class QueryIdGenerator {
     return String.valueOf(queryIdCounter.getAndIncrement());
   }
 
+  /**
+   * @return the numeric part of the id the next call to {@link #getNextId()} will return.
+   */
+  public long peekNext() {
+    return queryIdCounter.get();
+  }
+
+  /**
+   * Sets the numeric part of the id the next call to {@link #getNextId()} will return.
+   *
+   * <p>Used when rebuilding state from a compacted history, where the commands that consumed
+   * ids in between are no longer replayed.
+   */
+  public void setNext(final long next) {
+    queryIdCounter.set(next);
+  }
+
   public QueryIdGenerator copy() {
     return new QueryIdGenerator(queryIdCounter.get());
   }
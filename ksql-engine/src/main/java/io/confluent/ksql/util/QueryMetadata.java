@@ -155,9 +155,7 @@ public class QueryMetadata {
   }
 
   public void close() {
-    kafkaStreams.close();
-
-    kafkaStreams.cleanUp();
+    closeKafkaStreams();
 
     queryStateListener.ifPresent(QueryStateListener::close);
 
@@ -167,6 +165,17 @@ public class QueryMetadata {
   public void start() {
     LOG.info("Starting query with application id: {}", queryApplicationId);
     everStarted = true;
+    startKafkaStreams(queryStateListener);
+  }
+
+  protected void closeKafkaStreams() {
+    kafkaStreams.close();
+
+    kafkaStreams.cleanUp();
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  protected void startKafkaStreams(final Optional<QueryStateListener> queryStateListener) {
     queryStateListener.ifPresent(kafkaStreams::setStateListener);
     kafkaStreams.start();
   }
@@ -88,6 +88,14 @@ public class QueuedQueryMetadata extends QueryMetadata {
     getOutputNode().setLimitHandler(limitHandler);
   }
 
+  /**
+   * Sets the handler to be called, on a stream thread, each time a row has been added to the
+   * {@link #getRowQueue() row queue}.
+   */
+  public void setRowQueuedHandler(final OutputNode.RowQueuedHandler rowQueuedHandler) {
+    getOutputNode().setRowQueuedHandler(rowQueuedHandler);
+  }
+
   @Override
   public void close() {
     super.close();
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.util;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.internal.QueryStateListener;
+import io.confluent.ksql.physical.SharedSourceRuntime;
+import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.serde.DataSource;
+import io.confluent.ksql.structured.TransientQueryPipeline;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+
+/**
+ * A transient query that reads its source through a {@link SharedSourceRuntime}, rather than
+ * through a {@link KafkaStreams} instance of its own.
+ *
+ * <p>Starting the query subscribes its pipeline to the runtime, and closing it unsubscribes the
+ * pipeline and releases the runtime.
+ */
+public class SharedQueuedQueryMetadata extends QueuedQueryMetadata {
+
+  private final SharedSourceRuntime runtime;
+  private final TransientQueryPipeline pipeline;
+  private final Consumer<SharedSourceRuntime> runtimeReleaser;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  public SharedQueuedQueryMetadata(
+      final String statementString,
+      final SharedSourceRuntime runtime,
+      final TransientQueryPipeline pipeline,
+      final OutputNode outputNode,
+      final String executionPlan,
+      final BlockingQueue<KeyValue<String, GenericRow>> rowQueue,
+      final DataSource.DataSourceType dataSourceType,
+      final String queryApplicationId,
+      final Map<String, Object> streamsProperties,
+      final Map<String, Object> overriddenProperties,
+      final Consumer<QueryMetadata> closeCallback,
+      final Consumer<SharedSourceRuntime> runtimeReleaser) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+    super(
+        statementString,
+        runtime.getKafkaStreams(),
+        outputNode,
+        executionPlan,
+        rowQueue,
+        dataSourceType,
+        queryApplicationId,
+        runtime.getTopology(),
+        streamsProperties,
+        overriddenProperties,
+        closeCallback);
+    this.runtime = runtime;
+    this.pipeline = Objects.requireNonNull(pipeline, "pipeline");
+    this.runtimeReleaser = Objects.requireNonNull(runtimeReleaser, "runtimeReleaser");
+  }
+
+  @Override
+  public void setUncaughtExceptionHandler(final UncaughtExceptionHandler handler) {
+    pipeline.setUncaughtExceptionHandler(handler);
+  }
+
+  @Override
+  public String getState() {
+    return closed.get() ? KafkaStreams.State.NOT_RUNNING.toString() : super.getState();
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  @Override
+  protected void startKafkaStreams(final Optional<QueryStateListener> queryStateListener) {
+    runtime.subscribe(pipeline);
+  }
+
+  @Override
+  protected void closeKafkaStreams() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+
+    runtime.unsubscribe(pipeline);
+    pipeline.close();
+    runtimeReleaser.accept(runtime);
+  }
+}
@@ -150,6 +150,56 @@ public class KsqlEngineTest {
     assertThat(queryTwo.getEntity(), equalTo("FOO"));
   }
 
+  @Test
+  public void shouldPlanPersistentQueryWithoutBuildingIt() {
+    // Given:
+    final PreparedStatement<?> prepared = prepare(
+        ksqlEngine.parse("create table bar as select * from test2;").get(0));
+
+    // When:
+    final PersistentQueryPlan plan =
+        ksqlEngine.planPersistentQuery(prepared, KSQL_CONFIG, Collections.emptyMap());
+
+    // Then:
+    assertThat(plan.getQueryId(), is(new QueryId("CTAS_BAR_0")));
+    assertThat(plan.getSinkName(), is("BAR"));
+    assertThat(plan.getSourceNames(), contains("TEST2"));
+    assertThat(ksqlEngine.getMetaStore().getSource("BAR"), is(nullValue()));
+    assertThat(ksqlEngine.numberOfPersistentQueries(), is(0));
+  }
+
+  @Test
+  public void shouldRegisterPersistentQueryWhenPlanIsExecuted() {
+    // Given:
+    final PersistentQueryPlan plan = ksqlEngine.planPersistentQuery(
+        prepare(ksqlEngine.parse("create table bar as select * from test2;").get(0)),
+        KSQL_CONFIG,
+        Collections.emptyMap());
+
+    // When:
+    final PersistentQueryMetadata query = plan.execute();
+
+    // Then:
+    assertThat(query.getQueryId(), is(plan.getQueryId()));
+    assertThat(ksqlEngine.getPersistentQuery(plan.getQueryId()), is(Optional.of(query)));
+    assertThat(ksqlEngine.getMetaStore().getSource("BAR"), is(notNullValue()));
+    assertThat(ksqlEngine.numberOfLiveQueries(), is(1));
+  }
+
+  @Test
+  public void shouldThrowWhenPlanningStatementThatIsNotPersistentQuery() {
+    // Given:
+    final PreparedStatement<?> prepared = prepare(
+        ksqlEngine.parse("create stream bar (x int) with (kafka_topic='t', value_format='json');")
+            .get(0));
+
+    expectedException.expect(KsqlStatementException.class);
+    expectedException.expect(rawMessage(is("Statement is not a persistent query")));
+
+    // When:
+    ksqlEngine.planPersistentQuery(prepared, KSQL_CONFIG, Collections.emptyMap());
+  }
+
   @Test
   public void shouldThrowOnTerminateAsNotExecutable() {
     // Given:
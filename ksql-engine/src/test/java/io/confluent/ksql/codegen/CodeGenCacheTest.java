@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CodeGenCacheTest {
+
+  private static final String[] PARAM_NAMES = new String[]{"A", "B"};
+  private static final Class<?>[] PARAM_TYPES = new Class<?>[]{Integer.class, Integer.class};
+
+  private CodeGenCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new CodeGenCache(2);
+  }
+
+  @Test
+  public void shouldReuseEvaluatorForSameSourceAndParameters() throws Exception {
+    // When:
+    final IExpressionEvaluator first = cache
+        .getExpressionEvaluator("A + B", PARAM_NAMES, PARAM_TYPES, Integer.class);
+    final IExpressionEvaluator second = cache
+        .getExpressionEvaluator("A + B", PARAM_NAMES, PARAM_TYPES, Integer.class);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(second.evaluate(new Object[]{1, 2}), is(3));
+    assertThat(cache.stats().hitCount(), is(1L));
+    assertThat(cache.stats().missCount(), is(1L));
+  }
+
+  @Test
+  public void shouldNotReuseEvaluatorForDifferentParameterTypes() throws Exception {
+    // When:
+    final IExpressionEvaluator first = cache
+        .getExpressionEvaluator("A + B", PARAM_NAMES, PARAM_TYPES, Long.class);
+    final IExpressionEvaluator second = cache.getExpressionEvaluator(
+        "A + B", PARAM_NAMES, new Class<?>[]{Long.class, Long.class}, Long.class);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(second.evaluate(new Object[]{1L, 2L}), is(3L));
+  }
+
+  @Test
+  public void shouldReuseCompiledClass() throws Exception {
+    // Given:
+    final String body = "public Object get() { return \"x\"; }";
+
+    // When:
+    final Class<?> first = cache.getClass("Cached", body, new Class<?>[0]);
+    final Class<?> second = cache.getClass("Cached", body, new Class<?>[0]);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldBoundNumberOfEntries() throws Exception {
+    // When:
+    cache.getExpressionEvaluator("A", PARAM_NAMES, PARAM_TYPES, Integer.class);
+    cache.getExpressionEvaluator("B", PARAM_NAMES, PARAM_TYPES, Integer.class);
+    cache.getExpressionEvaluator("A + B", PARAM_NAMES, PARAM_TYPES, Integer.class);
+
+    // Then:
+    assertThat(cache.size(), is(2L));
+    assertThat(cache.stats().evictionCount(), is(1L));
+  }
+
+  @Test(expected = CompileException.class)
+  public void shouldThrowCompileExceptionOnInvalidCode() throws Exception {
+    cache.getExpressionEvaluator("A +", PARAM_NAMES, PARAM_TYPES, Integer.class);
+  }
+}
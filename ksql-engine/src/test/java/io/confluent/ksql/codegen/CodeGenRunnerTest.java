@@ -19,6 +19,7 @@ import static io.confluent.ksql.testutils.AnalysisTestUtil.analyzeQuery;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.both;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
@@ -27,6 +28,7 @@ import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
 
 import com.google.common.collect.ImmutableList;
@@ -46,11 +48,13 @@ import io.confluent.ksql.util.ExpressionMetadata;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.MetaStoreFixture;
+import io.confluent.ksql.util.ProjectionMetadata;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Schema;
@@ -782,6 +786,209 @@ public class CodeGenRunnerTest {
         assertThat(columns, equalTo(Collections.singletonList("doStuffLongLongString")));
     }
 
+    @Test
+    public void shouldProjectSameValuesAsIndividuallyCompiledExpressions() {
+        // Given:
+        final String query = "SELECT col0, col1, col3 * col4, CONCAT(col1, 'x'), "
+            + "CONCAT(col2, col1), col11['key1'], col5 + 1 FROM codegen_test;";
+        final List<Expression> expressions = analyzeQuery(query, metaStore).getSelectExpressions();
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final ProjectionMetadata projection =
+            codeGenRunner.buildProjection(expressions, "Select");
+        final List<Object> columns = projection.project(genericRow(ONE_ROW), errorHandler);
+
+        // Then:
+        assertThat(columns, equalTo(executeExpression(query, Collections.emptyMap())));
+        assertThat(errorHandler.failedColumns, is(empty()));
+        assertThat(projection.getExpressionTypes(), contains(
+            Schema.OPTIONAL_INT64_SCHEMA,
+            Schema.OPTIONAL_STRING_SCHEMA,
+            Schema.OPTIONAL_FLOAT64_SCHEMA,
+            Schema.OPTIONAL_STRING_SCHEMA,
+            Schema.OPTIONAL_STRING_SCHEMA,
+            Schema.OPTIONAL_STRING_SCHEMA,
+            Schema.OPTIONAL_INT32_SCHEMA));
+    }
+
+    @Test
+    public void shouldMatchPatternsInProjectionAndIndividuallyCompiledExpressions() {
+        // Given:
+        final String query = "SELECT col1 LIKE 'S_', col1 LIKE '%1', col1 LIKE 'x%', "
+            + "col1 LIKE col2, col1 LIKE 'S!_' ESCAPE '!', REGEXP_MATCH(col1, '[0-9]'), "
+            + "REGEXP_EXTRACT(col1, '([A-Z])([0-9])', 2) FROM codegen_test;";
+        final List<Expression> expressions = analyzeQuery(query, metaStore).getSelectExpressions();
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> columns = codeGenRunner
+            .buildProjection(expressions, "Select")
+            .project(genericRow(ONE_ROW), errorHandler);
+
+        // Then:
+        assertThat(columns, contains(true, true, false, false, false, true, "1"));
+        assertThat(columns, equalTo(executeExpression(query, Collections.emptyMap())));
+        assertThat(errorHandler.failedColumns, is(empty()));
+    }
+
+    @Test
+    public void shouldMatchPatternsContainingControlCharacters() {
+        // Given:
+        final String query = "SELECT col1 LIKE 'a\nb\r%', col1 LIKE 'a\n_\r\tc\u0001', "
+            + "REGEXP_MATCH(col1, 'b\r\tc'), REGEXP_MATCH(col1, 'a\rb') FROM codegen_test;";
+        final List<Expression> expressions = analyzeQuery(query, metaStore).getSelectExpressions();
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> columns = codeGenRunner
+            .buildProjection(expressions, "Select")
+            .project(buildRow(ImmutableMap.of(1, "a\nb\r\tc\u0001")), errorHandler);
+
+        // Then:
+        assertThat(columns, contains(true, true, true, false));
+        assertThat(errorHandler.failedColumns, is(empty()));
+    }
+
+    @Test
+    public void shouldCopyColumnReferencesInProjection() {
+        // Given:
+        final List<Object> map = new ArrayList<>();
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT col13, col1 FROM codegen_test;", metaStore).getSelectExpressions();
+
+        // When:
+        final List<Object> columns = codeGenRunner
+            .buildProjection(expressions, "Select")
+            .project(buildRow(ImmutableMap.of(13, map)), new RecordingErrorHandler());
+
+        // Then:
+        assertThat(columns, hasSize(2));
+        assertThat(columns.get(0), is(sameInstance(map)));
+        assertThat(columns.get(1), is("S1"));
+    }
+
+    @Test
+    public void shouldEnforceTypeOfCopiedColumns() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT col0, col5, col1 FROM codegen_test;", metaStore).getSelectExpressions();
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> columns = codeGenRunner
+            .buildProjection(expressions, "Select")
+            .project(buildRow(ImmutableMap.of(0, 10, 5, "not a number")), errorHandler);
+
+        // Then:
+        assertThat(columns, equalTo(Arrays.asList(10L, null, "S1")));
+        assertThat(columns.get(0), instanceOf(Long.class));
+        assertThat(errorHandler.failedColumns, contains(1));
+    }
+
+    @Test
+    public void shouldReportFailedColumnsInProjectionAndContinue() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT col5 + 1, col1, col5 * 2 FROM codegen_test;", metaStore)
+            .getSelectExpressions();
+        final GenericRow input = buildRow(Collections.singletonMap(5, null));
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> columns = codeGenRunner
+            .buildProjection(expressions, "Select")
+            .project(input, errorHandler);
+
+        // Then:
+        assertThat(columns, contains(nullValue(), is("S1"), nullValue()));
+        assertThat(errorHandler.failedColumns, contains(0, 2));
+        assertThat(errorHandler.rows, contains(sameInstance(input), sameInstance(input)));
+    }
+
+    @Test
+    public void shouldOnlyProjectRowsMatchingFilter() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col1, col0 * 2 FROM codegen_test WHERE col0 > 100;", metaStore);
+        final ProjectionMetadata projection = codeGenRunner.buildProjection(
+            Optional.of(analysis.getWhereExpression()),
+            analysis.getSelectExpressions(),
+            "Select");
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> matching =
+            projection.project(buildRow(ImmutableMap.of(0, 101L)), errorHandler);
+        final List<Object> notMatching =
+            projection.project(buildRow(ImmutableMap.of(0, 100L)), errorHandler);
+
+        // Then:
+        assertThat(matching, contains("S1", 202L));
+        assertThat(notMatching, is(nullValue()));
+        assertThat(errorHandler.filterErrors, is(0));
+        assertThat(errorHandler.failedColumns, is(empty()));
+    }
+
+    @Test
+    public void shouldReportFilterErrorAndSkipRow() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col1 FROM codegen_test WHERE col5 + 1 > 100;", metaStore);
+        final ProjectionMetadata projection = codeGenRunner.buildProjection(
+            Optional.of(analysis.getWhereExpression()),
+            analysis.getSelectExpressions(),
+            "Select");
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> columns =
+            projection.project(buildRow(Collections.singletonMap(5, null)), errorHandler);
+
+        // Then:
+        assertThat(columns, is(nullValue()));
+        assertThat(errorHandler.filterErrors, is(1));
+    }
+
+    @Test
+    public void shouldOnlyFailSelectColumnsThatCanNotBeReadWhenFiltering() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col1, col5 + 1 FROM codegen_test WHERE col0 > 100;", metaStore);
+        final ProjectionMetadata projection = codeGenRunner.buildProjection(
+            Optional.of(analysis.getWhereExpression()),
+            analysis.getSelectExpressions(),
+            "Select");
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> columns = projection.project(
+            buildRow(ImmutableMap.of(0, 101L, 5, "not a number")), errorHandler);
+
+        // Then:
+        assertThat(columns, equalTo(Arrays.asList("S1", null)));
+        assertThat(errorHandler.filterErrors, is(0));
+        assertThat(errorHandler.failedColumns, contains(1));
+    }
+
+    @Test
+    public void shouldOnlyFailColumnsUsingColumnThatCanNotBeRead() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT col5 + 1, col0 * 2, col5 * 2, col1 FROM codegen_test;", metaStore)
+            .getSelectExpressions();
+        final RecordingErrorHandler errorHandler = new RecordingErrorHandler();
+
+        // When:
+        final List<Object> columns = codeGenRunner
+            .buildProjection(expressions, "Select")
+            .project(buildRow(Collections.singletonMap(5, "not a number")), errorHandler);
+
+        // Then:
+        assertThat(columns, equalTo(Arrays.asList(null, 0L, null, "S1")));
+        assertThat(errorHandler.failedColumns, contains(0, 2));
+    }
+
     private List<Object> executeExpression(final String query,
                                            final Map<Integer, Object> inputValues) {
         final Analysis analysis = analyzeQuery(query, metaStore);
@@ -890,6 +1097,24 @@ public class CodeGenRunnerTest {
         return genericRow(columns);
     }
 
+    private static final class RecordingErrorHandler implements ProjectionMetadata.ErrorHandler {
+        private final List<GenericRow> rows = new ArrayList<>();
+        private final List<Integer> failedColumns = new ArrayList<>();
+        private int filterErrors;
+
+        @Override
+        public void onFilterError(final GenericRow row, final Exception e) {
+            rows.add(row);
+            filterErrors++;
+        }
+
+        @Override
+        public void onColumnError(final GenericRow row, final int column, final Exception e) {
+            rows.add(row);
+            failedColumns.add(column);
+        }
+    }
+
     private static GenericRow genericRow(final Object... columns) {
         return genericRow(Arrays.asList(columns));
     }
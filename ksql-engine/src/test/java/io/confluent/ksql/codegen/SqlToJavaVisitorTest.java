@@ -22,9 +22,13 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import io.confluent.ksql.analyzer.Analysis;
 import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.KsqlFunction;
 import io.confluent.ksql.function.UdfLoaderUtil;
 import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.MetaStoreFixture;
+import java.io.IOException;
+import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Before;
@@ -118,6 +122,27 @@ public class SqlToJavaVisitorTest {
     assertThat(javaExpression2, equalTo("String.valueOf(TEST1_COL3)"));
   }
 
+  @Test
+  public void shouldNotCallUdfMethodsThatThrowCheckedExceptionsDirectly() throws Exception {
+    // Given:
+    final KsqlFunction function = UdfLoaderUtil.createDirectlyCallableFunction(
+        "CHECKED",
+        Schema.OPTIONAL_STRING_SCHEMA,
+        Collections.singletonList(Schema.OPTIONAL_STRING_SCHEMA),
+        new CheckedUdf(),
+        CheckedUdf.class.getMethod("checked", String.class));
+    functionRegistry.ensureFunctionFactory(UdfLoaderUtil.createTestUdfFactory(function));
+    functionRegistry.addFunction(function);
+    final Analysis analysis = analyzeQuery("SELECT CHECKED(col1) FROM test1;", metaStore);
+
+    // When:
+    final String javaExpression = new SqlToJavaVisitor(schema, functionRegistry)
+        .process(analysis.getSelectExpressions().get(0));
+
+    // Then:
+    assertThat(javaExpression, equalTo("((String) CHECKED_0.evaluate(TEST1_COL1))"));
+  }
+
   @Test
   public void shouldPostfixFunctionInstancesWithUniqueId() {
     final Analysis analysis = analyzeQuery(
@@ -129,9 +154,13 @@ public class SqlToJavaVisitorTest {
 
     assertThat(javaExpression, is(
         "((String) CONCAT_0.evaluate("
-            + "((String) SUBSTRING_1.evaluate(TEST1_COL1, Integer.parseInt(\"1\"), Integer.parseInt(\"3\"))), "
+            + "((String) ((io.confluent.ksql.function.udf.string.Substring) "
+            + "((io.confluent.ksql.function.udf.PluggableUdf) SUBSTRING_1).getUdf())"
+            + ".substring(TEST1_COL1, Integer.parseInt(\"1\"), Integer.parseInt(\"3\"))), "
             + "((String) CONCAT_2.evaluate(\"-\","
-            + " ((String) SUBSTRING_3.evaluate(TEST1_COL1, Integer.parseInt(\"4\"), Integer.parseInt(\"5\")))))))"));
+            + " ((String) ((io.confluent.ksql.function.udf.string.Substring) "
+            + "((io.confluent.ksql.function.udf.PluggableUdf) SUBSTRING_3).getUdf())"
+            + ".substring(TEST1_COL1, Integer.parseInt(\"4\"), Integer.parseInt(\"5\")))))))"));
   }
 
   @Test
@@ -184,6 +213,70 @@ public class SqlToJavaVisitorTest {
     assertThat(javaExpression, equalTo("(TEST1_COL1).equals(\"foo\")"));
   }
 
+  @Test
+  public void shouldGenerateCorrectCodeForLikePatternWithWildcardsInTheMiddle() {
+    final Analysis analysis = analyzeQuery(
+        "SELECT * FROM test1 WHERE col1 LIKE 'f_o%bar';", metaStore);
+
+    final String javaExpression = new SqlToJavaVisitor(schema, functionRegistry)
+        .process(analysis.getWhereExpression());
+    assertThat(javaExpression,
+        equalTo("LikePattern.matches(TEST1_COL1, \"f_o%bar\", null)"));
+  }
+
+  @Test
+  public void shouldGenerateConstantForLiteralLikePattern() {
+    // Given:
+    final Analysis analysis = analyzeQuery(
+        "SELECT * FROM test1 WHERE col1 LIKE 'f!_o%' ESCAPE '!';", metaStore);
+    final SqlToJavaVisitor.Constants constants = new SqlToJavaVisitor.Constants();
+
+    // When:
+    final String javaExpression = new SqlToJavaVisitor(schema, functionRegistry, constants)
+        .process(analysis.getWhereExpression());
+
+    // Then:
+    assertThat(javaExpression, equalTo("$constant0.matches(TEST1_COL1)"));
+    assertThat(constants.getDeclarations(), equalTo(
+        "private static final LikePattern $constant0 = "
+            + "LikePattern.compile(\"f!_o%\", \"!\");\n"));
+  }
+
+  @Test
+  public void shouldGenerateCorrectCodeForNonLiteralLikePattern() {
+    final Analysis analysis = analyzeQuery(
+        "SELECT * FROM test1 WHERE col1 LIKE col1;", metaStore);
+
+    final String javaExpression = new SqlToJavaVisitor(schema, functionRegistry)
+        .process(analysis.getWhereExpression());
+    assertThat(javaExpression, equalTo("LikePattern.matches(TEST1_COL1, TEST1_COL1, null)"));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnInvalidLikeEscape() {
+    final Analysis analysis = analyzeQuery(
+        "SELECT * FROM test1 WHERE col1 LIKE 'a!b' ESCAPE '!';", metaStore);
+
+    new SqlToJavaVisitor(schema, functionRegistry).process(analysis.getWhereExpression());
+  }
+
+  @Test
+  public void shouldCallRegexpFunctionDirectlyForLiteralPattern() {
+    // Given:
+    final Analysis analysis = analyzeQuery(
+        "SELECT REGEXP_EXTRACT(col1, '[0-9]+') FROM test1;", metaStore);
+    final SqlToJavaVisitor.Constants constants = new SqlToJavaVisitor.Constants();
+
+    // When:
+    final String javaExpression = new SqlToJavaVisitor(schema, functionRegistry, constants)
+        .process(analysis.getSelectExpressions().get(0));
+
+    // Then:
+    assertThat(javaExpression, equalTo("RegexpExtract.regexpExtract(TEST1_COL1, $constant0)"));
+    assertThat(constants.getDeclarations(), equalTo(
+        "private static final Pattern $constant0 = Pattern.compile(\"[0-9]+\");\n"));
+  }
+
   @Test
   public void shouldGenerateCorrectCodeForCaseStatement() {
     // Given:
@@ -212,4 +305,11 @@ public class SqlToJavaVisitorTest {
     // ThenL
     assertThat(javaExpression, equalTo("((java.lang.String)SearchedCaseFunction.searchedCaseFunction(ImmutableList.of( SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(ORDERS_ORDERUNITS)) == null || ((Object)(Integer.parseInt(\"10\"))) == null) ? false : (ORDERS_ORDERUNITS < Integer.parseInt(\"10\"))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"small\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(ORDERS_ORDERUNITS)) == null || ((Object)(Integer.parseInt(\"100\"))) == null) ? false : (ORDERS_ORDERUNITS < Integer.parseInt(\"100\"))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"medium\"; }})), new Supplier<java.lang.String>() { @Override public java.lang.String get() { return null; }}))"));
   }
-}
\ No newline at end of file
+
+  public static final class CheckedUdf {
+
+    public String checked(final String value) throws IOException {
+      return value;
+    }
+  }
+}
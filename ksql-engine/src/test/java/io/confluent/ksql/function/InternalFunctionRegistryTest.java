@@ -370,7 +370,8 @@ public class InternalFunctionRegistryTest {
   @Test
   public void shouldHaveBuiltInUDAFRegistered() {
     Collection<String> builtInUDAF = Arrays.asList(
-        "COUNT", "SUM", "MAX", "MIN", "TOPK", "TOPKDISTINCT"
+        "COUNT", "SUM", "MAX", "MIN", "TOPK", "TOPKDISTINCT", "COUNT_DISTINCT",
+        "APPROX_PERCENTILE"
     );
 
     Collection<String> names = Collections2.transform(functionRegistry.listAggregateFunctions(),
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.udaf.KudafResultMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Test;
+
+public class KudafResultMapperTest {
+
+  private final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+
+  @Test
+  public void shouldMapOnlyAggregatesWithDistinctReturnType() {
+    // Given:
+    final KsqlAggregateFunction sum = getInstance("SUM");
+    final KsqlAggregateFunction countDistinct = getInstance("COUNT_DISTINCT");
+    final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap = new HashMap<>();
+    aggValToFunctionMap.put(1, sum);
+    aggValToFunctionMap.put(2, countDistinct);
+
+    @SuppressWarnings("unchecked")
+    final String sketch = (String) countDistinct.aggregate(
+        6L, countDistinct.aggregate(5L, countDistinct.getInitialValueSupplier().get()));
+
+    final KudafResultMapper mapper = new KudafResultMapper(aggValToFunctionMap);
+
+    // When:
+    final GenericRow result = mapper.apply(
+        new GenericRow(new ArrayList<>(Arrays.asList("key", 11L, sketch))));
+
+    // Then:
+    assertThat(mapper.hasResults(), is(true));
+    assertThat(result, equalTo(new GenericRow(Arrays.asList("key", 11L, 2L))));
+  }
+
+  @Test
+  public void shouldNotChangeInputRow() {
+    // Given:
+    final KsqlAggregateFunction countDistinct = getInstance("COUNT_DISTINCT");
+    @SuppressWarnings("unchecked")
+    final String sketch = (String) countDistinct.aggregate(
+        5L, countDistinct.getInitialValueSupplier().get());
+
+    final KudafResultMapper mapper =
+        new KudafResultMapper(Collections.singletonMap(1, countDistinct));
+    final GenericRow row = new GenericRow(new ArrayList<>(Arrays.asList("key", sketch)));
+
+    // When:
+    final GenericRow result = mapper.apply(row);
+
+    // Then:
+    assertThat(result, equalTo(new GenericRow(Arrays.asList("key", 1L))));
+    assertThat(row, equalTo(new GenericRow(Arrays.asList("key", sketch))));
+  }
+
+  @Test
+  public void shouldHaveNoResultsIfAllReturnTypesMatchAggregateTypes() {
+    // Given:
+    final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap =
+        Collections.singletonMap(1, getInstance("SUM"));
+
+    // Then:
+    assertThat(new KudafResultMapper(aggValToFunctionMap).hasResults(), is(false));
+  }
+
+  private KsqlAggregateFunction getInstance(final String name) {
+    return functionRegistry
+        .getAggregate(name, Schema.OPTIONAL_INT64_SCHEMA)
+        .getInstance(new AggregateFunctionArguments(1, Collections.singletonList("col1")));
+  }
+}
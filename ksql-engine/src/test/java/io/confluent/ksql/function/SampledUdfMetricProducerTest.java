@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.utils.MockTime;
+import org.apache.kafka.common.utils.Time;
+import org.junit.Test;
+
+public class SampledUdfMetricProducerTest {
+
+  private final Time time = new MockTime();
+
+  @Test
+  public void shouldRecordOneInEverySampleInterval() {
+    final UdfLatencyHistogram histogram = new UdfLatencyHistogram(2);
+    final SampledUdfMetricProducer metricProducer
+        = new SampledUdfMetricProducer(histogram, args -> {
+      time.sleep(100);
+      return args[0];
+    }, time);
+
+    for (int i = 0; i != 4; ++i) {
+      assertThat(metricProducer.evaluate("foo"), equalTo("foo"));
+    }
+
+    final UdfLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.samples(), equalTo(2L));
+    assertThat(snapshot.invocations(), equalTo(4L));
+    assertThat(snapshot.max(), equalTo(TimeUnit.MILLISECONDS.toNanos(100)));
+  }
+
+  @Test
+  public void shouldRecordEvenIfExceptionThrown() {
+    final UdfLatencyHistogram histogram = new UdfLatencyHistogram(1);
+    final SampledUdfMetricProducer metricProducer
+        = new SampledUdfMetricProducer(histogram, args -> {
+      time.sleep(10);
+      throw new RuntimeException("boom");
+    }, time);
+
+    try {
+      metricProducer.evaluate("foo");
+    } catch (final Exception e) {
+      // ignored
+    }
+
+    final UdfLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.samples(), equalTo(1L));
+    assertThat(snapshot.max(), equalTo(TimeUnit.MILLISECONDS.toNanos(10)));
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class UdfLatencyHistogramTest {
+
+  @Test
+  public void shouldSampleOneInEveryInterval() {
+    // Given:
+    final UdfLatencyHistogram.Recorder recorder = new UdfLatencyHistogram(3).recorder();
+
+    // Then:
+    assertThat(recorder.shouldSample(), is(true));
+    assertThat(recorder.shouldSample(), is(false));
+    assertThat(recorder.shouldSample(), is(false));
+    assertThat(recorder.shouldSample(), is(true));
+  }
+
+  @Test
+  public void shouldSampleEveryInvocationWithIntervalOfOne() {
+    // Given:
+    final UdfLatencyHistogram.Recorder recorder = new UdfLatencyHistogram(1).recorder();
+
+    // Then:
+    assertThat(recorder.shouldSample(), is(true));
+    assertThat(recorder.shouldSample(), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnIntervalBelowOne() {
+    new UdfLatencyHistogram(0);
+  }
+
+  @Test
+  public void shouldReportStatsOfRecordedValues() {
+    // Given:
+    final UdfLatencyHistogram histogram = new UdfLatencyHistogram(10);
+    for (long value = 1; value <= 100; value++) {
+      histogram.recorder().record(value * 1000);
+    }
+
+    // When:
+    final UdfLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    // Then:
+    assertThat(snapshot.samples(), is(100L));
+    assertThat(snapshot.invocations(), is(1000L));
+    assertThat(snapshot.average(), is(50500.0));
+    assertThat(snapshot.max(), is(100000L));
+    assertThat(snapshot.percentile(50), closeTo(50000, 50000 * 0.07));
+    assertThat(snapshot.percentile(99), closeTo(99000, 99000 * 0.07));
+    assertThat(snapshot.percentile(100), is(100000.0));
+  }
+
+  @Test
+  public void shouldReportNoStatsIfNothingRecorded() {
+    // When:
+    final UdfLatencyHistogram.Snapshot snapshot = new UdfLatencyHistogram(1).snapshot();
+
+    // Then:
+    assertThat(snapshot.invocations(), is(0L));
+    assertThat(Double.isNaN(snapshot.average()), is(true));
+    assertThat(Double.isNaN(snapshot.percentile(50)), is(true));
+  }
+
+  @Test
+  public void shouldCombineRecordingsOfAllThreads() throws Exception {
+    // Given:
+    final UdfLatencyHistogram histogram = new UdfLatencyHistogram(1);
+    histogram.recorder().record(10);
+    final CountDownLatch recorded = new CountDownLatch(1);
+    final Thread other = new Thread(() -> {
+      histogram.recorder().record(30);
+      recorded.countDown();
+    });
+
+    // When:
+    other.start();
+    recorded.await();
+    other.join();
+
+    // Then:
+    final UdfLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.samples(), is(2L));
+    assertThat(snapshot.average(), is(20.0));
+    assertThat(snapshot.max(), is(30L));
+  }
+
+  @Test
+  public void shouldKeepRecordingsButDropRecordersOfEndedThreads() throws Exception {
+    // Given:
+    final UdfLatencyHistogram histogram = new UdfLatencyHistogram(1);
+    final Thread other = new Thread(() -> histogram.recorder().record(30));
+    other.start();
+    other.join();
+
+    // When:
+    final UdfLatencyHistogram.Snapshot first = histogram.snapshot();
+    final UdfLatencyHistogram.Snapshot second = histogram.snapshot();
+
+    // Then:
+    assertThat(histogram.liveRecorders(), is(0));
+    assertThat(first.samples(), is(1L));
+    assertThat(second.samples(), is(1L));
+    assertThat(second.max(), is(30L));
+  }
+
+  @Test
+  public void shouldPutEachValueInBucketCoveringIt() {
+    for (final long value : new long[]{0, 1, 15, 16, 17, 31, 32, 1000, 123456789L,
+        Long.MAX_VALUE}) {
+      final int bucket = UdfLatencyHistogram.bucket(value);
+      assertThat(bucket, lessThanOrEqualTo(UdfLatencyHistogram.BUCKETS - 1));
+      assertThat(UdfLatencyHistogram.bucketUpperBound(bucket), greaterThanOrEqualTo(value));
+      if (bucket > 0) {
+        assertThat(UdfLatencyHistogram.bucketUpperBound(bucket - 1), lessThanOrEqualTo(value - 1));
+      }
+    }
+  }
+}
@@ -248,6 +248,56 @@ public class UdfLoaderTest {
         not(nullValue()));
   }
 
+  @Test
+  public void shouldCountTotalInvocationsWhenNotSampling() {
+    // Given:
+    final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    final UdfLoader pluginLoader = createUdfLoader(functionRegistry, true, true);
+    pluginLoader.load();
+    final Kudf kudf = functionRegistry.getUdfFactory("substring")
+        .getFunction(Arrays.asList(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA))
+        .newInstance(ksqlConfig);
+
+    // When:
+    for (int i = 0; i != 20; ++i) {
+      kudf.evaluate("some string", 2);
+    }
+
+    // Then:
+    assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-total", "ksql-udf"))
+        .metricValue(), is(20.0));
+  }
+
+  @Test
+  public void shouldCollectSampledMetricsWhenSampleIntervalAboveOne() {
+    // Given:
+    final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    final UdfLoader pluginLoader = createUdfLoader(functionRegistry, true, true, 10);
+    pluginLoader.load();
+    final KsqlFunction function = functionRegistry.getUdfFactory("substring")
+        .getFunction(Arrays.asList(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA));
+
+    // When:
+    final Kudf kudf = function.newInstance(ksqlConfig);
+    for (int i = 0; i != 20; ++i) {
+      kudf.evaluate("some string", 2);
+    }
+
+    // Then:
+    assertThat(kudf, instanceOf(SampledUdfMetricProducer.class));
+    assertThat(metrics.getSensor("ksql-udf-substring"), is(nullValue()));
+    assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-count", "ksql-udf"))
+        .metricValue(), is(20.0));
+    assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-total", "ksql-udf"))
+        .metricValue(), is(20.0));
+    for (final String stat : Arrays.asList("avg", "max", "p50", "p95", "p99")) {
+      assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-" + stat, "ksql-udf")),
+          not(nullValue()));
+    }
+    assertThat(metrics.metric(metrics.metricName("ksql-udf-substring-rate", "ksql-udf")),
+        is(nullValue()));
+  }
+
   @Test
   public void shouldUseConfigForExtDir() {
     final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
@@ -301,6 +351,13 @@ public class UdfLoaderTest {
   private UdfLoader createUdfLoader(final MutableFunctionRegistry functionRegistry,
                                     final boolean loadCustomerUdfs,
                                     final boolean collectMetrics) {
+    return createUdfLoader(functionRegistry, loadCustomerUdfs, collectMetrics, 1);
+  }
+
+  private UdfLoader createUdfLoader(final MutableFunctionRegistry functionRegistry,
+                                    final boolean loadCustomerUdfs,
+                                    final boolean collectMetrics,
+                                    final int metricsSampleInterval) {
     final Optional<Metrics> optionalMetrics = collectMetrics
         ? Optional.of(metrics)
         : Optional.empty();
@@ -310,6 +367,7 @@ public class UdfLoaderTest {
         value -> false,
         compiler,
         optionalMetrics,
+        metricsSampleInterval,
         loadCustomerUdfs);
   }
 
@@ -15,8 +15,12 @@
 
 package io.confluent.ksql.function;
 
+import io.confluent.ksql.function.udf.PluggableUdf;
 import io.confluent.ksql.function.udf.UdfMetadata;
+import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Optional;
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.test.TestUtils;
 
 public final class UdfLoaderUtil {
@@ -26,7 +30,7 @@ public final class UdfLoaderUtil {
     new UdfLoader(functionRegistry,
         TestUtils.tempDirectory(),
         UdfLoaderUtil.class.getClassLoader(),
-        value -> false, new UdfCompiler(Optional.empty()), Optional.empty(), true)
+        value -> false, new UdfCompiler(Optional.empty()), Optional.empty(), 1, true)
         .load();
 
     return functionRegistry;
@@ -43,4 +47,26 @@ public final class UdfLoaderUtil {
 
     return new UdfFactory(udf.getKudfClass(), metadata);
   }
+
+  /**
+   * @return a function that invokes {@code method} of {@code udf}, which generated code may call
+   *     directly.
+   */
+  public static KsqlFunction createDirectlyCallableFunction(
+      final String functionName,
+      final Schema returnType,
+      final List<Schema> arguments,
+      final Object udf,
+      final Method method
+  ) {
+    return KsqlFunction.create(
+        returnType,
+        arguments,
+        functionName,
+        PluggableUdf.class,
+        ksqlConfig -> new PluggableUdf((thiz, args) -> null, udf),
+        "",
+        KsqlFunction.INTERNAL_PATH,
+        method);
+  }
 }
@@ -135,4 +135,21 @@ public class UdfTemplateTest {
     UdfTemplate.coerce(args, int.class, 0);
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testUnboxPrimitiveArgs() {
+    assertThat(UdfTemplate.intArg(1, 0), equalTo(1));
+    assertThat(UdfTemplate.longArg(2L, 0), equalTo(2L));
+    assertThat(UdfTemplate.doubleArg(3.0, 0), equalTo(3.0));
+    assertThat(UdfTemplate.booleanArg(true, 0), equalTo(true));
+  }
+
+  @Test
+  public void testUnboxPrimitiveArgFailsNull() {
+    // Then:
+    expectedException.expect(KsqlFunctionException.class);
+    expectedException.expectMessage("Can't coerce argument at index 2 from null to a primitive type");
+
+    // When:
+    UdfTemplate.longArg(null, 2);
+  }
+}
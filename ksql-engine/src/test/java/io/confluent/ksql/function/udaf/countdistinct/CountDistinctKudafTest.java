@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.serde.json.KsqlJsonSerializer;
+import java.util.Collections;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class CountDistinctKudafTest {
+
+  private final KsqlAggregateFunction<Object, String> countDistinct =
+      new CountDistinctKudaf(
+          "COUNT_DISTINCT", -1, Collections.singletonList(Schema.OPTIONAL_STRING_SCHEMA))
+          .getInstance(new AggregateFunctionArguments(0, Collections.singletonList("col1")));
+
+  @Test
+  public void shouldCountSmallNumberOfDistinctValuesExactly() {
+    // Given:
+    String agg = countDistinct.getInitialValueSupplier().get();
+
+    // When:
+    for (final String value : new String[]{"a", "b", "a", "c", null, "b"}) {
+      agg = countDistinct.aggregate(value, agg);
+    }
+
+    // Then:
+    assertThat(countDistinct.getResult(agg), is(3L));
+  }
+
+  @Test
+  public void shouldEstimateLargeNumberOfDistinctValues() {
+    // Given:
+    String agg = countDistinct.getInitialValueSupplier().get();
+
+    // When:
+    for (int i = 0; i < 100_000; i++) {
+      agg = countDistinct.aggregate("value-" + (i % 50_000), agg);
+    }
+
+    // Then:
+    assertThat((double) (Long) countDistinct.getResult(agg), closeTo(50_000, 2_500));
+  }
+
+  @Test
+  public void shouldBoundSizeOfAggregate() {
+    // Given:
+    String agg = countDistinct.getInitialValueSupplier().get();
+
+    // When:
+    for (int i = 0; i < 100_000; i++) {
+      agg = countDistinct.aggregate(i, agg);
+    }
+
+    // Then:
+    assertThat(agg.length(), lessThanOrEqualTo(HyperLogLog.DENSE_LENGTH));
+  }
+
+  @Test
+  public void shouldSerializeAggregateCompactly() {
+    // Given:
+    String sparse = countDistinct.getInitialValueSupplier().get();
+    String dense = countDistinct.getInitialValueSupplier().get();
+    for (int i = 0; i < 100; i++) {
+      sparse = countDistinct.aggregate(i, sparse);
+    }
+    for (int i = 0; i < 100_000; i++) {
+      dense = countDistinct.aggregate(i, dense);
+    }
+
+    // When:
+    final int sparseSize = serializedSize(sparse);
+    final int denseSize = serializedSize(dense);
+
+    // Then:
+    // Six bits of state per character, plus the JSON field name and quotes:
+    assertThat(sparseSize, lessThanOrEqualTo(100 * 3 + 16));
+    assertThat(denseSize, lessThanOrEqualTo(HyperLogLog.DENSE_LENGTH + 16));
+  }
+
+  @Test
+  public void shouldMergeSparseSketches() {
+    // Given:
+    String aggOne = countDistinct.getInitialValueSupplier().get();
+    String aggTwo = countDistinct.getInitialValueSupplier().get();
+    for (int i = 0; i < 10; i++) {
+      aggOne = countDistinct.aggregate("v" + i, aggOne);
+      aggTwo = countDistinct.aggregate("v" + (i + 5), aggTwo);
+    }
+
+    // When:
+    final String merged = countDistinct.getMerger().apply("key", aggOne, aggTwo);
+
+    // Then:
+    assertThat(countDistinct.getResult(merged), is(15L));
+  }
+
+  @Test
+  public void shouldMergeSparseAndDenseSketches() {
+    // Given:
+    String sparse = countDistinct.getInitialValueSupplier().get();
+    String dense = countDistinct.getInitialValueSupplier().get();
+    for (int i = 0; i < 10; i++) {
+      sparse = countDistinct.aggregate("v" + i, sparse);
+    }
+    for (int i = 5; i < 20_000; i++) {
+      dense = countDistinct.aggregate("v" + i, dense);
+    }
+
+    // When:
+    final String merged = countDistinct.getMerger().apply("key", sparse, dense);
+
+    // Then:
+    assertThat((double) (Long) countDistinct.getResult(merged), closeTo(20_000, 1_000));
+  }
+
+  @Test
+  public void shouldMergeDenseSketches() {
+    // Given:
+    String aggOne = countDistinct.getInitialValueSupplier().get();
+    String aggTwo = countDistinct.getInitialValueSupplier().get();
+    for (int i = 0; i < 20_000; i++) {
+      aggOne = countDistinct.aggregate("v" + i, aggOne);
+      aggTwo = countDistinct.aggregate("v" + (i + 10_000), aggTwo);
+    }
+
+    // When:
+    final String merged = countDistinct.getMerger().apply("key", aggOne, aggTwo);
+
+    // Then:
+    assertThat((double) (Long) countDistinct.getResult(merged), closeTo(30_000, 1_500));
+  }
+
+  @Test
+  public void shouldReturnAggregateTypeDistinctFromReturnType() {
+    assertThat(countDistinct.getReturnType(), is(Schema.OPTIONAL_INT64_SCHEMA));
+    assertThat(countDistinct.getAggregateType(), is(CountDistinctKudaf.AGGREGATE_TYPE));
+  }
+
+  private static int serializedSize(final String agg) {
+    final Schema schema = SchemaBuilder.struct()
+        .field("AGG", CountDistinctKudaf.AGGREGATE_TYPE)
+        .build();
+    return new KsqlJsonSerializer(schema)
+        .serialize("topic", new GenericRow(Collections.<Object>singletonList(agg)))
+        .length;
+  }
+}
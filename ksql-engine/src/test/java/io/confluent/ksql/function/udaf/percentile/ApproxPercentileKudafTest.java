@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Test;
+
+public class ApproxPercentileKudafTest {
+
+  private static final ApproxPercentileKudaf FUNCTION = new ApproxPercentileKudaf(
+      "APPROX_PERCENTILE", -1, Collections.singletonList(Schema.OPTIONAL_FLOAT64_SCHEMA), 0.5);
+
+  @Test
+  public void shouldEstimatePercentilesWithinRelativeAccuracy() {
+    for (final double percentile : new double[]{0.0, 0.25, 0.5, 0.9, 0.99, 1.0}) {
+      // Given:
+      final KsqlAggregateFunction<Number, List<Long>> function = percentile(percentile);
+      List<Long> agg = function.getInitialValueSupplier().get();
+
+      // When:
+      for (int i = 1; i <= 10_000; i++) {
+        agg = function.aggregate((double) i, agg);
+      }
+
+      // Then:
+      final double expected = 1 + percentile * 9_999;
+      assertThat((Double) function.getResult(agg), closeTo(expected, expected * 0.01));
+    }
+  }
+
+  @Test
+  public void shouldHandleNegativeAndZeroValues() {
+    // Given:
+    final KsqlAggregateFunction<Number, List<Long>> function = percentile(0.5);
+    List<Long> agg = function.getInitialValueSupplier().get();
+
+    // When:
+    for (final Number value : Arrays.<Number>asList(-100.0, -10, 0L, 0.0, 5, Double.NaN, null)) {
+      agg = function.aggregate(value, agg);
+    }
+
+    // Then:
+    assertThat(function.getResult(agg), is(0.0));
+    assertThat((Double) percentile(0.0).getResult(agg), closeTo(-100, 1));
+  }
+
+  @Test
+  public void shouldReturnNullIfNoValues() {
+    assertThat(FUNCTION.getResult(FUNCTION.getInitialValueSupplier().get()), is(nullValue()));
+  }
+
+  @Test
+  public void shouldMergeSketches() {
+    // Given:
+    final KsqlAggregateFunction<Number, List<Long>> function = percentile(0.5);
+    List<Long> aggOne = function.getInitialValueSupplier().get();
+    List<Long> aggTwo = function.getInitialValueSupplier().get();
+    for (int i = 1; i <= 1_000; i++) {
+      aggOne = function.aggregate(i, aggOne);
+      aggTwo = function.aggregate(i + 1_000, aggTwo);
+    }
+
+    // When:
+    final List<Long> merged = function.getMerger().apply("key", aggOne, aggTwo);
+
+    // Then:
+    assertThat((Double) function.getResult(merged), closeTo(1_000, 10));
+  }
+
+  @Test
+  public void shouldBoundSizeOfAggregate() {
+    // Given:
+    final KsqlAggregateFunction<Number, List<Long>> function = percentile(0.99);
+    List<Long> agg = function.getInitialValueSupplier().get();
+
+    // When:
+    for (int i = -1_000; i < 1_000; i++) {
+      agg = function.aggregate(Math.pow(1.1, i), agg);
+    }
+
+    // Then:
+    assertThat(agg.size(), lessThanOrEqualTo(QuantileSketch.MAX_BUCKETS * 2));
+    final double expected = Math.pow(1.1, 979);
+    assertThat((Double) function.getResult(agg), closeTo(expected, expected * 0.01));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnPercentileOutOfRange() {
+    percentile(95);
+  }
+
+  private static KsqlAggregateFunction<Number, List<Long>> percentile(final double percentile) {
+    return FUNCTION.getInstance(
+        new AggregateFunctionArguments(0, Arrays.asList("col1", String.valueOf(percentile))));
+  }
+}
@@ -26,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.kafka.connect.data.Schema;
@@ -119,6 +120,29 @@ public class IntTopkKudafTest {
     assertThat(combined.get(2), is(298));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldKeepSameTopKAsSortingAllValues() {
+    // Given:
+    topkKudaf = new TopKAggregateFunctionFactory(50)
+        .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_INT32_SCHEMA));
+    final List<Integer> values = new Random(42).ints(10_000, 0, 1_000)
+        .boxed()
+        .collect(Collectors.toList());
+
+    // When:
+    List<Integer> aggregate = new ArrayList<>();
+    for (final Integer value : values) {
+      aggregate = topkKudaf.aggregate(value, aggregate);
+    }
+
+    // Then:
+    assertThat(aggregate, is(values.stream()
+        .sorted(Comparator.reverseOrder())
+        .limit(50)
+        .collect(Collectors.toList())));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void shouldBeThreadSafe() {
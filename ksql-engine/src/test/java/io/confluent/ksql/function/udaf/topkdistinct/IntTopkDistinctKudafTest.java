@@ -23,7 +23,9 @@ import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.kafka.connect.data.Schema;
@@ -55,6 +57,29 @@ public class IntTopkDistinctKudafTest {
     assertThat("Invalid results.", currentVal, equalTo(ImmutableList.of(80)));
   }
 
+  @Test
+  public void shouldKeepSameTopKAsSortingAllDistinctValues() {
+    // Given:
+    final TopkDistinctKudaf<Integer> topkDistinct =
+        TopKDistinctTestUtils.getTopKDistinctKudaf(50, Schema.OPTIONAL_INT32_SCHEMA);
+    final List<Integer> values = new Random(42).ints(10_000, 0, 1_000)
+        .boxed()
+        .collect(Collectors.toList());
+
+    // When:
+    List<Integer> aggregate = new ArrayList<>();
+    for (final Integer value : values) {
+      aggregate = topkDistinct.aggregate(value, aggregate);
+    }
+
+    // Then:
+    assertThat(aggregate, is(values.stream()
+        .distinct()
+        .sorted(Comparator.reverseOrder())
+        .limit(50)
+        .collect(Collectors.toList())));
+  }
+
   @Test
   public void shouldMergeTopK() {
     final List<Integer> array1 = ImmutableList.of(50, 45, 25);
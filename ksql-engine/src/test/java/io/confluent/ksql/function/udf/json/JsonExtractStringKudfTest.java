@@ -16,12 +16,15 @@
 package io.confluent.ksql.function.udf.json;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.udf.KudfTester;
 import java.util.stream.IntStream;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -38,6 +41,11 @@ public class JsonExtractStringKudfTest {
     udf = new JsonExtractStringKudf();
   }
 
+  @After
+  public void tearDown() {
+    JsonExtractStringKudf.releaseParsedDocs();
+  }
+
   @Test
   public void shouldBeWellBehavedUdf() {
     new KudfTester(JsonExtractStringKudf::new)
@@ -46,6 +54,72 @@ public class JsonExtractStringKudfTest {
         .test();
   }
 
+  @Test
+  public void shouldReuseParsedDocForSameString() {
+    // Given:
+    final String other = new String(JSON_DOC);
+
+    // When:
+    final Object node = JsonExtractStringKudf.parseJsonDoc(JSON_DOC);
+
+    // Then:
+    assertThat(JsonExtractStringKudf.parseJsonDoc(JSON_DOC), is(sameInstance(node)));
+    assertThat(JsonExtractStringKudf.parseJsonDoc(other), is(not(sameInstance(node))));
+  }
+
+  @Test
+  public void shouldReuseParsedDocsOfAlternatingStrings() {
+    // Given:
+    final String other = new String(JSON_DOC);
+    final Object node = JsonExtractStringKudf.parseJsonDoc(JSON_DOC);
+    final Object otherNode = JsonExtractStringKudf.parseJsonDoc(other);
+
+    // Then:
+    assertThat(JsonExtractStringKudf.parseJsonDoc(JSON_DOC), is(sameInstance(node)));
+    assertThat(JsonExtractStringKudf.parseJsonDoc(other), is(sameInstance(otherNode)));
+  }
+
+  @Test
+  public void shouldNotReuseParsedDocOnceReleased() {
+    // Given:
+    final Object node = JsonExtractStringKudf.parseJsonDoc(JSON_DOC);
+
+    // When:
+    JsonExtractStringKudf.releaseParsedDocs();
+
+    // Then:
+    assertThat(JsonExtractStringKudf.parseJsonDoc(JSON_DOC), is(not(sameInstance(node))));
+  }
+
+  @Test
+  public void shouldReplaceOldestParsedDocOnceFull() {
+    // Given:
+    final Object oldest = JsonExtractStringKudf.parseJsonDoc(JSON_DOC);
+    final String[] others = IntStream.range(0, 4)
+        .mapToObj(i -> new String(JSON_DOC))
+        .toArray(String[]::new);
+    for (final String other : others) {
+      JsonExtractStringKudf.parseJsonDoc(other);
+    }
+
+    // Then:
+    assertThat(JsonExtractStringKudf.parseJsonDoc(JSON_DOC), is(not(sameInstance(oldest))));
+  }
+
+  @Test
+  public void shouldExtractFieldsFromSharedParsedDoc() {
+    // Given:
+    final JsonExtractStringKudf other = new JsonExtractStringKudf();
+
+    // When:
+    final Object first = udf.evaluate(JSON_DOC, "$.thing1.thing2");
+    final Object second = other.evaluate(JSON_DOC, "$.array.0");
+
+    // Then:
+    assertThat(first, is("hello"));
+    assertThat(second, is("101"));
+  }
+
   @Test
   public void shouldExtractJsonField() {
     // When:
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.util.KsqlException;
+import org.junit.Test;
+
+public class LikePatternTest {
+
+  @Test
+  public void shouldMatchWildcardsAnywhere() {
+    final LikePattern pattern = LikePattern.compile("a%b_c%", null);
+
+    assertThat(pattern.matches("abxc"), is(true));
+    assertThat(pattern.matches("a--b-c--"), is(true));
+    assertThat(pattern.matches("abc"), is(false));
+    assertThat(pattern.matches("xabxc"), is(false));
+  }
+
+  @Test
+  public void shouldMatchWildcardsAcrossLines() {
+    assertThat(LikePattern.compile("a%b", null).matches("a\nb"), is(true));
+  }
+
+  @Test
+  public void shouldMatchRegexCharactersLiterally() {
+    final LikePattern pattern = LikePattern.compile("a.b*%", null);
+
+    assertThat(pattern.matches("a.b*c"), is(true));
+    assertThat(pattern.matches("axbbc"), is(false));
+  }
+
+  @Test
+  public void shouldMatchEscapedWildcardsLiterally() {
+    final LikePattern pattern = LikePattern.compile("100!%_!_!!", "!");
+
+    assertThat(pattern.matches("100%x_!"), is(true));
+    assertThat(pattern.matches("1000x_!"), is(false));
+    assertThat(pattern.matches("100%xx!"), is(false));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnInvalidEscapeSequence() {
+    LikePattern.compile("a!b", "!");
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnTrailingEscape() {
+    LikePattern.compile("a!", "!");
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnMultiCharacterEscape() {
+    LikePattern.compile("a", "!!");
+  }
+
+  @Test
+  public void shouldMatchNonLiteralPatternsThroughCache() {
+    assertThat(LikePattern.matches("abc", "a_c", null), is(true));
+    assertThat(LikePattern.matches("a_c", "a!_c", "!"), is(true));
+    assertThat(LikePattern.matches("abc", "a!_c", "!"), is(false));
+  }
+
+  @Test
+  public void shouldReuseCachedPatterns() {
+    assertThat(PatternCache.like("a%", null), is(sameInstance(PatternCache.like("a%", null))));
+    assertThat(PatternCache.regex("a+"), is(sameInstance(PatternCache.regex("a+"))));
+  }
+}
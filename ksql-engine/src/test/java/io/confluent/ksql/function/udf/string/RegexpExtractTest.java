@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.regex.Pattern;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RegexpExtractTest {
+
+  private RegexpExtract udf;
+
+  @Before
+  public void setUp() {
+    udf = new RegexpExtract();
+  }
+
+  @Test
+  public void shouldReturnNullOnNullValue() {
+    assertThat(udf.regexpExtract(null, "a"), is(nullValue()));
+    assertThat(udf.regexpExtract("a", null), is(nullValue()));
+    assertThat(udf.regexpExtract("a", "a", null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldExtractFirstMatch() {
+    assertThat(udf.regexpExtract("id=12, id=34", "[0-9]+"), is("12"));
+  }
+
+  @Test
+  public void shouldExtractGroup() {
+    assertThat(udf.regexpExtract("user=bob;id=12", "user=([a-z]+);id=([0-9]+)", 2), is("12"));
+  }
+
+  @Test
+  public void shouldReturnNullIfNoMatchOrNoSuchGroup() {
+    assertThat(udf.regexpExtract("abc", "[0-9]+"), is(nullValue()));
+    assertThat(udf.regexpExtract("abc", "(b)", 2), is(nullValue()));
+    assertThat(udf.regexpExtract("abc", "(b)", -1), is(nullValue()));
+  }
+
+  @Test
+  public void shouldExtractWithPrecompiledPattern() {
+    assertThat(RegexpExtract.regexpExtract("a1b2", Pattern.compile("[a-z]([0-9])"), 1), is("1"));
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.regex.Pattern;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RegexpMatchTest {
+
+  private RegexpMatch udf;
+
+  @Before
+  public void setUp() {
+    udf = new RegexpMatch();
+  }
+
+  @Test
+  public void shouldReturnNullOnNullValue() {
+    assertThat(udf.regexpMatch(null, "a"), is(nullValue()));
+    assertThat(udf.regexpMatch("a", null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldMatchAnyPartOfValue() {
+    assertThat(udf.regexpMatch("order-1234", "[0-9]+"), is(true));
+    assertThat(udf.regexpMatch("order-", "[0-9]+"), is(false));
+    assertThat(udf.regexpMatch("order-1234", "^[0-9]+$"), is(false));
+  }
+
+  @Test
+  public void shouldMatchWithPrecompiledPattern() {
+    assertThat(RegexpMatch.regexpMatch("order-1234", Pattern.compile("[0-9]+")), is(true));
+    assertThat(RegexpMatch.regexpMatch(null, Pattern.compile("[0-9]+")), is(nullValue()));
+  }
+}
@@ -22,6 +22,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.mockito.ArgumentMatchers.any;
@@ -60,11 +61,13 @@ import io.confluent.ksql.util.KsqlStatementException;
 import io.confluent.ksql.util.MetaStoreFixture;
 import io.confluent.ksql.util.QueryIdGenerator;
 import io.confluent.ksql.util.QueryMetadata;
+import io.confluent.ksql.util.SharedQueuedQueryMetadata;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -107,6 +110,7 @@ public class PhysicalPlanBuilderTest {
   private final KafkaTopicClient kafkaTopicClient = new FakeKafkaTopicClient();
   private KsqlEngine ksqlEngine;
   private ProcessingLogContext processingLogContext;
+  private final SharedSourceRuntimes sharedSourceRuntimes = new SharedSourceRuntimes();
 
   @Rule
   public final ExpectedException expectedException = ExpectedException.none();
@@ -165,11 +169,19 @@ public class PhysicalPlanBuilderTest {
   @After
   public void after() {
     ksqlEngine.close();
+    sharedSourceRuntimes.close();
     serviceContext.close();
   }
 
   private PhysicalPlanBuilder buildPhysicalPlanBuilder(
       final Map<String, Object> overrideProperties) {
+    return buildPhysicalPlanBuilder(overrideProperties, Optional.empty());
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private PhysicalPlanBuilder buildPhysicalPlanBuilder(
+      final Map<String, Object> overrideProperties,
+      final Optional<SharedSourceRuntimes> sharedSourceRuntimes) {
     final StreamsBuilder streamsBuilder = new StreamsBuilder();
     final InternalFunctionRegistry functionRegistry = new InternalFunctionRegistry();
     return new PhysicalPlanBuilder(
@@ -182,7 +194,8 @@ public class PhysicalPlanBuilderTest {
         metaStore,
         new QueryIdGenerator(),
         testKafkaStreamsBuilder,
-        queryCloseCallback
+        queryCloseCallback,
+        sharedSourceRuntimes
     );
   }
 
@@ -203,6 +216,75 @@ public class PhysicalPlanBuilderTest {
     assertThat(queryMetadata.getOutputNode(), instanceOf(KsqlBareOutputNode.class));
   }
 
+  @Test
+  public void shouldUseSharedSourceRuntimeForBareStreamQueryIfEnabled() {
+    // Given:
+    physicalPlanBuilder = buildPhysicalPlanBuilder(
+        ImmutableMap.<String, Object>of(
+            KsqlConfig.KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_CONFIG, true,
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"),
+        Optional.of(sharedSourceRuntimes));
+
+    // When:
+    final QueryMetadata metadata = buildPhysicalPlan(simpleSelectFilter);
+
+    // Then:
+    assertThat(metadata, instanceOf(SharedQueuedQueryMetadata.class));
+    assertThat(sharedSourceRuntimes.size(), is(1));
+    assertThat(testKafkaStreamsBuilder.getCalls(), hasSize(1));
+  }
+
+  @Test
+  public void shouldReleaseSharedSourceRuntimeOnClose() {
+    // Given:
+    physicalPlanBuilder = buildPhysicalPlanBuilder(
+        ImmutableMap.<String, Object>of(
+            KsqlConfig.KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_CONFIG, true,
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"),
+        Optional.of(sharedSourceRuntimes));
+    final QueryMetadata metadata = buildPhysicalPlan(simpleSelectFilter);
+
+    // When:
+    metadata.close();
+
+    // Then:
+    assertThat(sharedSourceRuntimes.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotUseSharedSourceRuntimeUnlessReadingFromLatest() {
+    // Given:
+    physicalPlanBuilder = buildPhysicalPlanBuilder(
+        ImmutableMap.<String, Object>of(
+            KsqlConfig.KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_CONFIG, true),
+        Optional.of(sharedSourceRuntimes));
+
+    // When:
+    final QueryMetadata metadata = buildPhysicalPlan(simpleSelectFilter);
+
+    // Then:
+    assertThat(metadata, not(instanceOf(SharedQueuedQueryMetadata.class)));
+    assertThat(sharedSourceRuntimes.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotUseSharedSourceRuntimeForAggregateQuery() {
+    // Given:
+    physicalPlanBuilder = buildPhysicalPlanBuilder(
+        ImmutableMap.<String, Object>of(
+            KsqlConfig.KSQL_TRANSIENT_QUERY_SHARED_RUNTIME_CONFIG, true,
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"),
+        Optional.of(sharedSourceRuntimes));
+
+    // When:
+    final QueryMetadata metadata = buildPhysicalPlan(
+        "SELECT col0, count(*) FROM test1 GROUP BY col0;");
+
+    // Then:
+    assertThat(metadata, not(instanceOf(SharedQueuedQueryMetadata.class)));
+    assertThat(sharedSourceRuntimes.size(), is(0));
+  }
+
   @Test
   public void shouldCreateExecutionPlan() {
     final String queryString = "SELECT col0, sum(col3), count(col3) FROM test1 "
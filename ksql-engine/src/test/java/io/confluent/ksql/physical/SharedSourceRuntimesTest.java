@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.test.ConsumerRecordFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class SharedSourceRuntimesTest {
+
+  private static final Map<String, Object> STREAMS_CONFIG =
+      ImmutableMap.of(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+
+  private static final Supplier<Map<String, Object>> STREAMS_PROPERTIES =
+      () -> ImmutableMap.of(
+          StreamsConfig.APPLICATION_ID_CONFIG, "shared_app",
+          StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @Mock
+  private KafkaStreamsBuilder kafkaStreamsBuilder;
+  @Captor
+  private ArgumentCaptor<ConsumerRecord<byte[], byte[]>> recordCaptor;
+
+  private SharedSourceRuntimes runtimes;
+
+  @Before
+  public void setUp() {
+    when(kafkaStreamsBuilder.buildKafkaStreams(any(), any()))
+        .thenAnswer(inv -> mock(KafkaStreams.class));
+
+    runtimes = new SharedSourceRuntimes();
+  }
+
+  @Test
+  public void shouldShareRuntimeBetweenQueriesOnSameTopic() {
+    // When:
+    final SharedSourceRuntime first = acquire("topic", STREAMS_CONFIG);
+    final SharedSourceRuntime second = acquire("topic", STREAMS_CONFIG);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(runtimes.size(), is(1));
+  }
+
+  @Test
+  public void shouldNotShareRuntimeBetweenTopics() {
+    // When:
+    final SharedSourceRuntime first = acquire("topic", STREAMS_CONFIG);
+    final SharedSourceRuntime second = acquire("other", STREAMS_CONFIG);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(runtimes.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotShareRuntimeBetweenDifferentStreamsConfigs() {
+    // When:
+    final SharedSourceRuntime first = acquire("topic", STREAMS_CONFIG);
+    final SharedSourceRuntime second = acquire("topic", ImmutableMap.of(
+        StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "otherhost:9092"));
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+  }
+
+  @Test
+  public void shouldOnlyCloseRuntimeOnceReleasedByAllQueries() {
+    // Given:
+    final SharedSourceRuntime runtime = acquire("topic", STREAMS_CONFIG);
+    acquire("topic", STREAMS_CONFIG);
+
+    // When:
+    runtimes.release(runtime);
+
+    // Then:
+    verify(runtime.getKafkaStreams(), never()).close();
+    assertThat(runtimes.size(), is(1));
+
+    // When:
+    runtimes.release(runtime);
+
+    // Then:
+    verify(runtime.getKafkaStreams()).close();
+    verify(runtime.getKafkaStreams()).cleanUp();
+    assertThat(runtimes.size(), is(0));
+  }
+
+  @Test
+  public void shouldOnlyStartRuntimeOnFirstSubscription() {
+    // Given:
+    final SharedSourceRuntime runtime = acquire("topic", STREAMS_CONFIG);
+
+    // When:
+    runtime.subscribe(mock(SharedSourceRuntime.Subscriber.class));
+    runtime.subscribe(mock(SharedSourceRuntime.Subscriber.class));
+
+    // Then:
+    verify(runtime.getKafkaStreams(), times(1)).start();
+  }
+
+  @Test
+  public void shouldNotifySubscribersAndReplaceRuntimeOnStreamThreadDeath() {
+    // Given:
+    final SharedSourceRuntime runtime = acquire("topic", STREAMS_CONFIG);
+    final SharedSourceRuntime.Subscriber subscriber = mock(SharedSourceRuntime.Subscriber.class);
+    runtime.subscribe(subscriber);
+
+    final ArgumentCaptor<UncaughtExceptionHandler> handler =
+        ArgumentCaptor.forClass(UncaughtExceptionHandler.class);
+    verify(runtime.getKafkaStreams()).setUncaughtExceptionHandler(handler.capture());
+
+    final Thread thread = new Thread(() -> { });
+    final RuntimeException e = new RuntimeException("Boom");
+
+    // When:
+    handler.getValue().uncaughtException(thread, e);
+
+    // Then:
+    verify(subscriber).onError(thread, e);
+    verify(subscriber, never()).onRecord(any(ConsumerRecord.class));
+    assertThat(runtime.isFailed(), is(true));
+    assertThat(acquire("topic", STREAMS_CONFIG), is(not(sameInstance(runtime))));
+  }
+
+  @Test
+  public void shouldPassRecordsWithInvalidTimestampsToSubscribers() {
+    // Given:
+    final SharedSourceRuntime runtime = acquire("topic", STREAMS_CONFIG);
+    final SharedSourceRuntime.Subscriber subscriber = mock(SharedSourceRuntime.Subscriber.class);
+    runtime.subscribe(subscriber);
+
+    final Properties props = new Properties();
+    props.putAll(STREAMS_PROPERTIES.get());
+    final ConsumerRecordFactory<byte[], byte[]> recordFactory =
+        new ConsumerRecordFactory<>(new ByteArraySerializer(), new ByteArraySerializer());
+
+    // When:
+    try (TopologyTestDriver driver = new TopologyTestDriver(runtime.getTopology(), props)) {
+      driver.pipeInput(recordFactory.create("topic", new byte[]{1}, new byte[]{2}, -1L));
+      driver.pipeInput(recordFactory.create("topic", new byte[]{1}, new byte[]{3}, 10L));
+    }
+
+    // Then:
+    // Each query applies its own timestamp extractor, so none are skipped at the source:
+    verify(subscriber, times(2)).onRecord(recordCaptor.capture());
+    final List<ConsumerRecord<byte[], byte[]>> received = recordCaptor.getAllValues();
+    assertThat(received.get(0).timestamp(), is(ConsumerRecord.NO_TIMESTAMP));
+    assertThat(received.get(0).value(), is(new byte[]{2}));
+    assertThat(received.get(1).timestamp(), is(10L));
+    assertThat(received.get(1).value(), is(new byte[]{3}));
+  }
+
+  @Test
+  public void shouldCloseAllRuntimesOnClose() {
+    // Given:
+    final SharedSourceRuntime first = acquire("topic", STREAMS_CONFIG);
+    final SharedSourceRuntime second = acquire("other", STREAMS_CONFIG);
+
+    // When:
+    runtimes.close();
+
+    // Then:
+    verify(first.getKafkaStreams()).close();
+    verify(second.getKafkaStreams()).close();
+    assertThat(runtimes.size(), is(0));
+  }
+
+  @Test
+  public void shouldCloseReplacedFailedRuntimesOnClose() {
+    // Given:
+    final SharedSourceRuntime failed = acquire("topic", STREAMS_CONFIG);
+    final ArgumentCaptor<UncaughtExceptionHandler> handler =
+        ArgumentCaptor.forClass(UncaughtExceptionHandler.class);
+    verify(failed.getKafkaStreams()).setUncaughtExceptionHandler(handler.capture());
+    handler.getValue().uncaughtException(new Thread(() -> { }), new RuntimeException("Boom"));
+
+    final SharedSourceRuntime replacement = acquire("topic", STREAMS_CONFIG);
+
+    // When:
+    runtimes.close();
+
+    // Then:
+    verify(failed.getKafkaStreams()).close();
+    verify(replacement.getKafkaStreams()).close();
+  }
+
+  @Test
+  public void shouldCloseReplacedFailedRuntimeOnceReleased() {
+    // Given:
+    final SharedSourceRuntime failed = acquire("topic", STREAMS_CONFIG);
+    final ArgumentCaptor<UncaughtExceptionHandler> handler =
+        ArgumentCaptor.forClass(UncaughtExceptionHandler.class);
+    verify(failed.getKafkaStreams()).setUncaughtExceptionHandler(handler.capture());
+    handler.getValue().uncaughtException(new Thread(() -> { }), new RuntimeException("Boom"));
+
+    final SharedSourceRuntime replacement = acquire("topic", STREAMS_CONFIG);
+
+    // When:
+    runtimes.release(failed);
+
+    // Then:
+    verify(failed.getKafkaStreams()).close();
+    verify(replacement.getKafkaStreams(), never()).close();
+    assertThat(runtimes.size(), is(1));
+  }
+
+  private SharedSourceRuntime acquire(
+      final String topic,
+      final Map<String, Object> streamsConfig
+  ) {
+    return runtimes.acquire(topic, streamsConfig, STREAMS_PROPERTIES, kafkaStreamsBuilder);
+  }
+}
@@ -16,7 +16,10 @@
 package io.confluent.ksql.planner;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import io.confluent.ksql.function.InternalFunctionRegistry;
@@ -32,6 +35,7 @@ import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
 import io.confluent.ksql.testutils.AnalysisTestUtil;
 import io.confluent.ksql.util.MetaStoreFixture;
+import java.util.Set;
 import org.apache.kafka.connect.data.Schema;
 import org.junit.Assert;
 import org.junit.Before;
@@ -76,6 +80,34 @@ public class LogicalPlannerTest {
     Assert.assertNotNull(((FilterNode) logicalPlan.getSources().get(0).getSources().get(0)).getPredicate());
   }
 
+  @Test
+  public void shouldPassReferencedColumnsToSourceNode() {
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(
+        "SELECT col0, LEN(t.col2) FROM test1 t WHERE col3 > 1.0;");
+
+    // Then:
+    final StructuredDataSourceNode sourceNode = (StructuredDataSourceNode) logicalPlan
+        .getSources().get(0).getSources().get(0).getSources().get(0);
+    final Set<String> columns = sourceNode.getRequiredColumns().get();
+    assertThat(columns, hasItems("COL0", "COL2", "COL3"));
+    assertThat(columns, not(hasItem("COL1")));
+    assertThat(columns, not(hasItem("COL4")));
+    assertThat(columns, not(hasItem("COL5")));
+  }
+
+  @Test
+  public void shouldPassGroupByAndHavingColumnsToSourceNode() {
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(
+        "SELECT col0, SUM(col3) FROM test1 GROUP BY col0 HAVING COUNT(col1) > 1;");
+
+    // Then:
+    final StructuredDataSourceNode sourceNode = (StructuredDataSourceNode) logicalPlan
+        .getSources().get(0).getSources().get(0);
+    assertThat(sourceNode.getRequiredColumns().get(), hasItems("COL0", "COL1", "COL3"));
+  }
+
   @Test
   public void testSimpleLeftJoinLogicalPlan() {
     final String simpleQuery = "SELECT t1.col1, t2.col1, t1.col4, t2.col2 FROM test1 t1 LEFT JOIN test2 t2 ON t1.col1 = t2.col1;";
@@ -325,6 +325,10 @@ public class AggregateNodeTest {
   }
 
   private void shouldCreateLogger(final String name) {
+    shouldCreateLogger(name, ksqlConfig);
+  }
+
+  private void shouldCreateLogger(final String name, final KsqlConfig ksqlConfig) {
     // When:
     final AggregateNode node = buildAggregateNode(
         "SELECT col0, sum(col3), count(col3) FROM test1 GROUP BY col0;");
@@ -354,7 +358,8 @@ public class AggregateNodeTest {
 
   @Test
   public void shouldCreateLoggerForStatestore() {
-    shouldCreateLogger("aggregate");
+    shouldCreateLogger("aggregate", ksqlConfig.cloneWithPropertyOverwrite(
+        Collections.singletonMap(KsqlConfig.KSQL_AGGREGATE_BINARY_STATE_CONFIG, false)));
   }
 
   @Test
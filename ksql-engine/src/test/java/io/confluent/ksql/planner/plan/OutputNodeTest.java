@@ -56,6 +56,8 @@ public class OutputNodeTest {
   private TimestampExtractionPolicy timestampExtractionPolicy;
   @Mock
   private OutputNode.LimitHandler limitHandler;
+  @Mock
+  private OutputNode.RowQueuedHandler rowQueuedHandler;
   private OutputNode node;
   private OutputNode.Callback callback;
 
@@ -148,6 +150,45 @@ public class OutputNodeTest {
     verify(limitHandler);
   }
 
+  @Test
+  public void shouldCallRowQueuedHandlerForEachQueuedRow() {
+    // Given:
+    givenOutputNodeWithLimit(Optional.empty());
+    node.setRowQueuedHandler(rowQueuedHandler);
+
+    rowQueuedHandler.rowQueued();
+    expectLastCall().times(2);
+
+    replay(rowQueuedHandler);
+
+    // When:
+    callback.onQueued();
+    callback.onQueued();
+
+    // Then:
+    verify(rowQueuedHandler);
+  }
+
+  @Test
+  public void shouldCallRowQueuedHandlerAsWellAsLimitHandler() {
+    // Given:
+    givenOutputNodeWithLimit(Optional.of(1));
+    node.setRowQueuedHandler(rowQueuedHandler);
+
+    rowQueuedHandler.rowQueued();
+    expectLastCall().once();
+    limitHandler.limitReached();
+    expectLastCall().once();
+
+    replay(rowQueuedHandler, limitHandler);
+
+    // When:
+    callback.onQueued();
+
+    // Then:
+    verify(rowQueuedHandler, limitHandler);
+  }
+
   private void givenOutputNodeWithLimit(final Optional<Integer> limit) {
     node = new TestOutputNode(id, source, schema, limit, timestampExtractionPolicy);
     node.setLimitHandler(limitHandler);
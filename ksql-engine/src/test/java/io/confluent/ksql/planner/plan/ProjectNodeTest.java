@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -79,6 +80,12 @@ public class ProjectNodeTest {
   }
 
   private ProjectNode buildNode(final List<Expression> expressionList) {
+    return buildNode(source, expressionList);
+  }
+
+  private static ProjectNode buildNode(
+      final PlanNode source,
+      final List<Expression> expressionList) {
     return new ProjectNode(
         new PlanNodeId("1"),
         source,
@@ -140,6 +147,73 @@ public class ProjectNodeTest {
     );
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldFuseWithSourceFilter() {
+    // Given:
+    final BooleanLiteral predicate = new BooleanLiteral("true");
+    final BooleanLiteral trueExpression = new BooleanLiteral("true");
+    final BooleanLiteral falseExpression = new BooleanLiteral("false");
+    final FilterNode filterNode = new FilterNode(new PlanNodeId("0"), source, predicate);
+    when(stream.filterAndSelect(any(), any(), anyList(), any(), any())).thenReturn(stream);
+    final ProjectNode node = buildNode(
+        filterNode,
+        Arrays.asList(trueExpression, falseExpression));
+
+    // When:
+    node.buildStream(
+        builder,
+        ksqlConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId);
+
+    // Then:
+    verify(stream).filterAndSelect(
+        same(predicate),
+        eq(filterNode.buildNodeContext(queryId)),
+        eq(Arrays.asList(
+            SelectExpression.of("field1", trueExpression),
+            SelectExpression.of("field2", falseExpression))),
+        eq(node.buildNodeContext(queryId)),
+        same(processingLogContext)
+    );
+    verify(stream, never()).filter(any(), any(), any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotFuseWithSourceFilterIfDisabled() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(
+        Collections.singletonMap(KsqlConfig.KSQL_FUSED_FILTER_PROJECT_CONFIG, false));
+    final BooleanLiteral predicate = new BooleanLiteral("true");
+    final FilterNode filterNode = new FilterNode(new PlanNodeId("0"), source, predicate);
+    when(stream.filter(any(), any(), any())).thenReturn(stream);
+    when(stream.select(anyList(), any(), any())).thenReturn(stream);
+    final ProjectNode node = buildNode(
+        filterNode,
+        Arrays.asList(new BooleanLiteral("true"), new BooleanLiteral("false")));
+
+    // When:
+    node.buildStream(
+        builder,
+        ksqlConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId);
+
+    // Then:
+    verify(stream).filter(
+        same(predicate),
+        eq(filterNode.buildNodeContext(queryId)),
+        same(processingLogContext));
+    verify(stream).select(anyList(), eq(node.buildNodeContext(queryId)), any());
+    verify(stream, never()).filterAndSelect(any(), any(), anyList(), any(), any());
+  }
+
   @SuppressWarnings("unchecked")
   private void mockSourceNode() {
     when(source.getKeyField())
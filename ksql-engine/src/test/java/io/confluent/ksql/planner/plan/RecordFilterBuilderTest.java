@@ -0,0 +1,216 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner.plan;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.parser.tree.ArithmeticUnaryExpression;
+import io.confluent.ksql.parser.tree.BetweenPredicate;
+import io.confluent.ksql.parser.tree.BooleanLiteral;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.DoubleLiteral;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.IntegerLiteral;
+import io.confluent.ksql.parser.tree.IsNotNullPredicate;
+import io.confluent.ksql.parser.tree.IsNullPredicate;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.serde.RecordFilter;
+import io.confluent.ksql.serde.RecordFilter.FieldConditions;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class RecordFilterBuilderTest {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("PRICE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("FLAG", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("COUNT", Schema.OPTIONAL_INT32_SCHEMA)
+      .build();
+
+  private static final int ID = 0;
+  private static final int NAME = 1;
+  private static final int PRICE = 2;
+  private static final int FLAG = 3;
+  private static final int COUNT = 4;
+
+  @Test
+  public void shouldPushDownComparisonWithLiteral() {
+    // When:
+    final FieldConditions conditions = build(
+        comparison(ComparisonExpression.Type.GREATER_THAN, column("ID"), new IntegerLiteral(10)));
+
+    // Then:
+    assertThat(conditions.test(ID, 11L), is(true));
+    assertThat(conditions.test(ID, 10L), is(false));
+    assertThat(conditions.test(ID, null), is(false));
+  }
+
+  @Test
+  public void shouldFlipComparisonWithLiteralOnLeft() {
+    // When:
+    final FieldConditions conditions = build(
+        comparison(ComparisonExpression.Type.LESS_THAN, new IntegerLiteral(10), column("ID")));
+
+    // Then:
+    assertThat(conditions.test(ID, 11L), is(true));
+    assertThat(conditions.test(ID, 9L), is(false));
+  }
+
+  @Test
+  public void shouldPushDownNegativeLiteral() {
+    // When:
+    final FieldConditions conditions = build(comparison(
+        ComparisonExpression.Type.GREATER_THAN_OR_EQUAL,
+        column("PRICE"),
+        ArithmeticUnaryExpression.negative(new DoubleLiteral("1.5"))));
+
+    // Then:
+    assertThat(conditions.test(PRICE, -1.5), is(true));
+    assertThat(conditions.test(PRICE, -2.0), is(false));
+  }
+
+  @Test
+  public void shouldCompareIntegerColumnWithDoubleLiteralAsDouble() {
+    // When:
+    final FieldConditions conditions = build(comparison(
+        ComparisonExpression.Type.EQUAL, column("COUNT"), new DoubleLiteral("2.5")));
+
+    // Then:
+    assertThat(conditions.test(COUNT, 2), is(false));
+    assertThat(conditions.test(COUNT, 3), is(false));
+  }
+
+  @Test
+  public void shouldPushDownStringComparisons() {
+    // When:
+    final FieldConditions conditions = build(and(
+        comparison(ComparisonExpression.Type.NOT_EQUAL, column("NAME"), new StringLiteral("b")),
+        comparison(ComparisonExpression.Type.LESS_THAN, column("NAME"), new StringLiteral("c"))));
+
+    // Then:
+    assertThat(conditions.test(NAME, "a"), is(true));
+    assertThat(conditions.test(NAME, "b"), is(false));
+    assertThat(conditions.test(NAME, "d"), is(false));
+    assertThat(conditions.test(NAME, null), is(false));
+  }
+
+  @Test
+  public void shouldPushDownBooleanEquality() {
+    // When:
+    final FieldConditions conditions = build(
+        comparison(ComparisonExpression.Type.EQUAL, column("FLAG"), new BooleanLiteral("true")));
+
+    // Then:
+    assertThat(conditions.test(FLAG, true), is(true));
+    assertThat(conditions.test(FLAG, false), is(false));
+    assertThat(conditions.test(FLAG, null), is(false));
+  }
+
+  @Test
+  public void shouldPushDownNullChecks() {
+    // When:
+    final FieldConditions conditions = build(and(
+        new IsNullPredicate(column("NAME")),
+        new IsNotNullPredicate(column("ID"))));
+
+    // Then:
+    assertThat(conditions.test(NAME, null), is(true));
+    assertThat(conditions.test(NAME, "a"), is(false));
+    assertThat(conditions.test(ID, 1L), is(true));
+    assertThat(conditions.test(ID, null), is(false));
+  }
+
+  @Test
+  public void shouldPushDownBetween() {
+    // When:
+    final FieldConditions conditions = build(new BetweenPredicate(
+        column("COUNT"), new IntegerLiteral(1), new IntegerLiteral(3)));
+
+    // Then:
+    assertThat(conditions.test(COUNT, 1), is(true));
+    assertThat(conditions.test(COUNT, 3), is(true));
+    assertThat(conditions.test(COUNT, 4), is(false));
+    assertThat(conditions.test(COUNT, null), is(false));
+  }
+
+  @Test
+  public void shouldNotPushDownOr() {
+    // When:
+    final RecordFilter filter = RecordFilterBuilder.build(
+        LogicalBinaryExpression.or(
+            comparison(ComparisonExpression.Type.EQUAL, column("ID"), new IntegerLiteral(1)),
+            comparison(ComparisonExpression.Type.EQUAL, column("COUNT"), new IntegerLiteral(1))),
+        SCHEMA);
+
+    // Then:
+    assertThat(filter.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldOnlyPushDownSupportedConjuncts() {
+    // When:
+    final RecordFilter filter = RecordFilterBuilder.build(
+        and(
+            comparison(ComparisonExpression.Type.EQUAL, column("ID"), column("COUNT")),
+            and(
+                comparison(ComparisonExpression.Type.EQUAL, column("NAME"), new IntegerLiteral(1)),
+                comparison(ComparisonExpression.Type.EQUAL, column("PRICE"), new IntegerLiteral(1))
+            )),
+        SCHEMA);
+
+    // Then:
+    assertThat(filter.getColumns(), containsInAnyOrder("PRICE"));
+  }
+
+  @Test
+  public void shouldIgnoreColumnsNotInValueSchema() {
+    // When:
+    final RecordFilter filter = RecordFilterBuilder.build(
+        comparison(ComparisonExpression.Type.EQUAL, column("ROWTIME"), new IntegerLiteral(1)),
+        SCHEMA);
+
+    // Then:
+    assertThat(filter.isEmpty(), is(true));
+  }
+
+  private static FieldConditions build(final Expression filter) {
+    return RecordFilterBuilder.build(filter, SCHEMA).forFields(SCHEMA);
+  }
+
+  private static Expression column(final String name) {
+    return new DereferenceExpression(new QualifiedNameReference(QualifiedName.of("T")), name);
+  }
+
+  private static Expression comparison(
+      final ComparisonExpression.Type type,
+      final Expression left,
+      final Expression right) {
+    return new ComparisonExpression(type, left, right);
+  }
+
+  private static Expression and(final Expression left, final Expression right) {
+    return LogicalBinaryExpression.and(left, right);
+  }
+}
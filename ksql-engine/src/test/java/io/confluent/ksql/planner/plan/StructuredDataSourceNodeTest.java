@@ -24,12 +24,17 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.InternalFunctionRegistry;
@@ -39,9 +44,17 @@ import io.confluent.ksql.logging.processing.ProcessingLoggerUtil;
 import io.confluent.ksql.metastore.KsqlStream;
 import io.confluent.ksql.metastore.KsqlTable;
 import io.confluent.ksql.metastore.KsqlTopic;
+import io.confluent.ksql.metastore.StructuredDataSource;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.RecordFilter;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.TestServiceContext;
@@ -57,6 +70,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -90,8 +104,14 @@ import org.mockito.junit.MockitoRule;
 
 public class StructuredDataSourceNodeTest {
   private static final String TIMESTAMP_FIELD = "timestamp";
+  private static final Expression FIELD2_FILTER = new ComparisonExpression(
+      ComparisonExpression.Type.EQUAL,
+      new DereferenceExpression(new QualifiedNameReference(QualifiedName.of("T")), "field2"),
+      new StringLiteral("x"));
 
   private final KsqlConfig realConfig = new KsqlConfig(Collections.emptyMap());
+  private final KsqlConfig pruningConfig = new KsqlConfig(ImmutableMap.of(
+      KsqlConfig.KSQL_SOURCE_COLUMN_PRUNING_CONFIG, true));
   private SchemaKStream realStream;
   private StreamsBuilder realBuilder;
   private final Schema realSchema = SchemaBuilder.struct()
@@ -117,6 +137,8 @@ public class StructuredDataSourceNodeTest {
   @Mock
   private KsqlTable tableSource;
   @Mock
+  private KsqlStream streamSource;
+  @Mock
   private TimestampExtractionPolicy timestampExtractionPolicy;
   @Mock
   private TimestampExtractor timestampExtractor;
@@ -164,6 +186,9 @@ public class StructuredDataSourceNodeTest {
     when(tableSource.getDataSourceType()).thenReturn(DataSourceType.KTABLE);
     when(tableSource.getKeySerde()).thenReturn(keySerde);
     when(tableSource.getTimestampExtractionPolicy()).thenReturn(timestampExtractionPolicy);
+    when(streamSource.getKsqlTopic()).thenReturn(ksqlTopic);
+    when(streamSource.getDataSourceType()).thenReturn(DataSourceType.KSTREAM);
+    when(streamSource.getTimestampExtractionPolicy()).thenReturn(timestampExtractionPolicy);
     when(ksqlTopic.getKafkaTopicName()).thenReturn("topic");
     when(ksqlTopic.getKsqlTopicSerDe()).thenReturn(topicSerDe);
     when(topicSerDe.getGenericRowSerde(
@@ -217,6 +242,130 @@ public class StructuredDataSourceNodeTest {
     verify(kGroupedStream).aggregate(any(), any(), same(materialized));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldOnlyDecodeRequiredKeyAndTimestampColumns() {
+    // Given:
+    when(tableSource.getKeyField()).thenReturn(realSchema.field("key"));
+    final StructuredDataSourceNode node = nodeWithMockTableSource(
+        Optional.of(ImmutableSet.of("field1")));
+
+    // When:
+    node.buildStream(
+        streamsBuilder,
+        pruningConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    );
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        same(pruningConfig),
+        eq(false),
+        any(Supplier.class),
+        anyString(),
+        same(processingLogContext),
+        eq(ImmutableSet.of("field1", TIMESTAMP_FIELD, "key")),
+        same(RecordFilter.acceptAll()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldDecodeAllColumnsByDefault() {
+    // Given:
+    final StructuredDataSourceNode node = nodeWithMockTableSource(
+        Optional.of(ImmutableSet.of("field1")));
+
+    // When:
+    node.buildStream(
+        streamsBuilder,
+        realConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    );
+
+    // Then:
+    verify(topicSerDe, never()).getGenericRowSerde(
+        any(), any(), anyBoolean(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldPassFilterToStreamDeserializerIfPushdownEnabled() {
+    // Given:
+    final KsqlConfig config = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_SOURCE_COLUMN_PRUNING_CONFIG, true,
+        KsqlConfig.KSQL_SOURCE_FILTER_PUSHDOWN_CONFIG, true));
+    final StructuredDataSourceNode node = nodeWithMockSource(
+        streamSource, Optional.of(FIELD2_FILTER));
+
+    // When:
+    node.buildValueSerde(config, serviceContext, processingLogContext, queryId);
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        same(config),
+        eq(false),
+        any(Supplier.class),
+        anyString(),
+        same(processingLogContext),
+        eq(ImmutableSet.of("field1", TIMESTAMP_FIELD)),
+        argThat(filter -> filter.getColumns().equals(ImmutableSet.of("field2"))));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotPassFilterToStreamDeserializerByDefault() {
+    // Given:
+    final StructuredDataSourceNode node = nodeWithMockSource(
+        streamSource, Optional.of(FIELD2_FILTER));
+
+    // When:
+    node.buildValueSerde(pruningConfig, serviceContext, processingLogContext, queryId);
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        same(pruningConfig),
+        eq(false),
+        any(Supplier.class),
+        anyString(),
+        same(processingLogContext),
+        eq(ImmutableSet.of("field1", TIMESTAMP_FIELD)),
+        same(RecordFilter.acceptAll()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotPassFilterToTableDeserializer() {
+    // Given:
+    final KsqlConfig config = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_SOURCE_COLUMN_PRUNING_CONFIG, true,
+        KsqlConfig.KSQL_SOURCE_FILTER_PUSHDOWN_CONFIG, true));
+    final StructuredDataSourceNode node = nodeWithMockSource(
+        tableSource, Optional.of(FIELD2_FILTER));
+
+    // When:
+    node.buildValueSerde(config, serviceContext, processingLogContext, queryId);
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        same(config),
+        eq(false),
+        any(Supplier.class),
+        anyString(),
+        same(processingLogContext),
+        eq(ImmutableSet.of("field1", TIMESTAMP_FIELD)),
+        same(RecordFilter.acceptAll()));
+  }
+
   @Test
   public void shouldCreateLoggerForSourceSerde() {
     assertThat(
@@ -351,4 +500,27 @@ public class StructuredDataSourceNodeTest {
         realSchema,
         materializedFactorySupplier);
   }
+
+  private StructuredDataSourceNode nodeWithMockTableSource(
+      final Optional<Set<String>> requiredColumns) {
+    return new StructuredDataSourceNode(
+        realNodeId,
+        tableSource,
+        realSchema,
+        materializedFactorySupplier,
+        requiredColumns,
+        Optional.empty());
+  }
+
+  private StructuredDataSourceNode nodeWithMockSource(
+      final StructuredDataSource source,
+      final Optional<Expression> filter) {
+    return new StructuredDataSourceNode(
+        realNodeId,
+        source,
+        realSchema,
+        materializedFactorySupplier,
+        Optional.of(ImmutableSet.of("field1")),
+        filter);
+  }
 }
@@ -16,6 +16,7 @@
 package io.confluent.ksql.structured;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 
 import com.google.common.collect.ImmutableList;
@@ -24,6 +25,7 @@ import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedName;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.serde.groupby.GroupByKey;
 import io.confluent.ksql.util.ExpressionMetadata;
 import java.util.Collections;
 import org.easymock.EasyMock;
@@ -71,10 +73,11 @@ public class GroupByMapperTest {
     EasyMock.replay(groupBy0, groupBy1);
 
     // When:
-    final String result = mapper.apply("key", row);
+    final GroupByKey result = mapper.apply("key", row);
 
     // Then:
-    assertThat(result, is("result0|+|result1"));
+    assertThat(result, is(new GroupByKey("result0", "result1")));
+    assertThat(result.toString(), is("result0|+|result1"));
   }
 
   @Test
@@ -85,10 +88,11 @@ public class GroupByMapperTest {
     EasyMock.replay(groupBy0, groupBy1);
 
     // When:
-    final String result = mapper.apply("key", row);
+    final GroupByKey result = mapper.apply("key", row);
 
     // Then:
-    assertThat(result, is("null|+|result1"));
+    assertThat(result, is(new GroupByKey(null, "result1")));
+    assertThat(result.toString(), is("null|+|result1"));
   }
 
   @Test
@@ -99,10 +103,26 @@ public class GroupByMapperTest {
     EasyMock.replay(groupBy0, groupBy1);
 
     // When:
-    final String result = mapper.apply("key", row);
+    final GroupByKey result = mapper.apply("key", row);
 
     // Then:
-    assertThat(result, is("null|+|result1"));
+    assertThat(result, is(new GroupByKey(null, "result1")));
+    assertThat(result.toString(), is("null|+|result1"));
+  }
+
+  @Test
+  public void shouldKeepValueTypes() {
+    // Given:
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn(10L);
+    EasyMock.expect(groupBy1.evaluate(row)).andReturn(true);
+    EasyMock.replay(groupBy0, groupBy1);
+
+    // When:
+    final GroupByKey result = mapper.apply("key", row);
+
+    // Then:
+    assertThat(result.getValues(), contains(10L, true));
+    assertThat(result.toString(), is("10|+|true"));
   }
 
   @Test
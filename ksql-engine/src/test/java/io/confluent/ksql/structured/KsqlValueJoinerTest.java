@@ -74,4 +74,37 @@ public class KsqlValueJoinerTest {
     final List<Object> expected = Arrays.asList(null, null, 20L, "baz");
     assertEquals(expected, joined.getColumns());
   }
+
+  @Test
+  public void shouldReadColumnsOfBothRows() {
+    final SchemaKStream.KsqlValueJoiner joiner = new SchemaKStream.KsqlValueJoiner(leftSchema,
+                                                                             rightSchema);
+
+    final GenericRow joined = joiner.apply(leftRow, rightRow);
+    assertEquals(4, joined.size());
+    assertEquals("foobar", joined.get(1));
+    assertEquals(20L, joined.get(2));
+  }
+
+  @Test
+  public void shouldNotChangeJoinedRowsWhenJoinedRowIsChanged() {
+    final SchemaKStream.KsqlValueJoiner joiner = new SchemaKStream.KsqlValueJoiner(leftSchema,
+                                                                             rightSchema);
+
+    final GenericRow joined = joiner.apply(leftRow, rightRow);
+    joined.set(1, "changed");
+    joined.set(3, "changed");
+
+    assertEquals(Arrays.asList(12L, "changed", 20L, "changed"), joined.getColumns());
+    assertEquals(Arrays.asList(12L, "foobar"), leftRow.getColumns());
+    assertEquals(Arrays.asList(20L, "baz"), rightRow.getColumns());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void shouldThrowOnColumnOutOfRange() {
+    final SchemaKStream.KsqlValueJoiner joiner = new SchemaKStream.KsqlValueJoiner(leftSchema,
+                                                                             rightSchema);
+
+    joiner.apply(leftRow, null).get(4);
+  }
 }
@@ -35,6 +35,8 @@ import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.serde.groupby.GroupByKeySerde;
+import io.confluent.ksql.serde.groupby.StringKeySerde;
 import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
@@ -108,7 +110,8 @@ public class SchemaKGroupedStreamTest {
   @Before
   public void setUp() {
     schemaGroupedStream = new SchemaKGroupedStream(
-        schema, groupedStream, keyField, sourceStreams, config, funcRegistry, materializedFactory);
+        schema, groupedStream, keyField, Serdes.String(), sourceStreams, config, funcRegistry,
+        materializedFactory);
 
     when(windowStartFunc.getFunctionName()).thenReturn("WindowStart");
     when(windowEndFunc.getFunctionName()).thenReturn("WindowEnd");
@@ -197,6 +200,26 @@ public class SchemaKGroupedStreamTest {
         is(instanceOf(WindowedSerdes.timeWindowedSerdeFrom(String.class).getClass())));
   }
 
+  @Test
+  public void shouldUseBinaryKeySerdeForStateStoreAndStringFormForSink() {
+    // Given:
+    schemaGroupedStream = new SchemaKGroupedStream(
+        schema, groupedStream, keyField, new GroupByKeySerde(), sourceStreams, config,
+        funcRegistry, materializedFactory);
+    when(groupedStream.aggregate(any(), any(), any())).thenReturn(table);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream
+        .aggregate(initializer, emptyMap(), emptyMap(), null, topicValueSerDe, queryContext);
+
+    // Then:
+    verify(materializedFactory).create(
+        any(GroupByKeySerde.class),
+        same(topicValueSerDe),
+        eq(StreamsUtil.buildOpName(queryContext.getQueryContext())));
+    assertThat(result.getKeySerde(), is(instanceOf(StringKeySerde.class)));
+  }
+
   private void assertDoesNotInstallWindowSelectMapper(
       final WindowExpression windowExp,
       final Map<Integer, KsqlAggregateFunction> funcMap) {
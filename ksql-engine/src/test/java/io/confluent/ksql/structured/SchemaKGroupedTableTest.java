@@ -208,6 +208,7 @@ public class SchemaKGroupedTableTest {
         schema,
         kGroupedTable,
         schema.fields().get(0),
+        Serdes.String(),
         Collections.emptyList(),
         ksqlConfig,
         functionRegistry,
@@ -47,6 +47,8 @@ import io.confluent.ksql.planner.plan.FilterNode;
 import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.planner.plan.ProjectNode;
 import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.serde.groupby.GroupByKeySerde;
+import io.confluent.ksql.serde.groupby.StringKeySerde;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.streams.GroupedFactory;
 import io.confluent.ksql.streams.JoinedFactory;
@@ -100,7 +102,7 @@ public class SchemaKStreamTest {
   private final MockSchemaRegistryClient schemaRegistryClient = new MockSchemaRegistryClient();
   private SchemaKStream initialSchemaKStream;
 
-  private final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+  private KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
   private final MetaStore metaStore = MetaStoreFixture.getNewMetaStore(new InternalFunctionRegistry());
 
   private final Grouped grouped = Grouped.with(
@@ -144,7 +146,7 @@ public class SchemaKStreamTest {
         Consumed.with(Serdes.String(),
         getRowSerde(ksqlStream.getKsqlTopic(), ksqlStream.getSchema())));
 
-    when(mockGroupedFactory.create(anyString(), any(StringSerde.class), any(Serde.class)))
+    when(mockGroupedFactory.create(anyString(), any(Serde.class), any(Serde.class)))
         .thenReturn(grouped);
 
     final KsqlStream secondKsqlStream = (KsqlStream) metaStore.getSource("ORDERS");
@@ -310,6 +312,35 @@ public class SchemaKStreamTest {
         .assertSame(projectedSchemaKStream.getSourceSchemaKStreams().get(0), initialSchemaKStream);
   }
 
+  @Test
+  public void shouldFuseFilterAndSelect() {
+    // Given:
+    final PlanNode logicalPlan = givenInitialKStreamOf(
+        "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;");
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSource();
+    final QueryContext.Stacker filterContextStacker = queryContext.push("filter");
+
+    // When:
+    final SchemaKStream projectedSchemaKStream = initialSchemaKStream.filterAndSelect(
+        filterNode.getPredicate(),
+        filterContextStacker,
+        projectNode.getProjectSelectExpressions(),
+        childContextStacker,
+        processingLogContext);
+
+    // Then:
+    assertThat(projectedSchemaKStream.getType(), is(Type.PROJECT));
+    assertThat(projectedSchemaKStream.getSchema().fields().size(), is(3));
+    assertThat(projectedSchemaKStream.getSchema().field("COL0").schema().type(),
+        is(Schema.Type.INT64));
+    final SchemaKStream filteredSchemaKStream =
+        (SchemaKStream) projectedSchemaKStream.getSourceSchemaKStreams().get(0);
+    assertThat(filteredSchemaKStream.getType(), is(Type.FILTER));
+    assertThat(filteredSchemaKStream.getSchema(), is(initialSchemaKStream.getSchema()));
+    Assert.assertSame(filteredSchemaKStream.getSourceSchemaKStreams().get(0), initialSchemaKStream);
+  }
+
   @Test
   public void testFilter() {
     final PlanNode logicalPlan = givenInitialKStreamOf(
@@ -465,11 +496,40 @@ public class SchemaKStreamTest {
     // Then:
     verify(mockGroupedFactory).create(
         eq(StreamsUtil.buildOpName(childContextStacker.getQueryContext())),
-        any(StringSerde.class),
+        any(GroupByKeySerde.class),
         same(leftSerde));
     verify(mockKStream).groupBy(any(KeyValueMapper.class), same(grouped));
   }
 
+  @Test
+  public void shouldRepartitionByStringKeyIfBinaryKeyDisabled() {
+    // Given:
+    ksqlConfig = new KsqlConfig(
+        Collections.singletonMap(KsqlConfig.KSQL_GROUP_BY_BINARY_KEY_CONFIG, false));
+    when(mockKStream.filter(any(Predicate.class))).thenReturn(mockKStream);
+    when(mockKStream.groupBy(any(KeyValueMapper.class), any(Grouped.class)))
+        .thenReturn(mock(KGroupedStream.class));
+    final Expression col0Expression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of(ksqlStream.getName())), "COL0");
+    final Expression col1Expression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of(ksqlStream.getName())), "COL1");
+    initialSchemaKStream =
+        buildSchemaKStream(mockKStream, mockGroupedFactory, mockJoinedFactory);
+
+    // When:
+    final SchemaKGroupedStream groupedSchemaKStream = initialSchemaKStream.groupBy(
+        leftSerde,
+        Arrays.asList(col1Expression, col0Expression),
+        childContextStacker);
+
+    // Then:
+    verify(mockGroupedFactory).create(
+        eq(StreamsUtil.buildOpName(childContextStacker.getQueryContext())),
+        any(StringKeySerde.class),
+        same(leftSerde));
+    assertThat(groupedSchemaKStream.getSinkKeySerde(), instanceOf(StringSerde.class));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void shouldPerformStreamToStreamLeftJoin() {
@@ -44,6 +44,7 @@ import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.planner.plan.ProjectNode;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.groupby.GroupByKey;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.streams.GroupedFactory;
 import io.confluent.ksql.streams.JoinedFactory;
@@ -404,11 +405,12 @@ public class SchemaKTableTest {
     verify(mockKTable, mockKGroupedTable);
     final KeyValueMapper keySelector = capturedKeySelector.getValue();
     final GenericRow value = new GenericRow(Arrays.asList("key", 0, 100, "foo", "bar"));
-    final KeyValue<String, GenericRow> keyValue =
-        (KeyValue<String, GenericRow>) keySelector.apply("key", value);
+    final KeyValue<GroupByKey, GenericRow> keyValue =
+        (KeyValue<GroupByKey, GenericRow>) keySelector.apply("key", value);
 
     // Validate that the captured mapper produces the correct key
-    assertThat(keyValue.key, equalTo("bar|+|foo"));
+    assertThat(keyValue.key, equalTo(new GroupByKey("bar", "foo")));
+    assertThat(keyValue.key.toString(), equalTo("bar|+|foo"));
     assertThat(keyValue.value, equalTo(value));
   }
 
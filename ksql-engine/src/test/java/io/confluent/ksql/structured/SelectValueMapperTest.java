@@ -19,6 +19,9 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.confluent.ksql.GenericRow;
@@ -29,17 +32,19 @@ import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema;
 import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.planner.plan.FilterNode;
 import io.confluent.ksql.planner.plan.PlanNode;
 import io.confluent.ksql.planner.plan.ProjectNode;
 import io.confluent.ksql.testutils.AnalysisTestUtil;
-import io.confluent.ksql.util.ExpressionMetadata;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.MetaStoreFixture;
+import io.confluent.ksql.util.ProjectionMetadata;
 import io.confluent.ksql.util.SelectExpression;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
@@ -59,6 +64,8 @@ public class SelectValueMapperTest {
 
   @Mock
   private ProcessingLogger processingLogger;
+  @Mock
+  private ProcessingLogger filterProcessingLogger;
 
   @Rule
   public final MockitoRule mockitoRule = MockitoJUnit.rule();
@@ -91,6 +98,79 @@ public class SelectValueMapperTest {
     assertThat(row, is(genericRow(2L, "foo", "whatever", 7.0F)));
   }
 
+  @Test
+  public void shouldContinueWithOtherColumnsIfOneFails() {
+    // Given:
+    final SelectValueMapper selectMapper = givenSelectMapperFor(
+        "SELECT col0, CEIL(col3), col2, col3 * 2 FROM test1 WHERE col0 > 100;");
+
+    // When:
+    final GenericRow row = selectMapper.apply(
+        genericRow(1521834663L, "key1", 2L, "foo", "whatever", null, "boo", "hoo"));
+
+    // Then:
+    assertThat(row, is(genericRow(2L, null, "whatever", null)));
+    verify(processingLogger, times(2)).error(any());
+  }
+
+  @Test
+  public void shouldReturnRowOfProjectedArity() {
+    // Given:
+    final SelectValueMapper selectMapper = givenSelectMapperFor(
+        "SELECT col0, col2 FROM test1 WHERE col0 > 100;");
+
+    // When:
+    final GenericRow row = selectMapper.apply(
+        genericRow(1521834663L, "key1", 2L, "foo", "whatever", 6.9F, "boo", "hoo"));
+
+    // Then:
+    assertThat(row.size(), is(2));
+    row.set(1, "changed");
+    assertThat(row, is(genericRow(2L, "changed")));
+  }
+
+  @Test
+  public void shouldOnlyProjectRowsMatchingFilter() {
+    // Given:
+    final SelectValueMapper selectMapper = givenFilteredSelectMapperFor(
+        "SELECT col0, col2 FROM test1 WHERE col0 > 100;");
+
+    // When:
+    final GenericRow matching = selectMapper.apply(
+        genericRow(1521834663L, "key1", 101L, "foo", "whatever", 6.9F, "boo", "hoo"));
+    final GenericRow notMatching = selectMapper.apply(
+        genericRow(1521834663L, "key1", 100L, "foo", "whatever", 6.9F, "boo", "hoo"));
+
+    // Then:
+    assertThat(matching, is(genericRow(101L, "whatever")));
+    assertThat(notMatching, is(nullValue()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldWriteFilterErrorsToFilterProcessingLog() {
+    // Given:
+    final SelectValueMapper selectMapper = givenFilteredSelectMapperFor(
+        "SELECT col0, col2 FROM test1 WHERE CEIL(col3) > 1.0;");
+
+    // When:
+    final GenericRow row = selectMapper.apply(
+        genericRow(1521834663L, "key1", 2L, "foo", "whatever", null, "boo", "hoo"));
+
+    // Then:
+    assertThat(row, is(nullValue()));
+    verify(processingLogger, never()).error(any());
+    final ArgumentCaptor<Function<ProcessingLogConfig, SchemaAndValue>> captor
+        = ArgumentCaptor.forClass(Function.class);
+    verify(filterProcessingLogger).error(captor.capture());
+    final Struct errorStruct = ((Struct) captor.getValue()
+        .apply(new ProcessingLogConfig(Collections.emptyMap())).value())
+        .getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR);
+    assertThat(
+        errorStruct.get(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE),
+        equalTo("Error evaluating predicate (CEIL(TEST1.COL3) > 1.0): null"));
+  }
+
   @Test
   public void shouldHandleNullRows() {
     // Given:
@@ -141,18 +221,45 @@ public class SelectValueMapperTest {
     final ProjectNode projectNode = (ProjectNode) planNode.getSources().get(0);
     final Schema schema = planNode.getTheSourceNode().getSchema();
     final List<SelectExpression> selectExpressions = projectNode.getProjectSelectExpressions();
-    final List<ExpressionMetadata> metadata = createExpressionMetadata(selectExpressions, schema);
+    final ProjectionMetadata projection = createProjection(selectExpressions, schema);
     final List<String> selectFieldNames = selectExpressions.stream()
         .map(SelectExpression::getName)
         .collect(Collectors.toList());
     return new SelectValueMapper(
         selectFieldNames,
-        metadata,
+        projection,
         processingLogger
     );
   }
 
-  private List<ExpressionMetadata> createExpressionMetadata(
+  private SelectValueMapper givenFilteredSelectMapperFor(final String query) {
+    final PlanNode planNode = AnalysisTestUtil.buildLogicalPlan(query, metaStore);
+    final ProjectNode projectNode = (ProjectNode) planNode.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSource();
+    final Schema schema = planNode.getTheSourceNode().getSchema();
+    final List<SelectExpression> selectExpressions = projectNode.getProjectSelectExpressions();
+    final ProjectionMetadata projection = createProjection(
+        Optional.of(filterNode.getPredicate()), selectExpressions, schema);
+    final List<String> selectFieldNames = selectExpressions.stream()
+        .map(SelectExpression::getName)
+        .collect(Collectors.toList());
+    return new SelectValueMapper(
+        selectFieldNames,
+        projection,
+        filterProcessingLogger,
+        processingLogger
+    );
+  }
+
+  private ProjectionMetadata createProjection(
+      final List<SelectExpression> selectExpressions,
+      final Schema schema
+  ) {
+    return createProjection(Optional.empty(), selectExpressions, schema);
+  }
+
+  private ProjectionMetadata createProjection(
+      final Optional<Expression> filterExpression,
       final List<SelectExpression> selectExpressions,
       final Schema schema
   ) {
@@ -160,12 +267,12 @@ public class SelectValueMapperTest {
       final CodeGenRunner codeGenRunner = new CodeGenRunner(
           schema, ksqlConfig, new InternalFunctionRegistry());
 
-      final List<ExpressionMetadata> expressionEvaluators = new ArrayList<>();
-      for (final SelectExpression expressionPair : selectExpressions) {
-        expressionEvaluators
-            .add(codeGenRunner.buildCodeGenFromParseTree(expressionPair.getExpression(), "Select"));
-      }
-      return expressionEvaluators;
+      return codeGenRunner.buildProjection(
+          filterExpression,
+          selectExpressions.stream()
+              .map(SelectExpression::getExpression)
+              .collect(Collectors.toList()),
+          "Select");
     } catch (final Exception e) {
       throw new AssertionError("Invalid test", e);
     }
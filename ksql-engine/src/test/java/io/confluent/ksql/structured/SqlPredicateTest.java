@@ -36,6 +36,7 @@ import java.util.Collections;
 import java.util.function.Function;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.streams.kstream.Predicate;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -104,6 +105,23 @@ public class SqlPredicateTest {
     assertThat(sqlPredicate.getPredicate().test("key", null), is(false));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldEvaluateEveryPredicateBuilt() {
+    // Given:
+    final SqlPredicate sqlPredicate =
+        givenSqlPredicateFor("SELECT col0 FROM test1 WHERE col0 > 100;");
+    final GenericRow row = new GenericRow(0L, "key", 101L, "foo", "bar", 1.0, false);
+
+    // When:
+    final Predicate<Object, GenericRow> first = sqlPredicate.getPredicate();
+    final Predicate<Object, GenericRow> second = sqlPredicate.getPredicate();
+
+    // Then:
+    assertThat(first.test("key", row), is(true));
+    assertThat(second.test("key", row), is(true));
+  }
+
   @Test
   public void shouldWriteProcessingLogOnError() {
     // Given:
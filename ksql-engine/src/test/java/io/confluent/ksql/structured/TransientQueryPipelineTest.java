@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.planner.plan.FilterNode;
+import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.planner.plan.PlanNode;
+import io.confluent.ksql.planner.plan.ProjectNode;
+import io.confluent.ksql.testutils.AnalysisTestUtil;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.MetaStoreFixture;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.TimestampExtractor;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class TransientQueryPipelineTest {
+
+  private static final String TOPIC = "test1_topic";
+  private static final byte[] KEY_BYTES = {1};
+  private static final byte[] VALUE_BYTES = {2};
+  private static final long TIMESTAMP = 1234L;
+
+  private final MetaStore metaStore =
+      MetaStoreFixture.getNewMetaStore(new InternalFunctionRegistry());
+  private final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+  private final BlockingQueue<KeyValue<String, GenericRow>> rowQueue =
+      new LinkedBlockingQueue<>();
+  private final ConsumerRecord<byte[], byte[]> record =
+      new ConsumerRecord<>(TOPIC, 0, 0L, KEY_BYTES, VALUE_BYTES);
+
+  @Mock
+  private Deserializer<String> keyDeserializer;
+  @Mock
+  private Deserializer<GenericRow> valueDeserializer;
+  @Mock
+  private TimestampExtractor timestampExtractor;
+  @Mock
+  private ProcessingLogger filterProcessingLogger;
+  @Mock
+  private ProcessingLogger projectProcessingLogger;
+  @Mock
+  private OutputNode.Callback callback;
+  @Captor
+  private ArgumentCaptor<ConsumerRecord<Object, Object>> recordCaptor;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private TransientQueryPipeline pipeline;
+
+  @Before
+  public void setUp() {
+    when(keyDeserializer.deserialize(TOPIC, KEY_BYTES)).thenReturn("42");
+    when(timestampExtractor.extract(any(), anyLong())).thenReturn(TIMESTAMP);
+    when(callback.shouldQueue()).thenReturn(true);
+
+    pipeline = givenPipelineFor("SELECT ROWTIME, ROWKEY, col0, col2 FROM test1 WHERE col0 > 100;");
+  }
+
+  @Test
+  public void shouldQueueFilteredAndProjectedRow() {
+    // Given:
+    givenValue(101L);
+
+    // When:
+    pipeline.onRecord(record);
+
+    // Then:
+    // ROWKEY is a BIGINT in the test schema, so the key is converted:
+    assertThat(rowQueue.poll(), equalTo(new KeyValue<>(
+        "42",
+        new GenericRow(TIMESTAMP, 42L, 101L, "bar"))));
+    verify(callback).onQueued();
+  }
+
+  @Test
+  public void shouldExtractTimestampFromDeserializedRecord() {
+    // Given:
+    final GenericRow value = givenValue(101L);
+
+    // When:
+    pipeline.onRecord(record);
+
+    // Then:
+    verify(timestampExtractor).extract(recordCaptor.capture(), eq(record.timestamp()));
+    assertThat(recordCaptor.getValue().topic(), is(TOPIC));
+    assertThat(recordCaptor.getValue().key(), is((Object) "42"));
+    assertThat(recordCaptor.getValue().value(), is((Object) value));
+  }
+
+  @Test
+  public void shouldNotQueueRowThatFailsFilter() {
+    // Given:
+    givenValue(100L);
+
+    // When:
+    pipeline.onRecord(record);
+
+    // Then:
+    assertThat(rowQueue, is(empty()));
+    verify(callback, never()).onQueued();
+  }
+
+  @Test
+  public void shouldSkipNullRow() {
+    // Given:
+    when(valueDeserializer.deserialize(TOPIC, VALUE_BYTES)).thenReturn(null);
+
+    // When:
+    pipeline.onRecord(record);
+
+    // Then:
+    assertThat(rowQueue, is(empty()));
+    verify(timestampExtractor, never()).extract(any(), anyLong());
+  }
+
+  @Test
+  public void shouldSkipRowWithNegativeTimestamp() {
+    // Given:
+    givenValue(101L);
+    when(timestampExtractor.extract(any(), anyLong())).thenReturn(-1L);
+
+    // When:
+    pipeline.onRecord(record);
+
+    // Then:
+    assertThat(rowQueue, is(empty()));
+    verify(callback, never()).onQueued();
+  }
+
+  @Test
+  public void shouldNotQueueRowIfCallbackSaysNot() {
+    // Given:
+    givenValue(101L);
+    when(callback.shouldQueue()).thenReturn(false);
+
+    // When:
+    pipeline.onRecord(record);
+
+    // Then:
+    assertThat(rowQueue, is(empty()));
+    verify(callback, never()).onQueued();
+  }
+
+  @Test
+  public void shouldNotProcessRecordsOnceClosed() {
+    // Given:
+    pipeline.close();
+
+    // When:
+    pipeline.onRecord(record);
+
+    // Then:
+    assertThat(rowQueue, is(empty()));
+    verify(valueDeserializer, never()).deserialize(any(), any());
+    verify(callback, never()).onQueued();
+  }
+
+  private GenericRow givenValue(final long col0) {
+    final GenericRow value = new GenericRow(col0, "foo", "bar", 1.0, null, null);
+    when(valueDeserializer.deserialize(TOPIC, VALUE_BYTES)).thenReturn(value);
+    return value;
+  }
+
+  private TransientQueryPipeline givenPipelineFor(final String query) {
+    final PlanNode planNode = AnalysisTestUtil.buildLogicalPlan(query, metaStore);
+    final ProjectNode projectNode = (ProjectNode) planNode.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSource();
+    return new TransientQueryPipeline(
+        keyDeserializer,
+        valueDeserializer,
+        timestampExtractor,
+        planNode.getTheSourceNode().getSchema(),
+        Optional.of(filterNode.getPredicate()),
+        projectNode.getProjectSelectExpressions(),
+        filterProcessingLogger,
+        projectProcessingLogger,
+        ksqlConfig,
+        new InternalFunctionRegistry(),
+        rowQueue,
+        callback
+    );
+  }
+}
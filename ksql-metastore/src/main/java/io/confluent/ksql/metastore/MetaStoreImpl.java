@@ -22,38 +22,45 @@ import io.confluent.ksql.function.UdfFactory;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlReferentialIntegrityException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.concurrent.ThreadSafe;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * The {@link MutableMetaStore} implementation.
+ *
+ * <p>Topics and sources are held in persistent maps, whose entries are never modified once
+ * added: changes replace the entry, leaving any other map that shares it unchanged. Hence a
+ * {@link #copy()} is a constant time snapshot that shares all state with this store, and each
+ * subsequent change to either store copies only the entries it modifies.
+ */
 @ThreadSafe
 public final class MetaStoreImpl implements MutableMetaStore {
 
-  private final Map<String, KsqlTopic> topics = new ConcurrentHashMap<>();
-  private final Map<String, SourceInfo> dataSources = new ConcurrentHashMap<>();
-  private final Object referentialIntegrityLock = new Object();
+  private final Object writeLock = new Object();
   private final FunctionRegistry functionRegistry;
+  private volatile PersistentHashMap<String, KsqlTopic> topics;
+  private volatile PersistentHashMap<String, SourceInfo> dataSources;
 
   public MetaStoreImpl(final FunctionRegistry functionRegistry) {
-    this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
+    this(PersistentHashMap.empty(), PersistentHashMap.empty(), functionRegistry);
   }
 
   private MetaStoreImpl(
-      final Map<String, KsqlTopic> topics,
-      final Map<String, SourceInfo> dataSources,
+      final PersistentHashMap<String, KsqlTopic> topics,
+      final PersistentHashMap<String, SourceInfo> dataSources,
       final FunctionRegistry functionRegistry
   ) {
-    this.topics.putAll(topics);
+    this.topics = Objects.requireNonNull(topics, "topics");
+    this.dataSources = Objects.requireNonNull(dataSources, "dataSources");
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
-
-    dataSources.forEach((name, info) -> this.dataSources.put(name, info.copy()));
   }
 
   @Override
@@ -63,10 +70,13 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public void putTopic(final KsqlTopic topic) {
-    if (topics.putIfAbsent(topic.getName(), topic) != null) {
-      throw new KsqlException(
-          "Cannot add the new topic. Another topic with the same name already exists: "
-          + topic.getName());
+    synchronized (writeLock) {
+      if (topics.containsKey(topic.getName())) {
+        throw new KsqlException(
+            "Cannot add the new topic. Another topic with the same name already exists: "
+                + topic.getName());
+      }
+      topics = topics.put(topic.getName(), topic);
     }
   }
 
@@ -81,7 +91,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public Optional<StructuredDataSource> getSourceForTopic(final String ksqlTopicName) {
-    return dataSources.values()
+    return dataSources.asMap().values()
         .stream()
         .filter(p -> p.source.getKsqlTopic().getName() != null
             && p.source.getKsqlTopic().getName().equals(ksqlTopicName))
@@ -91,63 +101,67 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public void putSource(final StructuredDataSource dataSource) {
-    if (dataSources.putIfAbsent(dataSource.getName(), new SourceInfo(dataSource)) != null) {
-      throw new KsqlException(
-          "Cannot add the new data source. Another data source with the same name already exists: "
-              + dataSource.toString());
+    synchronized (writeLock) {
+      if (dataSources.containsKey(dataSource.getName())) {
+        throw new KsqlException(
+            "Cannot add the new data source. Another data source with the same name already "
+                + "exists: " + dataSource.toString());
+      }
+      dataSources = dataSources.put(dataSource.getName(), new SourceInfo(dataSource));
     }
   }
 
   @Override
   public void deleteTopic(final String topicName) {
-    if (topics.remove(topicName) == null) {
-      throw new KsqlException(String.format("No topic with name %s was registered.", topicName));
+    synchronized (writeLock) {
+      if (!topics.containsKey(topicName)) {
+        throw new KsqlException(String.format("No topic with name %s was registered.", topicName));
+      }
+      topics = topics.remove(topicName);
     }
   }
 
   @Override
   public void deleteSource(final String sourceName) {
-    synchronized (referentialIntegrityLock) {
-      dataSources.compute(sourceName, (ignored, source) -> {
-        if (source == null) {
-          throw new KsqlException(String.format("No data source with name %s exists.", sourceName));
-        }
+    synchronized (writeLock) {
+      final SourceInfo source = dataSources.get(sourceName);
+      if (source == null) {
+        throw new KsqlException(String.format("No data source with name %s exists.", sourceName));
+      }
 
-        final String sourceForQueriesMessage = source.referentialIntegrity
-            .getSourceForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        final String sinkForQueriesMessage = source.referentialIntegrity
-            .getSinkForQueries()
-            .stream()
-            .collect(Collectors.joining(", "));
-
-        if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
-          throw new KsqlReferentialIntegrityException(
-              String.format("Cannot drop %s.%n"
-                      + "The following queries read from this source: [%s].%n"
-                      + "The following queries write into this source: [%s].%n"
-                      + "You need to terminate them before dropping %s.",
-                  sourceName, sourceForQueriesMessage, sinkForQueriesMessage, sourceName));
-        }
+      final String sourceForQueriesMessage = source.referentialIntegrity
+          .getSourceForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      final String sinkForQueriesMessage = source.referentialIntegrity
+          .getSinkForQueries()
+          .stream()
+          .collect(Collectors.joining(", "));
+
+      if (!sourceForQueriesMessage.isEmpty() || !sinkForQueriesMessage.isEmpty()) {
+        throw new KsqlReferentialIntegrityException(
+            String.format("Cannot drop %s.%n"
+                    + "The following queries read from this source: [%s].%n"
+                    + "The following queries write into this source: [%s].%n"
+                    + "You need to terminate them before dropping %s.",
+                sourceName, sourceForQueriesMessage, sinkForQueriesMessage, sourceName));
+      }
 
-        return null;
-      });
+      dataSources = dataSources.remove(sourceName);
     }
   }
 
   @Override
   public Map<String, StructuredDataSource> getAllStructuredDataSources() {
-    return dataSources
-        .entrySet()
-        .stream()
-        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().source));
+    final Map<String, StructuredDataSource> sources = new HashMap<>();
+    dataSources.forEach((name, sourceInfo) -> sources.put(name, sourceInfo.source));
+    return sources;
   }
 
   @Override
   public Map<String, KsqlTopic> getAllKsqlTopics() {
-    return Collections.unmodifiableMap(topics);
+    return topics.asMap();
   }
 
   @Override
@@ -156,7 +170,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
       final Set<String> sourceNames,
       final Set<String> sinkNames
   ) {
-    synchronized (referentialIntegrityLock) {
+    synchronized (writeLock) {
       final String sourceAlreadyRegistered = streamSources(sourceNames)
           .filter(source -> source.referentialIntegrity.getSourceForQueries().contains(queryId))
           .map(source -> source.source.getName())
@@ -174,19 +188,33 @@ public final class MetaStoreImpl implements MutableMetaStore {
             + ", registeredAgainstSink: " + sinkAlreadyRegistered);
       }
 
-      streamSources(sourceNames)
-          .forEach(source -> source.referentialIntegrity.addSourceForQueries(queryId));
-      streamSources(sinkNames)
-          .forEach(source -> source.referentialIntegrity.addSinkForQueries(queryId));
+      // Entries may be shared with copies of this store, so are copied before being modified:
+      final Map<String, SourceInfo> updated = new HashMap<>();
+      streamSources(sourceNames).forEach(source -> updated
+          .computeIfAbsent(source.source.getName(), name -> source.copy())
+          .referentialIntegrity.addSourceForQueries(queryId));
+      streamSources(sinkNames).forEach(source -> updated
+          .computeIfAbsent(source.source.getName(), name -> source.copy())
+          .referentialIntegrity.addSinkForQueries(queryId));
+
+      putAll(updated);
     }
   }
 
   @Override
   public void removePersistentQuery(final String queryId) {
-    synchronized (referentialIntegrityLock) {
-      for (final SourceInfo sourceInfo : dataSources.values()) {
-        sourceInfo.referentialIntegrity.removeQuery(queryId);
-      }
+    synchronized (writeLock) {
+      final Map<String, SourceInfo> updated = new HashMap<>();
+      dataSources.forEach((name, source) -> {
+        if (source.referentialIntegrity.getSourceForQueries().contains(queryId)
+            || source.referentialIntegrity.getSinkForQueries().contains(queryId)) {
+          final SourceInfo copy = source.copy();
+          copy.referentialIntegrity.removeQuery(queryId);
+          updated.put(name, copy);
+        }
+      });
+
+      putAll(updated);
     }
   }
 
@@ -210,7 +238,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
   @Override
   public MutableMetaStore copy() {
-    synchronized (referentialIntegrityLock) {
+    synchronized (writeLock) {
       return new MetaStoreImpl(topics, dataSources, functionRegistry);
     }
   }
@@ -256,6 +284,14 @@ public final class MetaStoreImpl implements MutableMetaStore {
         });
   }
 
+  private void putAll(final Map<String, SourceInfo> sources) {
+    PersistentHashMap<String, SourceInfo> result = dataSources;
+    for (final Map.Entry<String, SourceInfo> e : sources.entrySet()) {
+      result = result.put(e.getKey(), e.getValue());
+    }
+    dataSources = result;
+  }
+
   private static final class SourceInfo {
 
     private final StructuredDataSource source;
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metastore;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable hash map, where {@link #put} and {@link #remove} return a new map that shares all
+ * but the changed path of the trie with the original, i.e. they copy O(log n) nodes rather than
+ * the whole map.
+ *
+ * <p>Implemented as a hash array mapped trie: each level consumes five bits of the key's hash,
+ * and a bitmap per node records which of its 32 possible slots are present. Keys whose hashes
+ * are equal are held in a collision node. Null keys and values are not supported.
+ */
+@Immutable
+final class PersistentHashMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final PersistentHashMap<?, ?> EMPTY =
+      new PersistentHashMap<>(new BitmapNode<>(0, new Object[0]), 0);
+
+  private final Node<K, V> root;
+  private final int size;
+
+  private PersistentHashMap(final Node<K, V> root, final int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean containsKey(final Object key) {
+    return get(key) != null;
+  }
+
+  V get(final Object key) {
+    final Entry<K, V> entry = root.find(hash(key), key, 0);
+    return entry == null ? null : entry.value;
+  }
+
+  PersistentHashMap<K, V> put(final K key, final V value) {
+    Objects.requireNonNull(value, "value");
+    final int hash = hash(key);
+    final boolean exists = root.find(hash, key, 0) != null;
+    final Node<K, V> newRoot = root.put(new Entry<>(hash, key, value), 0);
+    return newRoot == root ? this : new PersistentHashMap<>(newRoot, exists ? size : size + 1);
+  }
+
+  PersistentHashMap<K, V> remove(final Object key) {
+    final Node<K, V> newRoot = root.remove(hash(key), key, 0);
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+  }
+
+  void forEach(final BiConsumer<? super K, ? super V> action) {
+    root.forEach(action);
+  }
+
+  /**
+   * @return an unmodifiable {@link Map} view of this map.
+   */
+  Map<K, V> asMap() {
+    return new MapView();
+  }
+
+  private static int hash(final Object key) {
+    final int h = key.hashCode();
+    // Spread the higher bits, as the trie consumes the hash from its lowest bits:
+    return h ^ (h >>> 16);
+  }
+
+  private static int bitFor(final int hash, final int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private interface Node<K, V> {
+
+    Entry<K, V> find(int hash, Object key, int shift);
+
+    Node<K, V> put(Entry<K, V> entry, int shift);
+
+    /**
+     * @return the node without the key, or {@code null} if the node would be empty.
+     */
+    Node<K, V> remove(int hash, Object key, int shift);
+
+    /**
+     * @return the node's only entry if it has exactly one entry and no child nodes, so that its
+     *     parent can hold the entry directly.
+     */
+    Entry<K, V> singleEntry();
+
+    void forEach(BiConsumer<? super K, ? super V> action);
+  }
+
+  private static final class Entry<K, V> {
+
+    private final int hash;
+    private final K key;
+    private final V value;
+
+    Entry(final int hash, final K key, final V value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private static final class BitmapNode<K, V> implements Node<K, V> {
+
+    private final int bitmap;
+    // Each slot holds either an Entry or a child Node:
+    private final Object[] slots;
+
+    BitmapNode(final int bitmap, final Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Entry<K, V> find(final int hash, final Object key, final int shift) {
+      final int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+
+      final Object slot = slots[index(bit)];
+      if (slot instanceof Node) {
+        return ((Node<K, V>) slot).find(hash, key, shift + BITS);
+      }
+
+      final Entry<K, V> entry = (Entry<K, V>) slot;
+      return entry.key.equals(key) ? entry : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Node<K, V> put(final Entry<K, V> entry, final int shift) {
+      final int bit = bitFor(entry.hash, shift);
+      final int index = index(bit);
+      if ((bitmap & bit) == 0) {
+        final Object[] newSlots = new Object[slots.length + 1];
+        System.arraycopy(slots, 0, newSlots, 0, index);
+        newSlots[index] = entry;
+        System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+        return new BitmapNode<>(bitmap | bit, newSlots);
+      }
+
+      final Object slot = slots[index];
+      final Object newSlot;
+      if (slot instanceof Node) {
+        newSlot = ((Node<K, V>) slot).put(entry, shift + BITS);
+      } else {
+        final Entry<K, V> existing = (Entry<K, V>) slot;
+        if (existing.key.equals(entry.key)) {
+          newSlot = existing.value == entry.value ? existing : entry;
+        } else {
+          newSlot = merge(existing, entry, shift + BITS);
+        }
+      }
+
+      return newSlot == slot ? this : withSlot(index, newSlot);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Node<K, V> remove(final int hash, final Object key, final int shift) {
+      final int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      final int index = index(bit);
+      final Object slot = slots[index];
+      if (slot instanceof Node) {
+        final Node<K, V> child = (Node<K, V>) slot;
+        final Node<K, V> newChild = child.remove(hash, key, shift + BITS);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild == null) {
+          return withoutSlot(bit, index);
+        }
+        final Entry<K, V> single = newChild.singleEntry();
+        return withSlot(index, single == null ? newChild : single);
+      }
+
+      final Entry<K, V> entry = (Entry<K, V>) slot;
+      if (!entry.key.equals(key)) {
+        return this;
+      }
+      return withoutSlot(bit, index);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Entry<K, V> singleEntry() {
+      return slots.length == 1 && slots[0] instanceof Entry ? (Entry<K, V>) slots[0] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+      for (final Object slot : slots) {
+        if (slot instanceof Node) {
+          ((Node<K, V>) slot).forEach(action);
+        } else {
+          final Entry<K, V> entry = (Entry<K, V>) slot;
+          action.accept(entry.key, entry.value);
+        }
+      }
+    }
+
+    private int index(final int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode<K, V> withSlot(final int index, final Object slot) {
+      final Object[] newSlots = slots.clone();
+      newSlots[index] = slot;
+      return new BitmapNode<>(bitmap, newSlots);
+    }
+
+    private BitmapNode<K, V> withoutSlot(final int bit, final int index) {
+      if (slots.length == 1) {
+        return null;
+      }
+      final Object[] newSlots = new Object[slots.length - 1];
+      System.arraycopy(slots, 0, newSlots, 0, index);
+      System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+      return new BitmapNode<>(bitmap & ~bit, newSlots);
+    }
+
+    private static <K, V> Node<K, V> merge(
+        final Entry<K, V> first,
+        final Entry<K, V> second,
+        final int shift
+    ) {
+      if (first.hash == second.hash) {
+        return new CollisionNode<>(first.hash, Arrays.asList(first, second));
+      }
+
+      final int firstBit = bitFor(first.hash, shift);
+      final int secondBit = bitFor(second.hash, shift);
+      if (firstBit == secondBit) {
+        return new BitmapNode<>(firstBit, new Object[]{merge(first, second, shift + BITS)});
+      }
+
+      final Object[] slots = Integer.compareUnsigned(firstBit, secondBit) < 0
+          ? new Object[]{first, second}
+          : new Object[]{second, first};
+      return new BitmapNode<>(firstBit | secondBit, slots);
+    }
+  }
+
+  private static final class CollisionNode<K, V> implements Node<K, V> {
+
+    private final int hash;
+    private final List<Entry<K, V>> entries;
+
+    CollisionNode(final int hash, final List<Entry<K, V>> entries) {
+      this.hash = hash;
+      this.entries = entries;
+    }
+
+    @Override
+    public Entry<K, V> find(final int hash, final Object key, final int shift) {
+      if (hash != this.hash) {
+        return null;
+      }
+      for (final Entry<K, V> entry : entries) {
+        if (entry.key.equals(key)) {
+          return entry;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public Node<K, V> put(final Entry<K, V> entry, final int shift) {
+      if (entry.hash != hash) {
+        // Push this node down a level, alongside the new entry:
+        return new BitmapNode<K, V>(bitFor(hash, shift), new Object[]{this}).put(entry, shift);
+      }
+
+      final List<Entry<K, V>> newEntries = new ArrayList<>(entries);
+      for (int i = 0; i < newEntries.size(); i++) {
+        if (newEntries.get(i).key.equals(entry.key)) {
+          newEntries.set(i, entry);
+          return new CollisionNode<>(hash, newEntries);
+        }
+      }
+      newEntries.add(entry);
+      return new CollisionNode<>(hash, newEntries);
+    }
+
+    @Override
+    public Node<K, V> remove(final int hash, final Object key, final int shift) {
+      final Entry<K, V> entry = find(hash, key, shift);
+      if (entry == null) {
+        return this;
+      }
+      final List<Entry<K, V>> newEntries = new ArrayList<>(entries);
+      newEntries.remove(entry);
+      return new CollisionNode<>(hash, newEntries);
+    }
+
+    @Override
+    public Entry<K, V> singleEntry() {
+      return entries.size() == 1 ? entries.get(0) : null;
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super K, ? super V> action) {
+      entries.forEach(entry -> action.accept(entry.key, entry.value));
+    }
+  }
+
+  private final class MapView extends AbstractMap<K, V> {
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+      return PersistentHashMap.this.containsKey(key);
+    }
+
+    @Override
+    public V get(final Object key) {
+      return PersistentHashMap.this.get(key);
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      return new AbstractSet<Map.Entry<K, V>>() {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+          final List<Map.Entry<K, V>> entries = new ArrayList<>(size);
+          PersistentHashMap.this.forEach(
+              (key, value) -> entries.add(new SimpleImmutableEntry<>(key, value)));
+          return Collections.unmodifiableList(entries).iterator();
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+  }
+}
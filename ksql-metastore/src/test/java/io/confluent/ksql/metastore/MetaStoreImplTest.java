@@ -135,6 +135,29 @@ public class MetaStoreImplTest {
     assertThat(metaStore.getQueriesWithSink(dataSource.getName()), is(empty()));
   }
 
+  @Test
+  public void shouldNotChangeOriginalWhenCopyIsModified() {
+    // Given:
+    metaStore.putTopic(topic);
+    metaStore.putSource(dataSource);
+    final MutableMetaStore copy = metaStore.copy();
+
+    // When:
+    copy.updateForPersistentQuery(
+        "query",
+        ImmutableSet.of(dataSource.getName()),
+        ImmutableSet.of(dataSource.getName()));
+    copy.putSource(dataSource1);
+    copy.deleteTopic(topic.getName());
+
+    // Then:
+    assertThat(metaStore.getQueriesWithSource(dataSource.getName()), is(empty()));
+    assertThat(metaStore.getQueriesWithSink(dataSource.getName()), is(empty()));
+    assertThat(metaStore.getAllStructuredDataSources().keySet(), contains(dataSource.getName()));
+    assertThat(metaStore.getAllKsqlTopics().keySet(), contains(topic.getName()));
+    assertThat(copy.getQueriesWithSource(dataSource.getName()), contains("query"));
+  }
+
   @Test
   public void shouldNotAllowModificationViaGetAllStructuredDataSources() {
     // Given:
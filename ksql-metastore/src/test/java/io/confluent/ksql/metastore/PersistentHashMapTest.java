@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metastore;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PersistentHashMapTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private final PersistentHashMap<String, Integer> empty = PersistentHashMap.empty();
+
+  @Test
+  public void shouldPutAndGet() {
+    // When:
+    final PersistentHashMap<String, Integer> map = empty.put("a", 1).put("b", 2);
+
+    // Then:
+    assertThat(map.get("a"), is(1));
+    assertThat(map.get("b"), is(2));
+    assertThat(map.get("c"), is(nullValue()));
+    assertThat(map.size(), is(2));
+  }
+
+  @Test
+  public void shouldNotChangeOriginalOnPut() {
+    // Given:
+    final PersistentHashMap<String, Integer> original = empty.put("a", 1);
+
+    // When:
+    original.put("a", 2).put("b", 3);
+
+    // Then:
+    assertThat(original.get("a"), is(1));
+    assertThat(original.containsKey("b"), is(false));
+    assertThat(original.size(), is(1));
+  }
+
+  @Test
+  public void shouldNotChangeOriginalOnRemove() {
+    // Given:
+    final PersistentHashMap<String, Integer> original = empty.put("a", 1).put("b", 2);
+
+    // When:
+    final PersistentHashMap<String, Integer> removed = original.remove("a");
+
+    // Then:
+    assertThat(original.get("a"), is(1));
+    assertThat(removed.containsKey("a"), is(false));
+    assertThat(removed.size(), is(1));
+  }
+
+  @Test
+  public void shouldReplaceValueWithoutChangingSize() {
+    // When:
+    final PersistentHashMap<String, Integer> map = empty.put("a", 1).put("a", 2);
+
+    // Then:
+    assertThat(map.get("a"), is(2));
+    assertThat(map.size(), is(1));
+  }
+
+  @Test
+  public void shouldReturnSameMapIfNothingChanged() {
+    // Given:
+    final Integer value = 1;
+    final PersistentHashMap<String, Integer> map = empty.put("a", value);
+
+    // Then:
+    assertThat(map.put("a", value), is(sameInstance(map)));
+    assertThat(map.remove("b"), is(sameInstance(map)));
+  }
+
+  @Test
+  public void shouldHandleKeysWithSameHashCode() {
+    // Given:
+    assertThat("Aa".hashCode(), is("BB".hashCode()));
+
+    // When:
+    final PersistentHashMap<String, Integer> map = empty
+        .put("Aa", 1)
+        .put("BB", 2)
+        .put("C#", 3);
+
+    // Then:
+    assertThat(map.get("Aa"), is(1));
+    assertThat(map.get("BB"), is(2));
+    assertThat(map.get("C#"), is(3));
+    assertThat(map.remove("Aa").get("BB"), is(2));
+    assertThat(map.remove("Aa").remove("BB").asMap(), is(ImmutableMap.of("C#", 3)));
+  }
+
+  @Test
+  public void shouldReturnEmptyMapOnceAllKeysRemoved() {
+    // When:
+    final PersistentHashMap<String, Integer> map = empty.put("a", 1).remove("a");
+
+    // Then:
+    assertThat(map, is(sameInstance(empty)));
+  }
+
+  @Test
+  public void shouldMatchHashMapForRandomOperations() {
+    // Given:
+    final Random random = new Random(42);
+    final Map<Integer, Integer> expected = new HashMap<>();
+    PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+
+    // When:
+    for (int i = 0; i < 100_000; i++) {
+      final int key = random.nextInt(5_000) - 2_500;
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.remove(key);
+      } else {
+        expected.put(key, i);
+        map = map.put(key, i);
+      }
+    }
+
+    // Then:
+    assertThat(map.size(), is(expected.size()));
+    assertThat(map.asMap(), is(expected));
+  }
+
+  @Test
+  public void shouldNotAllowModificationViaMapView() {
+    // Given:
+    final Map<String, Integer> view = empty.put("a", 1).asMap();
+
+    // Expect:
+    expectedException.expect(UnsupportedOperationException.class);
+
+    // When:
+    view.keySet().clear();
+  }
+
+  @Test
+  public void shouldThrowOnNullValue() {
+    // Expect:
+    expectedException.expect(NullPointerException.class);
+
+    // When:
+    empty.put("a", null);
+  }
+}
@@ -993,7 +993,7 @@ public class AstBuilder extends SqlBaseBaseVisitor<Node> {
             getLocation(context),
             (Expression) visit(context.value),
             (Expression) visit(context.pattern),
-            null
+            context.escape == null ? null : (Expression) visit(context.escape)
         );
 
     if (context.NOT() != null) {
@@ -112,7 +112,7 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
       final KGroupedStream groupedStream,
       final Initializer initializer,
       final UdafAggregator aggregator,
-      final Materialized<String, GenericRow, ?> materialized
+      final Materialized<?, GenericRow, ?> materialized
   ) {
     final TimeWindows windows = TimeWindows
         .of(Duration.ofMillis(sizeUnit.toMillis(size)))
@@ -127,4 +127,9 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
   public <K> Serde<Windowed<K>> getKeySerde(final Class<K> innerType) {
     return WindowedSerdes.timeWindowedSerdeFrom(innerType);
   }
+
+  @Override
+  public <K> Serde<Windowed<K>> getKeySerde(final Serde<K> innerSerde) {
+    return new WindowedSerdes.TimeWindowedSerde<>(innerSerde);
+  }
 }
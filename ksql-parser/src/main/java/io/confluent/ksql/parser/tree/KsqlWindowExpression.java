@@ -34,7 +34,9 @@ public abstract class KsqlWindowExpression extends Node {
   public abstract KTable applyAggregate(KGroupedStream groupedStream,
                                         Initializer initializer,
                                         UdafAggregator aggregator,
-                                        Materialized<String, GenericRow, ?> materialized);
+                                        Materialized<?, GenericRow, ?> materialized);
 
   public abstract <K> Serde<Windowed<K>> getKeySerde(Class<K> innerType);
+
+  public abstract <K> Serde<Windowed<K>> getKeySerde(Serde<K> innerSerde);
 }
@@ -87,7 +87,7 @@ public class SessionWindowExpression extends KsqlWindowExpression {
   public KTable applyAggregate(final KGroupedStream groupedStream,
                                final Initializer initializer,
                                final UdafAggregator aggregator,
-                               final Materialized<String, GenericRow, ?> materialized) {
+                               final Materialized<?, GenericRow, ?> materialized) {
 
     final SessionWindows windows = SessionWindows.with(Duration.ofMillis(sizeUnit.toMillis(gap)));
 
@@ -100,4 +100,9 @@ public class SessionWindowExpression extends KsqlWindowExpression {
   public <K> Serde<Windowed<K>> getKeySerde(final Class<K> innerType) {
     return WindowedSerdes.sessionWindowedSerdeFrom(innerType);
   }
+
+  @Override
+  public <K> Serde<Windowed<K>> getKeySerde(final Serde<K> innerSerde) {
+    return new WindowedSerdes.SessionWindowedSerde<>(innerSerde);
+  }
 }
@@ -86,7 +86,7 @@ public class TumblingWindowExpression extends KsqlWindowExpression {
   public KTable applyAggregate(final KGroupedStream groupedStream,
                                final Initializer initializer,
                                final UdafAggregator aggregator,
-                               final Materialized<String, GenericRow, ?> materialized) {
+                               final Materialized<?, GenericRow, ?> materialized) {
 
     final TimeWindows windows = TimeWindows.of(Duration.ofMillis(sizeUnit.toMillis(size)));
 
@@ -100,4 +100,9 @@ public class TumblingWindowExpression extends KsqlWindowExpression {
   public <K> Serde<Windowed<K>> getKeySerde(final Class<K> innerType) {
     return WindowedSerdes.timeWindowedSerdeFrom(innerType);
   }
+
+  @Override
+  public <K> Serde<Windowed<K>> getKeySerde(final Serde<K> innerSerde) {
+    return new WindowedSerdes.TimeWindowedSerde<>(innerSerde);
+  }
 }
@@ -49,6 +49,7 @@ import io.confluent.ksql.parser.tree.FunctionCall;
 import io.confluent.ksql.parser.tree.InsertInto;
 import io.confluent.ksql.parser.tree.IntegerLiteral;
 import io.confluent.ksql.parser.tree.Join;
+import io.confluent.ksql.parser.tree.LikePredicate;
 import io.confluent.ksql.parser.tree.ListProperties;
 import io.confluent.ksql.parser.tree.ListQueries;
 import io.confluent.ksql.parser.tree.ListStreams;
@@ -64,6 +65,7 @@ import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.parser.tree.SetProperty;
 import io.confluent.ksql.parser.tree.SingleColumn;
 import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.parser.tree.StringLiteral;
 import io.confluent.ksql.parser.tree.Struct;
 import io.confluent.ksql.parser.tree.Type;
 import io.confluent.ksql.parser.tree.WithinExpression;
@@ -365,6 +367,22 @@ public class KsqlParserTest {
 
   }
 
+  @Test
+  public void shouldParseLikeWithEscape() {
+    // Given:
+    final String queryStr = "SELECT col0 FROM test1 WHERE col1 LIKE 'a!%%' ESCAPE '!';";
+
+    // When:
+    final Query query = (Query) KsqlParserTestUtil.buildSingleAst(queryStr, metaStore)
+        .getStatement();
+
+    // Then:
+    final LikePredicate like = (LikePredicate) ((QuerySpecification) query.getQueryBody())
+        .getWhere().get();
+    assertThat(((StringLiteral) like.getPattern()).getValue(), equalTo("a!%%"));
+    assertThat(((StringLiteral) like.getEscape()).getValue(), equalTo("!"));
+  }
+
   @Test
   public void shouldParseStructFieldAccessCorrectly() {
     final String simpleQuery = "SELECT iteminfo->category->name, address->street FROM orders WHERE address->state = 'CA';";
@@ -44,7 +44,7 @@ public class SessionWindowExpressionTest {
   private final Initializer initializer = () -> 0;
   private final Materialized<String, GenericRow, SessionStore<Bytes, byte[]>> materialized = Materialized.as("store");
   private final Capture<SessionWindows> sessionWindows = EasyMock.newCapture();
-  private final Merger<String, GenericRow> merger = (s, genericRow, v1) -> genericRow;
+  private final Merger<Object, GenericRow> merger = (s, genericRow, v1) -> genericRow;
 
   @SuppressWarnings("unchecked")
   @Test
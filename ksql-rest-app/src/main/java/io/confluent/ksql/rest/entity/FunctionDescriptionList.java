@@ -21,6 +21,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.Optional;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class FunctionDescriptionList extends KsqlEntity {
@@ -32,6 +33,19 @@ public class FunctionDescriptionList extends KsqlEntity {
   private final Collection<FunctionInfo> functions;
   private final String path;
   private final FunctionType type;
+  private final FunctionLatencyInfo latency;
+
+  public FunctionDescriptionList(
+      final String statementText,
+      final String name,
+      final String description,
+      final String author,
+      final String version,
+      final String path,
+      final Collection<FunctionInfo> functions,
+      final FunctionType type) {
+    this(statementText, name, description, author, version, path, functions, type, null);
+  }
 
   @JsonCreator
   public FunctionDescriptionList(
@@ -42,7 +56,8 @@ public class FunctionDescriptionList extends KsqlEntity {
       @JsonProperty("version") final String version,
       @JsonProperty("path") final String path,
       @JsonProperty("functions") final Collection<FunctionInfo> functions,
-      @JsonProperty("type") final FunctionType type) {
+      @JsonProperty("type") final FunctionType type,
+      @JsonProperty("latency") final FunctionLatencyInfo latency) {
     super(statementText);
     this.name = Objects.requireNonNull(name, "name can't be null");
     this.description = Objects.requireNonNull(description, "description can't be null");
@@ -51,6 +66,7 @@ public class FunctionDescriptionList extends KsqlEntity {
     this.path = Objects.requireNonNull(path, "path can't be null");
     this.functions = Objects.requireNonNull(functions, "functions can't be null");
     this.type = Objects.requireNonNull(type, "type can't be null");
+    this.latency = latency;
   }
 
   public Collection<FunctionInfo> getFunctions() {
@@ -81,6 +97,13 @@ public class FunctionDescriptionList extends KsqlEntity {
     return type;
   }
 
+  /**
+   * @return the invocation latency of the function, if UDF metrics are collected for it.
+   */
+  public Optional<FunctionLatencyInfo> getLatency() {
+    return Optional.ofNullable(latency);
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -96,12 +119,13 @@ public class FunctionDescriptionList extends KsqlEntity {
         && Objects.equals(version, that.version)
         && Objects.equals(functions, that.functions)
         && Objects.equals(path, that.path)
-        && Objects.equals(type, that.type);
+        && Objects.equals(type, that.type)
+        && Objects.equals(latency, that.latency);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(name, description, author, version, functions, path, type);
+    return Objects.hash(name, description, author, version, functions, path, type, latency);
   }
 
   @Override
@@ -114,6 +138,7 @@ public class FunctionDescriptionList extends KsqlEntity {
         + ", functions=" + functions
         + ", path='" + path + "'"
         + ", type='" + type.name() + "'"
+        + ", latency=" + latency
         + '}';
   }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The invocation latency of a function, in nanoseconds, as collected by the UDF metrics.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FunctionLatencyInfo {
+
+  private final long invocations;
+  private final double averageNs;
+  private final double maxNs;
+  private final Map<String, Double> percentilesNs;
+
+  @JsonCreator
+  public FunctionLatencyInfo(
+      @JsonProperty("invocations") final long invocations,
+      @JsonProperty("averageNs") final double averageNs,
+      @JsonProperty("maxNs") final double maxNs,
+      @JsonProperty("percentilesNs") final Map<String, Double> percentilesNs
+  ) {
+    this.invocations = invocations;
+    this.averageNs = averageNs;
+    this.maxNs = maxNs;
+    this.percentilesNs = percentilesNs == null
+        ? ImmutableMap.of()
+        : ImmutableMap.copyOf(percentilesNs);
+  }
+
+  public long getInvocations() {
+    return invocations;
+  }
+
+  public double getAverageNs() {
+    return averageNs;
+  }
+
+  public double getMaxNs() {
+    return maxNs;
+  }
+
+  /**
+   * @return the latency at each percentile keyed by name, e.g. {@code p99}. Only available when
+   *     invocations are sampled.
+   */
+  public Map<String, Double> getPercentilesNs() {
+    return percentilesNs;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final FunctionLatencyInfo that = (FunctionLatencyInfo) o;
+    return invocations == that.invocations
+        && Double.compare(that.averageNs, averageNs) == 0
+        && Double.compare(that.maxNs, maxNs) == 0
+        && Objects.equals(percentilesNs, that.percentilesNs);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(invocations, averageNs, maxNs, percentilesNs);
+  }
+
+  @Override
+  public String toString() {
+    return "FunctionLatencyInfo{"
+        + "invocations=" + invocations
+        + ", averageNs=" + averageNs
+        + ", maxNs=" + maxNs
+        + ", percentilesNs=" + percentilesNs
+        + '}';
+  }
+}
@@ -104,11 +104,21 @@ public class CommandTopic {
   }
 
   public List<QueuedCommand> getRestoreCommands(final Duration duration) {
-    final List<QueuedCommand> restoreCommands = Lists.newArrayList();
-
     commandConsumer.seekToBeginning(
         Collections.singletonList(commandTopicPartition));
 
+    return readRestoreCommands(duration);
+  }
+
+  public List<QueuedCommand> getRestoreCommands(final long fromOffset, final Duration duration) {
+    commandConsumer.seek(commandTopicPartition, fromOffset);
+
+    return readRestoreCommands(duration);
+  }
+
+  private List<QueuedCommand> readRestoreCommands(final Duration duration) {
+    final List<QueuedCommand> restoreCommands = Lists.newArrayList();
+
     log.debug("Reading prior command records");
     ConsumerRecords<CommandId, Command> records =
         commandConsumer.poll(duration);
@@ -43,6 +43,7 @@ import io.confluent.ksql.parser.tree.Type;
 import io.confluent.ksql.rest.entity.ServerInfo;
 import io.confluent.ksql.rest.server.computation.CommandQueue;
 import io.confluent.ksql.rest.server.computation.CommandRunner;
+import io.confluent.ksql.rest.server.computation.CommandSnapshotStore;
 import io.confluent.ksql.rest.server.computation.CommandStore;
 import io.confluent.ksql.rest.server.computation.StatementExecutor;
 import io.confluent.ksql.rest.server.resources.KsqlExceptionMapper;
@@ -73,6 +74,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
@@ -111,6 +113,7 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
 
   private final KsqlConfig ksqlConfig;
   private final KsqlEngine ksqlEngine;
+  private final ProcessingLogContext processingLogContext;
   private final CommandRunner commandRunner;
   private final CommandQueue commandQueue;
   private final RootDocument rootDocument;
@@ -131,6 +134,7 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
       // CHECKSTYLE_RULES.ON: ParameterNumberCheck
       final ServiceContext serviceContext,
       final KsqlEngine ksqlEngine,
+      final ProcessingLogContext processingLogContext,
       final KsqlConfig ksqlConfig,
       final KsqlRestConfig config,
       final CommandRunner commandRunner,
@@ -145,6 +149,8 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
+    this.processingLogContext =
+        Objects.requireNonNull(processingLogContext, "processingLogContext");
     this.commandRunner = Objects.requireNonNull(commandRunner, "commandRunner");
     this.rootDocument = Objects.requireNonNull(rootDocument, "rootDocument");
     this.statusResource = Objects.requireNonNull(statusResource, "statusResource");
@@ -201,6 +207,12 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
       log.error("Exception while waiting for CommandRunner thread to complete", e);
     }
 
+    try {
+      processingLogContext.close();
+    } catch (final Exception e) {
+      log.error("Exception while closing the processing log", e);
+    }
+
     try {
       serviceContext.close();
     } catch (final Exception e) {
@@ -368,10 +380,14 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
         restConfig.getCommandConsumerProperties(),
         restConfig.getCommandProducerProperties());
 
+    final Optional<CommandSnapshotStore> snapshotStore =
+        buildCommandSnapshotStore(restConfig, commandTopic);
+
     final StatementExecutor statementExecutor = new StatementExecutor(
         ksqlConfig,
         ksqlEngine,
-        statementParser
+        statementParser,
+        snapshotStore.isPresent()
     );
 
     final RootDocument rootDocument = new RootDocument();
@@ -426,7 +442,10 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
         commandStore,
         ksqlEngine,
         maxStatementRetries,
-        new ClusterTerminator(ksqlConfig, ksqlEngine, serviceContext, managedTopics)
+        new ClusterTerminator(ksqlConfig, ksqlEngine, serviceContext, managedTopics),
+        snapshotStore,
+        restConfig.getInt(KsqlRestConfig.COMMAND_SNAPSHOT_INTERVAL_CONFIG),
+        restConfig.getInt(KsqlRestConfig.COMMAND_RESTORE_THREADS_CONFIG)
     );
 
     commandRunner.processPriorCommands();
@@ -434,6 +453,7 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     return new KsqlRestApplication(
         serviceContext,
         ksqlEngine,
+        processingLogContext,
         ksqlConfig,
         restConfig,
         commandRunner,
@@ -446,6 +466,17 @@ public final class KsqlRestApplication extends Application<KsqlRestConfig> imple
     );
   }
 
+  private static Optional<CommandSnapshotStore> buildCommandSnapshotStore(
+      final KsqlRestConfig restConfig,
+      final String commandTopic
+  ) {
+    final String snapshotDir = restConfig.getString(KsqlRestConfig.COMMAND_SNAPSHOT_DIR_CONFIG);
+    if (snapshotDir.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new CommandSnapshotStore(Paths.get(snapshotDir), commandTopic));
+  }
+
   private static String getKafkaClusterId(final ServiceContext serviceContext) {
     try {
       return serviceContext.getAdminClient().describeCluster().clusterId().get();
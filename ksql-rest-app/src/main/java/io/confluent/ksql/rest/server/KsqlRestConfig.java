@@ -58,6 +58,24 @@ public class KsqlRestConfig extends RestConfig {
   private static final String KSQL_WEBSOCKETS_NUM_THREADS_DOC =
       "The number of websocket threads to handle query results";
 
+  static final String COMMAND_SNAPSHOT_DIR_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.dir";
+  private static final String COMMAND_SNAPSHOT_DIR_DOC =
+      "The local directory to keep a compacted snapshot of the command topic in. On restart, the "
+          + "server restores the snapshot and only reads the commands written after it, rather "
+          + "than replaying the whole command topic. Leave empty to disable snapshots.";
+
+  static final String COMMAND_SNAPSHOT_INTERVAL_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.snapshot.interval";
+  private static final String COMMAND_SNAPSHOT_INTERVAL_DOC =
+      "The number of commands to execute between snapshots of the command topic.";
+
+  static final String COMMAND_RESTORE_THREADS_CONFIG =
+      KSQL_CONFIG_PREFIX + "server.command.restore.threads";
+  private static final String COMMAND_RESTORE_THREADS_DOC =
+      "The number of threads used to build and start the persistent queries when restoring the "
+          + "command topic on startup.";
+
   private static final ConfigDef CONFIG_DEF;
 
   static {
@@ -85,6 +103,24 @@ public class KsqlRestConfig extends RestConfig {
         5,
         Importance.LOW,
         KSQL_WEBSOCKETS_NUM_THREADS_DOC
+    ).define(
+        COMMAND_SNAPSHOT_DIR_CONFIG,
+        Type.STRING,
+        "",
+        Importance.LOW,
+        COMMAND_SNAPSHOT_DIR_DOC
+    ).define(
+        COMMAND_SNAPSHOT_INTERVAL_CONFIG,
+        Type.INT,
+        100,
+        Importance.LOW,
+        COMMAND_SNAPSHOT_INTERVAL_DOC
+    ).define(
+        COMMAND_RESTORE_THREADS_CONFIG,
+        Type.INT,
+        4,
+        Importance.LOW,
+        COMMAND_RESTORE_THREADS_DOC
     );
   }
 
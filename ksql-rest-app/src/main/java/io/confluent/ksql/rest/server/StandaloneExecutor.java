@@ -20,6 +20,7 @@ import io.confluent.ksql.KsqlEngine;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.function.UdfLoader;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.AbstractStreamCreateStatement;
@@ -69,6 +70,7 @@ public class StandaloneExecutor implements Executable {
 
   private final ServiceContext serviceContext;
   private final ProcessingLogConfig processingLogConfig;
+  private final ProcessingLogContext processingLogContext;
   private final KsqlConfig ksqlConfig;
   private final KsqlEngine ksqlEngine;
   private final String queriesFile;
@@ -79,9 +81,11 @@ public class StandaloneExecutor implements Executable {
   private final VersionCheckerAgent versionChecker;
   private final Function<ServiceContext, SchemaInjector> schemaInjectorFactory;
 
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   StandaloneExecutor(
       final ServiceContext serviceContext,
       final ProcessingLogConfig processingLogConfig,
+      final ProcessingLogContext processingLogContext,
       final KsqlConfig ksqlConfig,
       final KsqlEngine ksqlEngine,
       final String queriesFile,
@@ -90,8 +94,11 @@ public class StandaloneExecutor implements Executable {
       final VersionCheckerAgent versionChecker,
       final Function<ServiceContext, SchemaInjector> schemaInjectorFactory
   ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
     this.serviceContext = Objects.requireNonNull(serviceContext, "serviceContext");
     this.processingLogConfig = Objects.requireNonNull(processingLogConfig, "processingLogConfig");
+    this.processingLogContext =
+        Objects.requireNonNull(processingLogContext, "processingLogContext");
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
     this.queriesFile = Objects.requireNonNull(queriesFile, "queriesFile");
@@ -131,6 +138,11 @@ public class StandaloneExecutor implements Executable {
     } catch (final Exception e) {
       log.warn("Failed to cleanly shutdown the KSQL Engine", e);
     }
+    try {
+      processingLogContext.close();
+    } catch (final Exception e) {
+      log.warn("Failed to cleanly shutdown the processing log", e);
+    }
     try {
       serviceContext.close();
     } catch (final Exception e) {
@@ -63,9 +63,11 @@ public final class StandaloneExecutorFactory {
 
   interface StandaloneExecutorConstructor {
 
+    // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
     StandaloneExecutor create(
         ServiceContext serviceContext,
         ProcessingLogConfig processingLogConfig,
+        ProcessingLogContext processingLogContext,
         KsqlConfig ksqlConfig,
         KsqlEngine ksqlEngine,
         String queriesFile,
@@ -74,6 +76,7 @@ public final class StandaloneExecutorFactory {
         VersionCheckerAgent versionChecker,
         Function<ServiceContext, SchemaInjector> schemaInjectorFactory
     );
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
   }
 
   @VisibleForTesting
@@ -126,6 +129,7 @@ public final class StandaloneExecutorFactory {
     return constructor.create(
         serviceContext,
         processingLogConfig,
+        processingLogContext,
         ksqlConfig,
         ksqlEngine,
         queriesFile,
@@ -28,10 +28,17 @@ public class StatementParser {
     this.ksqlEngine = ksqlEngine;
   }
 
-  @SuppressWarnings("unchecked")
   public <T extends Statement> PreparedStatement<T> parseSingleStatement(
       final String statementString
   ) {
+    return prepare(parse(statementString));
+  }
+
+  /**
+   * Parses a single statement without preparing it, i.e. without resolving the sources it
+   * references against the metastore.
+   */
+  public ParsedStatement parse(final String statementString) {
     final List<ParsedStatement> statements = ksqlEngine.parse(statementString);
     if ((statements.size() != 1)) {
       throw new IllegalArgumentException(
@@ -39,6 +46,11 @@ public class StatementParser {
       );
     }
 
-    return (PreparedStatement<T>) ksqlEngine.prepare(statements.get(0));
+    return statements.get(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T extends Statement> PreparedStatement<T> prepare(final ParsedStatement statement) {
+    return (PreparedStatement<T>) ksqlEngine.prepare(statement);
   }
 }
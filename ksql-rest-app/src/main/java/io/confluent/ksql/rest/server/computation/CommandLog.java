@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.rest.server.computation.CommandId.Action;
+import io.confluent.ksql.rest.server.computation.CommandId.Type;
+import io.confluent.ksql.rest.server.computation.CommandSnapshot.Entry;
+import io.confluent.ksql.rest.server.computation.CommandSnapshot.EntryType;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The history of the commands that changed the state of a server, from which a compacted
+ * {@link CommandSnapshot} can be taken.
+ *
+ * <p>Commands that failed are not recorded. Commands whose effects can not be tracked, i.e.
+ * topic commands, {@code RUN SCRIPT} and commands written by servers older than 5.0, make the
+ * history uncompactable, in which case no snapshot is ever taken.
+ */
+final class CommandLog {
+
+  private final List<Entry> entries = new ArrayList<>();
+  private boolean compactable = true;
+
+  synchronized void addDdl(
+      final CommandId commandId,
+      final Command command,
+      final long nextQueryId
+  ) {
+    if (commandId.getType() == Type.TOPIC) {
+      markUncompactable();
+      return;
+    }
+
+    final EntryType type = commandId.getAction() == Action.DROP
+        ? EntryType.DROP
+        : EntryType.CREATE;
+    add(new Entry(
+        commandId,
+        command,
+        type,
+        null,
+        ImmutableSet.of(),
+        ImmutableSet.of(commandId.getEntity()),
+        nextQueryId));
+  }
+
+  synchronized void addQuery(
+      final EntryType type,
+      final CommandId commandId,
+      final Command command,
+      final PersistentQueryMetadata query,
+      final long nextQueryId
+  ) {
+    add(new Entry(
+        commandId,
+        command,
+        type,
+        query.getQueryId().getId(),
+        query.getSourceNames(),
+        query.getSinkNames(),
+        nextQueryId));
+  }
+
+  synchronized void addTerminate(
+      final CommandId commandId,
+      final Command command,
+      final String queryId,
+      final long nextQueryId
+  ) {
+    add(new Entry(
+        commandId,
+        command,
+        EntryType.TERMINATE,
+        queryId,
+        ImmutableSet.of(),
+        ImmutableSet.of(),
+        nextQueryId));
+  }
+
+  synchronized void markUncompactable() {
+    compactable = false;
+    entries.clear();
+  }
+
+  synchronized boolean isCompactable() {
+    return compactable;
+  }
+
+  /**
+   * Compacts the history and returns it as a snapshot.
+   *
+   * @param offset the offset of the first command in the command topic not yet executed.
+   * @param nextQueryId the current value of the query id counter.
+   * @return the snapshot, or empty if the history can not be compacted.
+   */
+  synchronized Optional<CommandSnapshot> snapshot(final long offset, final long nextQueryId) {
+    if (!compactable) {
+      return Optional.empty();
+    }
+    compact(entries);
+    return Optional.of(new CommandSnapshot(offset, nextQueryId, entries));
+  }
+
+  /**
+   * Removes, until none are left, commands whose effects were undone by later commands:
+   * <ul>
+   *   <li>{@code INSERT INTO} queries that were later terminated, with their terminate.</li>
+   *   <li>Sources that were later dropped, with their drop and, for sources created by a query,
+   *   the query and its terminate. Sources that a remaining query started between the create and
+   *   the drop reads from or writes to are kept.</li>
+   *   <li>Terminates and drops of queries and sources that are no longer in the history.</li>
+   * </ul>
+   */
+  static void compact(final List<Entry> entries) {
+    // Whether an entry can be removed only depends on the entries before it, so after a removal
+    // only the entries from the first removed index onwards need to be looked at again:
+    int idx = 0;
+    while (idx < entries.size()) {
+      final int removedFrom = compactAt(entries, idx);
+      idx = removedFrom < 0 ? idx + 1 : removedFrom;
+    }
+  }
+
+  /**
+   * @return the lowest index of the entries removed, or -1 if none were.
+   */
+  private static int compactAt(final List<Entry> entries, final int idx) {
+    switch (entries.get(idx).getType()) {
+      case TERMINATE:
+        return compactTerminate(entries, idx);
+      case DROP:
+        return compactDrop(entries, idx);
+      default:
+        return -1;
+    }
+  }
+
+  private static int compactTerminate(final List<Entry> entries, final int terminateIdx) {
+    final int queryIdx = findQuery(entries, terminateIdx, entries.get(terminateIdx).getQueryId());
+    if (queryIdx < 0) {
+      entries.remove(terminateIdx);
+      return terminateIdx;
+    }
+    if (entries.get(queryIdx).getType() != EntryType.INSERT_INTO) {
+      return -1;
+    }
+    entries.remove(terminateIdx);
+    entries.remove(queryIdx);
+    return queryIdx;
+  }
+
+  private static int compactDrop(final List<Entry> entries, final int dropIdx) {
+    final String sourceName = entries.get(dropIdx).getCommandId().getEntity();
+
+    int createIdx = -1;
+    for (int i = dropIdx - 1; i >= 0; i--) {
+      final Entry entry = entries.get(i);
+      if ((entry.getType() == EntryType.CREATE || entry.getType() == EntryType.CREATE_AS_SELECT)
+          && entry.getSinkNames().contains(sourceName)) {
+        createIdx = i;
+        break;
+      }
+    }
+
+    if (createIdx < 0) {
+      entries.remove(dropIdx);
+      return dropIdx;
+    }
+
+    final Entry create = entries.get(createIdx);
+    int terminateIdx = -1;
+    for (int i = createIdx + 1; i < dropIdx; i++) {
+      final Entry entry = entries.get(i);
+      if (entry.getType() == EntryType.TERMINATE
+          && entry.getQueryId().equals(create.getQueryId())) {
+        terminateIdx = i;
+      } else if (entry.references(sourceName)) {
+        return -1;
+      }
+    }
+
+    if (create.getType() == EntryType.CREATE_AS_SELECT && terminateIdx < 0) {
+      return -1;
+    }
+
+    entries.remove(dropIdx);
+    if (terminateIdx >= 0) {
+      entries.remove(terminateIdx);
+    }
+    entries.remove(createIdx);
+    return createIdx;
+  }
+
+  private static int findQuery(
+      final List<Entry> entries,
+      final int terminateIdx,
+      final Optional<String> queryId
+  ) {
+    for (int i = terminateIdx - 1; i >= 0; i--) {
+      final Entry entry = entries.get(i);
+      if ((entry.getType() == EntryType.CREATE_AS_SELECT
+          || entry.getType() == EntryType.INSERT_INTO)
+          && entry.getQueryId().equals(queryId)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void add(final Entry entry) {
+    if (compactable) {
+      entries.add(entry);
+    }
+  }
+}
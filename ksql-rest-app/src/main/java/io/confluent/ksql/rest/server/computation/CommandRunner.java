@@ -19,7 +19,8 @@ import io.confluent.ksql.KsqlEngine;
 import io.confluent.ksql.rest.entity.ClusterTerminateRequest;
 import io.confluent.ksql.rest.util.ClusterTerminator;
 import io.confluent.ksql.rest.util.TerminateCluster;
-import io.confluent.ksql.util.PersistentQueryMetadata;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.QueryIdGenerator;
 import io.confluent.ksql.util.RetryUtil;
 import java.io.Closeable;
 import java.util.Collections;
@@ -49,6 +50,12 @@ public class CommandRunner implements Runnable, Closeable {
   private volatile boolean closed;
   private final int maxRetries;
   private final ClusterTerminator clusterTerminator;
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private final Optional<CommandSnapshotStore> snapshotStore;
+  private final int snapshotInterval;
+  private final int restoreThreads;
+  private int commandsSinceSnapshot;
+  private boolean snapshotsDisabled;
 
   public CommandRunner(
       final StatementExecutor statementExecutor,
@@ -57,12 +64,49 @@ public class CommandRunner implements Runnable, Closeable {
       final int maxRetries,
       final ClusterTerminator clusterTerminator
   ) {
+    this(
+        statementExecutor,
+        commandStore,
+        ksqlEngine,
+        maxRetries,
+        clusterTerminator,
+        Optional.empty(),
+        0,
+        1);
+  }
+
+  /**
+   * @param snapshotStore where to keep the snapshot of the command history, if any.
+   * @param snapshotInterval the number of commands to run between snapshots.
+   * @param restoreThreads the number of threads to build and start persistent queries on when
+   *     restoring the command topic.
+   */
+  // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  public CommandRunner(
+      final StatementExecutor statementExecutor,
+      final CommandQueue commandStore,
+      final KsqlEngine ksqlEngine,
+      final int maxRetries,
+      final ClusterTerminator clusterTerminator,
+      final Optional<CommandSnapshotStore> snapshotStore,
+      final int snapshotInterval,
+      final int restoreThreads
+  ) {
+    // CHECKSTYLE_RULES.ON: ParameterNumberCheck
     this.statementExecutor = Objects.requireNonNull(statementExecutor, "statementExecutor");
     this.commandStore = Objects.requireNonNull(commandStore, "commandStore");
     this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
     this.maxRetries = maxRetries;
     closed = false;
     this.clusterTerminator = Objects.requireNonNull(clusterTerminator, "clusterTerminator");
+    this.snapshotStore = Objects.requireNonNull(snapshotStore, "snapshotStore");
+    if (snapshotStore.isPresent() && !statementExecutor.getCommandLog().isPresent()) {
+      throw new IllegalArgumentException(
+          "Taking snapshots requires a statement executor that records commands");
+    }
+    this.snapshotInterval = snapshotInterval;
+    this.restoreThreads = restoreThreads;
   }
 
   /**
@@ -101,29 +145,108 @@ public class CommandRunner implements Runnable, Closeable {
     }
     log.trace("Found {} new writes to command topic", commands.size());
     commands.forEach(this::executeStatement);
+    commandsSinceSnapshot += commands.size();
+    maybeSaveSnapshot();
   }
 
   /**
-   * Read and execute all commands on the command topic, starting at the earliest offset.
+   * Read and execute all commands on the command topic, starting at the earliest offset, or, if
+   * there is a snapshot of the command history, restore the snapshot and then read and execute
+   * the commands written after it.
+   *
+   * <p>The physical plans of the persistent queries are built, and the queries then started, on
+   * a {@link RestorePipeline}.
    */
   public void processPriorCommands() {
-    final List<QueuedCommand> restoreCommands = commandStore.getRestoreCommands();
+    final Optional<CommandSnapshot> snapshot = loadSnapshot();
+    final List<QueuedCommand> restoreCommands = snapshot.isPresent()
+        ? commandStore.getRestoreCommands(snapshot.get().getOffset())
+        : commandStore.getRestoreCommands();
     final Optional<QueuedCommand> terminateCmd = findTerminateCommand(restoreCommands);
     if (terminateCmd.isPresent()) {
       terminateCluster(terminateCmd.get().getCommand());
       return;
     }
-    restoreCommands.forEach(
-        command -> RetryUtil.retryWithBackoff(
+    try (RestorePipeline pipeline = new RestorePipeline(restoreThreads, new RestoreMetrics())) {
+      snapshot.ifPresent(s -> restoreSnapshot(s, pipeline));
+      restoreCommands.forEach(
+          command -> RetryUtil.retryWithBackoff(
+              maxRetries,
+              STATEMENT_RETRY_MS,
+              MAX_STATEMENT_RETRY_MS,
+              () -> statementExecutor.handleRestore(command, pipeline),
+              WakeupException.class
+          )
+      );
+      pipeline.finishReplay();
+      pipeline.startQueries(statementExecutor.getKsqlEngine().getPersistentQueries());
+    }
+    commandsSinceSnapshot += restoreCommands.size();
+    maybeSaveSnapshot();
+  }
+
+  private Optional<CommandSnapshot> loadSnapshot() {
+    final Optional<CommandSnapshot> snapshot = snapshotStore.flatMap(CommandSnapshotStore::load);
+    if (!snapshot.isPresent()) {
+      return Optional.empty();
+    }
+
+    final long endOffset = commandStore.getEndOffset();
+    if (snapshot.get().getOffset() > endOffset) {
+      log.warn("Ignoring command snapshot up to offset {}, as the command topic ends at {}",
+          snapshot.get().getOffset(), endOffset);
+      return Optional.empty();
+    }
+    return snapshot;
+  }
+
+  private void restoreSnapshot(final CommandSnapshot snapshot, final RestorePipeline pipeline) {
+    log.info("Restoring {} commands from the snapshot of the command topic up to offset {}",
+        snapshot.getEntries().size(), snapshot.getOffset());
+
+    final QueryIdGenerator queryIdGenerator =
+        statementExecutor.getKsqlEngine().getQueryIdGenerator();
+    snapshot.getEntries().forEach(
+        entry -> RetryUtil.retryWithBackoff(
             maxRetries,
             STATEMENT_RETRY_MS,
             MAX_STATEMENT_RETRY_MS,
-            () -> statementExecutor.handleRestore(command),
+            () -> {
+              queryIdGenerator.setNext(entry.getNextQueryId());
+              statementExecutor.handleRestore(
+                  new QueuedCommand(entry.getCommandId(), entry.getCommand()), pipeline);
+            },
             WakeupException.class
         )
     );
-    final KsqlEngine ksqlEngine = statementExecutor.getKsqlEngine();
-    ksqlEngine.getPersistentQueries().forEach(PersistentQueryMetadata::start);
+    queryIdGenerator.setNext(snapshot.getNextQueryId());
+  }
+
+  private void maybeSaveSnapshot() {
+    if (!snapshotStore.isPresent()
+        || snapshotsDisabled
+        || commandsSinceSnapshot < snapshotInterval) {
+      return;
+    }
+
+    final Optional<CommandSnapshot> snapshot = statementExecutor.getCommandLog().get().snapshot(
+        commandStore.getConsumerPosition(),
+        statementExecutor.getKsqlEngine().getQueryIdGenerator().peekNext());
+    if (!snapshot.isPresent()) {
+      log.warn("Not taking snapshots of the command topic, as it contains commands written by "
+          + "servers older than 5.0, topic commands or RUN SCRIPT commands");
+      snapshotsDisabled = true;
+      return;
+    }
+
+    commandsSinceSnapshot = 0;
+    try {
+      snapshotStore.get().save(snapshot.get());
+      log.info("Saved snapshot of the command topic up to offset {} with {} commands",
+          snapshot.get().getOffset(), snapshot.get().getEntries().size());
+    } catch (final KsqlException e) {
+      log.warn("Failed to save snapshot of the command topic", e);
+    }
   }
 
   private void executeStatement(final QueuedCommand queuedCommand) {
@@ -151,6 +274,7 @@ public class CommandRunner implements Runnable, Closeable {
     ksqlEngine.stopAcceptingStatements();
     log.info("Terminating the KSQL server.");
     this.close();
+    snapshotStore.ifPresent(CommandSnapshotStore::delete);
     final List<String> deleteTopicList = (List<String>) command.getOverwriteProperties()
         .getOrDefault(ClusterTerminateRequest.DELETE_TOPIC_LIST_PROP, Collections.emptyList());
 
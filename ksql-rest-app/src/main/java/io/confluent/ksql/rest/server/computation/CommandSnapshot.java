@@ -0,0 +1,203 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The compacted command history of a server up to an offset in the command topic.
+ *
+ * <p>Replaying the {@link #getEntries() entries} in order, each with the query id counter set to
+ * the value it had when the command was first executed, rebuilds the same meta store and set of
+ * persistent queries as replaying every command before {@link #getOffset()}.
+ */
+public final class CommandSnapshot {
+
+  private final long offset;
+  private final long nextQueryId;
+  private final List<Entry> entries;
+
+  @JsonCreator
+  public CommandSnapshot(
+      @JsonProperty("offset") final long offset,
+      @JsonProperty("nextQueryId") final long nextQueryId,
+      @JsonProperty("entries") final List<Entry> entries
+  ) {
+    this.offset = offset;
+    this.nextQueryId = nextQueryId;
+    this.entries = ImmutableList.copyOf(Objects.requireNonNull(entries, "entries"));
+  }
+
+  /**
+   * @return the offset of the first command in the command topic not covered by the snapshot.
+   */
+  @JsonProperty("offset")
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * @return the value of the query id counter once all the covered commands had executed.
+   */
+  @JsonProperty("nextQueryId")
+  public long getNextQueryId() {
+    return nextQueryId;
+  }
+
+  @JsonProperty("entries")
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  public enum EntryType {
+    CREATE,
+    DROP,
+    CREATE_AS_SELECT,
+    INSERT_INTO,
+    TERMINATE
+  }
+
+  /**
+   * A command that is still needed to rebuild the state of the server.
+   */
+  public static final class Entry {
+
+    private final CommandId commandId;
+    private final Command command;
+    private final EntryType type;
+    private final String queryId;
+    private final Set<String> sourceNames;
+    private final Set<String> sinkNames;
+    private final long nextQueryId;
+
+    // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
+    @JsonCreator
+    public Entry(
+        @JsonProperty("commandId") final CommandId commandId,
+        @JsonProperty("command") final Command command,
+        @JsonProperty("type") final EntryType type,
+        @JsonProperty("queryId") final String queryId,
+        @JsonProperty("sourceNames") final Set<String> sourceNames,
+        @JsonProperty("sinkNames") final Set<String> sinkNames,
+        @JsonProperty("nextQueryId") final long nextQueryId
+    ) {
+      // CHECKSTYLE_RULES.ON: ParameterNumberCheck
+      this.commandId = Objects.requireNonNull(commandId, "commandId");
+      this.command = Objects.requireNonNull(command, "command");
+      this.type = Objects.requireNonNull(type, "type");
+      this.queryId = queryId;
+      this.sourceNames = sourceNames == null ? ImmutableSet.of() : ImmutableSet.copyOf(sourceNames);
+      this.sinkNames = sinkNames == null ? ImmutableSet.of() : ImmutableSet.copyOf(sinkNames);
+      this.nextQueryId = nextQueryId;
+    }
+
+    @JsonProperty("commandId")
+    public CommandId getCommandId() {
+      return commandId;
+    }
+
+    @JsonProperty("command")
+    public Command getCommand() {
+      return command;
+    }
+
+    @JsonProperty("type")
+    public EntryType getType() {
+      return type;
+    }
+
+    /**
+     * @return the id of the query started or terminated by the command, if any.
+     */
+    @JsonIgnore
+    public Optional<String> getQueryId() {
+      return Optional.ofNullable(queryId);
+    }
+
+    @JsonProperty("queryId")
+    private String getQueryIdOrNull() {
+      return queryId;
+    }
+
+    /**
+     * @return the sources the query started by the command reads from.
+     */
+    @JsonProperty("sourceNames")
+    public Set<String> getSourceNames() {
+      return sourceNames;
+    }
+
+    /**
+     * @return the sources created by the command, or the query started by the command writes to.
+     */
+    @JsonProperty("sinkNames")
+    public Set<String> getSinkNames() {
+      return sinkNames;
+    }
+
+    /**
+     * @return the value of the query id counter when the command was executed.
+     */
+    @JsonProperty("nextQueryId")
+    public long getNextQueryId() {
+      return nextQueryId;
+    }
+
+    boolean references(final String sourceName) {
+      return sourceNames.contains(sourceName) || sinkNames.contains(sourceName);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Entry that = (Entry) o;
+      return nextQueryId == that.nextQueryId
+          && Objects.equals(commandId, that.commandId)
+          && Objects.equals(command, that.command)
+          && type == that.type
+          && Objects.equals(queryId, that.queryId)
+          && Objects.equals(sourceNames, that.sourceNames)
+          && Objects.equals(sinkNames, that.sinkNames);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(commandId, command, type, queryId, sourceNames, sinkNames, nextQueryId);
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{"
+          + "commandId=" + commandId
+          + ", type=" + type
+          + ", queryId=" + queryId
+          + '}';
+    }
+  }
+}
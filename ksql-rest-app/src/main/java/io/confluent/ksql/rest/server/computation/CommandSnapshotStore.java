@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.ksql.json.JsonMapper;
+import io.confluent.ksql.util.KsqlException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores the latest {@link CommandSnapshot} of a server in a local file.
+ *
+ * <p>Snapshots are written to a temporary file first, which then replaces the previous snapshot,
+ * so that a crash while writing never leaves a partial snapshot behind.
+ */
+public class CommandSnapshotStore {
+
+  private static final Logger log = LoggerFactory.getLogger(CommandSnapshotStore.class);
+
+  private static final String SNAPSHOT_FILE_SUFFIX = ".snapshot";
+  private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+  private final ObjectMapper objectMapper = JsonMapper.INSTANCE.mapper;
+  private final Path snapshotFile;
+  private final Path tempFile;
+
+  /**
+   * @param snapshotDir the directory to store the snapshot in.
+   * @param commandTopicName the name of the command topic the snapshot is of.
+   */
+  public CommandSnapshotStore(final Path snapshotDir, final String commandTopicName) {
+    Objects.requireNonNull(snapshotDir, "snapshotDir");
+    Objects.requireNonNull(commandTopicName, "commandTopicName");
+    this.snapshotFile = snapshotDir.resolve(commandTopicName + SNAPSHOT_FILE_SUFFIX);
+    this.tempFile = snapshotDir.resolve(commandTopicName + SNAPSHOT_FILE_SUFFIX + TEMP_FILE_SUFFIX);
+  }
+
+  /**
+   * @return the stored snapshot, or empty if there is none or it can not be read.
+   */
+  public Optional<CommandSnapshot> load() {
+    if (!Files.exists(snapshotFile)) {
+      return Optional.empty();
+    }
+    try (InputStream input = Files.newInputStream(snapshotFile)) {
+      return Optional.of(objectMapper.readValue(input, CommandSnapshot.class));
+    } catch (final IOException e) {
+      log.warn("Ignoring unreadable command snapshot " + snapshotFile, e);
+      return Optional.empty();
+    }
+  }
+
+  public void save(final CommandSnapshot snapshot) {
+    try {
+      Files.createDirectories(snapshotFile.getParent());
+      try (OutputStream output = Files.newOutputStream(tempFile)) {
+        objectMapper.writeValue(output, snapshot);
+      }
+      Files.move(
+          tempFile,
+          snapshotFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      throw new KsqlException("Failed to write command snapshot " + snapshotFile, e);
+    }
+  }
+
+  public void delete() {
+    try {
+      Files.deleteIfExists(snapshotFile);
+    } catch (final IOException e) {
+      throw new KsqlException("Failed to delete command snapshot " + snapshotFile, e);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import io.confluent.ksql.metrics.MetricCollectors;
+import java.util.Objects;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Value;
+
+/**
+ * Metrics on the phases of restoring the command topic on startup. Times are in milliseconds.
+ *
+ * <p>The values of the metrics are those of the most recent restore.
+ */
+final class RestoreMetrics {
+
+  private static final String METRIC_GROUP = "ksql-restore";
+
+  private final Sensor replayTime;
+  private final Sensor queryBuildTimeTotal;
+  private final Sensor queryBuildTimeMax;
+  private final Sensor queryStartTime;
+  private final Sensor totalTime;
+  private final Sensor numQueries;
+
+  RestoreMetrics() {
+    this(MetricCollectors.getMetrics());
+  }
+
+  RestoreMetrics(final Metrics metrics) {
+    Objects.requireNonNull(metrics, "metrics");
+    this.replayTime = getOrCreateSensor(metrics, "replay-time-ms",
+        "The time taken to replay the command topic, including building the physical plans "
+            + "of the persistent queries");
+    this.queryBuildTimeTotal = getOrCreateSensor(metrics, "query-build-time-total-ms",
+        "The sum of the times taken to build the physical plans of the persistent queries");
+    this.queryBuildTimeMax = getOrCreateSensor(metrics, "query-build-time-max-ms",
+        "The longest time taken to build the physical plan of a persistent query");
+    this.queryStartTime = getOrCreateSensor(metrics, "query-start-time-ms",
+        "The time taken to start the persistent queries once the command topic was replayed");
+    this.totalTime = getOrCreateSensor(metrics, "total-time-ms",
+        "The total time taken to restore the command topic");
+    this.numQueries = getOrCreateSensor(metrics, "num-queries",
+        "The number of persistent queries built while replaying the command topic");
+  }
+
+  void recordReplay(final long millis) {
+    replayTime.record(millis);
+  }
+
+  void recordQueryBuilds(final int count, final long totalMillis, final long maxMillis) {
+    numQueries.record(count);
+    queryBuildTimeTotal.record(totalMillis);
+    queryBuildTimeMax.record(maxMillis);
+  }
+
+  void recordQueryStart(final long millis) {
+    queryStartTime.record(millis);
+  }
+
+  void recordTotal(final long millis) {
+    totalTime.record(millis);
+  }
+
+  private static Sensor getOrCreateSensor(
+      final Metrics metrics,
+      final String name,
+      final String description
+  ) {
+    final String sensorName = METRIC_GROUP + "-" + name;
+    final Sensor existing = metrics.getSensor(sensorName);
+    if (existing != null) {
+      return existing;
+    }
+
+    final Sensor sensor = metrics.sensor(sensorName);
+    sensor.add(metrics.metricName(name, METRIC_GROUP, description), new Value());
+    return sensor;
+  }
+}
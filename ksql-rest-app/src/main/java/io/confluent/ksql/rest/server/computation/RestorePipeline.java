@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.confluent.ksql.PersistentQueryPlan;
+import io.confluent.ksql.parser.AstBuilder;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.SqlBaseBaseListener;
+import io.confluent.ksql.parser.SqlBaseParser;
+import io.confluent.ksql.parser.SqlBaseParser.StatementContext;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays the command topic on startup with the physical plans of the persistent queries built,
+ * and the queries then started, on a bounded pool of threads.
+ *
+ * <p>Statements are still prepared and planned in order, and DDL statements still executed, on
+ * the calling thread, so the metastore evolves as it did when the commands were first run. Only
+ * the building of the physical plan of a persistent query, which compiles its expressions and
+ * creates its {@code KafkaStreams} instance, is handed to the pool. As building the plan adds
+ * the sink of the query to the metastore, {@link #awaitDependencies} must be called before
+ * each statement is prepared. It waits for the pending queries the statement depends on:
+ * <ul>
+ *   <li>a CREATE AS SELECT or INSERT INTO waits for the queries whose sink it references,</li>
+ *   <li>a CREATE or DROP of a stream or table waits for the queries that read or write it,</li>
+ *   <li>any other statement, e.g. a TERMINATE, waits for all queries.</li>
+ * </ul>
+ *
+ * <p>Not thread-safe: all methods must be called from the thread replaying the command topic.
+ */
+final class RestorePipeline implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(RestorePipeline.class);
+
+  private final ExecutorService executor;
+  private final RestoreMetrics metrics;
+  private final List<PendingQuery> pending = new ArrayList<>();
+  private final long startNanos;
+  private int numBuilt;
+  private long totalBuildNanos;
+  private long maxBuildNanos;
+
+  RestorePipeline(final int numThreads, final RestoreMetrics metrics) {
+    if (numThreads < 1) {
+      throw new IllegalArgumentException("numThreads must be at least 1: " + numThreads);
+    }
+    this.executor = Executors.newFixedThreadPool(
+        numThreads,
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("ksql-restore-thread-%d")
+            .build());
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Blocks until the pending queries the statement depends on have been built.
+   *
+   * @param statement the parsed, but not yet prepared, statement.
+   */
+  void awaitDependencies(final ParsedStatement statement) {
+    final StatementContext context = statement.getStatement().statement();
+    final Set<String> names = referencedNames(context);
+
+    if (context instanceof SqlBaseParser.CreateStreamAsContext
+        || context instanceof SqlBaseParser.CreateTableAsContext
+        || context instanceof SqlBaseParser.InsertIntoContext) {
+      await(query -> names.contains(query.sinkName));
+    } else if (context instanceof SqlBaseParser.CreateStreamContext
+        || context instanceof SqlBaseParser.CreateTableContext
+        || context instanceof SqlBaseParser.DropStreamContext
+        || context instanceof SqlBaseParser.DropTableContext) {
+      await(query -> query.referencesAny(names));
+    } else {
+      awaitAll();
+    }
+  }
+
+  /**
+   * @return the number of queries whose physical plans are still being built.
+   */
+  int numPendingQueries() {
+    pending.removeIf(query -> query.future.isDone());
+    return pending.size();
+  }
+
+  /**
+   * Blocks until all pending queries have been built.
+   */
+  void awaitAll() {
+    await(query -> true);
+  }
+
+  /**
+   * Builds the physical plan of a query on the pool.
+   *
+   * @param plan the plan to execute.
+   * @param onExecuted called, on a pool thread, with the registered query.
+   * @param onFailed called, on a pool thread, if the plan fails to execute.
+   */
+  void submit(
+      final PersistentQueryPlan plan,
+      final Consumer<PersistentQueryMetadata> onExecuted,
+      final Consumer<KsqlException> onFailed
+  ) {
+    final CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+      final long start = System.nanoTime();
+      final PersistentQueryMetadata query;
+      try {
+        query = plan.execute();
+      } catch (final KsqlException e) {
+        onFailed.accept(e);
+        return;
+      } finally {
+        recordBuild(System.nanoTime() - start);
+      }
+      onExecuted.accept(query);
+    }, executor);
+
+    pending.add(new PendingQuery(plan.getSinkName(), plan.getSourceNames(), future));
+  }
+
+  /**
+   * Blocks until all pending queries have been built, and records the time taken to replay the
+   * command topic.
+   */
+  void finishReplay() {
+    awaitAll();
+
+    synchronized (this) {
+      metrics.recordQueryBuilds(numBuilt, toMillis(totalBuildNanos), toMillis(maxBuildNanos));
+    }
+    metrics.recordReplay(toMillis(System.nanoTime() - startNanos));
+  }
+
+  /**
+   * Starts the supplied queries on the pool, and blocks until they have all started.
+   */
+  void startQueries(final Collection<PersistentQueryMetadata> queries) {
+    final long start = System.nanoTime();
+
+    final List<CompletableFuture<Void>> started = queries.stream()
+        .map(query -> CompletableFuture.runAsync(query::start, executor))
+        .collect(Collectors.toList());
+    started.forEach(RestorePipeline::await);
+
+    final long end = System.nanoTime();
+    metrics.recordQueryStart(toMillis(end - start));
+    metrics.recordTotal(toMillis(end - startNanos));
+
+    log.info("Restored {} persistent queries in {}ms", queries.size(), toMillis(end - startNanos));
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+
+  private void await(final Predicate<PendingQuery> dependsOn) {
+    final Iterator<PendingQuery> it = pending.iterator();
+    while (it.hasNext()) {
+      final PendingQuery query = it.next();
+      if (query.future.isDone() || dependsOn.test(query)) {
+        await(query.future);
+        it.remove();
+      }
+    }
+  }
+
+  private synchronized void recordBuild(final long nanos) {
+    numBuilt++;
+    totalBuildNanos += nanos;
+    maxBuildNanos = Math.max(maxBuildNanos, nanos);
+  }
+
+  private static void await(final CompletableFuture<?> future) {
+    try {
+      future.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static long toMillis(final long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private static Set<String> referencedNames(final StatementContext context) {
+    final Set<String> names = new HashSet<>();
+    ParseTreeWalker.DEFAULT.walk(new SqlBaseBaseListener() {
+      @Override
+      public void enterQualifiedName(final SqlBaseParser.QualifiedNameContext ctx) {
+        ctx.identifier().stream()
+            .map(AstBuilder::getIdentifierText)
+            .forEach(names::add);
+      }
+    }, context);
+    return names;
+  }
+
+  private static final class PendingQuery {
+
+    private final String sinkName;
+    private final Set<String> sourceNames;
+    private final CompletableFuture<Void> future;
+
+    private PendingQuery(
+        final String sinkName,
+        final Set<String> sourceNames,
+        final CompletableFuture<Void> future
+    ) {
+      this.sinkName = sinkName;
+      this.sourceNames = sourceNames;
+      this.future = future;
+    }
+
+    private boolean referencesAny(final Set<String> names) {
+      return names.contains(sinkName) || sourceNames.stream().anyMatch(names::contains);
+    }
+  }
+}
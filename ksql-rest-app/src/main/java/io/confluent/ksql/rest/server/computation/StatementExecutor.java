@@ -17,6 +17,7 @@ package io.confluent.ksql.rest.server.computation;
 
 import com.google.common.collect.Lists;
 import io.confluent.ksql.KsqlEngine;
+import io.confluent.ksql.PersistentQueryPlan;
 import io.confluent.ksql.exception.ExceptionUtil;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
@@ -32,6 +33,7 @@ import io.confluent.ksql.rest.entity.CommandStatus;
 import io.confluent.ksql.rest.server.StatementParser;
 import io.confluent.ksql.rest.server.computation.CommandId.Action;
 import io.confluent.ksql.rest.server.computation.CommandId.Type;
+import io.confluent.ksql.rest.server.computation.CommandSnapshot.EntryType;
 import io.confluent.ksql.rest.util.QueryCapacityUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlConstants;
@@ -61,6 +63,8 @@ public class StatementExecutor {
   private final KsqlEngine ksqlEngine;
   private final StatementParser statementParser;
   private final Map<CommandId, CommandStatus> statusStore;
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private final Optional<CommandLog> commandLog;
 
   private enum Mode {
     RESTORE,
@@ -71,6 +75,19 @@ public class StatementExecutor {
       final KsqlConfig ksqlConfig,
       final KsqlEngine ksqlEngine,
       final StatementParser statementParser
+  ) {
+    this(ksqlConfig, ksqlEngine, statementParser, false);
+  }
+
+  /**
+   * @param recordCommands whether to record the history of the commands that changed the state
+   *     of the engine. The history is only needed to take snapshots of the command topic.
+   */
+  public StatementExecutor(
+      final KsqlConfig ksqlConfig,
+      final KsqlEngine ksqlEngine,
+      final StatementParser statementParser,
+      final boolean recordCommands
   ) {
     Objects.requireNonNull(ksqlConfig, "ksqlConfig cannot be null.");
     Objects.requireNonNull(ksqlEngine, "ksqlEngine cannot be null.");
@@ -79,12 +96,20 @@ public class StatementExecutor {
     this.ksqlEngine = ksqlEngine;
     this.statementParser = statementParser;
     this.statusStore = new ConcurrentHashMap<>();
+    this.commandLog = recordCommands ? Optional.of(new CommandLog()) : Optional.empty();
   }
 
   protected KsqlEngine getKsqlEngine() {
     return ksqlEngine;
   }
 
+  /**
+   * @return the history of the commands that changed the state of the engine, if recorded.
+   */
+  Optional<CommandLog> getCommandLog() {
+    return commandLog;
+  }
+
   /**
    * Attempt to execute a single statement.
    *
@@ -107,6 +132,49 @@ public class StatementExecutor {
     );
   }
 
+  /**
+   * Restore a single statement as part of replaying the command topic, handing the building of
+   * the physical plan of a persistent query to the {@code pipeline}. The status of such a
+   * statement is only final once the pipeline has built the query.
+   *
+   * @param queuedCommand The command to be restored
+   * @param pipeline The pipeline replaying the command topic
+   */
+  void handleRestore(final QueuedCommand queuedCommand, final RestorePipeline pipeline) {
+    final Command command = queuedCommand.getCommand();
+    final CommandId commandId = queuedCommand.getCommandId();
+    final Optional<CommandStatusFuture> commandStatusFuture = queuedCommand.getStatus();
+    try {
+      if (command.isPreVersion5()) {
+        pipeline.awaitAll();
+        commandLog.ifPresent(CommandLog::markUncompactable);
+      }
+      maybeTerminateQueryForLegacyDropCommand(commandId, command);
+      putStatus(
+          commandId,
+          commandStatusFuture,
+          new CommandStatus(CommandStatus.Status.PARSING, "Parsing statement"));
+      final ParsedStatement parsed = statementParser.parse(command.getStatement());
+      pipeline.awaitDependencies(parsed);
+      final long nextQueryId = ksqlEngine.getQueryIdGenerator().peekNext();
+      final PreparedStatement<?> statement = statementParser.prepare(parsed);
+      putStatus(
+          commandId,
+          commandStatusFuture,
+          new CommandStatus(CommandStatus.Status.EXECUTING, "Executing statement")
+      );
+      if (statement.getStatement() instanceof CreateAsSelect
+          || statement.getStatement() instanceof InsertInto) {
+        planQuery(statement, command, commandId, commandStatusFuture, pipeline, nextQueryId);
+      } else {
+        executeStatement(
+            statement, command, commandId, commandStatusFuture, Mode.RESTORE, nextQueryId);
+      }
+    } catch (final KsqlException exception) {
+      putErrorStatus(command, commandId, commandStatusFuture, exception);
+    }
+  }
+
   /**
    * Get details on the statuses of all the statements handled thus far.
    *
@@ -154,6 +222,10 @@ public class StatementExecutor {
   ) {
     try {
       final String statementString = command.getStatement();
+      final long nextQueryId = ksqlEngine.getQueryIdGenerator().peekNext();
+      if (command.isPreVersion5()) {
+        commandLog.ifPresent(CommandLog::markUncompactable);
+      }
       maybeTerminateQueryForLegacyDropCommand(commandId, command);
       putStatus(
           commandId,
@@ -166,39 +238,59 @@ public class StatementExecutor {
           new CommandStatus(CommandStatus.Status.EXECUTING, "Executing statement")
       );
       executeStatement(
-          statement, command, commandId, commandStatusFuture, mode);
+          statement, command, commandId, commandStatusFuture, mode, nextQueryId);
     } catch (final KsqlException exception) {
-      log.error("Failed to handle: " + command, exception);
-      final CommandStatus errorStatus = new CommandStatus(
-          CommandStatus.Status.ERROR,
-          ExceptionUtil.stackTraceToString(exception)
-      );
-      putFinalStatus(commandId, commandStatusFuture, errorStatus);
+      putErrorStatus(command, commandId, commandStatusFuture, exception);
     }
   }
 
+  private void putErrorStatus(
+      final Command command,
+      final CommandId commandId,
+      final Optional<CommandStatusFuture> commandStatusFuture,
+      final KsqlException exception
+  ) {
+    log.error("Failed to handle: " + command, exception);
+    final CommandStatus errorStatus = new CommandStatus(
+        CommandStatus.Status.ERROR,
+        ExceptionUtil.stackTraceToString(exception)
+    );
+    putFinalStatus(commandId, commandStatusFuture, errorStatus);
+  }
+
   @SuppressWarnings({"unchecked", "deprecation"})
   private void executeStatement(
       final PreparedStatement<?> statement,
       final Command command,
       final CommandId commandId,
       final Optional<CommandStatusFuture> commandStatusFuture,
-      final Mode mode
+      final Mode mode,
+      final long nextQueryId
   ) {
     String successMessage = "";
     if (statement.getStatement() instanceof ExecutableDdlStatement) {
       successMessage = executeDdlStatement(statement, command);
+      commandLog.ifPresent(history -> history.addDdl(commandId, command, nextQueryId));
     } else if (statement.getStatement() instanceof CreateAsSelect) {
-      startQuery(statement, command, mode);
+      final PersistentQueryMetadata query = startQuery(statement, command, mode);
+      commandLog.ifPresent(history -> history.addQuery(
+          EntryType.CREATE_AS_SELECT, commandId, command, query, nextQueryId));
       successMessage = statement.getStatement() instanceof CreateTableAsSelect
           ? "Table created and running" : "Stream created and running";
     } else if (statement.getStatement() instanceof InsertInto) {
-      startQuery(statement, command, mode);
+      final PersistentQueryMetadata query = startQuery(statement, command, mode);
+      commandLog.ifPresent(history -> history.addQuery(
+          EntryType.INSERT_INTO, commandId, command, query, nextQueryId));
       successMessage = "Insert Into query is running.";
     } else if (statement.getStatement() instanceof TerminateQuery) {
-      terminateQuery((PreparedStatement<TerminateQuery>) statement);
+      final PreparedStatement<TerminateQuery> terminate =
+          (PreparedStatement<TerminateQuery>) statement;
+      terminateQuery(terminate);
+      commandLog.ifPresent(history -> history.addTerminate(
+          commandId, command, terminate.getStatement().getQueryId().getId(), nextQueryId));
       successMessage = "Query terminated.";
     } else if (statement.getStatement() instanceof RunScript) {
+      commandLog.ifPresent(CommandLog::markUncompactable);
       handleLegacyRunScript(command, mode);
     } else {
       throw new KsqlException(String.format(
@@ -267,7 +359,7 @@ public class StatementExecutor {
     }
   }
 
-  private void startQuery(
+  private PersistentQueryMetadata startQuery(
       final PreparedStatement<?> statement,
       final Command command,
       final Mode mode
@@ -297,6 +389,56 @@ public class StatementExecutor {
     if (mode == Mode.EXECUTE) {
       persistentQueryMd.start();
     }
+    return persistentQueryMd;
+  }
+
+  private void planQuery(
+      final PreparedStatement<?> statement,
+      final Command command,
+      final CommandId commandId,
+      final Optional<CommandStatusFuture> commandStatusFuture,
+      final RestorePipeline pipeline,
+      final long nextQueryId
+  ) {
+    final KsqlConfig mergedConfig = buildMergedConfig(command);
+
+    if (QueryCapacityUtil.exceedsPersistentQueryCapacity(
+        ksqlEngine, mergedConfig, 1 + pipeline.numPendingQueries())) {
+      // Queries still being built may yet fail, so only count those that were registered:
+      pipeline.awaitAll();
+      if (QueryCapacityUtil.exceedsPersistentQueryCapacity(ksqlEngine, mergedConfig, 1)) {
+        QueryCapacityUtil.throwTooManyActivePersistentQueriesException(
+            ksqlEngine, mergedConfig, statement.getStatementText());
+      }
+    }
+
+    final PersistentQueryPlan plan = ksqlEngine.planPersistentQuery(
+        statement,
+        mergedConfig,
+        command.getOverwriteProperties());
+
+    final EntryType entryType;
+    final String successMessage;
+    if (statement.getStatement() instanceof InsertInto) {
+      entryType = EntryType.INSERT_INTO;
+      successMessage = "Insert Into query is running.";
+    } else {
+      entryType = EntryType.CREATE_AS_SELECT;
+      successMessage = statement.getStatement() instanceof CreateTableAsSelect
+          ? "Table created and running" : "Stream created and running";
+    }
+
+    pipeline.submit(
+        plan,
+        query -> {
+          commandLog.ifPresent(history -> history.addQuery(
+              entryType, commandId, command, query, nextQueryId));
+          putFinalStatus(
+              commandId,
+              commandStatusFuture,
+              new CommandStatus(CommandStatus.Status.SUCCESS, successMessage));
+        },
+        e -> putErrorStatus(command, commandId, commandStatusFuture, e));
   }
 
   private KsqlConfig buildMergedConfig(final Command command) {
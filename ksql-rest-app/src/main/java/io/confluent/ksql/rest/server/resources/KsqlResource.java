@@ -28,10 +28,12 @@ import io.confluent.ksql.config.KsqlConfigResolver;
 import io.confluent.ksql.function.AggregateFunctionFactory;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.UdfFactory;
+import io.confluent.ksql.function.UdfLoader;
 import io.confluent.ksql.metastore.KsqlStream;
 import io.confluent.ksql.metastore.KsqlTable;
 import io.confluent.ksql.metastore.KsqlTopic;
 import io.confluent.ksql.metastore.StructuredDataSource;
+import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.CreateAsSelect;
@@ -63,6 +65,7 @@ import io.confluent.ksql.rest.entity.CommandStatusEntity;
 import io.confluent.ksql.rest.entity.EntityQueryId;
 import io.confluent.ksql.rest.entity.FunctionDescriptionList;
 import io.confluent.ksql.rest.entity.FunctionInfo;
+import io.confluent.ksql.rest.entity.FunctionLatencyInfo;
 import io.confluent.ksql.rest.entity.FunctionNameList;
 import io.confluent.ksql.rest.entity.FunctionType;
 import io.confluent.ksql.rest.entity.KafkaTopicsList;
@@ -109,10 +112,12 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
@@ -126,6 +131,8 @@ import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.connect.data.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -626,7 +633,8 @@ public class KsqlResource {
         udfFactory.getVersion(),
         udfFactory.getPath(),
         listBuilder.build(),
-        FunctionType.scalar
+        FunctionType.scalar,
+        getFunctionLatency(udfFactory.getName())
     );
   }
 
@@ -751,6 +759,37 @@ public class KsqlResource {
     return new FunctionInfo(args, returnType, description);
   }
 
+  private static FunctionLatencyInfo getFunctionLatency(final String functionName) {
+    final Metrics metrics = MetricCollectors.getMetrics();
+    final String sensorName = UdfLoader.sensorName(functionName);
+    // A total, as the windowed count of unsampled metrics covers only recent invocations:
+    final Optional<Double> count = getUdfMetric(metrics, sensorName + "-total");
+    final Optional<Double> avg = getUdfMetric(metrics, sensorName + "-avg");
+    final Optional<Double> max = getUdfMetric(metrics, sensorName + "-max");
+    if (!count.isPresent() || !avg.isPresent() || !max.isPresent()) {
+      return null;
+    }
+
+    final Map<String, Double> percentiles = new LinkedHashMap<>();
+    for (final String percentile : ImmutableList.of("p50", "p95", "p99")) {
+      getUdfMetric(metrics, sensorName + "-" + percentile)
+          .ifPresent(value -> percentiles.put(percentile, value));
+    }
+    return new FunctionLatencyInfo(count.get().longValue(), avg.get(), max.get(), percentiles);
+  }
+
+  private static Optional<Double> getUdfMetric(final Metrics metrics, final String name) {
+    final KafkaMetric metric =
+        metrics.metric(metrics.metricName(name, UdfLoader.UDF_METRIC_GROUP));
+    if (metric == null) {
+      return Optional.empty();
+    }
+    final Object value = metric.metricValue();
+    return value instanceof Double && !((Double) value).isNaN()
+        ? Optional.of((Double) value)
+        : Optional.empty();
+  }
+
   @SuppressWarnings("unchecked")
   private static <T extends Statement> Handler<T> getCustomExecutor(
       final PreparedStatement<T> statement
@@ -18,44 +18,73 @@ package io.confluent.ksql.rest.server.resources.streaming;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * A subscription that delivers the items returned by {@link #poll()} to its subscriber, as long
+ * as the subscriber has outstanding demand.
+ *
+ * <p>Items are delivered on the supplied executor, one drain of the source at a time. A drain
+ * stops once the demand is exhausted or {@link #poll()} returns nothing, and is restarted by
+ * either a call to {@link #request(long)} or, once the source may have more items, a call to
+ * {@link #signal()}. Sources that can not signal new items, e.g. a Kafka consumer, should supply
+ * an idle poll interval, after which the source is polled again.
+ */
 public abstract class PollingSubscription<T> implements Flow.Subscription {
 
-  private static final int BACKOFF_DELAY_MS = 100;
-
   private final Flow.Subscriber<T> subscriber;
   private final ListeningScheduledExecutorService exec;
   private final Schema schema;
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private final Optional<Duration> idlePollInterval;
 
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicInteger pendingSignals = new AtomicInteger();
   private boolean needsSchema = true;
   private volatile boolean done = false;
-  private Throwable exception = null;
-  private boolean draining = false;
-  private volatile ListenableFuture future;
+  private volatile boolean terminated = false;
+  private volatile Throwable exception = null;
+  private volatile ListenableFuture<?> idlePoll;
 
   public PollingSubscription(
       final ListeningScheduledExecutorService exec,
       final Flow.Subscriber<T> subscriber,
       final Schema schema
+  ) {
+    this(exec, subscriber, schema, Optional.empty());
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  public PollingSubscription(
+      final ListeningScheduledExecutorService exec,
+      final Flow.Subscriber<T> subscriber,
+      final Schema schema,
+      final Optional<Duration> idlePollInterval
   ) {
     this.exec = exec;
     this.subscriber = subscriber;
     this.schema = schema;
+    this.idlePollInterval = idlePollInterval;
   }
 
   @Override
   public void cancel() {
-    if (future != null) {
-      future.cancel(false);
+    terminated = true;
+    final ListenableFuture<?> scheduled = idlePoll;
+    if (scheduled != null) {
+      scheduled.cancel(false);
     }
     exec.submit(this::close);
   }
 
   @Override
   public void request(final long n) {
-    Preconditions.checkArgument(n == 1, "number of requested items must be 1");
+    Preconditions.checkArgument(n > 0, "number of requested items must be positive");
 
     if (needsSchema) {
       if (schema != null) {
@@ -63,46 +92,76 @@ public abstract class PollingSubscription<T> implements Flow.Subscription {
       }
       needsSchema = false;
     }
-    // check status since request() can be reentrant through subscriber.onNext()
-    // this is to prevent another thread from calling onNext again
-    // while the first one is draining and closing the subscription after having called onNext
-    // with the last element polled from the queue after being marked done.
-    if (!draining) {
-      future = exec.submit(() -> {
-
-        if (done) {
-          draining = true;
-        }
-        final T item = poll();
-        if (item == null) {
-          if (!draining) {
-            future = exec.schedule(() -> request(1), BACKOFF_DELAY_MS, TimeUnit.MILLISECONDS);
-          }
-        } else {
-          subscriber.onNext(item);
-        }
-        if (draining) {
-          close();
-          if (exception != null) {
-            subscriber.onError(exception);
-          } else {
-            subscriber.onComplete();
-          }
-        }
-      });
+
+    demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+    signal();
+  }
+
+  /**
+   * Signals that the source may have more items, or has been marked done.
+   *
+   * <p>Cheap enough to be called by the producer for every item it makes available: a drain is
+   * only scheduled if one is not already scheduled or running. A signal received while a drain is
+   * running causes it to poll again before finishing.
+   */
+  protected void signal() {
+    if (pendingSignals.getAndIncrement() == 0) {
+      exec.submit(this::drain);
     }
   }
 
   protected void setError(final Throwable e) {
     exception = e;
     done = true;
+    signal();
   }
 
   protected void setDone() {
     done = true;
+    signal();
   }
 
   abstract T poll();
 
   abstract void close();
+
+  private void drain() {
+    int missed = 1;
+    do {
+      boolean idle = false;
+      while (!terminated && demand.get() > 0) {
+        // An item polled after the source was marked done is the last one:
+        final boolean last = done;
+        final T item = poll();
+        if (item != null) {
+          demand.getAndUpdate(current -> current == Long.MAX_VALUE ? current : current - 1);
+          subscriber.onNext(item);
+        }
+
+        if (last) {
+          terminate();
+        } else if (item == null) {
+          idle = true;
+          break;
+        }
+      }
+
+      if (idle && !terminated && idlePollInterval.isPresent()) {
+        idlePoll = exec.schedule(
+            this::signal, idlePollInterval.get().toMillis(), TimeUnit.MILLISECONDS);
+      }
+
+      missed = pendingSignals.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void terminate() {
+    terminated = true;
+    close();
+    if (exception != null) {
+      subscriber.onError(exception);
+    } else {
+      subscriber.onComplete();
+    }
+  }
 }
@@ -33,6 +33,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -48,6 +49,9 @@ public class PrintPublisher implements Flow.Publisher<Collection<String>> {
 
   private static final Logger log = LoggerFactory.getLogger(PrintPublisher.class);
 
+  // A consumer can not signal new records, so is polled again after this interval once idle:
+  private static final Duration IDLE_POLL_INTERVAL = Duration.ofMillis(100);
+
   private final ListeningScheduledExecutorService exec;
   private final SchemaRegistryClient schemaRegistryClient;
   private final Map<String, Object> consumerProperties;
@@ -112,7 +116,7 @@ public class PrintPublisher implements Flow.Publisher<Collection<String>> {
         final KafkaConsumer<String, Bytes> topicConsumer,
         final RecordFormatter formatter
     ) {
-      super(exec, subscriber, null);
+      super(exec, subscriber, null, Optional.of(IDLE_POLL_INTERVAL));
       this.printTopic = Objects.requireNonNull(printTopic, "printTopic");
       this.topicConsumer = Objects.requireNonNull(topicConsumer, "topicConsumer");
       this.formatter = Objects.requireNonNull(formatter, "formatter");
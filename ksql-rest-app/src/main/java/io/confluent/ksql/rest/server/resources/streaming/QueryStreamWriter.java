@@ -15,7 +15,10 @@
 
 package io.confluent.ksql.rest.server.resources.streaming;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.collect.Lists;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.planner.plan.OutputNode;
@@ -25,32 +28,55 @@ import io.confluent.ksql.util.QueuedQueryMetadata;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import javax.ws.rs.core.StreamingOutput;
 import org.apache.kafka.streams.KeyValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Streams the rows of a transient query to the client, one JSON object per line.
+ *
+ * <p>Rows are taken from the query's row queue in batches and written through a single
+ * {@link JsonGenerator}. The response is flushed once {@code maxBatchRows} rows have been written
+ * without a flush, or once the oldest unflushed row has waited {@code flushInterval} ms.
+ */
 class QueryStreamWriter implements StreamingOutput {
 
   private static final Logger log = LoggerFactory.getLogger(QueryStreamWriter.class);
 
   private final QueuedQueryMetadata queryMetadata;
   private final long disconnectCheckInterval;
+  private final int maxBatchRows;
+  private final long flushInterval;
   private final ObjectMapper objectMapper;
+  private final ObjectWriter objectWriter;
   private volatile Exception streamsException;
   private volatile boolean limitReached = false;
 
   QueryStreamWriter(
       final QueuedQueryMetadata queryMetadata,
       final long disconnectCheckInterval,
+      final int maxBatchRows,
+      final long flushInterval,
       final ObjectMapper objectMapper
   ) {
+    if (maxBatchRows < 1) {
+      throw new IllegalArgumentException("maxBatchRows must be positive: " + maxBatchRows);
+    }
+    if (flushInterval < 0) {
+      throw new IllegalArgumentException("flushInterval must not be negative: " + flushInterval);
+    }
     this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
+    this.objectWriter = objectMapper.writer()
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     this.disconnectCheckInterval = disconnectCheckInterval;
+    this.maxBatchRows = maxBatchRows;
+    this.flushInterval = flushInterval;
     this.queryMetadata = Objects.requireNonNull(queryMetadata, "queryMetadata");
     this.queryMetadata.setLimitHandler(new LimitHandler());
     this.queryMetadata.setUncaughtExceptionHandler(new StreamsExceptionHandler());
@@ -59,79 +85,118 @@ class QueryStreamWriter implements StreamingOutput {
 
   @Override
   public void write(final OutputStream out) {
-    try {
-      while (queryMetadata.isRunning() && !limitReached) {
-        final KeyValue<String, GenericRow> value = queryMetadata.getRowQueue().poll(
-            disconnectCheckInterval,
-            TimeUnit.MILLISECONDS
-        );
-        if (value != null) {
-          write(out, value.value);
-        } else {
-          // If no new rows have been written, the user may have terminated the connection without
-          // us knowing. Check by trying to write a single newline.
-          out.write("\n".getBytes(StandardCharsets.UTF_8));
-          out.flush();
-        }
-        drainAndThrowOnError(out);
+    try (JsonGenerator generator = createGenerator(out)) {
+      try {
+        writeRows(generator);
+      } catch (final EOFException exception) {
+        // The user has terminated the connection; we can stop writing
+        log.warn("Query terminated due to exception:" + exception.toString());
+      } catch (final InterruptedException exception) {
+        // The most likely cause of this is the server shutting down. Should just try to close
+        // gracefully, without writing any more to the connection stream.
+        log.warn("Interrupted while writing to connection stream");
+      } catch (final Exception exception) {
+        log.error("Exception occurred while writing to connection stream: ", exception);
+        outputException(generator, exception);
       }
+    } catch (final IOException e) {
+      log.debug("Client disconnected while closing the connection stream");
+    } finally {
+      queryMetadata.close();
+    }
+  }
+
+  private JsonGenerator createGenerator(final OutputStream out) throws IOException {
+    final JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // Each value is terminated by a new line, so there is no need to separate them:
+    generator.setRootValueSeparator(null);
+    return generator;
+  }
+
+  private void writeRows(final JsonGenerator generator) throws Exception {
+    final BlockingQueue<KeyValue<String, GenericRow>> rowQueue = queryMetadata.getRowQueue();
+    final List<KeyValue<String, GenericRow>> batch = new ArrayList<>(maxBatchRows);
+    int unflushedRows = 0;
+    long flushDeadline = 0;
+
+    while (queryMetadata.isRunning() && !limitReached) {
+      final long timeout = unflushedRows == 0
+          ? disconnectCheckInterval
+          : Math.max(0, flushDeadline - System.currentTimeMillis());
+
+      final KeyValue<String, GenericRow> value = rowQueue.poll(timeout, TimeUnit.MILLISECONDS);
+      if (value != null) {
+        if (unflushedRows == 0) {
+          flushDeadline = System.currentTimeMillis() + flushInterval;
+        }
 
-      drain(out);
+        write(generator, StreamedRow.row(value.value));
+        unflushedRows++;
 
-      if (limitReached) {
-        objectMapper.writeValue(out, StreamedRow.finalMessage("Limit Reached"));
-        out.write("\n".getBytes(StandardCharsets.UTF_8));
-        out.flush();
+        rowQueue.drainTo(batch, maxBatchRows - unflushedRows);
+        for (final KeyValue<String, GenericRow> row : batch) {
+          write(generator, StreamedRow.row(row.value));
+        }
+        unflushedRows += batch.size();
+        batch.clear();
+
+        if (unflushedRows >= maxBatchRows || System.currentTimeMillis() >= flushDeadline) {
+          generator.flush();
+          unflushedRows = 0;
+        }
+      } else if (unflushedRows != 0) {
+        generator.flush();
+        unflushedRows = 0;
+      } else {
+        // If no new rows have been written, the user may have terminated the connection without
+        // us knowing. Check by trying to write a single newline.
+        generator.writeRaw('\n');
+        generator.flush();
       }
-    } catch (final EOFException exception) {
-      // The user has terminated the connection; we can stop writing
-      log.warn("Query terminated due to exception:" + exception.toString());
-    } catch (final InterruptedException exception) {
-      // The most likely cause of this is the server shutting down. Should just try to close
-      // gracefully, without writing any more to the connection stream.
-      log.warn("Interrupted while writing to connection stream");
-    } catch (final Exception exception) {
-      log.error("Exception occurred while writing to connection stream: ", exception);
-      outputException(out, exception);
-    } finally {
-      queryMetadata.close();
+      drainAndThrowOnError(generator);
+    }
+
+    drain(generator);
+
+    if (limitReached) {
+      write(generator, StreamedRow.finalMessage("Limit Reached"));
     }
+    generator.flush();
   }
 
-  private void write(final OutputStream output, final GenericRow row) throws IOException {
-    objectMapper.writeValue(output, StreamedRow.row(row));
-    output.write("\n".getBytes(StandardCharsets.UTF_8));
-    output.flush();
+  private void write(final JsonGenerator generator, final StreamedRow row) throws IOException {
+    objectWriter.writeValue(generator, row);
+    generator.writeRaw('\n');
   }
 
-  private void outputException(final OutputStream out, final Throwable exception) {
+  private void outputException(final JsonGenerator generator, final Throwable exception) {
     try {
-      out.write("\n".getBytes(StandardCharsets.UTF_8));
+      generator.writeRaw('\n');
       if (exception.getCause() instanceof KsqlException) {
-        objectMapper.writeValue(out, StreamedRow.error(exception.getCause()));
+        write(generator, StreamedRow.error(exception.getCause()));
       } else {
-        objectMapper.writeValue(out, StreamedRow.error(exception));
+        write(generator, StreamedRow.error(exception));
       }
-      out.write("\n".getBytes(StandardCharsets.UTF_8));
-      out.flush();
+      generator.flush();
     } catch (final IOException e) {
       log.debug("Client disconnected while attempting to write an error message");
     }
   }
 
-  private void drainAndThrowOnError(final OutputStream out) throws Exception {
+  private void drainAndThrowOnError(final JsonGenerator generator) throws Exception {
     if (streamsException != null) {
-      drain(out);
+      drain(generator);
       throw streamsException;
     }
   }
 
-  private void drain(final OutputStream out) throws IOException {
+  private void drain(final JsonGenerator generator) throws IOException {
     final List<KeyValue<String, GenericRow>> rows = Lists.newArrayList();
     queryMetadata.getRowQueue().drainTo(rows);
 
     for (final KeyValue<String, GenericRow> row : rows) {
-      write(out, row.value);
+      write(generator, StreamedRow.row(row.value));
     }
   }
 
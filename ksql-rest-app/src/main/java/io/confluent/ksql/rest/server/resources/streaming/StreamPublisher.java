@@ -88,6 +88,7 @@ class StreamPublisher implements Flow.Publisher<Collection<StreamedRow>> {
       this.queryMetadata = queryMetadata;
 
       queryMetadata.setLimitHandler(this::setDone);
+      queryMetadata.setRowQueuedHandler(this::signal);
       queryMetadata.setUncaughtExceptionHandler(
           (thread, e) -> setError(e)
       );
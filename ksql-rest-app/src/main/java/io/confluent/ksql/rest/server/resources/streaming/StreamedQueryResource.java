@@ -158,9 +158,13 @@ public class StreamedQueryResource {
       ));
     }
 
+    final KsqlConfig queryConfig = ksqlConfig.cloneWithPropertyOverwrite(streamsProperties);
+
     final QueryStreamWriter queryStreamWriter = new QueryStreamWriter(
         (QueuedQueryMetadata) query,
         disconnectCheckInterval.toMillis(),
+        queryConfig.getInt(KsqlConfig.KSQL_TRANSIENT_QUERY_BATCH_MAX_ROWS_CONFIG),
+        queryConfig.getLong(KsqlConfig.KSQL_TRANSIENT_QUERY_FLUSH_INTERVAL_MS_CONFIG),
         objectMapper);
 
     log.info("Streaming query '{}'", statement.getStatementText());
@@ -25,6 +25,7 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.KsqlEngine;
 import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.parser.tree.AbstractStreamCreateStatement;
@@ -70,6 +71,8 @@ public class KsqlRestApplicationTest {
   @Mock
   private ProcessingLogConfig processingLogConfig;
   @Mock
+  private ProcessingLogContext processingLogContext;
+  @Mock
   private CommandRunner commandRunner;
   @Mock
   private RootDocument rootDocument;
@@ -106,6 +109,7 @@ public class KsqlRestApplicationTest {
     app = new KsqlRestApplication(
         serviceContext,
         ksqlEngine,
+        processingLogContext,
         ksqlConfig,
         restConfig,
         commandRunner,
@@ -127,6 +131,15 @@ public class KsqlRestApplicationTest {
     verify(serviceContext).close();
   }
 
+  @Test
+  public void shouldCloseProcessingLogOnClose() {
+    // When:
+    app.stop();
+
+    // Then:
+    verify(processingLogContext).close();
+  }
+
   @Test
   public void shouldCreateLogStream() {
     // When:
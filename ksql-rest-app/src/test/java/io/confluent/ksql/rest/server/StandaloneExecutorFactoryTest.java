@@ -71,7 +71,8 @@ public class StandaloneExecutorFactoryTest {
     when(topicClient.isTopicExists(configTopicName)).thenReturn(false);
     when(configStore.getKsqlConfig()).thenReturn(mergedConfig);
     when(constructor
-        .create(any(), any(), any(), any(), anyString(), any(), anyBoolean(), any(), any()))
+        .create(any(), any(), any(), any(), any(), anyString(), any(), anyBoolean(), any(),
+            any()))
         .thenReturn(standaloneExecutor);
   }
 
@@ -120,6 +121,7 @@ public class StandaloneExecutorFactoryTest {
     inOrder.verify(topicClient).createTopic(eq(configTopicName), anyInt(), anyShort(), anyMap());
     inOrder.verify(configStoreFactory).apply(eq(configTopicName), argThat(sameConfig(baseConfig)));
     inOrder.verify(constructor).create(
-        any(), any(), same(mergedConfig), any(), anyString(), any(), anyBoolean(), any(), any());
+        any(), any(), any(), same(mergedConfig), any(), anyString(), any(), anyBoolean(), any(),
+        any());
   }
 }
\ No newline at end of file
@@ -37,6 +37,7 @@ import io.confluent.ksql.KsqlExecutionContext;
 import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
 import io.confluent.ksql.function.UdfLoader;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.SqlBaseParser.SingleStatementContext;
@@ -155,6 +156,8 @@ public class StandaloneExecutorTest {
   @Mock
   private UdfLoader udfLoader;
   @Mock
+  private ProcessingLogContext processingLogContext;
+  @Mock
   private PersistentQueryMetadata persistentQuery;
   @Mock
   private PersistentQueryMetadata sandBoxQuery;
@@ -208,6 +211,7 @@ public class StandaloneExecutorTest {
     standaloneExecutor = new StandaloneExecutor(
         serviceContext,
         processingLogConfig,
+        processingLogContext,
         ksqlConfig,
         ksqlEngine,
         queriesFile.toString(),
@@ -276,6 +280,7 @@ public class StandaloneExecutorTest {
             ProcessingLogConfig.TOPIC_AUTO_CREATE, false,
             ProcessingLogConfig.TOPIC_NAME, PROCESSING_LOG_TOPIC_NAME
         )),
+        processingLogContext,
         ksqlConfig,
         ksqlEngine,
         queriesFile.toString(),
@@ -512,6 +517,15 @@ public class StandaloneExecutorTest {
     verify(ksqlEngine).close();
   }
 
+  @Test
+  public void shouldCloseProcessingLogOnStop() {
+    // When:
+    standaloneExecutor.stop();
+
+    // Then:
+    verify(processingLogContext).close();
+  }
+
   @Test
   public void shouldCloseServiceContextOnStop() {
     // When:
@@ -606,6 +620,7 @@ public class StandaloneExecutorTest {
     standaloneExecutor = new StandaloneExecutor(
         serviceContext,
         processingLogConfig,
+        processingLogContext,
         ksqlConfig,
         ksqlEngine,
         queriesFile.toString(),
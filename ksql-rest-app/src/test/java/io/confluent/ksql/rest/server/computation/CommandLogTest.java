@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.rest.server.computation.CommandId.Action;
+import io.confluent.ksql.rest.server.computation.CommandId.Type;
+import io.confluent.ksql.rest.server.computation.CommandSnapshot.Entry;
+import io.confluent.ksql.rest.server.computation.CommandSnapshot.EntryType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Test;
+
+public class CommandLogTest {
+
+  private static final Entry CREATE_A = create("A");
+  private static final Entry CREATE_B = create("B");
+  private static final Entry DROP_A = drop("A");
+  private static final Entry DROP_B = drop("B");
+  private static final Entry CSAS_B_0 = query(EntryType.CREATE_AS_SELECT, "CSAS_B_0", "A", "B");
+  private static final Entry CSAS_B_1 = query(EntryType.CREATE_AS_SELECT, "CSAS_B_1", "A", "B");
+  private static final Entry INSERT_1 = query(EntryType.INSERT_INTO, "InsertQuery_1", "A", "B");
+  private static final Entry TERMINATE_CSAS_B_0 = terminate("CSAS_B_0");
+  private static final Entry TERMINATE_INSERT_1 = terminate("InsertQuery_1");
+
+  @Test
+  public void shouldKeepLiveSourcesAndQueries() {
+    assertThat(compact(CREATE_A, CSAS_B_0), contains(CREATE_A, CSAS_B_0));
+  }
+
+  @Test
+  public void shouldRemoveTerminatedInsertInto() {
+    assertThat(
+        compact(CREATE_A, CREATE_B, INSERT_1, TERMINATE_INSERT_1),
+        contains(CREATE_A, CREATE_B));
+  }
+
+  @Test
+  public void shouldKeepTerminatedQueryWhoseSinkIsNotDropped() {
+    assertThat(
+        compact(CREATE_A, CSAS_B_0, TERMINATE_CSAS_B_0),
+        contains(CREATE_A, CSAS_B_0, TERMINATE_CSAS_B_0));
+  }
+
+  @Test
+  public void shouldRemoveDroppedSourceWithItsQuery() {
+    assertThat(
+        compact(CREATE_A, CSAS_B_0, TERMINATE_CSAS_B_0, DROP_B, CSAS_B_1),
+        contains(CREATE_A, CSAS_B_1));
+  }
+
+  @Test
+  public void shouldRemoveEverythingIfAllDropped() {
+    assertThat(
+        compact(CREATE_A, CSAS_B_0, TERMINATE_CSAS_B_0, DROP_B, DROP_A),
+        is(empty()));
+  }
+
+  @Test
+  public void shouldKeepDroppedSourceUsedByRemainingQuery() {
+    assertThat(
+        compact(CREATE_A, CSAS_B_0, TERMINATE_CSAS_B_0, DROP_A),
+        contains(CREATE_A, CSAS_B_0, TERMINATE_CSAS_B_0, DROP_A));
+  }
+
+  @Test
+  public void shouldRemoveDroppedSourceOnceQueryRacingDropIsTerminated() {
+    assertThat(
+        compact(CREATE_A, CREATE_B, INSERT_1, DROP_B),
+        contains(CREATE_A, CREATE_B, INSERT_1, DROP_B));
+    assertThat(
+        compact(CREATE_A, CREATE_B, INSERT_1, DROP_B, TERMINATE_INSERT_1),
+        contains(CREATE_A));
+  }
+
+  @Test
+  public void shouldTakeSnapshotOfRecordedCommands() {
+    // Given:
+    final CommandLog commandLog = new CommandLog();
+    commandLog.addDdl(CREATE_B.getCommandId(), CREATE_B.getCommand(), 0L);
+    commandLog.addDdl(DROP_B.getCommandId(), DROP_B.getCommand(), 0L);
+    commandLog.addDdl(CREATE_A.getCommandId(), CREATE_A.getCommand(), 0L);
+
+    // When:
+    final CommandSnapshot snapshot = commandLog.snapshot(3L, 5L).get();
+
+    // Then:
+    assertThat(snapshot.getOffset(), is(3L));
+    assertThat(snapshot.getNextQueryId(), is(5L));
+    assertThat(snapshot.getEntries(), contains(CREATE_A));
+  }
+
+  @Test
+  public void shouldNotTakeSnapshotAfterTopicCommand() {
+    // Given:
+    final CommandLog commandLog = new CommandLog();
+    commandLog.addDdl(CREATE_A.getCommandId(), CREATE_A.getCommand(), 0L);
+    commandLog.addDdl(
+        new CommandId(Type.TOPIC, "T", Action.CREATE),
+        command("REGISTER TOPIC T WITH (KAFKA_TOPIC='T', VALUE_FORMAT='JSON');"),
+        0L);
+
+    // Then:
+    assertThat(commandLog.snapshot(2L, 0L), is(Optional.empty()));
+  }
+
+  private static List<Entry> compact(final Entry... entries) {
+    final List<Entry> list = new ArrayList<>(Arrays.asList(entries));
+    CommandLog.compact(list);
+    return list;
+  }
+
+  private static Command command(final String statement) {
+    return new Command(statement, ImmutableMap.of(), ImmutableMap.of());
+  }
+
+  private static Entry create(final String name) {
+    return new Entry(
+        new CommandId(Type.STREAM, name, Action.CREATE),
+        command("CREATE STREAM " + name + " (C STRING) WITH (KAFKA_TOPIC='" + name + "');"),
+        EntryType.CREATE,
+        null,
+        ImmutableSet.of(),
+        ImmutableSet.of(name),
+        0L);
+  }
+
+  private static Entry drop(final String name) {
+    return new Entry(
+        new CommandId(Type.STREAM, name, Action.DROP),
+        command("DROP STREAM " + name + ";"),
+        EntryType.DROP,
+        null,
+        ImmutableSet.of(),
+        ImmutableSet.of(name),
+        0L);
+  }
+
+  private static Entry query(
+      final EntryType type,
+      final String queryId,
+      final String source,
+      final String sink
+  ) {
+    return new Entry(
+        new CommandId(Type.STREAM, sink, Action.CREATE),
+        command(queryId),
+        type,
+        queryId,
+        ImmutableSet.of(source),
+        ImmutableSet.of(sink),
+        Long.parseLong(queryId.substring(queryId.lastIndexOf('_') + 1)));
+  }
+
+  private static Entry terminate(final String queryId) {
+    return new Entry(
+        new CommandId(Type.TERMINATE, queryId, Action.EXECUTE),
+        command("TERMINATE " + queryId + ";"),
+        EntryType.TERMINATE,
+        queryId,
+        ImmutableSet.of(),
+        ImmutableSet.of(),
+        0L);
+  }
+}
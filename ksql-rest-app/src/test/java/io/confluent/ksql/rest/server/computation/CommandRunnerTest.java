@@ -97,9 +97,9 @@ public class CommandRunnerTest {
 
     // Then:
     final InOrder inOrder = Mockito.inOrder(statementExecutor);
-    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommandList.get(0)));
-    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommandList.get(1)));
-    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommandList.get(2)));
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommandList.get(0)), any());
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommandList.get(1)), any());
+    inOrder.verify(statementExecutor).handleRestore(eq(queuedCommandList.get(2)), any());
   }
 
   @Test
@@ -114,7 +114,7 @@ public class CommandRunnerTest {
     verify(ksqlEngine).stopAcceptingStatements();
     verify(commandStore).close();
     verify(clusterTerminator).terminateCluster(anyList());
-    verify(statementExecutor, never()).handleRestore(any());
+    verify(statementExecutor, never()).handleRestore(any(), any());
   }
 
   @Test
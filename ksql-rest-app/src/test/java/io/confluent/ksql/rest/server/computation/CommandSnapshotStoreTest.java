@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.rest.server.computation.CommandId.Action;
+import io.confluent.ksql.rest.server.computation.CommandId.Type;
+import io.confluent.ksql.rest.server.computation.CommandSnapshot.Entry;
+import io.confluent.ksql.rest.server.computation.CommandSnapshot.EntryType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CommandSnapshotStoreTest {
+
+  private static final CommandSnapshot SNAPSHOT = new CommandSnapshot(
+      10L,
+      3L,
+      ImmutableList.of(
+          new Entry(
+              new CommandId(Type.STREAM, "A", Action.CREATE),
+              new Command(
+                  "CREATE STREAM A (C STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+                  ImmutableMap.of("auto.offset.reset", "earliest"),
+                  ImmutableMap.of("ksql.service.id", "foo")),
+              EntryType.CREATE,
+              null,
+              ImmutableSet.of(),
+              ImmutableSet.of("A"),
+              0L),
+          new Entry(
+              new CommandId(Type.STREAM, "B", Action.CREATE),
+              new Command(
+                  "CREATE STREAM B AS SELECT * FROM A;",
+                  ImmutableMap.of(),
+                  ImmutableMap.of()),
+              EntryType.CREATE_AS_SELECT,
+              "CSAS_B_2",
+              ImmutableSet.of("A"),
+              ImmutableSet.of("B"),
+              2L)
+      ));
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private Path snapshotDir;
+  private CommandSnapshotStore store;
+
+  @Before
+  public void setUp() {
+    snapshotDir = folder.getRoot().toPath().resolve("snapshots");
+    store = new CommandSnapshotStore(snapshotDir, "_confluent-ksql-default__command_topic");
+  }
+
+  @Test
+  public void shouldLoadNothingIfNoSnapshotSaved() {
+    assertThat(store.load(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldLoadSavedSnapshot() {
+    // When:
+    store.save(SNAPSHOT);
+
+    // Then:
+    final CommandSnapshot loaded = store.load().get();
+    assertThat(loaded.getOffset(), is(10L));
+    assertThat(loaded.getNextQueryId(), is(3L));
+    assertThat(loaded.getEntries(), equalTo(SNAPSHOT.getEntries()));
+    assertThat(loaded.getEntries().get(0).getQueryId(), is(Optional.empty()));
+    assertThat(loaded.getEntries().get(1).getQueryId(), is(Optional.of("CSAS_B_2")));
+  }
+
+  @Test
+  public void shouldReplacePreviousSnapshot() {
+    // Given:
+    store.save(SNAPSHOT);
+
+    // When:
+    store.save(new CommandSnapshot(12L, 3L, ImmutableList.of()));
+
+    // Then:
+    assertThat(store.load().get().getOffset(), is(12L));
+    assertThat(snapshotDir.toFile().list().length, is(1));
+  }
+
+  @Test
+  public void shouldIgnoreUnreadableSnapshot() throws IOException {
+    // Given:
+    store.save(SNAPSHOT);
+    Files.write(
+        snapshotDir.resolve("_confluent-ksql-default__command_topic.snapshot"),
+        "{\"offset\": 1".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(store.load(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldDeleteSnapshot() {
+    // Given:
+    store.save(SNAPSHOT);
+
+    // When:
+    store.delete();
+
+    // Then:
+    assertThat(store.load(), is(Optional.empty()));
+  }
+}
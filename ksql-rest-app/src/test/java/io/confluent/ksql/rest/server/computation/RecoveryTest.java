@@ -68,7 +68,9 @@ import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class RecoveryTest {
   private final KsqlConfig ksqlConfig = new KsqlConfig(
@@ -81,6 +83,10 @@ public class RecoveryTest {
   private final ServiceContext serviceContext = TestServiceContext.create(topicClient);
   private final KsqlServer server1 = new KsqlServer(commands);
   private final KsqlServer server2 = new KsqlServer(commands);
+  private CommandSnapshotStore snapshotStore;
+
+  @Rule
+  public final TemporaryFolder snapshotDir = new TemporaryFolder();
 
   @After
   public void tearDown() {
@@ -141,6 +147,24 @@ public class RecoveryTest {
       return restoreCommands;
     }
 
+    @Override
+    public List<QueuedCommand> getRestoreCommands(final long fromOffset) {
+      final List<QueuedCommand> restoreCommands =
+          ImmutableList.copyOf(commandLog.subList((int) fromOffset, commandLog.size()));
+      this.offset = commandLog.size();
+      return restoreCommands;
+    }
+
+    @Override
+    public long getConsumerPosition() {
+      return offset;
+    }
+
+    @Override
+    public long getEndOffset() {
+      return commandLog.size();
+    }
+
     @Override
     public void ensureConsumedPast(final long seqNum, final Duration timeout) {
     }
@@ -163,6 +187,13 @@ public class RecoveryTest {
     final CommandRunner commandRunner;
 
     KsqlServer(final List<QueuedCommand> commandLog) {
+      this(commandLog, Optional.empty());
+    }
+
+    KsqlServer(
+        final List<QueuedCommand> commandLog,
+        final Optional<CommandSnapshotStore> snapshotStore
+    ) {
       this.ksqlEngine = createKsqlEngine();
       this.fakeCommandQueue = new FakeCommandQueue(commandLog);
 
@@ -182,13 +213,17 @@ public class RecoveryTest {
       this.statementExecutor = new StatementExecutor(
           ksqlConfig,
           ksqlEngine,
-          new StatementParser(ksqlEngine));
+          new StatementParser(ksqlEngine),
+          snapshotStore.isPresent());
       this.commandRunner = new CommandRunner(
           statementExecutor,
           fakeCommandQueue,
           ksqlEngine,
           1,
-          mock(ClusterTerminator.class)
+          mock(ClusterTerminator.class),
+          snapshotStore,
+          1,
+          4
       );
     }
 
@@ -489,18 +524,28 @@ public class RecoveryTest {
   }
 
   private void shouldRecover(final List<QueuedCommand> commands) {
+    shouldRecover(commands, Optional.empty());
+    shouldRecover(commands, Optional.of(snapshotStore));
+  }
+
+  private void shouldRecover(
+      final List<QueuedCommand> commands,
+      final Optional<CommandSnapshotStore> snapshotStore
+  ) {
     // Given:
-    final KsqlServer executeServer = new KsqlServer(commands);
+    final KsqlServer executeServer = new KsqlServer(commands, snapshotStore);
     executeServer.executeCommands();
     final KsqlEngine engine = executeServer.ksqlEngine;
 
     // When:
-    final KsqlServer recoverServer = new KsqlServer(commands);
+    final KsqlServer recoverServer = new KsqlServer(commands, snapshotStore);
     recoverServer.recover();
     final KsqlEngine recovered = recoverServer.ksqlEngine;
 
     // Then:
     assertThat(recovered.getMetaStore(), sameStore(engine.getMetaStore()));
+    assertThat(recovered.getQueryIdGenerator().peekNext(),
+        equalTo(engine.getQueryIdGenerator().peekNext()));
     final Map<QueryId, PersistentQueryMetadata> queries
         = queriesById(engine.getPersistentQueries());
     final Map<QueryId, PersistentQueryMetadata> recoveredQueries
@@ -513,6 +558,7 @@ public class RecoveryTest {
   @Before
   public void setUp() {
     topicClient.preconditionTopicExists("A");
+    snapshotStore = new CommandSnapshotStore(snapshotDir.getRoot().toPath(), "commands");
   }
 
   @Test
@@ -641,4 +687,89 @@ public class RecoveryTest {
         recovered.ksqlEngine.getMetaStore().getAllStructuredDataSources().keySet(),
         contains("A"));
   }
+
+  @Test
+  public void shouldOnlyKeepLiveCommandsInSnapshot() {
+    // Given:
+    final KsqlServer server = new KsqlServer(commands, Optional.of(snapshotStore));
+    server.submitCommands(
+        "CREATE STREAM A (C1 STRING, C2 INT) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT C1 FROM A;",
+        "INSERT INTO B SELECT C1 FROM A;",
+        "TERMINATE InsertQuery_1;",
+        "TERMINATE CSAS_B_0;",
+        "DROP STREAM B;",
+        "CREATE STREAM B AS SELECT C2 FROM A;",
+        "CREATE STREAM C AS SELECT * FROM B;",
+        "TERMINATE CSAS_C_3;"
+    );
+
+    // When:
+    final CommandSnapshot snapshot = snapshotStore.load().get();
+
+    // Then:
+    assertThat(snapshot.getOffset(), equalTo((long) commands.size()));
+    assertThat(snapshot.getNextQueryId(), equalTo(4L));
+    assertThat(
+        snapshot.getEntries().stream()
+            .map(entry -> entry.getCommand().getStatement())
+            .collect(Collectors.toList()),
+        contains(
+            "CREATE STREAM A (C1 STRING, C2 INT) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+            "CREATE STREAM B AS SELECT C2 FROM A;",
+            "CREATE STREAM C AS SELECT * FROM B;",
+            "TERMINATE CSAS_C_3;"
+        ));
+    shouldRecover(commands);
+  }
+
+  @Test
+  public void shouldRecoverCommandsWrittenAfterSnapshot() {
+    // Given:
+    final KsqlServer server = new KsqlServer(commands, Optional.of(snapshotStore));
+    server.submitCommands(
+        "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+        "CREATE STREAM B AS SELECT * FROM A;"
+    );
+    server2.executeCommands();
+    server2.submitCommands(
+        "TERMINATE CSAS_B_0;",
+        "DROP STREAM B;",
+        "CREATE STREAM C AS SELECT * FROM A;"
+    );
+
+    // When:
+    final KsqlServer recovered = new KsqlServer(commands, Optional.of(snapshotStore));
+    recovered.recover();
+
+    // Then:
+    assertThat(snapshotStore.load().get().getOffset(), equalTo((long) commands.size()));
+    assertThat(
+        recovered.ksqlEngine.getMetaStore().getAllStructuredDataSources().keySet(),
+        contains("A", "C"));
+    assertThat(
+        recovered.ksqlEngine.getPersistentQuery(new QueryId("CSAS_C_1")).isPresent(),
+        equalTo(true));
+  }
+
+  @Test
+  public void shouldNotSnapshotLegacyCommands() {
+    // Given:
+    commands.add(
+        new QueuedCommand(
+            new CommandId(Type.STREAM, "A", Action.CREATE),
+            new Command(
+                "CREATE STREAM A (COLUMN STRING) WITH (KAFKA_TOPIC='A', VALUE_FORMAT='JSON');",
+                Collections.emptyMap(),
+                null
+            )
+        )
+    );
+
+    // When:
+    new KsqlServer(commands, Optional.of(snapshotStore)).recover();
+
+    // Then:
+    assertThat(snapshotStore.load().isPresent(), equalTo(false));
+  }
 }
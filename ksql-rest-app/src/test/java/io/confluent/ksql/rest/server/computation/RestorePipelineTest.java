@@ -0,0 +1,224 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.server.computation;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.PersistentQueryPlan;
+import io.confluent.ksql.parser.DefaultKsqlParser;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.PersistentQueryMetadata;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Test;
+
+public class RestorePipelineTest {
+
+  private final Metrics metrics = new Metrics();
+  private final RestorePipeline pipeline = new RestorePipeline(2, new RestoreMetrics(metrics));
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<String> executed = new ArrayList<>();
+  private final List<KsqlException> failures = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    release.countDown();
+    pipeline.close();
+    metrics.close();
+  }
+
+  @Test
+  public void shouldNotWaitForQueriesAStatementDoesNotDependOn() {
+    // Given:
+    givenBlockedQuery("B", "A");
+
+    // When:
+    pipeline.awaitDependencies(parse("CREATE STREAM C AS SELECT * FROM A;"));
+
+    // Then:
+    assertThat(pipeline.numPendingQueries(), is(1));
+  }
+
+  @Test
+  public void shouldWaitForQueryWhoseSinkIsRead() {
+    // Given:
+    givenBlockedQuery("B", "A");
+    releaseLater();
+
+    // When:
+    pipeline.awaitDependencies(parse("CREATE STREAM C AS SELECT * FROM B;"));
+
+    // Then:
+    assertThat(pipeline.numPendingQueries(), is(0));
+    assertThat(executed, contains("B"));
+  }
+
+  @Test
+  public void shouldWaitForQueryWhoseSinkIsInsertedInto() {
+    // Given:
+    givenBlockedQuery("B", "A");
+    releaseLater();
+
+    // When:
+    pipeline.awaitDependencies(parse("INSERT INTO B SELECT * FROM A;"));
+
+    // Then:
+    assertThat(pipeline.numPendingQueries(), is(0));
+  }
+
+  @Test
+  public void shouldWaitForQueryReadingDroppedSource() {
+    // Given:
+    givenBlockedQuery("B", "A");
+    releaseLater();
+
+    // When:
+    pipeline.awaitDependencies(parse("DROP STREAM A;"));
+
+    // Then:
+    assertThat(pipeline.numPendingQueries(), is(0));
+  }
+
+  @Test
+  public void shouldNotWaitForQueriesNotReferencingDroppedSource() {
+    // Given:
+    givenBlockedQuery("B", "A");
+
+    // When:
+    pipeline.awaitDependencies(parse("DROP STREAM C;"));
+
+    // Then:
+    assertThat(pipeline.numPendingQueries(), is(1));
+  }
+
+  @Test
+  public void shouldWaitForAllQueriesOnTerminate() {
+    // Given:
+    givenBlockedQuery("B", "A");
+    releaseLater();
+
+    // When:
+    pipeline.awaitDependencies(parse("TERMINATE CSAS_B_0;"));
+
+    // Then:
+    assertThat(pipeline.numPendingQueries(), is(0));
+  }
+
+  @Test
+  public void shouldReportQueriesThatFailToBuild() {
+    // Given:
+    final KsqlException failure = new KsqlException("boom");
+    pipeline.submit(
+        new PersistentQueryPlan("sql", new QueryId("q"), "B", ImmutableSet.of("A"), () -> {
+          throw failure;
+        }),
+        query -> executed.add("B"),
+        failures::add);
+
+    // When:
+    pipeline.finishReplay();
+
+    // Then:
+    assertThat(failures, contains(failure));
+    assertThat(executed.isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldStartQueries() {
+    // Given:
+    final PersistentQueryMetadata query1 = mock(PersistentQueryMetadata.class);
+    final PersistentQueryMetadata query2 = mock(PersistentQueryMetadata.class);
+
+    // When:
+    pipeline.startQueries(ImmutableList.of(query1, query2));
+
+    // Then:
+    verify(query1).start();
+    verify(query2).start();
+  }
+
+  @Test
+  public void shouldRecordPhaseMetrics() {
+    // Given:
+    givenBlockedQuery("B", "A");
+    release.countDown();
+
+    // When:
+    pipeline.finishReplay();
+    pipeline.startQueries(ImmutableList.of());
+
+    // Then:
+    assertThat(metricValue("num-queries"), is(1.0));
+    assertThat(metricValue("replay-time-ms") >= 0, is(true));
+    assertThat(metricValue("query-build-time-total-ms") >= 0, is(true));
+    assertThat(metricValue("query-start-time-ms") >= 0, is(true));
+    assertThat(metricValue("total-time-ms") >= metricValue("replay-time-ms"), is(true));
+  }
+
+  private void givenBlockedQuery(final String sink, final String source) {
+    pipeline.submit(
+        new PersistentQueryPlan(
+            "sql",
+            new QueryId("CSAS_" + sink + "_0"),
+            sink,
+            ImmutableSet.of(source),
+            () -> {
+              try {
+                release.await(30, TimeUnit.SECONDS);
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return mock(PersistentQueryMetadata.class);
+            }),
+        query -> executed.add(sink),
+        failures::add);
+  }
+
+  private void releaseLater() {
+    final Thread releaser = new Thread(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      release.countDown();
+    });
+    releaser.setDaemon(true);
+    releaser.start();
+  }
+
+  private double metricValue(final String name) {
+    final MetricName metricName = metrics.metricName(name, "ksql-restore");
+    return (Double) metrics.metric(metricName).metricValue();
+  }
+
+  private static ParsedStatement parse(final String sql) {
+    return new DefaultKsqlParser().parse(sql).get(0);
+  }
+}
@@ -156,6 +156,17 @@ public class StatementExecutorTest extends EasyMockSupport {
 
   }
 
+  @Test
+  public void shouldOnlyRecordCommandsIfAskedTo() {
+    // Given:
+    final StatementExecutor recordingExecutor = new StatementExecutor(
+        ksqlConfig, ksqlEngine, new StatementParser(ksqlEngine), true);
+
+    // Then:
+    assertThat(statementExecutor.getCommandLog().isPresent(), is(false));
+    assertThat(recordingExecutor.getCommandLog().isPresent(), is(true));
+  }
+
   @Test
   public void shouldHandleIncorrectDDLStatement() {
     final Command command = new Command("REGIST ER TOPIC users_topic "
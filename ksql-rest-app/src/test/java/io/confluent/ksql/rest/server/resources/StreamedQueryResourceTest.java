@@ -302,7 +302,9 @@ public class StreamedQueryResourceTest {
         .andReturn(ExecuteResult.of(queuedQueryMetadata));
 
     expect(mockKsqlEngine.isAcceptingStatements()).andReturn(true);
-    replay(mockKsqlEngine, mockStatementParser, mockKafkaStreams, mockOutputNode);
+    expect(ksqlConfig.cloneWithPropertyOverwrite(requestStreamsProperties))
+        .andReturn(new KsqlConfig(Collections.emptyMap()));
+    replay(mockKsqlEngine, mockStatementParser, mockKafkaStreams, mockOutputNode, ksqlConfig);
 
     final Response response =
         testResource.streamQuery(new KsqlRequest(queryString, requestStreamsProperties, null));
@@ -27,10 +27,15 @@ import com.google.common.util.concurrent.MoreExecutors;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscriber;
 import io.confluent.ksql.rest.server.resources.streaming.Flow.Subscription;
 import io.confluent.ksql.rest.server.resources.streaming.StreamingTestUtils.TestSubscriber;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Test;
 
@@ -222,12 +227,117 @@ public class PollingSubscriptionTest {
     assertEquals(ImmutableList.of(), testSubscriber.elements);
   }
 
+  @Test
+  public void testDeliversRequestedNumberOfItems() throws Exception {
+    final CountDownLatch delivered = new CountDownLatch(3);
+    final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
+      @Override
+      public void onNext(final String item) {
+        elements.add(item);
+        delivered.countDown();
+      }
+
+      @Override
+      public void onSubscribe(final Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(3);
+      }
+    };
+    final TestPublisher testPublisher = new TestPublisher();
+    testPublisher.subscribe(testSubscriber);
+
+    assertTrue(delivered.await(1000, TimeUnit.MILLISECONDS));
+    assertEquals(ImmutableList.of("a", "b", "c"), testSubscriber.elements);
+
+    testSubscriber.subscription.request(Long.MAX_VALUE);
+
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+    assertEquals(ELEMENTS, testSubscriber.elements);
+  }
+
+  @Test
+  public void testSignalWakesIdleSubscription() throws Exception {
+    final CountDownLatch delivered = new CountDownLatch(ELEMENTS.size());
+    final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
+      @Override
+      public void onNext(final String item) {
+        super.onNext(item);
+        delivered.countDown();
+      }
+    };
+    final Queue<String> source = new ConcurrentLinkedQueue<>();
+    final TestPublisher testPublisher = new TestPublisher() {
+      @Override
+      TestPollingSubscription createSubscription(
+          final Subscriber<String> subscriber
+      ) {
+        return new TestPollingSubscription(subscriber, exec) {
+          @Override
+          String poll() {
+            return source.poll();
+          }
+        };
+      }
+    };
+    testPublisher.subscribe(testSubscriber);
+    final TestPollingSubscription subscription = testPublisher.subscription;
+
+    // Nothing is polled until signalled, no matter how long the subscription is idle:
+    exec.submit(() -> { }).get();
+    assertTrue(testSubscriber.elements.isEmpty());
+
+    for (final String element : ELEMENTS) {
+      source.add(element);
+      subscription.signal();
+    }
+
+    assertTrue(delivered.await(1000, TimeUnit.MILLISECONDS));
+    subscription.setDone();
+
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertTrue(exec.shutdownNow().isEmpty());
+
+    assertTrue(subscription.closed);
+    assertNull(testSubscriber.error);
+    assertEquals(ELEMENTS, testSubscriber.elements);
+  }
+
+  @Test
+  public void testRepollsAfterIdlePollInterval() throws Exception {
+    final TestSubscriber<String> testSubscriber = new TestSubscriber<>();
+    final AtomicInteger polls = new AtomicInteger();
+    final Flow.Subscription subscription = new PollingSubscription<String>(
+        MoreExecutors.listeningDecorator(exec),
+        testSubscriber,
+        null,
+        Optional.of(Duration.ofMillis(1))
+    ) {
+      @Override
+      String poll() {
+        if (polls.incrementAndGet() != 3) {
+          return null;
+        }
+        setDone();
+        return "a";
+      }
+
+      @Override
+      void close() {
+      }
+    };
+    testSubscriber.onSubscribe(subscription);
+
+    assertTrue(testSubscriber.done.await(1000, TimeUnit.MILLISECONDS));
+    assertEquals(ImmutableList.of("a"), testSubscriber.elements);
+  }
+
   @Test(expected = IllegalArgumentException.class)
-  public void testExpectsNEqualsOne() {
+  public void testRejectsNonPositiveRequest() {
     final TestSubscriber<String> testSubscriber = new TestSubscriber<String>() {
       @Override
       public void onSubscribe(final Subscription subscription) {
-        subscription.request(2);
+        subscription.request(0);
       }
     };
     final TestPublisher testPublisher = new TestPublisher();
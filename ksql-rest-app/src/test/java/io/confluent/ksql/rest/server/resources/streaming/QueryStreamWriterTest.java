@@ -15,8 +15,10 @@
 
 package io.confluent.ksql.rest.server.resources.streaming;
 
+import static org.easymock.EasyMock.anyLong;
 import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.newCapture;
@@ -25,6 +27,7 @@ import static org.easymock.EasyMock.replay;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
@@ -36,6 +39,7 @@ import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.QueuedQueryMetadata;
 import java.io.ByteArrayOutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -176,10 +180,37 @@ public class QueryStreamWriterTest {
         containsString("Row3")));
   }
 
+  @Test
+  public void shouldWriteRowsQueuedBehindPolledRowBeforeFlushing() throws Exception {
+    // Given:
+    expect(queryMetadata.isRunning()).andReturn(true).andReturn(false);
+    expect(rowQueue.poll(anyLong(), anyObject())).andReturn(row("Row1"));
+    expect(rowQueue.drainTo(capture(drainCapture), eq(99))).andAnswer(rows("Row2", "Row3"));
+
+    createWriter();
+
+    final List<List<String>> flushed = new ArrayList<>();
+    final ByteArrayOutputStream flushTrackingOut = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        flushed.add(getOutput(this));
+      }
+    };
+
+    // When:
+    writer.write(flushTrackingOut);
+
+    // Then:
+    assertThat(flushed.get(0), contains(
+        containsString("Row1"),
+        containsString("Row2"),
+        containsString("Row3")));
+  }
+
   private void createWriter() {
     replay(queryMetadata, ksqlEngine, rowQueue);
 
-    writer = new QueryStreamWriter(queryMetadata, 1000, objectMapper);
+    writer = new QueryStreamWriter(queryMetadata, 1000, 100, 0, objectMapper);
 
     out = new ByteArrayOutputStream();
     limitHandler = limitHandlerCapture.getValue();
@@ -189,6 +220,10 @@ public class QueryStreamWriterTest {
     ehCapture.getValue().uncaughtException(new Thread(), e);
   }
 
+  private static KeyValue<String, GenericRow> row(final Object value) {
+    return new KeyValue<>("no used", new GenericRow(ImmutableList.of(value)));
+  }
+
   private IAnswer<Integer> rows(final Object... rows) {
     return () -> {
       final Collection<KeyValue<String, GenericRow>> output = drainCapture.getValue();
@@ -19,6 +19,7 @@ import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Schema;
@@ -43,4 +44,33 @@ public abstract class KsqlTopicSerDe {
       Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       String loggerNamePrefix,
       ProcessingLogContext processingLogContext);
+
+  /**
+   * Get a serde whose deserializer only decodes the required columns, leaving the other
+   * columns of the row null, and deserializes records rejected by the filter as {@code null}.
+   *
+   * <p>Formats that can not skip columns or check the filter early return the same serde as
+   * {@link #getGenericRowSerde(Schema, KsqlConfig, boolean, Supplier, String,
+   * ProcessingLogContext)}.
+   *
+   * @param requiredColumns the names of the columns to decode, without a source alias.
+   * @param recordFilter the conditions records must meet.
+   */
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<String> requiredColumns,
+      final RecordFilter recordFilter) {
+    return getGenericRowSerde(
+        schemaMaybeWithSource,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext);
+  }
 }
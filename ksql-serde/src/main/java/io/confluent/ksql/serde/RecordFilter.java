@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Conditions on the top-level columns of a record, which a value deserializer checks before
+ * building the rest of the row, so that records a query would filter out anyway are dropped
+ * early.
+ *
+ * <p>A record is rejected, i.e. deserialized as {@code null}, if the value of any column does
+ * not meet the column's condition. Conditions are evaluated on the value as it would appear in
+ * the row, i.e. after type coercion, and on {@code null} if the record has no value for the
+ * column.
+ */
+public final class RecordFilter {
+
+  private static final RecordFilter ACCEPT_ALL = new RecordFilter(Collections.emptyMap());
+
+  private final Map<String, Predicate<Object>> conditions;
+
+  private RecordFilter(final Map<String, Predicate<Object>> conditions) {
+    this.conditions = ImmutableMap.copyOf(conditions);
+  }
+
+  public static RecordFilter acceptAll() {
+    return ACCEPT_ALL;
+  }
+
+  /**
+   * @param conditions the condition on each column, keyed by column name without source alias.
+   */
+  public static RecordFilter of(final Map<String, Predicate<Object>> conditions) {
+    return conditions.isEmpty() ? ACCEPT_ALL : new RecordFilter(conditions);
+  }
+
+  public boolean isEmpty() {
+    return conditions.isEmpty();
+  }
+
+  /**
+   * @return the names of the columns with a condition, without source alias.
+   */
+  public Set<String> getColumns() {
+    return conditions.keySet();
+  }
+
+  /**
+   * @return the conditions on the fields of a row schema, with or without a source alias.
+   */
+  public FieldConditions forFields(final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final List<Predicate<Object>> fieldConditions = new ArrayList<>(fields.size());
+    for (final Field field : fields) {
+      final String name = field.name();
+      fieldConditions.add(conditions.get(name.substring(name.indexOf('.') + 1)));
+    }
+    return new FieldConditions(fieldConditions);
+  }
+
+  /**
+   * The conditions of a {@link RecordFilter}, indexed by the fields of a row schema.
+   */
+  public static final class FieldConditions {
+
+    private final Predicate<Object>[] conditions;
+    private final int[] fields;
+
+    @SuppressWarnings("unchecked")
+    private FieldConditions(final List<Predicate<Object>> conditions) {
+      this.conditions = conditions.toArray(new Predicate[0]);
+      this.fields = new int[(int) conditions.stream().filter(c -> c != null).count()];
+      int next = 0;
+      for (int i = 0; i < this.conditions.length; i++) {
+        if (this.conditions[i] != null) {
+          fields[next++] = i;
+        }
+      }
+    }
+
+    public boolean isEmpty() {
+      return fields.length == 0;
+    }
+
+    /**
+     * @return the indexes of the fields that have a condition.
+     */
+    public int[] getFields() {
+      return fields.clone();
+    }
+
+    /**
+     * @return {@code true} if the value meets the condition of the field, or the field has no
+     *     condition.
+     */
+    public boolean test(final int field, final Object value) {
+      final Predicate<Object> condition = conditions[field];
+      return condition == null || condition.test(value);
+    }
+
+    /**
+     * @return {@code true} if each column meets the condition of its field.
+     */
+    public boolean test(final Object[] columns) {
+      for (final int field : fields) {
+        if (!conditions[field].test(columns[field])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
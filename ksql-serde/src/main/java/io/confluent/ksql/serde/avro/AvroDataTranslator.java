@@ -20,12 +20,15 @@ import com.google.common.collect.Iterables;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.serde.connect.ConnectDataTranslator;
 import io.confluent.ksql.serde.connect.DataTranslator;
+import io.confluent.ksql.serde.util.SerdeUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -39,11 +42,23 @@ public class AvroDataTranslator implements DataTranslator {
   private final Schema avroCompatibleSchema;
 
   public AvroDataTranslator(final Schema ksqlSchema, final String schemaFullName) {
+    this(ksqlSchema, schemaFullName, SerdeUtils.columnNames(ksqlSchema));
+  }
+
+  /**
+   * @param requiredColumns the columns of the row to convert. Other columns are left null.
+   */
+  public AvroDataTranslator(
+      final Schema ksqlSchema,
+      final String schemaFullName,
+      final Set<String> requiredColumns) {
     this.ksqlSchema = ksqlSchema;
     this.avroCompatibleSchema = buildAvroCompatibleSchema(
         ksqlSchema,
         new TypeNameGenerator(Collections.singleton(schemaFullName)));
-    this.innerTranslator = new ConnectDataTranslator(avroCompatibleSchema);
+    this.innerTranslator = new ConnectDataTranslator(
+        avroCompatibleSchema,
+        avroCompatibleColumnNames(ksqlSchema, requiredColumns));
   }
 
   @Override
@@ -52,24 +67,20 @@ public class AvroDataTranslator implements DataTranslator {
     if (avroCompatibleRow == null) {
       return null;
     }
-    final List<Object> columns = new ArrayList<>(avroCompatibleRow.getColumns().size());
-    for (int i = 0; i < avroCompatibleRow.getColumns().size(); i++) {
-      columns.add(
-          replaceSchema(
-              ksqlSchema.fields().get(i).schema(),
-              avroCompatibleRow.getColumns().get(i)));
+    // The row was built by the inner translator for this call, so is updated in place:
+    for (int i = 0; i < avroCompatibleRow.size(); i++) {
+      avroCompatibleRow.set(
+          i,
+          replaceSchema(ksqlSchema.fields().get(i).schema(), avroCompatibleRow.get(i)));
     }
-    return new GenericRow(columns);
+    return avroCompatibleRow;
   }
 
   @Override
   public Struct toConnectRow(final GenericRow genericRow) {
-    final List<Object> columns = new ArrayList<>(genericRow.getColumns().size());
-    for (int i = 0; i < genericRow.getColumns().size(); i++) {
-      columns.add(
-          replaceSchema(
-              avroCompatibleSchema.fields().get(i).schema(),
-              genericRow.getColumns().get(i)));
+    final Object[] columns = new Object[genericRow.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = replaceSchema(avroCompatibleSchema.fields().get(i).schema(), genericRow.get(i));
     }
     return innerTranslator.toConnectRow(new GenericRow(columns));
   }
@@ -95,6 +106,19 @@ public class AvroDataTranslator implements DataTranslator {
     }
   }
 
+  private Set<String> avroCompatibleColumnNames(
+      final Schema ksqlSchema,
+      final Set<String> requiredColumns) {
+    final boolean[] requiredFields = SerdeUtils.requiredFields(ksqlSchema, requiredColumns);
+    final Set<String> names = new HashSet<>();
+    for (final Field field : ksqlSchema.fields()) {
+      if (requiredFields[field.index()]) {
+        names.add(avroCompatibleFieldName(field));
+      }
+    }
+    return names;
+  }
+
   private String avroCompatibleFieldName(final Field field) {
     // Currently the only incompatible field names expected are fully qualified
     // column identifiers. Once quoted identifier support is introduced we will
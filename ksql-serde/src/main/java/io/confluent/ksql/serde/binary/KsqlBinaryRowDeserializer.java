@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Reads a {@link GenericRow} written by {@link KsqlBinaryRowSerializer} with the same schema.
+ */
+public class KsqlBinaryRowDeserializer implements Deserializer<GenericRow> {
+
+  private final Schema schema;
+
+  public KsqlBinaryRowDeserializer(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      final List<Field> fields = schema.fields();
+      final Object[] columns = new Object[fields.size()];
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] = readValue(buffer, fields.get(i).schema());
+      }
+      if (buffer.hasRemaining()) {
+        throw new IllegalArgumentException(buffer.remaining() + " unexpected trailing bytes");
+      }
+      return new GenericRow(columns);
+    } catch (final Exception e) {
+      throw new SerializationException("Error deserializing row from topic: " + topic, e);
+    }
+  }
+
+  private static Object readValue(final ByteBuffer buffer, final Schema schema) {
+    if (buffer.get() == 0) {
+      return null;
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        return buffer.get() != 0;
+      case INT32:
+        return buffer.getInt();
+      case INT64:
+        return buffer.getLong();
+      case FLOAT64:
+        return buffer.getDouble();
+      case STRING:
+        final int length = readVarint(buffer);
+        final String value = new String(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+            StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+      case ARRAY:
+        final int size = readVarint(buffer);
+        final List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          list.add(readValue(buffer, schema.valueSchema()));
+        }
+        return list;
+      case MAP:
+        final int entries = readVarint(buffer);
+        final Map<Object, Object> map = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+          final Object key = readValue(buffer, schema.keySchema());
+          map.put(key, readValue(buffer, schema.valueSchema()));
+        }
+        return map;
+      case STRUCT:
+        final Struct struct = new Struct(schema);
+        for (final Field field : schema.fields()) {
+          struct.put(field, readValue(buffer, field.schema()));
+        }
+        return struct;
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + schema.type());
+    }
+  }
+
+  private static int readVarint(final ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final byte b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        if (value < 0) {
+          throw new IllegalArgumentException("Invalid length: " + value);
+        }
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Invalid varint");
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Serde for the compact binary row format of {@link KsqlBinaryRowSerializer}.
+ */
+public class KsqlBinaryRowSerde extends Serdes.WrapperSerde<GenericRow> {
+
+  public KsqlBinaryRowSerde(final Schema schema) {
+    super(new KsqlBinaryRowSerializer(schema), new KsqlBinaryRowDeserializer(schema));
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Writes a {@link GenericRow} in a compact, schema driven, binary form.
+ *
+ * <p>Unlike the topic formats, no field names or types are written: each value is a one byte
+ * null marker, followed, if not null, by the value. Booleans take one byte, {@code INT},
+ * {@code BIGINT} and {@code DOUBLE} values are written as fixed width big-endian numbers, and
+ * strings as a varint length followed by their UTF-8 bytes. Arrays and maps are written as a
+ * varint element count followed by their elements, and structs as their fields in order.
+ *
+ * <p>The format is only intended for data KSQL writes and reads itself, such as the state of
+ * aggregations, and does not support schema evolution.
+ */
+public class KsqlBinaryRowSerializer implements Serializer<GenericRow> {
+
+  private final Schema schema;
+
+  public KsqlBinaryRowSerializer(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow row) {
+    if (row == null) {
+      return null;
+    }
+
+    try {
+      final List<Field> fields = schema.fields();
+      final List<Object> columns = row.getColumns();
+      if (columns.size() != fields.size()) {
+        throw new IllegalArgumentException("Row has " + columns.size()
+            + " columns but schema has " + fields.size());
+      }
+
+      final Output output = new Output(16 * fields.size());
+      for (int i = 0; i < fields.size(); i++) {
+        writeValue(output, fields.get(i).schema(), columns.get(i));
+      }
+      return output.toByteArray();
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing row to topic: " + topic, e);
+    }
+  }
+
+  private static void writeValue(final Output output, final Schema schema, final Object value) {
+    if (value == null) {
+      output.writeByte(0);
+      return;
+    }
+
+    output.writeByte(1);
+    switch (schema.type()) {
+      case BOOLEAN:
+        output.writeByte((Boolean) value ? 1 : 0);
+        break;
+      case INT32:
+        output.writeInt(((Number) value).intValue());
+        break;
+      case INT64:
+        output.writeLong(((Number) value).longValue());
+        break;
+      case FLOAT64:
+        output.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+        break;
+      case STRING:
+        output.writeString(value.toString());
+        break;
+      case ARRAY:
+        final List<?> list = (List<?>) value;
+        output.writeVarint(list.size());
+        for (final Object element : list) {
+          writeValue(output, schema.valueSchema(), element);
+        }
+        break;
+      case MAP:
+        final Map<?, ?> map = (Map<?, ?>) value;
+        output.writeVarint(map.size());
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+          writeValue(output, schema.keySchema(), entry.getKey());
+          writeValue(output, schema.valueSchema(), entry.getValue());
+        }
+        break;
+      case STRUCT:
+        final Struct struct = (Struct) value;
+        for (final Field field : schema.fields()) {
+          writeValue(output, field.schema(), struct.get(field.name()));
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported type: " + schema.type());
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private static final class Output {
+
+    private byte[] buffer;
+    private int position;
+
+    Output(final int initialCapacity) {
+      this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    void writeByte(final int b) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) b;
+    }
+
+    void writeInt(final int v) {
+      ensureCapacity(Integer.BYTES);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (v >>> shift);
+      }
+    }
+
+    void writeLong(final long v) {
+      ensureCapacity(Long.BYTES);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (v >>> shift);
+      }
+    }
+
+    void writeVarint(final int v) {
+      ensureCapacity(5);
+      int value = v;
+      while ((value & 0xFFFFFF80) != 0) {
+        buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[position++] = (byte) value;
+    }
+
+    void writeString(final String s) {
+      final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      writeVarint(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(final int required) {
+      if (position + required > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + required));
+      }
+    }
+  }
+}
@@ -16,12 +16,14 @@
 package io.confluent.ksql.serde.connect;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.kafka.connect.data.Date;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -34,9 +36,18 @@ public class ConnectDataTranslator implements DataTranslator {
   private static final String PATH_SEPARATOR = "->";
 
   private final Schema schema;
+  private final boolean[] requiredFields;
 
   public ConnectDataTranslator(final Schema schema) {
+    this(schema, SerdeUtils.columnNames(schema));
+  }
+
+  /**
+   * @param requiredColumns the columns of the row to convert. Other columns are left null.
+   */
+  public ConnectDataTranslator(final Schema schema, final Set<String> requiredColumns) {
     this.schema = schema;
+    this.requiredFields = SerdeUtils.requiredFields(schema, requiredColumns);
   }
 
   @Override
@@ -52,9 +63,12 @@ public class ConnectDataTranslator implements DataTranslator {
     }
 
     // streams are expensive, so we don't use them from serdes. build the row using forEach
-    final List<Object> fields = new ArrayList<>(schema.fields().size());
-    schema.fields().forEach(field -> fields.add(rowStruct.get(field)));
-    return new GenericRow(fields);
+    final List<Field> fields = schema.fields();
+    final Object[] columns = new Object[fields.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = rowStruct.get(fields.get(i));
+    }
+    return new GenericRow(columns);
   }
 
   private void throwTypeMismatchException(final String pathStr,
@@ -245,7 +259,11 @@ public class ConnectDataTranslator implements DataTranslator {
     final Struct ksqlStruct = new Struct(schema);
     final Map<String, Field> caseInsensitiveFieldMap =
         getCaseInsensitiveFieldMap(connectSchema);
+    final boolean isRow = schema == this.schema;
     schema.fields().forEach(field -> {
+      if (isRow && !requiredFields[field.index()]) {
+        return;
+      }
       final String fieldNameUppercase = field.name().toUpperCase();
       // TODO: should we throw an exception if this is not true? this means the schema changed
       //       or the user declared the source with a schema incompatible with the registry schema
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import io.confluent.ksql.util.KsqlException;
+import java.util.Objects;
+
+/**
+ * The delimiter and quote characters of a delimited format.
+ *
+ * <p>Both must be ASCII characters, so that they can be found in UTF-8 encoded records byte by
+ * byte: no byte of a multi-byte UTF-8 sequence is an ASCII character.
+ */
+public final class DelimitedFormat {
+
+  public static final DelimitedFormat DEFAULT = new DelimitedFormat(',', '"');
+
+  private final char delimiter;
+  private final char quote;
+
+  private DelimitedFormat(final char delimiter, final char quote) {
+    this.delimiter = delimiter;
+    this.quote = quote;
+  }
+
+  /**
+   * @throws KsqlException if either character is not ASCII, is a line break, or both are the
+   *     same.
+   */
+  public static DelimitedFormat of(final char delimiter, final char quote) {
+    checkCharacter("delimiter", delimiter);
+    checkCharacter("quote", quote);
+    if (delimiter == quote) {
+      throw new KsqlException("Delimiter and quote characters must differ: '" + delimiter + "'");
+    }
+    return new DelimitedFormat(delimiter, quote);
+  }
+
+  public char getDelimiter() {
+    return delimiter;
+  }
+
+  public char getQuote() {
+    return quote;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final DelimitedFormat that = (DelimitedFormat) o;
+    return delimiter == that.delimiter
+        && quote == that.quote;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(delimiter, quote);
+  }
+
+  private static void checkCharacter(final String name, final char c) {
+    if (c >= 0x80 || c == '\r' || c == '\n') {
+      throw new KsqlException("Invalid " + name + " character: only ASCII characters other than "
+          + "line breaks are supported, but was: '" + c + "'");
+    }
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import io.confluent.ksql.util.KsqlException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Splits the first line of a UTF-8 encoded delimited record into fields, and reads the value of
+ * each field directly from the record's bytes.
+ *
+ * <p>Fields are parsed as the {@code CSVFormat.DEFAULT} of commons-csv would parse them:
+ * a field that starts with the quote character runs to the next quote that is not doubled, and
+ * may contain delimiters and line breaks. Surrounding spaces are kept and leading empty lines are
+ * skipped.
+ *
+ * <p>Numbers are parsed without first building a {@code String}. Values the fast paths do not
+ * cover, e.g. numbers with exponents, are parsed through the JDK, so the values and errors are the
+ * same as for {@code Long.parseLong}, {@code Double.parseDouble}, etc.
+ *
+ * <p>A reader reuses its buffers between records, so is not thread safe.
+ */
+final class DelimitedReader {
+
+  private static final int MAX_FAST_DOUBLE_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+      1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  private final byte delimiter;
+  private final byte quote;
+
+  private byte[] bytes;
+  private int fieldCount;
+  private int[] starts = new int[16];
+  private int[] ends = new int[16];
+  private boolean[] escaped = new boolean[16];
+  private byte[] scratch = new byte[64];
+  private long parsedLong;
+
+  DelimitedReader(final DelimitedFormat format) {
+    this.delimiter = (byte) format.getDelimiter();
+    this.quote = (byte) format.getQuote();
+  }
+
+  /**
+   * Split a record into fields.
+   *
+   * @param record the record.
+   * @return the number of fields in the first line of the record, or {@code 0} if it has none.
+   * @throws KsqlException if a quoted field is not closed, or is followed by other text.
+   */
+  int read(final byte[] record) {
+    bytes = record;
+    fieldCount = 0;
+
+    int pos = 0;
+    while (pos < record.length && isLineBreak(record[pos])) {
+      pos++;
+    }
+    if (pos == record.length) {
+      return 0;
+    }
+
+    while (true) {
+      pos = pos < record.length && record[pos] == quote
+          ? readQuoted(pos)
+          : readUnquoted(pos);
+      if (pos < record.length && record[pos] == delimiter) {
+        pos++;
+        continue;
+      }
+      return fieldCount;
+    }
+  }
+
+  boolean isEmpty(final int field) {
+    return starts[field] == ends[field];
+  }
+
+  String getString(final int field) {
+    if (!escaped[field]) {
+      return new String(bytes, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+    }
+
+    // Undouble the quotes in the field:
+    final int start = starts[field];
+    final int end = ends[field];
+    if (scratch.length < end - start) {
+      scratch = new byte[Math.max(end - start, scratch.length * 2)];
+    }
+    int length = 0;
+    for (int i = start; i < end; i++) {
+      scratch[length++] = bytes[i];
+      if (bytes[i] == quote) {
+        i++;
+      }
+    }
+    return new String(scratch, 0, length, StandardCharsets.UTF_8);
+  }
+
+  boolean getBoolean(final int field) {
+    final int start = starts[field];
+    return ends[field] - start == 4
+        && (bytes[start] | 0x20) == 't'
+        && (bytes[start + 1] | 0x20) == 'r'
+        && (bytes[start + 2] | 0x20) == 'u'
+        && (bytes[start + 3] | 0x20) == 'e';
+  }
+
+  int getInt(final int field) {
+    return parseLong(field, Integer.MIN_VALUE, Integer.MAX_VALUE)
+        ? (int) parsedLong
+        : Integer.parseInt(getString(field));
+  }
+
+  long getLong(final int field) {
+    return parseLong(field, Long.MIN_VALUE, Long.MAX_VALUE)
+        ? parsedLong
+        : Long.parseLong(getString(field));
+  }
+
+  double getDouble(final int field) {
+    int pos = starts[field];
+    final int end = ends[field];
+    final boolean negative = pos < end && bytes[pos] == '-';
+    if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+      pos++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; pos < end; pos++) {
+      final byte b = bytes[pos];
+      if (b >= '0' && b <= '9') {
+        mantissa = mantissa * 10 + (b - '0');
+        digits++;
+        if (fractionDigits >= 0) {
+          fractionDigits++;
+        }
+      } else if (b == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else {
+        break;
+      }
+    }
+
+    // Exact as long as the mantissa and the power of ten are both exact doubles:
+    if (pos != end || digits == 0 || digits > MAX_FAST_DOUBLE_DIGITS) {
+      return Double.parseDouble(getString(field));
+    }
+    final double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parse a field that is a plain decimal number in {@code [min, max]} into {@link #parsedLong}.
+   *
+   * @return {@code false} if the field is not such a number.
+   */
+  private boolean parseLong(final int field, final long min, final long max) {
+    int pos = starts[field];
+    final int end = ends[field];
+    final boolean negative = pos < end && bytes[pos] == '-';
+    if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+      pos++;
+    }
+    if (pos == end) {
+      return false;
+    }
+
+    // Accumulate negatively, as the range of negative values is the larger:
+    final long limit = negative ? min : -max;
+    final long multiplyLimit = limit / 10;
+    long value = 0;
+    for (; pos < end; pos++) {
+      final int digit = bytes[pos] - '0';
+      if (digit < 0 || digit > 9 || value < multiplyLimit) {
+        return false;
+      }
+      value *= 10;
+      if (value < limit + digit) {
+        return false;
+      }
+      value -= digit;
+    }
+    parsedLong = negative ? value : -value;
+    return true;
+  }
+
+  private int readUnquoted(final int start) {
+    int pos = start;
+    while (pos < bytes.length && bytes[pos] != delimiter && !isLineBreak(bytes[pos])) {
+      pos++;
+    }
+    addField(start, pos, false);
+    return pos;
+  }
+
+  private int readQuoted(final int quotePos) {
+    final int start = quotePos + 1;
+    boolean hasEscapedQuotes = false;
+    int pos = start;
+    while (true) {
+      if (pos == bytes.length) {
+        throw new KsqlException("EOF reached before encapsulated token finished");
+      }
+      if (bytes[pos] == quote) {
+        if (pos + 1 < bytes.length && bytes[pos + 1] == quote) {
+          hasEscapedQuotes = true;
+          pos += 2;
+          continue;
+        }
+        break;
+      }
+      pos++;
+    }
+    addField(start, pos, hasEscapedQuotes);
+
+    pos++;
+    while (pos < bytes.length && bytes[pos] != delimiter && !isLineBreak(bytes[pos])) {
+      if (!isWhitespace(bytes[pos])) {
+        throw new KsqlException("Invalid char between encapsulated token and delimiter");
+      }
+      pos++;
+    }
+    return pos;
+  }
+
+  private void addField(final int start, final int end, final boolean hasEscapedQuotes) {
+    if (fieldCount == starts.length) {
+      starts = Arrays.copyOf(starts, fieldCount * 2);
+      ends = Arrays.copyOf(ends, fieldCount * 2);
+      escaped = Arrays.copyOf(escaped, fieldCount * 2);
+    }
+    starts[fieldCount] = start;
+    ends[fieldCount] = end;
+    escaped[fieldCount] = hasEscapedQuotes;
+    fieldCount++;
+  }
+
+  private static boolean isLineBreak(final byte b) {
+    return b == '\r' || b == '\n';
+  }
+
+  private static boolean isWhitespace(final byte b) {
+    return b >= 0 && Character.isWhitespace(b);
+  }
+}
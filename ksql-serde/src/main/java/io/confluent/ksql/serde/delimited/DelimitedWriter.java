@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes rows as UTF-8 encoded delimited records into a reusable buffer.
+ *
+ * <p>Values are quoted as the {@code CSVFormat.DEFAULT} of commons-csv quotes them: only when
+ * they contain a delimiter, quote or line break, or start or end with characters that could be
+ * misread, e.g. spaces. Null values are written as empty fields.
+ *
+ * <p>A writer reuses its buffer between rows, so is not thread safe.
+ */
+final class DelimitedWriter {
+
+  private static final char COMMENT = '#';
+  private static final int LONG_MIN_DIGITS = 19;
+  private static final byte[] LONG_MIN_VALUE =
+      "-9223372036854775808".getBytes(StandardCharsets.US_ASCII);
+
+  private final char delimiter;
+  private final char quote;
+
+  private byte[] buffer = new byte[256];
+  private int size;
+
+  DelimitedWriter(final DelimitedFormat format) {
+    this.delimiter = format.getDelimiter();
+    this.quote = format.getQuote();
+  }
+
+  byte[] write(final List<Object> columns) {
+    size = 0;
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) delimiter;
+      }
+      writeValue(columns.get(i), i == 0);
+    }
+    return Arrays.copyOf(buffer, size);
+  }
+
+  private void writeValue(final Object value, final boolean first) {
+    if (value == null) {
+      return;
+    }
+    if (value instanceof Long || value instanceof Integer) {
+      writeLong(((Number) value).longValue());
+      return;
+    }
+    final String text = value.toString();
+    final boolean quoted = needsQuotes(text, first);
+    ensureCapacity(text.length() * 3 + 2);
+    if (quoted) {
+      buffer[size++] = (byte) quote;
+    }
+    writeUtf8(text, quoted);
+    if (quoted) {
+      buffer[size++] = (byte) quote;
+    }
+  }
+
+  private void writeLong(final long value) {
+    ensureCapacity(LONG_MIN_DIGITS + 1);
+    if (value == Long.MIN_VALUE) {
+      System.arraycopy(LONG_MIN_VALUE, 0, buffer, size, LONG_MIN_VALUE.length);
+      size += LONG_MIN_VALUE.length;
+      return;
+    }
+
+    long remaining = value;
+    if (remaining < 0) {
+      buffer[size++] = '-';
+      remaining = -remaining;
+    }
+    int digits = 1;
+    for (long bound = 10; digits < LONG_MIN_DIGITS && remaining >= bound; bound *= 10) {
+      digits++;
+    }
+    for (int i = size + digits - 1; i >= size; i--) {
+      buffer[i] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    size += digits;
+  }
+
+  /**
+   * Encode text as UTF-8, doubling quotes if the text is quoted. Unpaired surrogates are written
+   * as {@code ?}, as {@code String.getBytes} would write them.
+   */
+  private void writeUtf8(final String text, final boolean quoted) {
+    final int length = text.length();
+    for (int i = 0; i < length; i++) {
+      final char c = text.charAt(i);
+      if (c < 0x80) {
+        buffer[size++] = (byte) c;
+        if (quoted && c == quote) {
+          buffer[size++] = (byte) c;
+        }
+      } else if (c < 0x800) {
+        buffer[size++] = (byte) (0xC0 | (c >> 6));
+        buffer[size++] = (byte) (0x80 | (c & 0x3F));
+      } else if (!Character.isSurrogate(c)) {
+        buffer[size++] = (byte) (0xE0 | (c >> 12));
+        buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buffer[size++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+        buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+        buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else {
+        buffer[size++] = '?';
+      }
+    }
+  }
+
+  private boolean needsQuotes(final String text, final boolean first) {
+    final int length = text.length();
+    if (length == 0) {
+      // An empty first value would read as an empty line if it were the only value:
+      return first;
+    }
+
+    final char start = text.charAt(0);
+    if (first && !isRfc4180TextData(start)) {
+      return true;
+    }
+    if (start <= COMMENT) {
+      return true;
+    }
+    for (int i = 0; i < length; i++) {
+      final char c = text.charAt(i);
+      if (c == '\n' || c == '\r' || c == quote || c == delimiter) {
+        return true;
+      }
+    }
+    return text.charAt(length - 1) <= ' ';
+  }
+
+  private static boolean isRfc4180TextData(final char c) {
+    return c >= 0x20 && c <= 0x7E && c != '"' && c != ',';
+  }
+
+  private void ensureCapacity(final int additional) {
+    if (size + additional > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(size + additional, buffer.length * 2));
+    }
+  }
+}
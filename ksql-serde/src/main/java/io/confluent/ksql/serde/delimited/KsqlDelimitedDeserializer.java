@@ -17,31 +17,70 @@ package io.confluent.ksql.serde.delimited;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.RecordFilter;
+import io.confluent.ksql.serde.RecordFilter.FieldConditions;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.Schema;
 
+/**
+ * Deserializes delimited records into rows.
+ *
+ * <p>Each deserializer reuses its buffers between records, so is not thread safe: use a
+ * {@link io.confluent.ksql.serde.tls.ThreadLocalDeserializer} to share one between threads.
+ */
 public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
 
-  private final Schema schema;
+  private final Schema.Type[] fieldTypes;
   private final ProcessingLogger recordLogger;
+  private final boolean[] requiredFields;
+  private final FieldConditions fieldConditions;
+  private final int[] conditionedFields;
+  private final DelimitedReader reader;
 
   KsqlDelimitedDeserializer(
       final Schema schema,
       final ProcessingLogger recordLogger) {
-    this.schema = Objects.requireNonNull(schema);
+    this(schema, recordLogger, SerdeUtils.columnNames(schema));
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final ProcessingLogger recordLogger,
+      final Set<String> requiredColumns) {
+    this(schema, recordLogger, requiredColumns, RecordFilter.acceptAll());
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final ProcessingLogger recordLogger,
+      final Set<String> requiredColumns,
+      final RecordFilter recordFilter) {
+    this(schema, recordLogger, requiredColumns, recordFilter, DelimitedFormat.DEFAULT);
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final ProcessingLogger recordLogger,
+      final Set<String> requiredColumns,
+      final RecordFilter recordFilter,
+      final DelimitedFormat format) {
+    this.fieldTypes = Objects.requireNonNull(schema).fields().stream()
+        .map(field -> field.schema().type())
+        .toArray(Schema.Type[]::new);
     this.recordLogger = Objects.requireNonNull(recordLogger);
+    this.requiredFields = SerdeUtils.requiredFields(schema, requiredColumns);
+    this.fieldConditions = recordFilter.forFields(schema);
+    this.conditionedFields = fieldConditions.getFields();
+    this.reader = new DelimitedReader(format);
   }
 
   @Override
@@ -53,36 +92,31 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
     if (bytes == null) {
       return null;
     }
-    final String recordCsvString = new String(bytes, StandardCharsets.UTF_8);
     try {
-      final List<CSVRecord> csvRecords = CSVParser.parse(recordCsvString, CSVFormat.DEFAULT)
-          .getRecords();
-
-      if (csvRecords == null || csvRecords.isEmpty()) {
-        throw new KsqlException("Deserialization error in the delimited line: " + recordCsvString);
-      }
-      final CSVRecord csvRecord = csvRecords.get(0);
-      if (csvRecord == null || csvRecord.size() == 0) {
-        throw new KsqlException("Deserialization error in the delimited line: " + recordCsvString);
+      final int fieldCount = reader.read(bytes);
+      if (fieldCount == 0) {
+        throw new KsqlException("Deserialization error in the delimited line: " + asString(bytes));
       }
-      final List<Object> columns = new ArrayList<>();
-      if (csvRecord.size() != schema.fields().size()) {
+      if (fieldCount != fieldTypes.length) {
         throw new KsqlException(
             String.format(
               "Unexpected field count, csvFields:%d schemaFields:%d line: %s",
-              csvRecord.size(),
-              schema.fields().size(),
-              recordCsvString
+              fieldCount,
+              fieldTypes.length,
+              asString(bytes)
           )
         );
       }
-      for (int i = 0; i < csvRecord.size(); i++) {
-        if (csvRecord.get(i) == null) {
-          columns.add(null);
-        } else {
-          columns.add(enforceFieldType(schema.fields().get(i).schema(), csvRecord.get(i)));
+      for (final int i : conditionedFields) {
+        if (!fieldConditions.test(i, readField(i))) {
+          return null;
+        }
+      }
+      final Object[] columns = new Object[fieldCount];
+      for (int i = 0; i < fieldCount; i++) {
+        if (requiredFields[i]) {
+          columns[i] = readField(i);
         }
-
       }
       return new GenericRow(columns);
     } catch (final Exception e) {
@@ -92,35 +126,38 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
               Optional.ofNullable(bytes))
       );
       throw new SerializationException(
-          "Exception in deserializing the delimited row: " + recordCsvString,
+          "Exception in deserializing the delimited row: " + asString(bytes),
           e
       );
     }
   }
 
-  private Object enforceFieldType(final Schema fieldSchema, final String delimitedField) {
-
-    if (delimitedField.isEmpty()) {
+  private Object readField(final int field) {
+    if (reader.isEmpty(field)) {
       return null;
     }
-    switch (fieldSchema.type()) {
+    switch (fieldTypes[field]) {
       case BOOLEAN:
-        return Boolean.parseBoolean(delimitedField);
+        return reader.getBoolean(field);
       case INT32:
-        return Integer.parseInt(delimitedField);
+        return reader.getInt(field);
       case INT64:
-        return Long.parseLong(delimitedField);
+        return reader.getLong(field);
       case FLOAT64:
-        return Double.parseDouble(delimitedField);
+        return reader.getDouble(field);
       case STRING:
-        return delimitedField;
+        return reader.getString(field);
       case ARRAY:
       case MAP:
       default:
-        throw new KsqlException("Type is not supported: " + fieldSchema.type());
+        throw new KsqlException("Type is not supported: " + fieldTypes[field]);
     }
   }
 
+  private static String asString(final byte[] bytes) {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
   @Override
   public void close() {
 
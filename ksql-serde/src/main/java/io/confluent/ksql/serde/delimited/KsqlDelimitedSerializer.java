@@ -16,22 +16,29 @@
 package io.confluent.ksql.serde.delimited;
 
 import io.confluent.ksql.GenericRow;
-import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.Schema;
 
-
+/**
+ * Serializes rows as delimited records.
+ *
+ * <p>Each serializer reuses a buffer between rows, so is not thread safe: use a
+ * {@link io.confluent.ksql.serde.tls.ThreadLocalSerializer} to share one between threads.
+ */
 public class KsqlDelimitedSerializer implements Serializer<GenericRow> {
 
   private final Schema schema;
+  private final DelimitedWriter writer;
 
   public KsqlDelimitedSerializer(final Schema schema) {
+    this(schema, DelimitedFormat.DEFAULT);
+  }
+
+  public KsqlDelimitedSerializer(final Schema schema, final DelimitedFormat format) {
     this.schema = schema;
+    this.writer = new DelimitedWriter(format);
   }
 
   @Override
@@ -45,11 +52,7 @@ public class KsqlDelimitedSerializer implements Serializer<GenericRow> {
       return null;
     }
     try {
-      final StringWriter stringWriter = new StringWriter();
-      final CSVPrinter csvPrinter = new CSVPrinter(stringWriter, CSVFormat.DEFAULT);
-      csvPrinter.printRecord(genericRow.getColumns());
-      final String result = stringWriter.toString();
-      return result.substring(0, result.length() - 2).getBytes(StandardCharsets.UTF_8);
+      return writer.write(genericRow.getColumns());
     } catch (final Exception e) {
       throw new SerializationException("Error serializing CSV message", e);
     }
@@ -17,15 +17,19 @@ package io.confluent.ksql.serde.delimited;
 
 import static io.confluent.ksql.logging.processing.ProcessingLoggerUtil.join;
 
+import com.google.common.collect.Sets;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.RecordFilter;
+import io.confluent.ksql.serde.tls.ThreadLocalDeserializer;
+import io.confluent.ksql.serde.tls.ThreadLocalSerializer;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlConfig;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -48,17 +52,42 @@ public class KsqlDelimitedTopicSerDe extends KsqlTopicSerDe {
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       final String loggerNamePrefix,
       final ProcessingLogContext processingLogContext) {
-    final Map<String, Object> serdeProps = new HashMap<>();
+    return getGenericRowSerde(
+        schema,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        SerdeUtils.columnNames(schema),
+        RecordFilter.acceptAll());
+  }
 
-    final Serializer<GenericRow> genericRowSerializer = new KsqlDelimitedSerializer(schema);
-    genericRowSerializer.configure(serdeProps, false);
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<String> requiredColumns,
+      final RecordFilter recordFilter) {
+    final ProcessingLogger recordLogger = processingLogContext.getLoggerFactory().getLogger(
+        join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME));
+    final Set<String> decodedColumns = Sets.union(requiredColumns, recordFilter.getColumns());
 
-    final Deserializer<GenericRow> genericRowDeserializer = new KsqlDelimitedDeserializer(
-        schema,
-        processingLogContext.getLoggerFactory().getLogger(
-            join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME))
+    // The serializer and deserializer reuse their buffers, so each stream thread has its own:
+    final Serializer<GenericRow> genericRowSerializer = new ThreadLocalSerializer(
+        () -> new KsqlDelimitedSerializer(schema));
+    final Deserializer<GenericRow> genericRowDeserializer = new ThreadLocalDeserializer(
+        () -> new KsqlDelimitedDeserializer(
+            schema,
+            recordLogger,
+            decodedColumns,
+            recordFilter
+        )
     );
-    genericRowDeserializer.configure(serdeProps, false);
 
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
   }
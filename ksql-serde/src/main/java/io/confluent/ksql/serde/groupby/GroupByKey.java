@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.groupby;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * The key of a record that has been re-keyed by the columns of a GROUP BY clause.
+ *
+ * <p>{@code BOOLEAN}, {@code INT}, {@code BIGINT}, {@code DOUBLE} and {@code STRING} values keep
+ * their type. Values of any other type are held in their string form.
+ *
+ * <p>{@link #toString()} returns the values joined with {@link #COLUMN_SEPARATOR}, which is the
+ * form the key takes in the sink topic of the aggregate.
+ */
+public final class GroupByKey {
+
+  public static final String COLUMN_SEPARATOR = "|+|";
+
+  private final Object[] values;
+
+  public GroupByKey(final Object... values) {
+    Objects.requireNonNull(values, "values");
+    if (values.length == 0) {
+      throw new IllegalArgumentException("Empty group by key");
+    }
+    this.values = new Object[values.length];
+    for (int i = 0; i < values.length; i++) {
+      this.values[i] = normalize(values[i]);
+    }
+  }
+
+  public int size() {
+    return values.length;
+  }
+
+  public Object get(final int index) {
+    return values[index];
+  }
+
+  public List<Object> getValues() {
+    return Collections.unmodifiableList(Arrays.asList(values));
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return Arrays.equals(values, ((GroupByKey) o).values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+
+  @Override
+  public String toString() {
+    if (values.length == 1) {
+      return String.valueOf(values[0]);
+    }
+    return Arrays.stream(values)
+        .map(String::valueOf)
+        .collect(Collectors.joining(COLUMN_SEPARATOR));
+  }
+
+  private static Object normalize(final Object value) {
+    if (value == null
+        || value instanceof Boolean
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof Double
+        || value instanceof String) {
+      return value;
+    }
+    return value.toString();
+  }
+}
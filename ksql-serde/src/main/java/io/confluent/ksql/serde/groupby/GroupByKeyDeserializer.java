@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.groupby;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.utils.ByteUtils;
+
+/**
+ * Reads a {@link GroupByKey} written by {@link GroupByKeySerializer}.
+ */
+public class GroupByKeyDeserializer implements Deserializer<GroupByKey> {
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public GroupByKey deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      final List<Object> values = new ArrayList<>();
+      while (buffer.hasRemaining()) {
+        values.add(readValue(buffer));
+      }
+      return new GroupByKey(values.toArray());
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing group by key from topic: " + topic, e);
+    }
+  }
+
+  private static Object readValue(final ByteBuffer buffer) {
+    final byte type = buffer.get();
+    switch (type) {
+      case GroupByKeySerializer.NULL:
+        return null;
+      case GroupByKeySerializer.BOOLEAN:
+        return buffer.get() != 0;
+      case GroupByKeySerializer.INT:
+        return buffer.getInt();
+      case GroupByKeySerializer.LONG:
+        return buffer.getLong();
+      case GroupByKeySerializer.DOUBLE:
+        return buffer.getDouble();
+      case GroupByKeySerializer.STRING:
+        final int length = ByteUtils.readVarint(buffer);
+        final String value = new String(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+            StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+      default:
+        throw new IllegalArgumentException("Unknown group by key value type: " + type);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.groupby;
+
+import org.apache.kafka.common.serialization.Serdes;
+
+/**
+ * Serde for the compact binary form of a {@link GroupByKey}, used for repartition topics and
+ * the state stores of aggregates.
+ */
+public class GroupByKeySerde extends Serdes.WrapperSerde<GroupByKey> {
+
+  public GroupByKeySerde() {
+    super(new GroupByKeySerializer(), new GroupByKeyDeserializer());
+  }
+}
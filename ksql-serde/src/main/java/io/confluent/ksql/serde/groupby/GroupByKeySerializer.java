@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.groupby;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.utils.ByteUtils;
+
+/**
+ * Writes a {@link GroupByKey} in a compact binary form.
+ *
+ * <p>Each value is written as a one byte type tag, followed by the value: nothing for a null,
+ * one byte for a boolean, a fixed width big-endian number for an int, long or double, and a
+ * varint length followed by the UTF-8 bytes for a string.
+ */
+public class GroupByKeySerializer implements Serializer<GroupByKey> {
+
+  static final byte NULL = 0;
+  static final byte BOOLEAN = 1;
+  static final byte INT = 2;
+  static final byte LONG = 3;
+  static final byte DOUBLE = 4;
+  static final byte STRING = 5;
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GroupByKey key) {
+    if (key == null) {
+      return null;
+    }
+
+    final byte[][] strings = new byte[key.size()][];
+    int size = 0;
+    for (int i = 0; i < key.size(); i++) {
+      final Object value = key.get(i);
+      size += 1;
+      if (value instanceof Boolean) {
+        size += 1;
+      } else if (value instanceof Integer) {
+        size += Integer.BYTES;
+      } else if (value instanceof Long) {
+        size += Long.BYTES;
+      } else if (value instanceof Double) {
+        size += Double.BYTES;
+      } else if (value instanceof String) {
+        strings[i] = ((String) value).getBytes(StandardCharsets.UTF_8);
+        size += ByteUtils.sizeOfVarint(strings[i].length) + strings[i].length;
+      }
+    }
+
+    final ByteBuffer buffer = ByteBuffer.allocate(size);
+    for (int i = 0; i < key.size(); i++) {
+      final Object value = key.get(i);
+      if (value == null) {
+        buffer.put(NULL);
+      } else if (value instanceof Boolean) {
+        buffer.put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+      } else if (value instanceof Integer) {
+        buffer.put(INT).putInt((Integer) value);
+      } else if (value instanceof Long) {
+        buffer.put(LONG).putLong((Long) value);
+      } else if (value instanceof Double) {
+        buffer.put(DOUBLE).putDouble((Double) value);
+      } else {
+        buffer.put(STRING);
+        ByteUtils.writeVarint(strings[i].length, buffer);
+        buffer.put(strings[i]);
+      }
+    }
+    return buffer.array();
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.groupby;
+
+import java.util.Map;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+/**
+ * Serde that writes keys of any type as the UTF-8 bytes of their string form, and reads them
+ * back as strings.
+ *
+ * <p>Keys written from a {@link GroupByKey} are byte for byte the same as the {@code STRING}
+ * keys written by versions of KSQL that keyed aggregates by a string.
+ */
+public class StringKeySerde extends Serdes.WrapperSerde<Object> {
+
+  public StringKeySerde() {
+    super(new ToStringSerializer(), new StringKeyDeserializer());
+  }
+
+  private static final class ToStringSerializer implements Serializer<Object> {
+
+    private final Serializer<String> delegate = Serdes.String().serializer();
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final Object key) {
+      return key == null ? null : delegate.serialize(topic, key.toString());
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+
+  private static final class StringKeyDeserializer implements Deserializer<Object> {
+
+    private final Deserializer<String> delegate = new StringDeserializer();
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(final String topic, final byte[] bytes) {
+      return delegate.deserialize(topic, bytes);
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+}
@@ -18,6 +18,8 @@ package io.confluent.ksql.serde.json;
 import com.google.gson.Gson;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.RecordFilter;
+import io.confluent.ksql.serde.RecordFilter.FieldConditions;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
@@ -29,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.Field;
@@ -45,6 +48,9 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
   private final Schema schema;
   private final JsonConverter jsonConverter;
   private final ProcessingLogger recordLogger;
+  private final boolean[] requiredFields;
+  private final FieldConditions fieldConditions;
+  private final int[] conditionedFields;
 
   private final Gson gson;
 
@@ -52,6 +58,31 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
       final Schema schema,
       final boolean isInternal,
       final ProcessingLogger recordLogger) {
+    this(schema, isInternal, recordLogger, SerdeUtils.columnNames(schema));
+  }
+
+  /**
+   * @param requiredColumns the columns to decode. Other columns are left null.
+   */
+  public KsqlJsonDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final ProcessingLogger recordLogger,
+      final Set<String> requiredColumns) {
+    this(schema, isInternal, recordLogger, requiredColumns, RecordFilter.acceptAll());
+  }
+
+  /**
+   * @param requiredColumns the columns to decode. Other columns are left null. Must include the
+   *     columns of the filter.
+   * @param recordFilter the conditions records must meet to be deserialized.
+   */
+  public KsqlJsonDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final ProcessingLogger recordLogger,
+      final Set<String> requiredColumns,
+      final RecordFilter recordFilter) {
     gson = new Gson();
     // If this is a Deserializer for an internal topic in the streams app
     if (isInternal) {
@@ -62,6 +93,9 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
     jsonConverter = new JsonConverter();
     jsonConverter.configure(Collections.singletonMap("schemas.enable", false), false);
     this.recordLogger = Objects.requireNonNull(recordLogger);
+    this.requiredFields = SerdeUtils.requiredFields(this.schema, requiredColumns);
+    this.fieldConditions = recordFilter.forFields(this.schema);
+    this.conditionedFields = fieldConditions.getFields();
   }
 
   @Override
@@ -98,14 +132,35 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
     final Map<String, String> caseInsensitiveFieldNameMap =
         getCaseInsensitiveFieldNameMap(valueMap, true);
 
-    final List<Object> columns = new ArrayList(schema.fields().size());
-    for (final Field field : schema.fields()) {
+    if (!meetsConditions(valueMap, caseInsensitiveFieldNameMap)) {
+      return null;
+    }
+
+    final Object[] columns = new Object[schema.fields().size()];
+    for (int i = 0; i < requiredFields.length; i++) {
+      if (!requiredFields[i]) {
+        continue;
+      }
+      final Field field = schema.fields().get(i);
       final Object columnVal = valueMap.get(caseInsensitiveFieldNameMap.get(field.name()));
-      columns.add(enforceFieldType(field.schema(), columnVal));
+      columns[i] = enforceFieldType(field.schema(), columnVal);
     }
     return new GenericRow(columns);
   }
 
+  private boolean meetsConditions(
+      final Map<String, Object> valueMap,
+      final Map<String, String> caseInsensitiveFieldNameMap) {
+    for (final int i : conditionedFields) {
+      final Field field = schema.fields().get(i);
+      final Object columnVal = valueMap.get(caseInsensitiveFieldNameMap.get(field.name()));
+      if (!fieldConditions.test(i, enforceFieldType(field.schema(), columnVal))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   // This is a temporary requirement until we can ensure that the types that Connect JSON
   // convertor creates are supported in KSQL.
   @SuppressWarnings("unchecked")
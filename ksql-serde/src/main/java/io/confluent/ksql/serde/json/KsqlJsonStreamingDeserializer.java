@@ -0,0 +1,371 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.Sets;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.RecordFilter;
+import io.confluent.ksql.serde.RecordFilter.FieldConditions;
+import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import io.confluent.ksql.serde.util.SerdeUtils;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.SchemaUtil;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A JSON deserializer that reads a record straight from its bytes into the columns of a
+ * {@link GenericRow}, using a Jackson streaming parser.
+ *
+ * <p>Unlike {@link KsqlJsonDeserializer}, no intermediate Connect value or field name maps are
+ * built for each record: JSON field names are resolved to column indexes through a lookup table
+ * built once per schema, and fields not in the schema are skipped without being materialized.
+ *
+ * <p>Type coercion matches {@link KsqlJsonDeserializer}, with the exception that JSON objects
+ * read into {@code STRING} columns retain the field order of the original document.
+ *
+ * <p>Columns that are not required are skipped in the same way as unknown fields, and left null.
+ * Records that do not meet the conditions of a {@link RecordFilter} are deserialized as
+ * {@code null} as soon as a column fails its condition, without reading the rest of the record.
+ */
+public class KsqlJsonStreamingDeserializer implements Deserializer<GenericRow> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonStreamingDeserializer.class);
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final Schema schema;
+  private final ProcessingLogger recordLogger;
+  private final boolean[] requiredFields;
+  private final FieldConditions fieldConditions;
+  private final Map<Schema, FieldLookup> fieldLookups = new IdentityHashMap<>();
+
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final ProcessingLogger recordLogger) {
+    this(schema, isInternal, recordLogger, SerdeUtils.columnNames(schema));
+  }
+
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final ProcessingLogger recordLogger,
+      final Set<String> requiredColumns) {
+    this(schema, isInternal, recordLogger, requiredColumns, RecordFilter.acceptAll());
+  }
+
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final ProcessingLogger recordLogger,
+      final Set<String> requiredColumns,
+      final RecordFilter recordFilter) {
+    this.schema = isInternal ? schema : SchemaUtil.getSchemaWithNoAlias(schema);
+    this.recordLogger = Objects.requireNonNull(recordLogger, "recordLogger");
+    // Columns with a condition must be read to check it, so are never skipped:
+    this.requiredFields = SerdeUtils.requiredFields(
+        this.schema, Sets.union(requiredColumns, recordFilter.getColumns()));
+    this.fieldConditions = recordFilter.forFields(this.schema);
+    buildFieldLookups(this.schema, true);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    try {
+      final GenericRow row = getGenericRow(bytes);
+      if (LOG.isTraceEnabled()) {
+        LOG.trace("Deserialized row. topic:{}, row:{}", topic, row);
+      }
+      return row;
+    } catch (final Exception e) {
+      recordLogger.error(
+          SerdeProcessingLogMessageFactory.deserializationErrorMsg(
+              e,
+              Optional.ofNullable(bytes))
+      );
+      throw new SerializationException(
+          "KsqlJsonStreamingDeserializer failed to deserialize data for topic: " + topic, e);
+    }
+  }
+
+  private GenericRow getGenericRow(final byte[] rowJsonBytes) throws IOException {
+    if (rowJsonBytes == null) {
+      return null;
+    }
+
+    try (JsonParser parser = JSON_FACTORY.createParser(rowJsonBytes)) {
+      final JsonToken token = parser.nextToken();
+      if (token == null || token == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      if (token != JsonToken.START_OBJECT) {
+        throw new KsqlException("Expected a JSON object but got: " + token);
+      }
+
+      final FieldLookup lookup = fieldLookups.get(schema);
+      final Object[] columns = new Object[schema.fields().size()];
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final int index = lookup.indexOf(parser.getCurrentName());
+        parser.nextToken();
+        if (index < 0 || !requiredFields[index]) {
+          parser.skipChildren();
+        } else {
+          columns[index] = readValue(parser, schema.fields().get(index).schema());
+          if (!fieldConditions.test(index, columns[index])) {
+            return null;
+          }
+        }
+      }
+      // Columns missing from the document are null, which may not meet their condition:
+      if (!fieldConditions.test(columns)) {
+        return null;
+      }
+      return new GenericRow(columns);
+    }
+  }
+
+  private Object readValue(final JsonParser parser, final Schema fieldSchema) throws IOException {
+    final JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    switch (fieldSchema.type()) {
+      case BOOLEAN:
+        return token.isBoolean()
+            ? parser.getBooleanValue() : SerdeUtils.toBoolean(readUntyped(parser));
+      case INT32:
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+          return parser.getIntValue();
+        }
+        return token == JsonToken.VALUE_NUMBER_FLOAT
+            ? (int) parser.getDoubleValue() : SerdeUtils.toInteger(readUntyped(parser));
+      case INT64:
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+          return parser.getLongValue();
+        }
+        return token == JsonToken.VALUE_NUMBER_FLOAT
+            ? (long) parser.getDoubleValue() : SerdeUtils.toLong(readUntyped(parser));
+      case FLOAT64:
+        return token.isNumeric()
+            ? parser.getDoubleValue() : SerdeUtils.toDouble(readUntyped(parser));
+      case STRING:
+        return readString(parser);
+      case ARRAY:
+        return readArray(parser, fieldSchema);
+      case MAP:
+        return readMap(parser, fieldSchema);
+      case STRUCT:
+        return readStruct(parser, fieldSchema);
+      default:
+        throw new KsqlException("Type is not supported: " + fieldSchema.type());
+    }
+  }
+
+  private static String readString(final JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_STRING:
+        return parser.getText();
+      case START_OBJECT:
+        final StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+          generator.copyCurrentStructure(parser);
+        }
+        return writer.toString();
+      default:
+        return readUntyped(parser).toString();
+    }
+  }
+
+  private List<?> readArray(final JsonParser parser, final Schema fieldSchema)
+      throws IOException {
+    expect(parser, JsonToken.START_ARRAY, fieldSchema);
+    final List<Object> array = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      array.add(readValue(parser, fieldSchema.valueSchema()));
+    }
+    return array;
+  }
+
+  private Map<String, Object> readMap(final JsonParser parser, final Schema fieldSchema)
+      throws IOException {
+    expect(parser, JsonToken.START_OBJECT, fieldSchema);
+    final Map<String, Object> ksqlMap = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String key = parser.getCurrentName();
+      parser.nextToken();
+      ksqlMap.put(key, readValue(parser, fieldSchema.valueSchema()));
+    }
+    return ksqlMap;
+  }
+
+  private Struct readStruct(final JsonParser parser, final Schema fieldSchema)
+      throws IOException {
+    expect(parser, JsonToken.START_OBJECT, fieldSchema);
+    final FieldLookup lookup = fieldLookups.get(fieldSchema);
+    final Struct columnStruct = new Struct(fieldSchema);
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final int index = lookup.indexOf(parser.getCurrentName());
+      parser.nextToken();
+      if (index < 0) {
+        parser.skipChildren();
+      } else {
+        final Field field = fieldSchema.fields().get(index);
+        columnStruct.put(field, readValue(parser, field.schema()));
+      }
+    }
+    return columnStruct;
+  }
+
+  /**
+   * Reads the current value the same way the Connect {@code JsonConverter} would for a
+   * schemaless value, i.e. integers as {@code Long}, objects as {@code Map}, etc.
+   */
+  private static Object readUntyped(final JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_TRUE:
+        return true;
+      case VALUE_FALSE:
+        return false;
+      case VALUE_NUMBER_INT:
+        return parser.getLongValue();
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_STRING:
+        return parser.getText();
+      case START_ARRAY:
+        final List<Object> list = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          list.add(readUntyped(parser));
+        }
+        return list;
+      case START_OBJECT:
+        final Map<String, Object> map = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String key = parser.getCurrentName();
+          parser.nextToken();
+          map.put(key, readUntyped(parser));
+        }
+        return map;
+      default:
+        return null;
+    }
+  }
+
+  private static void expect(
+      final JsonParser parser,
+      final JsonToken expected,
+      final Schema fieldSchema) {
+    if (parser.currentToken() != expected) {
+      throw new KsqlException("Can not read " + parser.currentToken()
+          + " into field of type " + fieldSchema.type());
+    }
+  }
+
+  private void buildFieldLookups(final Schema fieldSchema, final boolean topLevel) {
+    switch (fieldSchema.type()) {
+      case ARRAY:
+      case MAP:
+        buildFieldLookups(fieldSchema.valueSchema(), false);
+        break;
+      case STRUCT:
+        fieldLookups.putIfAbsent(fieldSchema, new FieldLookup(fieldSchema, topLevel));
+        fieldSchema.fields().forEach(field -> buildFieldLookups(field.schema(), false));
+        break;
+      default:
+        break;
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  /**
+   * Case-insensitive mapping of JSON field names to the index of the matching schema field.
+   *
+   * <p>Jackson canonicalizes field names, so the names seen on each record are remembered to
+   * avoid upper-casing them again. The number of remembered names is bounded, so that records
+   * with arbitrary keys can not grow the table without limit. Lookups may come from multiple
+   * stream threads sharing the same deserializer.
+   */
+  private static final class FieldLookup {
+
+    private static final int NOT_FOUND = -1;
+    private static final int MAX_RESOLVED_NAMES = 1024;
+
+    private final Map<String, Integer> fieldIndexes = new HashMap<>();
+    private final Map<String, Integer> resolvedNames = new ConcurrentHashMap<>();
+    private final boolean omitAt;
+
+    FieldLookup(final Schema structSchema, final boolean omitAt) {
+      this.omitAt = omitAt;
+      final List<Field> fields = structSchema.fields();
+      for (int i = 0; i < fields.size(); i++) {
+        fieldIndexes.put(fields.get(i).name().toUpperCase(), i);
+      }
+    }
+
+    int indexOf(final String jsonFieldName) {
+      final Integer resolved = resolvedNames.get(jsonFieldName);
+      if (resolved != null) {
+        return resolved;
+      }
+
+      final Integer index = fieldIndexes.get(normalize(jsonFieldName));
+      final int result = index == null ? NOT_FOUND : index;
+      if (resolvedNames.size() < MAX_RESOLVED_NAMES) {
+        resolvedNames.put(jsonFieldName, result);
+      }
+      return result;
+    }
+
+    private String normalize(final String jsonFieldName) {
+      if (omitAt && jsonFieldName.startsWith("@")) {
+        if (jsonFieldName.length() == 1) {
+          throw new KsqlException("Field name cannot be '@'.");
+        }
+        return jsonFieldName.substring(1).toUpperCase();
+      }
+      return jsonFieldName.toUpperCase();
+    }
+  }
+}
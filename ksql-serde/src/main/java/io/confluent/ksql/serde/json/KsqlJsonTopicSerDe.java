@@ -17,15 +17,19 @@ package io.confluent.ksql.serde.json;
 
 import static io.confluent.ksql.logging.processing.ProcessingLoggerUtil.join;
 
+import com.google.common.collect.Sets;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.RecordFilter;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -46,21 +50,50 @@ public class KsqlJsonTopicSerDe extends KsqlTopicSerDe {
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       final String loggerNamePrefix,
       final ProcessingLogContext processingLogContext) {
+    return getGenericRowSerde(
+        schema,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        SerdeUtils.columnNames(schema),
+        RecordFilter.acceptAll());
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<String> requiredColumns,
+      final RecordFilter recordFilter) {
     final Map<String, Object> serdeProps = new HashMap<>();
     serdeProps.put("JsonPOJOClass", GenericRow.class);
 
     final Serializer<GenericRow> genericRowSerializer = new KsqlJsonSerializer(schema);
     genericRowSerializer.configure(serdeProps, false);
 
-    final Deserializer<GenericRow> genericRowDeserializer = new KsqlJsonDeserializer(
-        schema,
-        isInternal,
-        processingLogContext.getLoggerFactory().getLogger(
-            join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME))
-    );
+    final ProcessingLogger recordLogger = processingLogContext.getLoggerFactory().getLogger(
+        join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME));
+
+    final Set<String> decodedColumns = Sets.union(requiredColumns, recordFilter.getColumns());
+    final Deserializer<GenericRow> genericRowDeserializer = useStreamingDeserializer(ksqlConfig)
+        ? new KsqlJsonStreamingDeserializer(
+            schema, isInternal, recordLogger, decodedColumns, recordFilter)
+        : new KsqlJsonDeserializer(
+            schema, isInternal, recordLogger, decodedColumns, recordFilter);
 
     genericRowDeserializer.configure(serdeProps, false);
 
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
   }
+
+  private static boolean useStreamingDeserializer(final KsqlConfig ksqlConfig) {
+    return ksqlConfig != null
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_JSON_STREAMING_DESERIALIZER_ENABLED);
+  }
 }
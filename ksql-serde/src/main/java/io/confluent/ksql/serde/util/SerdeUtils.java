@@ -16,7 +16,12 @@
 package io.confluent.ksql.serde.util;
 
 import io.confluent.ksql.util.KsqlException;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
 
 public final class SerdeUtils {
   public static final String DESERIALIZER_LOGGER_NAME = "deserializer";
@@ -87,4 +92,31 @@ public final class SerdeUtils {
     }
     throw new IllegalArgumentException("This Object doesn't represent a double");
   }
+
+  /**
+   * @return the names of all the fields of a row schema, without any source alias.
+   */
+  public static Set<String> columnNames(final Schema schema) {
+    return schema.fields().stream()
+        .map(Field::name)
+        .map(name -> name.substring(name.indexOf('.') + 1))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Determine which fields of a row schema must be decoded.
+   *
+   * @param schema the row schema, with or without a source alias.
+   * @param requiredColumns the names of the required columns, without a source alias.
+   * @return for each field of the schema, whether it is one of the required columns.
+   */
+  public static boolean[] requiredFields(final Schema schema, final Set<String> requiredColumns) {
+    final List<Field> fields = schema.fields();
+    final boolean[] required = new boolean[fields.size()];
+    for (int i = 0; i < required.length; i++) {
+      final String name = fields.get(i).name();
+      required[i] = requiredColumns.contains(name.substring(name.indexOf('.') + 1));
+    }
+    return required;
+  }
 }
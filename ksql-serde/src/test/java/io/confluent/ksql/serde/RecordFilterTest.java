@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.serde.RecordFilter.FieldConditions;
+import java.util.Collections;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Test;
+
+public class RecordFilterTest {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("S.ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("S.NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("S.COUNT", Schema.OPTIONAL_INT32_SCHEMA)
+      .build();
+
+  private final RecordFilter filter = RecordFilter.of(ImmutableMap.of(
+      "NAME", value -> "bob".equals(value),
+      "COUNT", value -> value != null && (Integer) value > 1));
+
+  @Test
+  public void shouldReturnAcceptAllForNoConditions() {
+    assertThat(
+        RecordFilter.of(Collections.emptyMap()),
+        is(sameInstance(RecordFilter.acceptAll())));
+    assertThat(RecordFilter.acceptAll().isEmpty(), is(true));
+  }
+
+  @Test
+  public void shouldMatchFieldsWithAlias() {
+    // When:
+    final FieldConditions conditions = filter.forFields(SCHEMA);
+
+    // Then:
+    assertThat(conditions.isEmpty(), is(false));
+    assertThat(conditions.getFields(), is(new int[]{1, 2}));
+  }
+
+  @Test
+  public void shouldPassFieldsWithoutCondition() {
+    // When:
+    final FieldConditions conditions = filter.forFields(SCHEMA);
+
+    // Then:
+    assertThat(conditions.test(0, null), is(true));
+    assertThat(conditions.test(1, "bob"), is(true));
+    assertThat(conditions.test(1, "alice"), is(false));
+  }
+
+  @Test
+  public void shouldTestAllColumns() {
+    // When:
+    final FieldConditions conditions = filter.forFields(SCHEMA);
+
+    // Then:
+    assertThat(conditions.test(new Object[]{1L, "bob", 2}), is(true));
+    assertThat(conditions.test(new Object[]{1L, "bob", 1}), is(false));
+    assertThat(conditions.test(new Object[]{1L, "bob", null}), is(false));
+  }
+
+  @Test
+  public void shouldReturnColumnsWithCondition() {
+    assertThat(filter.getColumns(), contains("NAME", "COUNT"));
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.GenericRow;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Test;
+
+public class KsqlBinaryRowSerdeTest {
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("NUMBER", Schema.OPTIONAL_INT32_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("BOOL", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("INT", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("BIGINT", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("DOUBLE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("STRING", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ARRAY", SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+      .field("MAP", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .field("STRUCT", ADDRESS_SCHEMA)
+      .build();
+
+  private final KsqlBinaryRowSerde serde = new KsqlBinaryRowSerde(SCHEMA);
+
+  @Test
+  public void shouldRoundTripAllTypes() {
+    // Given:
+    final Map<String, Double> map = new HashMap<>();
+    map.put("a", 1.5);
+    map.put("b", null);
+    final GenericRow row = new GenericRow(Arrays.asList(
+        true,
+        -12,
+        Long.MAX_VALUE,
+        Double.NaN,
+        "héllo wörld",
+        Arrays.asList(1L, null, -3L),
+        map,
+        new Struct(ADDRESS_SCHEMA).put("STREET", "Main").put("NUMBER", 221)));
+
+    // When:
+    final GenericRow result = roundTrip(row);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldRoundTripNullColumns() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, null, null, null, null, null, null, null));
+
+    // Then:
+    assertThat(roundTrip(row), is(row));
+  }
+
+  @Test
+  public void shouldCoerceNumbersToSchemaType() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, 10L, 10, 10, null, Collections.singletonList(7), null, null));
+
+    // Then:
+    assertThat(roundTrip(row), is(new GenericRow(Arrays.asList(
+        null, 10, 10L, 10.0, null, Collections.singletonList(7L), null, null))));
+  }
+
+  @Test
+  public void shouldReturnMutableColumns() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, 1, null, null, null, null, null, null));
+
+    // When:
+    final GenericRow result = roundTrip(row);
+
+    // Then:
+    result.getColumns().set(1, 2);
+    assertThat(result.getColumns().get(1), is(2));
+  }
+
+  @Test
+  public void shouldWriteNumbersWithFixedWidth() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("SUM", Schema.OPTIONAL_FLOAT64_SCHEMA)
+        .build();
+
+    // When:
+    final byte[] bytes = new KsqlBinaryRowSerializer(schema)
+        .serialize("t", new GenericRow(Arrays.asList(1L, 2.0)));
+
+    // Then:
+    assertThat(bytes.length, is(18));
+  }
+
+  @Test
+  public void shouldTreatNullAsNull() {
+    assertThat(serde.serializer().serialize("t", null), is(nullValue()));
+    assertThat(serde.deserializer().deserialize("t", null), is(nullValue()));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowIfRowDoesNotMatchSchema() {
+    serde.serializer().serialize("t", new GenericRow(Collections.singletonList(1)));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnTruncatedData() {
+    // Given:
+    final byte[] bytes = serde.serializer().serialize("t", new GenericRow(Arrays.asList(
+        null, 1, null, null, "abc", null, null, null)));
+
+    // When:
+    serde.deserializer().deserialize("t", Arrays.copyOf(bytes, bytes.length - 4));
+  }
+
+  private GenericRow roundTrip(final GenericRow row) {
+    final byte[] bytes = serde.serializer().serialize("t", row);
+    return serde.deserializer().deserialize("t", bytes);
+  }
+}
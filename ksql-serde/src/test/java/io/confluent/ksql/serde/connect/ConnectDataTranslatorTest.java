@@ -23,6 +23,7 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import java.util.Arrays;
 import java.util.List;
@@ -66,6 +67,39 @@ public class ConnectDataTranslatorTest {
     assertThat(connectStructColumn.get("BIGINT"), equalTo(456L));
   }
 
+  @Test
+  public void shouldOnlyTranslateRequiredColumns() {
+    final Schema structSchema = SchemaBuilder
+        .struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .field("BIGINT", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+        .optional()
+        .build();
+    final Schema rowSchema = SchemaBuilder
+        .struct()
+        .field("STRUCT", structSchema)
+        .field("STRING", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+
+    final Struct connectStruct = new Struct(rowSchema);
+    final Struct structColumn = new Struct(structSchema);
+    structColumn.put("INT", 123);
+    structColumn.put("BIGINT", 456L);
+    connectStruct.put("STRUCT", structColumn);
+    connectStruct.put("STRING", "foo");
+
+    final ConnectDataTranslator connectToKsqlTranslator =
+        new ConnectDataTranslator(rowSchema, ImmutableSet.of("STRUCT"));
+    final GenericRow row = connectToKsqlTranslator.toKsqlRow(rowSchema, connectStruct);
+
+    assertThat(row.getColumns().size(), equalTo(2));
+    final Struct connectStructColumn = row.getColumnValue(0);
+    assertThat(connectStructColumn.get("INT"), equalTo(123));
+    assertThat(connectStructColumn.get("BIGINT"), equalTo(456L));
+    assertThat(row.getColumnValue(1), nullValue());
+  }
+
   @Test
   public void shouldTranslateArrayOfStructs() {
     final Schema innerSchema =
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.util.KsqlException;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class DelimitedReaderTest {
+
+  private final DelimitedReader reader = new DelimitedReader(DelimitedFormat.DEFAULT);
+
+  @Test
+  public void shouldSplitFields() {
+    // When:
+    final int fieldCount = read("a,,b c\r\n");
+
+    // Then:
+    assertThat(fieldCount, is(3));
+    assertThat(reader.getString(0), is("a"));
+    assertThat(reader.isEmpty(1), is(true));
+    assertThat(reader.getString(2), is("b c"));
+  }
+
+  @Test
+  public void shouldReadTrailingEmptyField() {
+    // When:
+    final int fieldCount = read("a,");
+
+    // Then:
+    assertThat(fieldCount, is(2));
+    assertThat(reader.isEmpty(1), is(true));
+  }
+
+  @Test
+  public void shouldOnlyReadFirstLineAfterEmptyLines() {
+    // When:
+    final int fieldCount = read("\r\n\na,b\nc,d,e");
+
+    // Then:
+    assertThat(fieldCount, is(2));
+    assertThat(reader.getString(1), is("b"));
+  }
+
+  @Test
+  public void shouldReturnNoFieldsForEmptyRecord() {
+    assertThat(read(""), is(0));
+    assertThat(read("\r\n"), is(0));
+  }
+
+  @Test
+  public void shouldReadQuotedFields() {
+    // When:
+    final int fieldCount = read("\"a,b\",\"say \"\"hi\"\"\",\"x\ny\"  ,\"\"");
+
+    // Then:
+    assertThat(fieldCount, is(4));
+    assertThat(reader.getString(0), is("a,b"));
+    assertThat(reader.getString(1), is("say \"hi\""));
+    assertThat(reader.getString(2), is("x\ny"));
+    assertThat(reader.isEmpty(3), is(true));
+  }
+
+  @Test
+  public void shouldKeepQuotesInsideUnquotedFields() {
+    // When:
+    read("a\"b, \"c\"");
+
+    // Then:
+    assertThat(reader.getString(0), is("a\"b"));
+    assertThat(reader.getString(1), is(" \"c\""));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnUnclosedQuote() {
+    read("\"abc,d");
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnTextAfterClosingQuote() {
+    read("\"abc\"d,e");
+  }
+
+  @Test
+  public void shouldReadMultiByteCharacters() {
+    // When:
+    read("héllo,日本,\"€\"");
+
+    // Then:
+    assertThat(reader.getString(0), is("héllo"));
+    assertThat(reader.getString(1), is("日本"));
+    assertThat(reader.getString(2), is("€"));
+  }
+
+  @Test
+  public void shouldSupportOtherDelimiterAndQuote() {
+    // Given:
+    final DelimitedReader reader = new DelimitedReader(DelimitedFormat.of('|', '\''));
+
+    // When:
+    final int fieldCount = reader.read(bytes("'a|b'|c,d|'it''s'"));
+
+    // Then:
+    assertThat(fieldCount, is(3));
+    assertThat(reader.getString(0), is("a|b"));
+    assertThat(reader.getString(1), is("c,d"));
+    assertThat(reader.getString(2), is("it's"));
+  }
+
+  @Test
+  public void shouldReadIntegers() {
+    // When:
+    read("0,-12,+34,2147483647,-2147483648");
+
+    // Then:
+    assertThat(reader.getInt(0), is(0));
+    assertThat(reader.getInt(1), is(-12));
+    assertThat(reader.getInt(2), is(34));
+    assertThat(reader.getInt(3), is(Integer.MAX_VALUE));
+    assertThat(reader.getInt(4), is(Integer.MIN_VALUE));
+  }
+
+  @Test
+  public void shouldReadLongs() {
+    // When:
+    read("1511897796092,9223372036854775807,-9223372036854775808");
+
+    // Then:
+    assertThat(reader.getLong(0), is(1511897796092L));
+    assertThat(reader.getLong(1), is(Long.MAX_VALUE));
+    assertThat(reader.getLong(2), is(Long.MIN_VALUE));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void shouldThrowOnIntegerOverflow() {
+    read("2147483648");
+    reader.getInt(0);
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void shouldThrowOnInvalidLong() {
+    read(" 12");
+    reader.getLong(0);
+  }
+
+  @Test
+  public void shouldReadDoublesLikeJdk() {
+    final String[] values = {
+        "10.0", "-0.0", "0.1", "123456.789", "-1.", ".5", "3.141592653589793",
+        "1e10", "1.5E-3", "12345678901234567890.5", "NaN", "-Infinity"
+    };
+
+    for (final String value : values) {
+      // When:
+      read(value);
+
+      // Then:
+      assertThat(value, reader.getDouble(0), is(Double.parseDouble(value)));
+    }
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void shouldThrowOnInvalidDouble() {
+    read("1.2.3");
+    reader.getDouble(0);
+  }
+
+  @Test
+  public void shouldReadBooleansLikeJdk() {
+    // When:
+    read("true,TRUE,tRuE,false,yes,trues");
+
+    // Then:
+    assertThat(reader.getBoolean(0), is(true));
+    assertThat(reader.getBoolean(1), is(true));
+    assertThat(reader.getBoolean(2), is(true));
+    assertThat(reader.getBoolean(3), is(false));
+    assertThat(reader.getBoolean(4), is(false));
+    assertThat(reader.getBoolean(5), is(false));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnNonAsciiDelimiter() {
+    DelimitedFormat.of('§', '"');
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnSameDelimiterAndQuote() {
+    DelimitedFormat.of(',', ',');
+  }
+
+  private int read(final String record) {
+    return reader.read(bytes(record));
+  }
+
+  private static byte[] bytes(final String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+}
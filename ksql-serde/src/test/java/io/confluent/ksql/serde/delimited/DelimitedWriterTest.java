@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class DelimitedWriterTest {
+
+  private final DelimitedWriter writer = new DelimitedWriter(DelimitedFormat.DEFAULT);
+
+  @Test
+  public void shouldWriteValues() {
+    assertThat(write(1511897796092L, 1, "item_1", 10.0, true),
+        is("1511897796092,1,item_1,10.0,true"));
+  }
+
+  @Test
+  public void shouldWriteNullsAsEmptyFields() {
+    assertThat(write(null, "a", null), is(",a,"));
+  }
+
+  @Test
+  public void shouldWriteExtremeNumbers() {
+    assertThat(write(Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE, 0, -7),
+        is("-9223372036854775808,9223372036854775807,-2147483648,0,-7"));
+  }
+
+  @Test
+  public void shouldQuoteValuesThatNeedIt() {
+    assertThat(write("a,b", "say \"hi\"", "x\ny", " lead", "trail ", "#tag"),
+        is("\"a,b\",\"say \"\"hi\"\"\",\"x\ny\",\" lead\",\"trail \",\"#tag\""));
+  }
+
+  @Test
+  public void shouldOnlyQuoteEmptyValueIfFirst() {
+    assertThat(write("", ""), is("\"\","));
+  }
+
+  @Test
+  public void shouldOnlyQuoteNonAsciiStartIfFirst() {
+    assertThat(write("é", "é"), is("\"é\",é"));
+  }
+
+  @Test
+  public void shouldEncodeUtf8() {
+    assertThat(write("a", "日本", "a😀b", "bad\uD800"), is("a,日本,a😀b,bad?"));
+  }
+
+  @Test
+  public void shouldGrowBuffer() {
+    // Given:
+    final char[] chars = new char[1000];
+    Arrays.fill(chars, 'x');
+    final String longValue = new String(chars);
+
+    // Then:
+    assertThat(write(longValue, longValue), is(longValue + "," + longValue));
+  }
+
+  @Test
+  public void shouldWriteEmptyRow() {
+    assertThat(write(), is(""));
+  }
+
+  @Test
+  public void shouldSupportOtherDelimiterAndQuote() {
+    // Given:
+    final DelimitedWriter writer = new DelimitedWriter(DelimitedFormat.of('|', '\''));
+
+    // When:
+    final byte[] bytes = writer.write(Arrays.asList("a|b", "c,d", "it's"));
+
+    // Then:
+    assertThat(new String(bytes, StandardCharsets.UTF_8), is("'a|b'|c,d|'it''s'"));
+  }
+
+  @Test
+  public void shouldRoundTripThroughReader() {
+    // Given:
+    final DelimitedReader reader = new DelimitedReader(DelimitedFormat.DEFAULT);
+    final String value = " \"quoted\", multi\r\nline ";
+
+    // When:
+    reader.read(writer.write(Collections.singletonList(value)));
+
+    // Then:
+    assertThat(reader.getString(0), is(value));
+  }
+
+  private String write(final Object... values) {
+    return new String(writer.write(Arrays.asList(values)), StandardCharsets.UTF_8);
+  }
+}
@@ -16,15 +16,21 @@
 package io.confluent.ksql.serde.delimited;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.RecordFilter;
 import io.confluent.ksql.serde.SerdeTestUtils;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 import org.apache.kafka.common.errors.SerializationException;
@@ -77,6 +83,51 @@ public class KsqlDelimitedDeserializerTest {
     assertThat(genericRow.getColumns().get(3), equalTo(10.0));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    final String rowString = "1511897796092,not_a_number,item_1,10.0\r\n";
+
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        recordLogger,
+        ImmutableSet.of("ORDERTIME", "ITEMID"));
+
+    final GenericRow genericRow = deserializer.deserialize(
+        "",
+        rowString.getBytes(StandardCharsets.UTF_8));
+    assertThat(genericRow.getColumns(), equalTo(Arrays.asList(
+        1511897796092L, null, "item_1", null)));
+  }
+
+  @Test
+  public void shouldRejectRecordsThatDoNotMeetFilter() {
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        recordLogger,
+        ImmutableSet.of("ORDERTIME"),
+        RecordFilter.of(ImmutableMap.of("ORDERUNITS", value -> (Double) value > 20.0)));
+
+    final GenericRow genericRow = deserializer.deserialize(
+        "",
+        "1511897796092,1,item_1,10.0\r\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(genericRow, is(nullValue()));
+  }
+
+  @Test
+  public void shouldKeepRecordsThatMeetFilter() {
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        recordLogger,
+        ImmutableSet.of("ORDERTIME"),
+        RecordFilter.of(ImmutableMap.of("ITEMID", value -> value.equals("item_1"))));
+
+    final GenericRow genericRow = deserializer.deserialize(
+        "",
+        "1511897796092,1,item_1,10.0\r\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(genericRow.getColumns(), equalTo(Arrays.asList(
+        1511897796092L, null, "item_1", null)));
+  }
+
   @Test
   public void shouldLogErrors() {
     Throwable cause = null;
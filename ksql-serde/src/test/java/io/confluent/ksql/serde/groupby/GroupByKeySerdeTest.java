@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.groupby;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.Test;
+
+public class GroupByKeySerdeTest {
+
+  private final GroupByKeySerde serde = new GroupByKeySerde();
+
+  @Test
+  public void shouldRoundTripAllValueTypes() {
+    // Given:
+    final GroupByKey key = new GroupByKey(true, 10, 20L, 1.5, "Item_1", null, "");
+
+    // When:
+    final GroupByKey result = roundTrip(key);
+
+    // Then:
+    assertThat(result, is(key));
+    assertThat(result.getValues(), contains(true, 10, 20L, 1.5, "Item_1", null, ""));
+  }
+
+  @Test
+  public void shouldRoundTripMultiByteStrings() {
+    // Given:
+    final GroupByKey key = new GroupByKey("été", "日本");
+
+    // Then:
+    assertThat(roundTrip(key), is(key));
+  }
+
+  @Test
+  public void shouldRoundTripLongStrings() {
+    // Given:
+    final char[] chars = new char[1000];
+    Arrays.fill(chars, 'x');
+    final GroupByKey key = new GroupByKey(new String(chars), 1);
+
+    // Then:
+    assertThat(roundTrip(key), is(key));
+  }
+
+  @Test
+  public void shouldHoldOtherTypesInStringForm() {
+    // Given:
+    final GroupByKey key = new GroupByKey(Arrays.asList(1, 2), Collections.singletonMap("a", 1));
+
+    // When:
+    final GroupByKey result = roundTrip(key);
+
+    // Then:
+    assertThat(result.getValues(), contains("[1, 2]", "{a=1}"));
+    assertThat(result, is(key));
+  }
+
+  @Test
+  public void shouldKeepTypesDistinct() {
+    assertThat(serde.serializer().serialize("t", new GroupByKey(1)),
+        is(not(serde.serializer().serialize("t", new GroupByKey(1L)))));
+    assertThat(serde.serializer().serialize("t", new GroupByKey(1L)),
+        is(not(serde.serializer().serialize("t", new GroupByKey("1")))));
+  }
+
+  @Test
+  public void shouldBeSmallerThanStringFormForNumericKeys() {
+    // Given:
+    final GroupByKey key = new GroupByKey(1553010937000L, 12345678.125);
+
+    // When:
+    final byte[] bytes = serde.serializer().serialize("t", key);
+
+    // Then:
+    assertThat(bytes.length,
+        is(lessThan(key.toString().getBytes(StandardCharsets.UTF_8).length)));
+  }
+
+  @Test
+  public void shouldHandleNull() {
+    assertThat(serde.serializer().serialize("t", null), is(nullValue()));
+    assertThat(serde.deserializer().deserialize("t", null), is(nullValue()));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnUnknownType() {
+    serde.deserializer().deserialize("t", new byte[]{42});
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnTruncatedData() {
+    serde.deserializer().deserialize("t", new byte[]{GroupByKeySerializer.LONG, 1, 2});
+  }
+
+  private GroupByKey roundTrip(final GroupByKey key) {
+    return serde.deserializer().deserialize("t", serde.serializer().serialize("t", key));
+  }
+}
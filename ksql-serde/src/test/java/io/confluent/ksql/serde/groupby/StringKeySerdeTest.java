@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.groupby;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.apache.kafka.common.serialization.Serdes;
+import org.junit.Test;
+
+public class StringKeySerdeTest {
+
+  private final StringKeySerde serde = new StringKeySerde();
+
+  @Test
+  public void shouldWriteGroupByKeyAsLegacyStringKey() {
+    // Given:
+    final GroupByKey key = new GroupByKey("Item_1", 10L, null, 1.5);
+
+    // When:
+    final byte[] bytes = serde.serializer().serialize("t", key);
+
+    // Then:
+    assertThat(bytes,
+        is(Serdes.String().serializer().serialize("t", "Item_1|+|10|+|null|+|1.5")));
+  }
+
+  @Test
+  public void shouldWriteStringsAsStringSerdeDoes() {
+    assertThat(serde.serializer().serialize("t", "key"),
+        is(Serdes.String().serializer().serialize("t", "key")));
+  }
+
+  @Test
+  public void shouldReadKeysAsStrings() {
+    // Given:
+    final byte[] bytes = serde.serializer().serialize("t", new GroupByKey(1, true));
+
+    // Then:
+    assertThat(serde.deserializer().deserialize("t", bytes), is("1|+|true"));
+  }
+
+  @Test
+  public void shouldHandleNull() {
+    assertThat(serde.serializer().serialize("t", null), is(nullValue()));
+    assertThat(serde.deserializer().deserialize("t", null), is(nullValue()));
+  }
+}
@@ -23,9 +23,12 @@ import static org.junit.Assert.fail;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.RecordFilter;
 import io.confluent.ksql.serde.SerdeTestUtils;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
 import java.nio.charset.StandardCharsets;
@@ -95,6 +98,58 @@ public class KsqlJsonDeserializerTest {
     assertThat(genericRow.getColumns().get(3), equalTo(10.0));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() throws JsonProcessingException {
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("@orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+    orderRow.put("orderunits", 10.0);
+    orderRow.put("arraycol", new Double[]{10.0, 20.0});
+    orderRow.put("mapcol", Collections.singletonMap("key1", 10.0));
+
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        recordLogger,
+        ImmutableSet.of("ITEMID", "MAPCOL")
+    );
+
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(orderRow));
+    assertThat(genericRow.getColumns(), equalTo(Arrays.asList(
+        null, null, "Item_1", null, null, Collections.singletonMap("key1", 10.0))));
+  }
+
+  @Test
+  public void shouldRejectRecordsThatDoNotMeetFilter() throws JsonProcessingException {
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("@orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+    orderRow.put("orderunits", 10.0);
+    final byte[] record = objectMapper.writeValueAsBytes(orderRow);
+
+    final KsqlJsonDeserializer matching = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        recordLogger,
+        ImmutableSet.of("ORDERTIME"),
+        RecordFilter.of(ImmutableMap.of("ORDERUNITS", value -> value.equals(10.0)))
+    );
+    final KsqlJsonDeserializer nonMatching = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        recordLogger,
+        ImmutableSet.of("ORDERTIME"),
+        RecordFilter.of(ImmutableMap.of("ITEMID", value -> value.equals("Item_2")))
+    );
+
+    assertThat(matching.deserialize("", record).getColumns(), equalTo(Arrays.asList(
+        1511897796092L, null, null, null, null, null)));
+    assertThat(nonMatching.deserialize("", record), is(nullValue()));
+  }
+
   @Test
   public void shouldDeserializeJsonCorrectlyWithRedundantFields() throws JsonProcessingException {
     final Map<String, Object> orderRow = new HashMap<>();
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogConfig;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.RecordFilter;
+import io.confluent.ksql.serde.SerdeTestUtils;
+import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class KsqlJsonStreamingDeserializerTest {
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA)
+          .optional()
+          .build())
+      .build();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final ProcessingLogConfig processingLogConfig
+      = new ProcessingLogConfig(Collections.emptyMap());
+
+  @Mock
+  private ProcessingLogger recordLogger;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private KsqlJsonStreamingDeserializer deserializer;
+
+  @Before
+  public void before() {
+    deserializer = new KsqlJsonStreamingDeserializer(ORDER_SCHEMA, false, recordLogger);
+  }
+
+  @Test
+  public void shouldDeserializeJsonCorrectly() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("@orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+    orderRow.put("orderunits", 10.0);
+    orderRow.put("arraycol", new Double[]{10.0, 20.0});
+    orderRow.put("mapcol", Collections.singletonMap("key1", 10.0));
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow, is(new GenericRow(Arrays.asList(
+        1511897796092L,
+        1L,
+        "Item_1",
+        10.0,
+        Arrays.asList(10.0, 20.0),
+        Collections.singletonMap("key1", 10.0)))));
+  }
+
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() throws JsonProcessingException {
+    // Given:
+    deserializer = new KsqlJsonStreamingDeserializer(
+        ORDER_SCHEMA, false, recordLogger, ImmutableSet.of("ORDERID", "ORDERUNITS"));
+
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("@orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+    orderRow.put("orderunits", 10.0);
+    orderRow.put("arraycol", new Double[]{10.0, 20.0});
+    orderRow.put("mapcol", Collections.singletonMap("key1", 10.0));
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow, is(new GenericRow(Arrays.asList(
+        null, 1L, null, 10.0, null, null))));
+  }
+
+  @Test
+  public void shouldRejectRecordsThatDoNotMeetFilter() throws JsonProcessingException {
+    // Given:
+    deserializer = new KsqlJsonStreamingDeserializer(
+        ORDER_SCHEMA,
+        false,
+        recordLogger,
+        ImmutableSet.of("ORDERID"),
+        RecordFilter.of(ImmutableMap.of("ITEMID", value -> value.equals("Item_2"))));
+
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("@orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow, is(nullValue()));
+  }
+
+  @Test
+  public void shouldCheckFilterOnColumnsMissingFromRecord() throws JsonProcessingException {
+    // Given:
+    deserializer = new KsqlJsonStreamingDeserializer(
+        ORDER_SCHEMA,
+        false,
+        recordLogger,
+        ImmutableSet.of("ORDERID"),
+        RecordFilter.of(ImmutableMap.of("ORDERUNITS", value -> value != null)));
+
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("@orderid", 1L);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow, is(nullValue()));
+  }
+
+  @Test
+  public void shouldKeepRecordsThatMeetFilter() throws JsonProcessingException {
+    // Given:
+    deserializer = new KsqlJsonStreamingDeserializer(
+        ORDER_SCHEMA,
+        false,
+        recordLogger,
+        ImmutableSet.of("ORDERID"),
+        RecordFilter.of(ImmutableMap.of("ORDERUNITS", value -> value.equals(10.0))));
+
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("@orderid", 1L);
+    orderRow.put("orderunits", 10);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow, is(new GenericRow(Arrays.asList(
+        null, 1L, null, 10.0, null, null))));
+  }
+
+  @Test
+  public void shouldReturnSameRowAsNonStreamingDeserializer() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ORDERTIME", "1511897796092");
+    orderRow.put("orderId", 1);
+    orderRow.put("itemid", 6);
+    orderRow.put("orderunits", 10);
+    orderRow.put("arraycol", new Object[]{10, null, "20.5"});
+    orderRow.put("mapcol", Collections.singletonMap("key1", 10));
+    orderRow.put("unknown", Collections.singletonMap("nested", new int[]{1, 2}));
+    final byte[] bytes = objectMapper.writeValueAsBytes(orderRow);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow, is(
+        new KsqlJsonDeserializer(ORDER_SCHEMA, false, recordLogger).deserialize("", bytes)));
+  }
+
+  @Test
+  public void shouldSkipUnknownFields() {
+    // Given:
+    final byte[] bytes = ("{\"unknown\":{\"a\":[1,{\"b\":2}]},"
+        + "\"itemid\":\"Item_1\",\"other\":[{}],\"orderid\":5}")
+        .getBytes(StandardCharsets.UTF_8);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", bytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        is(Arrays.asList(null, 5L, "Item_1", null, null, null)));
+  }
+
+  @Test
+  public void shouldDeserializeEvenWithMissingFields() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("itemid", "Item_1");
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow.getColumns().size(), equalTo(6));
+    assertThat(genericRow.getColumns().get(0), equalTo(1511897796092L));
+    assertThat(genericRow.getColumns().get(1), is(nullValue()));
+    assertThat(genericRow.getColumns().get(2), equalTo("Item_1"));
+    assertThat(genericRow.getColumns().get(3), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReturnRowOfSchemaArity() {
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", "{\"orderid\":1}".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow.size(), equalTo(6));
+    genericRow.set(0, 2L);
+    assertThat(genericRow.get(0), equalTo(2L));
+  }
+
+  @Test
+  public void shouldTreatNullAsNull() {
+    assertThat(deserializer.deserialize("", null), is(nullValue()));
+    assertThat(deserializer.deserialize("", "null".getBytes(StandardCharsets.UTF_8)),
+        is(nullValue()));
+  }
+
+  @Test
+  public void shouldCreateJsonStringForStructIfDefinedAsVarchar() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    final KsqlJsonStreamingDeserializer deserializer =
+        new KsqlJsonStreamingDeserializer(schema, false, recordLogger);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", ("{\"itemid\":"
+        + "{\"CATEGORY\":{\"ID\":2,\"NAME\":\"Food\"},\"ITEMID\":6,\"NAME\":\"Item_6\"}}")
+        .getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow, equalTo(new GenericRow(Collections.singletonList(
+        "{\"CATEGORY\":{\"ID\":2,\"NAME\":\"Food\"},\"ITEMID\":6,\"NAME\":\"Item_6\"}"))));
+  }
+
+  @Test
+  public void shouldDeserializeStructsCaseInsensitively() throws JsonProcessingException {
+    // Given:
+    final Schema categorySchema = SchemaBuilder.struct()
+        .field("ID", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+    final Schema schema = SchemaBuilder.struct()
+        .field("CATEGORY", categorySchema)
+        .build();
+    final KsqlJsonStreamingDeserializer deserializer =
+        new KsqlJsonStreamingDeserializer(schema, false, recordLogger);
+
+    final Map<String, Object> category = new LinkedHashMap<>();
+    category.put("Id", 2);
+    category.put("name", "Food");
+    category.put("extra", true);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "", objectMapper.writeValueAsBytes(Collections.singletonMap("category", category)));
+
+    // Then:
+    assertThat(genericRow.getColumns().get(0), instanceOf(Struct.class));
+    assertThat(genericRow.getColumns().get(0), is(new Struct(categorySchema)
+        .put("ID", 2)
+        .put("NAME", "Food")));
+  }
+
+  @Test
+  public void shouldLogDeserializationErrors() {
+    // When:
+    Throwable cause = null;
+    final byte[] data = "{foo".getBytes(StandardCharsets.UTF_8);
+    try {
+      deserializer.deserialize("", data);
+      fail("deserialize should have thrown");
+    } catch (final SerializationException e) {
+      cause = e.getCause();
+    }
+
+    // Then:
+    SerdeTestUtils.shouldLogError(
+        recordLogger,
+        SerdeProcessingLogMessageFactory.deserializationErrorMsg(
+            cause,
+            Optional.ofNullable(data)).apply(processingLogConfig),
+        processingLogConfig);
+  }
+
+  @Test
+  public void shouldNameStreamingDeserializerInError() {
+    try {
+      // When:
+      deserializer.deserialize("t", "{foo".getBytes(StandardCharsets.UTF_8));
+      fail("deserialize should have thrown");
+    } catch (final SerializationException e) {
+      // Then:
+      assertThat(e.getMessage(), containsString("KsqlJsonStreamingDeserializer failed"));
+    }
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowIfFieldNameIsOnlyAt() {
+    deserializer.deserialize("", "{\"@\":1}".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnTypeMismatch() {
+    deserializer.deserialize("", "{\"arraycol\":{\"a\":1}}".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void shouldThrowIfIntValueOutOfRange() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("INTCOL", Schema.OPTIONAL_INT32_SCHEMA)
+        .build();
+    deserializer = new KsqlJsonStreamingDeserializer(schema, false, recordLogger);
+
+    try {
+      // When:
+      deserializer.deserialize("", "{\"intcol\":2147483648}".getBytes(StandardCharsets.UTF_8));
+      fail("deserialize should have thrown");
+    } catch (final SerializationException e) {
+      // Then:
+      assertThat(e.getCause().getMessage(), containsString("out of range of int"));
+    }
+  }
+}
@@ -18,7 +18,10 @@ package io.confluent.ksql.serde.util;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.util.KsqlException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Test;
 
 public class SerdeUtilsTest {
@@ -135,4 +138,27 @@ public class SerdeUtilsTest {
   public void shouldFailWhenConvertingIncompatibleDouble() {
     SerdeUtils.toDouble(true);
   }
+
+  @Test
+  public void shouldMatchRequiredColumnsWithoutAlias() {
+    final Schema schema = SchemaBuilder.struct()
+        .field("S.A", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("S.B", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("C", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    final boolean[] required = SerdeUtils.requiredFields(schema, ImmutableSet.of("B", "C"));
+
+    assertThat(required, equalTo(new boolean[]{false, true, true}));
+  }
+
+  @Test
+  public void shouldGetColumnNamesWithoutAlias() {
+    final Schema schema = SchemaBuilder.struct()
+        .field("S.A", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("B", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    assertThat(SerdeUtils.columnNames(schema), equalTo(ImmutableSet.of("A", "B")));
+  }
 }